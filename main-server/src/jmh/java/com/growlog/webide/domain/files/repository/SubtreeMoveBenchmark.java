@@ -0,0 +1,186 @@
+package com.growlog.webide.domain.files.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 하위 항목이 size 개인 폴더를 이동할 때의 DB 비용 비교 (H2 인메모리, file_meta 와 같은 컬럼/인덱스)
+ *
+ * rowByRow 는 기존 방식입니다. 하위 항목을 모두 읽고, Java 에서 경로를 바꾼 뒤 행마다 UPDATE 합니다.
+ * (hibernate.jdbc.batch_size 를 설정하지 않았으므로 saveAll 은 행마다 UPDATE 한 번)
+ * setBased 는 이동한 폴더 한 건 UPDATE 와 하위 항목 prefix 를 바꾸는 UPDATE 한 번입니다.
+ * 호출할 때마다 /src 와 /moved/src 사이를 번갈아 이동합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SubtreeMoveBenchmark {
+
+	private static final long PROJECT_ID = 1L;
+	private static final int FILES_PER_FOLDER = 500;
+
+	@Param({"50000"})
+	private int size;
+
+	private Connection connection;
+	private long rootId;
+	private long srcParentId;
+	private long movedParentId;
+	private boolean moved;
+
+	@Setup
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:subtree-move-" + System.nanoTime());
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE file_meta ("
+				+ "id BIGINT AUTO_INCREMENT PRIMARY KEY, project_id BIGINT NOT NULL, name VARCHAR(255) NOT NULL, "
+				+ "path VARCHAR(512) NOT NULL, parent_path VARCHAR(512), parent_id BIGINT, depth INT NOT NULL, "
+				+ "type VARCHAR(10) NOT NULL, deleted BOOLEAN DEFAULT FALSE, deleted_at TIMESTAMP, "
+				+ "CONSTRAINT uk_project_path_deleted UNIQUE (project_id, path, deleted_at))");
+			statement.execute("CREATE INDEX idx_file_meta_parent ON file_meta (project_id, parent_path)");
+			statement.execute("CREATE INDEX idx_file_meta_parent_id ON file_meta (parent_id)");
+		}
+		connection.setAutoCommit(false);
+
+		long root = insert("/", null, null, "folder");
+		srcParentId = root;
+		movedParentId = insert("/moved", "/", root, "folder");
+		rootId = insert("/src", "/", root, "folder");
+		insertSubtree("/src", rootId, size);
+		long sibling = insert("/src2", "/", root, "folder");
+		insertSubtree("/src2", sibling, FILES_PER_FOLDER); // 이름이 비슷한 형제 폴더 (이동 대상 아님)
+		connection.commit();
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		connection.close();
+	}
+
+	@Benchmark
+	public int rowByRow() throws SQLException {
+		String from = moved ? "/moved/src" : "/src";
+		String to = moved ? "/src" : "/moved/src";
+		List<Long> ids = new ArrayList<>();
+		List<String> paths = new ArrayList<>();
+		try (PreparedStatement select = connection.prepareStatement(
+			"SELECT id, path FROM file_meta WHERE project_id = ? AND (path = ? OR path LIKE ? ESCAPE '!')")) {
+			select.setLong(1, PROJECT_ID);
+			select.setString(2, from);
+			select.setString(3, FileMetaRepository.escapeLike(from) + "/%");
+			try (ResultSet resultSet = select.executeQuery()) {
+				while (resultSet.next()) {
+					ids.add(resultSet.getLong(1));
+					paths.add(resultSet.getString(2));
+				}
+			}
+		}
+		try (PreparedStatement update = connection.prepareStatement(
+			"UPDATE file_meta SET path = ?, name = ?, parent_path = ? WHERE id = ?")) {
+			for (int i = 0; i < ids.size(); i++) {
+				String newPath = to + paths.get(i).substring(from.length());
+				update.setString(1, newPath);
+				update.setString(2, newPath.substring(newPath.lastIndexOf('/') + 1));
+				update.setString(3, newPath.substring(0, newPath.lastIndexOf('/')));
+				update.setLong(4, ids.get(i));
+				update.executeUpdate();
+			}
+		}
+		connection.commit();
+		moved = !moved;
+		return ids.size();
+	}
+
+	@Benchmark
+	public int setBased() throws SQLException {
+		String from = moved ? "/moved/src" : "/src";
+		String to = moved ? "/src" : "/moved/src";
+		int depthDelta = moved ? -1 : 1;
+		try (PreparedStatement root = connection.prepareStatement(
+			"UPDATE file_meta SET path = ?, parent_path = ?, parent_id = ?, depth = depth + ? WHERE id = ?");
+			PreparedStatement descendants = connection.prepareStatement(
+				"UPDATE file_meta SET path = CONCAT(?, SUBSTRING(path, ?)), "
+					+ "parent_path = CONCAT(?, SUBSTRING(parent_path, ?)), depth = depth + ? "
+					+ "WHERE project_id = ? AND deleted = FALSE AND path LIKE ? ESCAPE '!'")) {
+			root.setString(1, to);
+			root.setString(2, to.substring(0, Math.max(to.lastIndexOf('/'), 1)));
+			root.setLong(3, moved ? srcParentId : movedParentId);
+			root.setInt(4, depthDelta);
+			root.setLong(5, rootId);
+			root.executeUpdate();
+
+			descendants.setString(1, to);
+			descendants.setInt(2, from.length() + 1);
+			descendants.setString(3, to);
+			descendants.setInt(4, from.length() + 1);
+			descendants.setInt(5, depthDelta);
+			descendants.setLong(6, PROJECT_ID);
+			descendants.setString(7, FileMetaRepository.escapeLike(from) + "/%");
+			int updated = descendants.executeUpdate();
+			connection.commit();
+			moved = !moved;
+			return updated + 1;
+		}
+	}
+
+	private void insertSubtree(String base, long baseId, int entries) throws SQLException {
+		int folders = (entries + FILES_PER_FOLDER) / (FILES_PER_FOLDER + 1); // 폴더 하나 + 파일 FILES_PER_FOLDER 개씩
+		int remaining = entries;
+		try (PreparedStatement file = connection.prepareStatement(
+			"INSERT INTO file_meta (project_id, name, path, parent_path, parent_id, depth, type) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, 'file')")) {
+			for (int folder = 0; folder < folders && remaining > 0; folder++) {
+				String folderPath = base + "/pkg" + folder;
+				long folderId = insert(folderPath, base, baseId, "folder");
+				remaining--;
+				for (int i = 0; i < FILES_PER_FOLDER && remaining > 0; i++, remaining--) {
+					String name = "File" + i + ".java";
+					file.setLong(1, PROJECT_ID);
+					file.setString(2, name);
+					file.setString(3, folderPath + "/" + name);
+					file.setString(4, folderPath);
+					file.setLong(5, folderId);
+					file.setInt(6, 3);
+					file.addBatch();
+				}
+				file.executeBatch();
+			}
+		}
+	}
+
+	private long insert(String path, String parentPath, Long parentId, String type) throws SQLException {
+		try (PreparedStatement insert = connection.prepareStatement(
+			"INSERT INTO file_meta (project_id, name, path, parent_path, parent_id, depth, type) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+			insert.setLong(1, PROJECT_ID);
+			insert.setString(2, path.substring(path.lastIndexOf('/') + 1));
+			insert.setString(3, path);
+			insert.setString(4, parentPath);
+			insert.setObject(5, parentId);
+			insert.setInt(6, "/".equals(path) ? 0 : (int)path.chars().filter(c -> c == '/').count());
+			insert.setString(7, type);
+			insert.executeUpdate();
+			try (ResultSet keys = insert.getGeneratedKeys()) {
+				keys.next();
+				return keys.getLong(1);
+			}
+		}
+	}
+}
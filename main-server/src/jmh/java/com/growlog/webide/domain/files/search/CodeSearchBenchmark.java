@@ -0,0 +1,141 @@
+package com.growlog.webide.domain.files.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 코드 검색 비용 비교 (files 개의 Java 소스, 파일당 약 150줄)
+ *
+ * indexed* 는 trigram 색인으로 후보를 고른 뒤 후보 파일만 읽고, bruteForce 는 모든 파일을 읽습니다. (기존에 색인 없이 하던 방식)
+ * 드문 식별자(rareLiteral)는 후보가 몇 개 안 되고, 흔한 단어(commonLiteral)는 대부분의 파일이 후보가 됩니다.
+ * buildIndex 는 프로젝트를 열 때 백그라운드에서 색인을 만드는 시간입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CodeSearchBenchmark {
+
+	private static final long PROJECT_ID = 1L;
+	private static final String[] WORDS = {"user", "project", "file", "session", "container", "tree", "meta",
+		"request", "response", "event", "message", "index", "path", "service", "repository", "config", "value",
+		"count", "status", "result", "order", "item", "cache", "token", "stream", "buffer", "node", "query"};
+
+	@Param({"10000"})
+	private int files;
+
+	private Path efsBase;
+	private CodeSearchIndexRegistry registry;
+	private CodeSearchService service;
+	private String rareIdentifier;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		efsBase = Files.createTempDirectory("code-search-bench");
+		Path root = efsBase.resolve(String.valueOf(PROJECT_ID));
+		Random random = new Random(42);
+		for (int i = 0; i < files; i++) {
+			Path file = root.resolve("src/main/java/com/example/module" + (i % 100) + "/Class" + i + ".java");
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, javaSource(i, random));
+		}
+		rareIdentifier = "computeModule" + (files / 2) + "Checksum";
+		registry = newRegistry();
+		service = new CodeSearchService(registry, null, null, Integer.MAX_VALUE, 20, 240, 60_000);
+		registry.index(PROJECT_ID);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		registry.shutdown();
+		try (Stream<Path> paths = Files.walk(efsBase)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public int indexedRareLiteral() {
+		return service.search(CodeSearchQuery.of(PROJECT_ID, rareIdentifier, false, true), result -> {
+		}).getMatches();
+	}
+
+	@Benchmark
+	public int bruteForceRareLiteral() {
+		CodeSearchQuery query = CodeSearchQuery.of(PROJECT_ID, rareIdentifier, false, true);
+		return service.search(new CodeSearchQuery(PROJECT_ID, query.query(), query.pattern(), List.of()), result -> {
+		}).getMatches();
+	}
+
+	@Benchmark
+	public int indexedRegex() {
+		return service.search(CodeSearchQuery.of(PROJECT_ID, "compute\\w+" + (files / 2) + "Checksum", true, true),
+			result -> {
+			}).getMatches();
+	}
+
+	@Benchmark
+	public int indexedCommonLiteral() {
+		return service.search(CodeSearchQuery.of(PROJECT_ID, "getStatus", false, false), result -> {
+		}).getMatches();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	public int buildIndex() {
+		CodeSearchIndexRegistry fresh = newRegistry();
+		try {
+			return fresh.index(PROJECT_ID).documentCount();
+		} finally {
+			fresh.shutdown();
+		}
+	}
+
+	private CodeSearchIndexRegistry newRegistry() {
+		return new CodeSearchIndexRegistry(new SimpleMeterRegistry(), efsBase.toString(), 50_000_000L, 1_048_576L,
+			new String[] {".git"}, 30, 2);
+	}
+
+	private static String javaSource(int number, Random random) {
+		StringBuilder source = new StringBuilder(8 * 1024);
+		source.append("package com.example.module").append(number % 100).append(";\n\n")
+			.append("import java.util.List;\nimport java.util.Map;\n\n")
+			.append("public class Class").append(number).append(" {\n");
+		for (int method = 0; method < 12; method++) {
+			String field = WORDS[random.nextInt(WORDS.length)] + WORDS[random.nextInt(WORDS.length)];
+			source.append("\tprivate final Map<String, Object> ").append(field).append(method).append(";\n\n")
+				.append("\tpublic List<String> get").append(Character.toUpperCase(field.charAt(0)))
+				.append(field.substring(1)).append("(String ").append(WORDS[random.nextInt(WORDS.length)])
+				.append(") {\n");
+			for (int line = 0; line < 8; line++) {
+				source.append("\t\tif (").append(field).append(method).append(".containsKey(\"")
+					.append(WORDS[random.nextInt(WORDS.length)]).append("\")) {\n")
+					.append("\t\t\treturn List.of(String.valueOf(").append(random.nextInt(100_000)).append("));\n")
+					.append("\t\t}\n");
+			}
+			source.append("\t\treturn List.of();\n\t}\n\n");
+		}
+		if (number % 500 == 0) {
+			source.append("\tint computeModule").append(number).append("Checksum() {\n\t\treturn 0;\n\t}\n");
+		}
+		source.append("}\n");
+		return source.toString();
+	}
+}
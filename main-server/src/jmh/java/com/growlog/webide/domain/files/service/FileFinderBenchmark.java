@@ -0,0 +1,83 @@
+package com.growlog.webide.domain.files.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 파일로 이동(quick open) 검색 비용 (files 개의 경로, 모두 같은 /src/main/java/... 아래)
+ *
+ * typing 은 "fileservice" 를 한 글자씩 입력할 때 글자마다 검색하는 비용의 합이고 (직전 후보 안에서만 다시 찾음),
+ * broadFirstKey 는 대부분의 이름이 후보가 되는 첫 글자, pathQuery 는 '/' 가 있어 경로 전체에서 찾는 경우입니다.
+ * build 는 트리가 바뀐 뒤 처음 검색할 때 검색용 배열을 다시 만드는 비용입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileFinderBenchmark {
+
+	private static final String[] WORDS = {"service", "controller", "repository", "dto", "entity", "util", "config",
+		"web", "domain", "files", "search", "tree"};
+	private static final String TYPED = "fileservice";
+
+	@Param({"100000"})
+	private int files;
+
+	private List<Long> ids;
+	private List<String> paths;
+	private FileFinder finder;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		ids = new ArrayList<>(files);
+		paths = new ArrayList<>(files);
+		for (int i = 0; i < files; i++) {
+			StringBuilder path = new StringBuilder("/src/main/java/com/growlog");
+			for (int depth = 0; depth < 3; depth++) {
+				path.append('/').append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			String word = WORDS[random.nextInt(WORDS.length)];
+			path.append('/').append(Character.toUpperCase(word.charAt(0))).append(word.substring(1))
+				.append(WORDS[random.nextInt(WORDS.length)]).append(i).append(".java");
+			ids.add((long)i);
+			paths.add(path.toString());
+		}
+		finder = new FileFinder(ids, paths);
+	}
+
+	@Benchmark
+	public int typing() {
+		int found = 0;
+		for (int length = 1; length <= TYPED.length(); length++) {
+			found += finder.find(TYPED.substring(0, length), 50).size();
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int broadFirstKey() {
+		finder.find("#", 1); // 직전 후보를 버리고 처음부터 검색
+		return finder.find("s", 50).size();
+	}
+
+	@Benchmark
+	public int pathQuery() {
+		return finder.find("web/dto", 50).size();
+	}
+
+	@Benchmark
+	public FileFinder build() {
+		return new FileFinder(ids, paths);
+	}
+}
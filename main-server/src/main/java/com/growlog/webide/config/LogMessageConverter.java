@@ -0,0 +1,135 @@
+package com.growlog.webide.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import com.growlog.webide.domain.terminal.dto.LogMessage;
+
+/**
+ * 로그 교환기 전용 바이너리 메시지 컨버터
+ *
+ * [version(1)][flags(1)][userId(8)][targetId 길이(2)][targetId(UTF-8)][content(UTF-8)] 형식으로 직렬화합니다.
+ * JSON 이스케이프와 중간 byte[] 없이 content 를 메시지 본문에 바로 UTF-8 로 씁니다.
+ * content-type 이 {@link #CONTENT_TYPE} 인 메시지만 이 형식이므로, JSON 을 보내는 이전 노드와 함께 동작할 수 있습니다.
+ * Worker 의 config.LogMessageConverter 와 형식이 같아야 합니다.
+ */
+public class LogMessageConverter implements MessageConverter {
+
+	public static final String CONTENT_TYPE = "application/vnd.growlog.log-message";
+
+	private static final byte VERSION = 1;
+	private static final int FLAG_STDERR = 1;
+	private static final int FLAG_NO_USER = 1 << 1;
+	private static final int HEADER_BYTES = 1 + 1 + Long.BYTES + Short.BYTES;
+	private static final int MAX_TARGET_ID_BYTES = 0xFFFF;
+
+	@Override
+	public Message toMessage(Object object, MessageProperties messageProperties) {
+		if (!(object instanceof LogMessage logMessage)) {
+			throw new MessageConversionException("LogMessageConverter only supports LogMessage, but got "
+				+ (object == null ? "null" : object.getClass().getName()));
+		}
+		String targetId = logMessage.getTargetId() == null ? "" : logMessage.getTargetId();
+		String content = logMessage.getContent() == null ? "" : logMessage.getContent();
+		int targetIdBytes = utf8Length(targetId);
+		if (targetIdBytes > MAX_TARGET_ID_BYTES) {
+			throw new MessageConversionException("targetId is too long: " + targetIdBytes + " bytes");
+		}
+
+		int flags = 0;
+		if ("stderr".equals(logMessage.getStreamType())) {
+			flags |= FLAG_STDERR;
+		}
+		if (logMessage.getUserId() == null) {
+			flags |= FLAG_NO_USER;
+		}
+
+		byte[] body = new byte[HEADER_BYTES + targetIdBytes + utf8Length(content)];
+		ByteBuffer buffer = ByteBuffer.wrap(body);
+		buffer.put(VERSION);
+		buffer.put((byte)flags);
+		buffer.putLong(logMessage.getUserId() == null ? 0L : logMessage.getUserId());
+		buffer.putShort((short)targetIdBytes);
+		putUtf8(targetId, buffer);
+		putUtf8(content, buffer);
+
+		messageProperties.setContentType(CONTENT_TYPE);
+		messageProperties.setContentLength(body.length);
+		return new Message(body, messageProperties);
+	}
+
+	@Override
+	public Object fromMessage(Message message) {
+		byte[] body = message.getBody();
+		if (body == null || body.length < HEADER_BYTES || body[0] != VERSION) {
+			throw new MessageConversionException("Unsupported log message format");
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(body, 1, body.length - 1);
+		int flags = buffer.get();
+		long userId = buffer.getLong();
+		int targetIdBytes = Short.toUnsignedInt(buffer.getShort());
+		if (HEADER_BYTES + targetIdBytes > body.length) {
+			throw new MessageConversionException("Truncated log message: " + body.length + " bytes");
+		}
+		String targetId = new String(body, HEADER_BYTES, targetIdBytes, StandardCharsets.UTF_8);
+		int contentOffset = HEADER_BYTES + targetIdBytes;
+		String content = new String(body, contentOffset, body.length - contentOffset, StandardCharsets.UTF_8);
+		return new LogMessage(targetId, (flags & FLAG_NO_USER) != 0 ? null : userId,
+			(flags & FLAG_STDERR) != 0 ? "stderr" : "stdout", content);
+	}
+
+	/**
+	 * {@link #putUtf8} 가 쓸 바이트 수. 짝이 없는 surrogate 는 String.getBytes 와 같이 '?' 한 바이트로 셉니다.
+	 */
+	static int utf8Length(String value) {
+		int length = value.length();
+		int bytes = length;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				continue;
+			}
+			if (c < 0x800) {
+				bytes += 1;
+			} else if (Character.isHighSurrogate(c) && i + 1 < length
+				&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				bytes += 2; // 두 char 가 4바이트가 됩니다.
+				i++;
+			} else if (!Character.isSurrogate(c)) {
+				bytes += 2;
+			}
+		}
+		return bytes;
+	}
+
+	static void putUtf8(String value, ByteBuffer out) {
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				out.put((byte)c);
+			} else if (c < 0x800) {
+				out.put((byte)(0xC0 | (c >> 6)));
+				out.put((byte)(0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length
+				&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				out.put((byte)(0xF0 | (codePoint >> 18)));
+				out.put((byte)(0x80 | ((codePoint >> 12) & 0x3F)));
+				out.put((byte)(0x80 | ((codePoint >> 6) & 0x3F)));
+				out.put((byte)(0x80 | (codePoint & 0x3F)));
+			} else if (Character.isSurrogate(c)) {
+				out.put((byte)'?');
+			} else {
+				out.put((byte)(0xE0 | (c >> 12)));
+				out.put((byte)(0x80 | ((c >> 6) & 0x3F)));
+				out.put((byte)(0x80 | (c & 0x3F)));
+			}
+		}
+	}
+}
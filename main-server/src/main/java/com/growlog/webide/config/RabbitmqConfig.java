@@ -9,6 +9,7 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -381,4 +382,24 @@ public class RabbitmqConfig {
 		factory.setMessageConverter(messageConverter);
 		return factory;
 	}
+
+	/**
+	 * [추가] 로그 수신 전용 리스너 팩토리
+	 * Worker 가 보낸 content-type 이 LogMessageConverter.CONTENT_TYPE 이면 바이너리로,
+	 * 그 외(application/json)는 기존 JSON 컨버터로 역직렬화하므로 이전 Worker 와 함께 동작합니다.
+	 */
+	@Bean
+	public SimpleRabbitListenerContainerFactory logListenerContainerFactory(
+		ConnectionFactory connectionFactory,
+		SimpleRabbitListenerContainerFactoryConfigurer configurer,
+		MessageConverter messageConverter) {
+
+		ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(messageConverter);
+		converter.addDelegate(LogMessageConverter.CONTENT_TYPE, new LogMessageConverter());
+
+		SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+		configurer.configure(factory, connectionFactory);
+		factory.setMessageConverter(converter);
+		return factory;
+	}
 }
@@ -0,0 +1,66 @@
+package com.growlog.webide.domain.files.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.growlog.webide.domain.files.search.CodeSearchQuery;
+import com.growlog.webide.domain.files.search.CodeSearchService;
+import com.growlog.webide.global.security.UserPrincipal;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class CodeSearchController {
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private final CodeSearchService codeSearchService;
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * [추가] 프로젝트 파일 내용 검색
+	 * 일치한 줄이 있는 파일마다 한 줄(JSON)씩 바로 보내고, 마지막 줄에 요약(type=summary)을 보냅니다. (NDJSON)
+	 */
+	@GetMapping(value = "/projects/{projectId}/search", produces = "application/x-ndjson")
+	public ResponseEntity<StreamingResponseBody> search(
+		@PathVariable Long projectId,
+		@RequestParam String query,
+		@RequestParam(defaultValue = "false") boolean regex,
+		@RequestParam(defaultValue = "false") boolean caseSensitive,
+		@AuthenticationPrincipal UserPrincipal userPrincipal
+	) {
+		CodeSearchQuery searchQuery = codeSearchService.prepare(projectId, userPrincipal.getUserId(), query, regex,
+			caseSensitive);
+
+		StreamingResponseBody body = out -> {
+			try {
+				Object summary = codeSearchService.search(searchQuery, result -> writeLine(out, result));
+				writeLine(out, summary);
+			} catch (UncheckedIOException e) {
+				throw e.getCause(); // 클라이언트가 연결을 끊음
+			}
+		};
+		return ResponseEntity.ok().contentType(NDJSON).body(body);
+	}
+
+	private void writeLine(OutputStream out, Object value) {
+		try {
+			out.write(objectMapper.writeValueAsBytes(value));
+			out.write('\n');
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -1,8 +1,15 @@
 package com.growlog.webide.domain.files.controller;
 
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,17 +20,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.growlog.webide.domain.files.dto.CreateFileRequest;
 import com.growlog.webide.domain.files.dto.FileOpenResponseDto;
+import com.growlog.webide.domain.files.dto.FilePatchRequestDto;
+import com.growlog.webide.domain.files.dto.FilePatchResponseDto;
+import com.growlog.webide.domain.files.dto.FileRawContent;
 import com.growlog.webide.domain.files.dto.FileResponse;
 import com.growlog.webide.domain.files.dto.FileSaveRequestDto;
+import com.growlog.webide.domain.files.dto.FileSearchResponseDto;
+import com.growlog.webide.domain.files.dto.FileTrashResponseDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchRequestDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchResponseDto;
+import com.growlog.webide.domain.files.service.FileBatchService;
+import com.growlog.webide.domain.files.service.FileContentVersions;
 import com.growlog.webide.domain.files.service.FileService;
+import com.growlog.webide.domain.files.service.TreeService;
 import com.growlog.webide.global.common.ApiResponse;
 import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
 import com.growlog.webide.global.security.UserPrincipal;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,7 +59,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class FileController {
 
+	// 브라우저가 캐시하되 쓸 때마다 ETag 로 다시 확인하도록 합니다.
+	private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
 	private final FileService fileService;
+	private final FileBatchService fileBatchService;
+	private final TreeService treeService;
 
 	@Operation(summary = "파일/폴더 생성", description = "새로운 파일이나 폴더를 생성합니다. 경로는 /를 붙여주어야 합니다.")
 	@PostMapping
@@ -55,7 +79,21 @@ public class FileController {
 		return ApiResponse.ok(new FileResponse("File/Folder created"));
 	}
 
-	@Operation(summary = "파일/폴더 삭제", description = "파일/폴더를 삭제합니다. 경로는 /를 붙여주어야 합니다.")
+	@Operation(summary = "파일/폴더 일괄 생성/삭제/이동",
+		description = "여러 작업을 순서대로 한 트랜잭션에서 처리하고 트리 이벤트는 tree:batch 하나로 보냅니다. "
+			+ "atomic 이 true 이면 하나라도 실패할 때 모두 되돌리고, false 이면 실패한 작업만 건너뜁니다.")
+	@PostMapping("/batch")
+	@PreAuthorize("@projectSecurityService.hasWritePermission(#projectId)")
+	public ApiResponse<FileBatchResponseDto> batchFiles(
+		@PathVariable Long projectId,
+		@RequestBody FileBatchRequestDto request,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		return ApiResponse.ok(fileBatchService.applyBatch(projectId, request, user.getUserId()));
+	}
+
+	@Operation(summary = "파일/폴더 삭제",
+		description = "파일/폴더를 휴지통으로 옮깁니다. 경로는 /를 붙여주어야 합니다. 보관 기간 동안은 되살릴 수 있습니다.")
 	@DeleteMapping
 	@PreAuthorize("@projectSecurityService.hasWritePermission(#projectId)")
 	public ApiResponse<FileResponse> deleteFile(
@@ -68,6 +106,28 @@ public class FileController {
 		return ApiResponse.ok(new FileResponse("File/Folder deleted"));
 	}
 
+	@Operation(summary = "휴지통 목록", description = "삭제한 파일/폴더 중 아직 되살릴 수 있는 항목을 최근에 삭제한 순으로 반환합니다.")
+	@GetMapping("/trash")
+	@PreAuthorize("@projectSecurityService.hasReadPermission(#projectId)")
+	public ApiResponse<List<FileTrashResponseDto>> findTrash(
+		@Parameter(description = "프로젝트 ID", example = "1") @PathVariable Long projectId,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		return ApiResponse.ok(fileService.findTrash(projectId, user.getUserId()));
+	}
+
+	@Operation(summary = "삭제 취소", description = "휴지통의 파일/폴더를 삭제 전 경로로 되살립니다. 그 경로에 새 항목이 있으면 실패합니다.")
+	@PostMapping("/trash/{trashId}/restore")
+	@PreAuthorize("@projectSecurityService.hasWritePermission(#projectId)")
+	public ApiResponse<FileResponse> restoreFile(
+		@Parameter(description = "프로젝트 ID", example = "1") @PathVariable Long projectId,
+		@Parameter(description = "휴지통 항목 ID", example = "1") @PathVariable Long trashId,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		fileService.restoreFromTrash(projectId, trashId, user.getUserId());
+		return ApiResponse.ok(new FileResponse("File/Folder restored"));
+	}
+
 	@Operation(summary = "파일/폴더 이름 변경 및 이동", description = "파일/폴더의 이름을 변경하거나 위치를 변경합니다. 경로는 /를 붙여주어야 합니다.")
 	@PatchMapping
 	@PreAuthorize("@projectSecurityService.hasWritePermission(#projectId)")
@@ -92,7 +152,8 @@ public class FileController {
 	 * @param user      인증된 사용자 정보
 	 * @return 파일 내용
 	 */
-	@Operation(summary = "파일열기", description = "프로젝트 내 파일을 열어 내용을 반환한다.(경로는 컨테이너 작업 디렉토리 기준)")
+	@Operation(summary = "파일열기", description = "프로젝트 내 파일을 열어 내용을 반환한다.(경로는 컨테이너 작업 디렉토리 기준) "
+		+ "응답의 ETag 를 If-None-Match 로 보내면 내용이 그대로일 때 본문 없이 304 를 반환한다.")
 	@GetMapping
 	@PreAuthorize("@projectSecurityService.hasReadPermission(#projectId)")
 	public ResponseEntity<ApiResponse<FileOpenResponseDto>> openFile(
@@ -101,10 +162,45 @@ public class FileController {
 		@Parameter(description = """
 			파일 경로는 컨테이너의 루트 작업 디렉토리(`/app`) 기준.
 			예: "/src/Main.java" → 실제 경로: "/app/src/Main.java"
-			""", example = "/src/Main.java") @RequestParam String path, @AuthenticationPrincipal UserPrincipal user) {
+			""", example = "/src/Main.java") @RequestParam String path,
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+		@AuthenticationPrincipal UserPrincipal user) {
+
+		// [개선] 내용 해시를 이미 알고 있고 클라이언트의 ETag 와 같으면 파일을 읽지 않고 304 를 보냅니다.
+		if (ifNoneMatch != null) {
+			String etag = fileService.findCachedETag(projectId, path, user.getUserId());
+			if (FileContentVersions.matches(ifNoneMatch, etag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+			}
+		}
 
 		FileOpenResponseDto response = fileService.openFile(projectId, path, user.getUserId());
-		return ResponseEntity.ok(ApiResponse.ok(response));
+		return ResponseEntity.ok().eTag(response.getEtag()).cacheControl(REVALIDATE).body(ApiResponse.ok(response));
+	}
+
+	/**
+	 * [추가] 파일 원본 읽기 (큰 로그 파일 보기, 이어서 받기)
+	 * Range 헤더(bytes=시작-끝)를 보내면 그 범위만 206 으로 보내고, If-None-Match 가 같으면 304 를 보냅니다.
+	 */
+	@Operation(summary = "파일 원본 읽기",
+		description = "파일 내용을 그대로 반환한다. Range 헤더로 일부만 받을 수 있고(206), ETag 가 같으면 304 를 반환한다.")
+	@GetMapping("/raw")
+	@PreAuthorize("@projectSecurityService.hasReadPermission(#projectId)")
+	public ResponseEntity<Resource> openRawFile(
+		@Parameter(description = "프로젝트 ID", example = "1") @PathVariable Long projectId,
+		@Parameter(description = "파일 경로", example = "/logs/app.log") @RequestParam String path,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		FileRawContent raw = fileService.openRawFile(projectId, path, user.getUserId());
+		MediaType contentType = MediaTypeFactory.getMediaType(raw.getPath().getFileName().toString())
+			.orElse(MediaType.APPLICATION_OCTET_STREAM);
+		// Resource 본문은 Spring 이 Range 요청을 206(부분 응답)으로, If-None-Match 를 304 로 처리합니다.
+		return ResponseEntity.ok()
+			.eTag(raw.getEtag())
+			.cacheControl(REVALIDATE)
+			.contentType(contentType)
+			.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+			.body(new FileSystemResource(raw.getPath()));
 	}
 
 	/**
@@ -140,8 +236,9 @@ public class FileController {
 		@RequestBody FileSaveRequestDto requestDto,
 		@AuthenticationPrincipal UserPrincipal user) {
 		try {
-			fileService.saveFileToStorage(projectId, requestDto.getPath(), requestDto.getContent(), user.getUserId());
-			return ResponseEntity.ok(ApiResponse.ok(Map.of("message", "File saved")));
+			String etag = fileService.saveFileToStorage(projectId, requestDto.getPath(), requestDto.getContent(),
+				user.getUserId());
+			return ResponseEntity.ok().eTag(etag).body(ApiResponse.ok(Map.of("message", "File saved", "etag", etag)));
 		} catch (CustomException e) {
 			HttpStatus status = switch (e.getErrorCode()) {
 				case NO_WRITE_PERMISSION, NOT_A_MEMBER -> HttpStatus.FORBIDDEN;
@@ -153,16 +250,63 @@ public class FileController {
 
 	}
 
-	/*
-	@Operation(summary = "파일/폴더 이름 검색", description = "프로젝트 내 파일 또는 폴더의 이름을 기준으로 검색합니다.")
+	/**
+	 * [추가] 변경분 저장 API (자동 저장용)
+	 * 전체 내용 대신 기준 버전(ETag)과 편집 목록만 보냅니다. 파일이 그 사이에 바뀌었으면 409 와 현재 ETag 를 돌려줍니다.
+	 */
+	@Operation(summary = "파일 변경분 저장",
+		description = "파일을 열거나 저장할 때 받은 ETag(baseVersion)와 그 내용 기준의 편집 목록을 보내면 서버에서 적용해 저장한다. "
+			+ "파일이 그 사이에 바뀌었으면 409 를 반환한다.")
+	@PatchMapping("/content")
+	@PreAuthorize("@projectSecurityService.hasWritePermission(#projectId)")
+	public ResponseEntity<ApiResponse<FilePatchResponseDto>> patchFile(
+		@Parameter(description = "프로젝트 ID", example = "1") @PathVariable Long projectId,
+		@RequestBody FilePatchRequestDto request,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		try {
+			FilePatchResponseDto response = fileService.patchFile(projectId, request, user.getUserId());
+			return ResponseEntity.ok().eTag(response.getEtag()).body(ApiResponse.ok(response));
+		} catch (CustomException e) {
+			if (e.getErrorCode() != ErrorCode.FILE_VERSION_CONFLICT) {
+				throw e;
+			}
+			String etag = fileService.findCachedETag(projectId, request.getPath(), user.getUserId());
+			ResponseEntity.BodyBuilder conflict = ResponseEntity.status(HttpStatus.CONFLICT);
+			if (etag != null) {
+				conflict.eTag(etag);
+			}
+			return conflict.body(ApiResponse.error(e.getErrorCode()));
+		}
+	}
+
+	/**
+	 * [추가] 파일 닫기 API
+	 * 자동 저장 내용은 서버 메모리에 모았다가 EFS 에 쓰므로, 에디터 탭을 닫을 때 호출하면 바로 씁니다.
+	 */
+	@Operation(summary = "파일 닫기", description = "아직 EFS 에 쓰지 않은 자동 저장 내용을 바로 쓴다.")
+	@PostMapping("/close")
+	@PreAuthorize("@projectSecurityService.hasReadPermission(#projectId)")
+	public ApiResponse<FileResponse> closeFile(
+		@Parameter(description = "프로젝트 ID", example = "1") @PathVariable Long projectId,
+		@Parameter(description = "파일 경로", example = "/src/Main.java") @RequestParam String path,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		fileService.closeFile(projectId, path, user.getUserId());
+		return ApiResponse.ok(new FileResponse("File closed"));
+	}
+
+	@Operation(summary = "파일로 이동 검색",
+		description = "파일 경로를 fuzzy 매칭(IDE 의 quick open)으로 검색하고 점수가 높은 순으로 반환합니다.")
 	@GetMapping("/search")
 	@PreAuthorize("@projectSecurityService.hasReadPermission(#projectId)")
 	public ApiResponse<List<FileSearchResponseDto>> searchFiles(
 		@Parameter(description = "프로젝트 ID", example = "1") @PathVariable Long projectId,
-		@Parameter(description = "검색 키워드", example = "code") @RequestParam String query
+		@Parameter(description = "검색어 (글자가 순서대로 포함된 경로를 찾습니다.)", example = "flsvc")
+		@RequestParam String query,
+		@Parameter(description = "최대 결과 수", example = "50") @RequestParam(required = false) Integer limit
 	) {
-		List<FileSearchResponseDto> results = fileService.searchFilesByName(projectId, query);
-		return ApiResponse.ok(results);
-	}*/
+		return ApiResponse.ok(treeService.findFiles(projectId, query, limit));
+	}
 
 }
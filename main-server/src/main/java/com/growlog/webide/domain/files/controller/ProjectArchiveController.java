@@ -0,0 +1,69 @@
+package com.growlog.webide.domain.files.controller;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.growlog.webide.domain.files.dto.archive.ProjectArchiveImportResponseDto;
+import com.growlog.webide.domain.files.service.ProjectArchiveService;
+import com.growlog.webide.global.common.ApiResponse;
+import com.growlog.webide.global.security.UserPrincipal;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@Tag(name = "file-system", description = "파일 시스템 관련 API 입니다.")
+@RestController
+@RequiredArgsConstructor
+public class ProjectArchiveController {
+	private static final String ZIP = "application/zip";
+
+	private final ProjectArchiveService projectArchiveService;
+
+	/**
+	 * [추가] 프로젝트 전체를 zip 으로 내려받습니다. EFS 에서 읽는 대로 압축해서 바로 보냅니다.
+	 */
+	@Operation(summary = "프로젝트 zip 내보내기", description = "프로젝트 폴더 전체를 zip 으로 내려받습니다.")
+	@GetMapping(value = "/projects/{projectId}/archive", produces = ZIP)
+	@PreAuthorize("@projectSecurityService.hasReadPermission(#projectId)")
+	public ResponseEntity<StreamingResponseBody> exportArchive(
+		@PathVariable Long projectId,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		String filename = projectArchiveService.prepareExport(projectId, user.getUserId());
+		StreamingResponseBody body = out -> projectArchiveService.export(projectId, out);
+		return ResponseEntity.ok()
+			.header(HttpHeaders.CONTENT_DISPOSITION,
+				ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString())
+			.header(HttpHeaders.CONTENT_TYPE, ZIP)
+			.body(body);
+	}
+
+	/**
+	 * [추가] 요청 본문(zip)을 읽는 대로 프로젝트 폴더에 풀어 넣습니다.
+	 * multipart 는 서버가 업로드 전체를 임시 파일로 받은 뒤에 넘겨주므로 본문을 그대로 받습니다.
+	 */
+	@Operation(summary = "프로젝트 zip 가져오기",
+		description = "zip 파일을 본문(Content-Type: application/zip)으로 보내면 프로젝트에 풀어 넣습니다. "
+			+ "같은 경로의 파일은 덮어쓰고, 처리한 항목 수와 처리량을 돌려줍니다.")
+	@PostMapping(value = "/projects/{projectId}/archive", consumes = ZIP)
+	@PreAuthorize("@projectSecurityService.hasWritePermission(#projectId)")
+	public ApiResponse<ProjectArchiveImportResponseDto> importArchive(
+		@PathVariable Long projectId,
+		InputStream body,
+		@AuthenticationPrincipal UserPrincipal user
+	) {
+		return ApiResponse.ok(projectArchiveService.importArchive(projectId, body, user.getUserId()));
+	}
+}
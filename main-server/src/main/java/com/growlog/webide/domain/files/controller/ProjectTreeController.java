@@ -6,14 +6,17 @@ import java.util.List;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.growlog.webide.domain.files.dto.tree.TreeChildrenResponseDto;
 import com.growlog.webide.domain.files.dto.tree.TreeNodeDto;
 import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
 import com.growlog.webide.domain.files.service.TreeService;
 import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
 import com.growlog.webide.domain.projects.entity.Project;
 import com.growlog.webide.domain.projects.repository.ProjectRepository;
+import com.growlog.webide.global.common.ApiResponse;
 import com.growlog.webide.global.common.exception.CustomException;
 import com.growlog.webide.global.common.exception.ErrorCode;
 import com.growlog.webide.global.security.UserPrincipal;
@@ -48,4 +51,23 @@ public class ProjectTreeController {
 		// TreeService의 기존 메서드를 재활용하여 최신 트리 구조를 반환
 		return new WebSocketMessage("tree:init", payload);
 	}
+
+	/**
+	 * [추가] 폴더 하나의 직속 자식 목록을 페이지 단위로 반환합니다. (폴더를 펼칠 때 호출)
+	 */
+	@GetMapping("/projects/{projectId}/tree/children")
+	public ApiResponse<TreeChildrenResponseDto> getChildren(
+		@PathVariable Long projectId,
+		@RequestParam(defaultValue = "/") String path,
+		@RequestParam(required = false) String cursor,
+		@RequestParam(required = false) Integer size,
+		@AuthenticationPrincipal UserPrincipal userPrincipal
+	) {
+		Project project = projectRepository.findById(projectId)
+			.orElseThrow(() -> new CustomException(ErrorCode.PROJECT_NOT_FOUND));
+
+		permissionService.checkReadAccess(project, userPrincipal.getUserId()); // 읽기 권한 확인
+
+		return ApiResponse.ok(treeService.getChildren(projectId, path, cursor, size));
+	}
 }
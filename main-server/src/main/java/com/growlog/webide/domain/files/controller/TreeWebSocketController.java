@@ -1,17 +1,16 @@
 package com.growlog.webide.domain.files.controller;
 
-import java.util.Collections;
-import java.util.List;
-
 import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Controller;
 
-import com.growlog.webide.domain.files.dto.tree.TreeNodeDto;
+import com.growlog.webide.domain.files.dto.tree.TreeInitRequest;
 import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
 import com.growlog.webide.domain.files.service.TreeService;
 
@@ -29,6 +28,7 @@ public class TreeWebSocketController {
 	@MessageMapping("/projects/{projectId}/tree/init")
 	public void sendInitialTree(
 		@DestinationVariable Long projectId,
+		@Payload(required = false) TreeInitRequest request,
 		Message<?> message
 	) {
 		var accessor = SimpMessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
@@ -44,14 +44,28 @@ public class TreeWebSocketController {
 		log.info("[WS] 트리 요청 userId={}, projectId={}", userId, projectId);
 
 		// 🌳 트리 구성
-		TreeNodeDto rootNode = treeService.getInitialTree(projectId);
-		List<TreeNodeDto> payload = Collections.singletonList(rootNode);
-
-		WebSocketMessage msg = new WebSocketMessage("tree:init", payload);
-		messagingTemplate.convertAndSend(
-			"/topic/projects/" + projectId + "/tree",
-			msg
+		// [개선] 마지막으로 받은 버전을 보내면 그 이후의 변경(tree:delta)만, 아니면 전체 트리(tree:init)를 보냅니다.
+		//       요청한 클라이언트의 버전 기준 응답이므로 공유 topic 이 아니라 요청한 세션에만 보냅니다.
+		//       (/user/queue/projects/{projectId}/tree 구독, 이후 변경은 계속 /topic/projects/{projectId}/tree)
+		Long sinceVersion = request == null ? null : request.getSinceVersion();
+		WebSocketMessage msg = treeService.getTreeSince(projectId, sinceVersion);
+		String sessionId = accessor.getSessionId();
+		messagingTemplate.convertAndSendToUser(
+			sessionId,
+			"/queue/projects/" + projectId + "/tree",
+			msg,
+			sessionHeaders(sessionId).getMessageHeaders()
 		);
 	}
 
+	/**
+	 * 사용자 이름 대신 세션 ID 로 user destination 을 찾도록 해서 같은 사용자의 다른 탭에는 보내지 않습니다.
+	 */
+	private static SimpMessageHeaderAccessor sessionHeaders(String sessionId) {
+		SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		headers.setSessionId(sessionId);
+		headers.setLeaveMutable(true);
+		return headers;
+	}
+
 }
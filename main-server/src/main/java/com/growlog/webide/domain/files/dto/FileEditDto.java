@@ -0,0 +1,18 @@
+package com.growlog.webide.domain.files.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * [추가] 텍스트 편집 하나. 기준 버전 내용의 [start, end) 범위를 text 로 바꿉니다.
+ * 위치는 에디터의 문자열 인덱스(UTF-16 코드 단위)입니다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileEditDto {
+	private int start;
+	private int end;
+	private String text;
+}
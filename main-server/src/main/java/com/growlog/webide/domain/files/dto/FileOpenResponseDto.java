@@ -16,10 +16,13 @@ public class FileOpenResponseDto {
 	private String content;
 	private String language;
 	private boolean editable;
+	// [추가] 내용 버전 (ETag 헤더와 같은 값). 다시 열 때 If-None-Match 로 보내면 바뀌지 않았을 때 304 를 받습니다.
+	private String etag;
 
-	public static FileOpenResponseDto of(Long projectId, String filePath, String content, boolean editable) {
+	public static FileOpenResponseDto of(Long projectId, String filePath, String content, boolean editable,
+		String etag) {
 		String fileName = Paths.get(filePath).getFileName().toString();
 		String language = LanguageUtils.detect(fileName); // 확장자 기반 언어 추론
-		return new FileOpenResponseDto(projectId, filePath, fileName, content, language, editable);
+		return new FileOpenResponseDto(projectId, filePath, fileName, content, language, editable, etag);
 	}
 }
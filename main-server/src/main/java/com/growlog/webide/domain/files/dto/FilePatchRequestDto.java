@@ -0,0 +1,20 @@
+package com.growlog.webide.domain.files.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * [추가] 변경분 저장 요청
+ * baseVersion 은 파일을 열거나 저장할 때 받은 ETag 이고, edits 는 그 버전 내용 기준의 편집 목록입니다. (겹치지 않아야 함)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilePatchRequestDto {
+	private String path;
+	private String baseVersion;
+	private List<FileEditDto> edits;
+}
@@ -0,0 +1,14 @@
+package com.growlog.webide.domain.files.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * [추가] 저장한 뒤의 새 버전(ETag)과 파일 크기. 다음 변경분 저장의 baseVersion 으로 씁니다.
+ */
+@Getter
+@AllArgsConstructor
+public class FilePatchResponseDto {
+	private String etag;
+	private long size;
+}
@@ -0,0 +1,17 @@
+package com.growlog.webide.domain.files.dto;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * [추가] 원본 읽기(Range 지원) 대상 파일. 내용은 응답을 쓸 때 필요한 범위만 읽습니다.
+ */
+@Getter
+@AllArgsConstructor
+public class FileRawContent {
+	private Path path;
+	private String etag;
+	private long size;
+}
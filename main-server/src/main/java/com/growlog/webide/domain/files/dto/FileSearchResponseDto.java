@@ -1,10 +1,11 @@
 package com.growlog.webide.domain.files.dto;
 
-import com.growlog.webide.domain.files.entity.FileMeta;
-
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+/**
+ * [개선] 파일로 이동(quick open) 검색 결과, 점수가 높은 순으로 반환됩니다.
+ */
 @Getter
 @AllArgsConstructor
 public class FileSearchResponseDto {
@@ -12,13 +13,7 @@ public class FileSearchResponseDto {
 	private String name;
 	private String type;
 	private String path;
-
-	public static FileSearchResponseDto from(FileMeta meta) {
-		return new FileSearchResponseDto(
-			meta.getId(),
-			meta.getName(),
-			meta.getType(),
-			meta.getPath()
-		);
-	}
+	private int score;
+	// path 에서 검색어 글자가 일치한 위치 (강조 표시용)
+	private int[] matchedIndices;
 }
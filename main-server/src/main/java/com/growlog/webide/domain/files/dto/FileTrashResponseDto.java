@@ -0,0 +1,26 @@
+package com.growlog.webide.domain.files.dto;
+
+import java.time.LocalDateTime;
+
+import com.growlog.webide.domain.files.entity.FileTrash;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * [추가] 휴지통 항목. 보관 기간이 지나기 전까지 id 로 되살릴 수 있습니다.
+ */
+@Getter
+@AllArgsConstructor
+public class FileTrashResponseDto {
+	private Long id;
+	private String path;
+	private String type;
+	private Long deletedBy;
+	private LocalDateTime deletedAt;
+
+	public static FileTrashResponseDto from(FileTrash trash) {
+		return new FileTrashResponseDto(trash.getId(), trash.getPath(), trash.getType(), trash.getDeletedBy(),
+			trash.getDeletedAt());
+	}
+}
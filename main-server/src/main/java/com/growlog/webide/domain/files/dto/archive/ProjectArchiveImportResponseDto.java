@@ -0,0 +1,19 @@
+package com.growlog.webide.domain.files.dto.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 프로젝트 압축 파일 가져오기 결과
+ * files/folders 는 새로 만든 항목 수, overwrittenFiles 는 내용을 덮어쓴 기존 파일 수입니다.
+ */
+@Getter
+@AllArgsConstructor
+public class ProjectArchiveImportResponseDto {
+	private int files;
+	private int folders;
+	private int overwrittenFiles;
+	private long bytes;
+	private long elapsedMillis;
+	private double megabytesPerSecond;
+}
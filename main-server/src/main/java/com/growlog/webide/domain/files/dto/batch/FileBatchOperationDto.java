@@ -0,0 +1,21 @@
+package com.growlog.webide.domain.files.dto.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 일괄 처리할 작업 하나
+ * op 가 create 이면 path, type(file/folder), delete 이면 path, move 이면 path(원본)와 toPath 를 사용합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileBatchOperationDto {
+	private String op;
+	private String path;
+	private String type;
+	private String toPath;
+}
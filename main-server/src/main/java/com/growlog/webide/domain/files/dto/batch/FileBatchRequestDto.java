@@ -0,0 +1,21 @@
+package com.growlog.webide.domain.files.dto.batch;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * [추가] 파일/폴더 생성, 삭제, 이동 일괄 요청 (작업은 순서대로 반영됩니다.)
+ * atomic 이면 하나라도 실패할 때 모두 되돌리고, 아니면 실패한 작업만 건너뜁니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileBatchRequestDto {
+	private boolean atomic;
+	private List<FileBatchOperationDto> operations;
+}
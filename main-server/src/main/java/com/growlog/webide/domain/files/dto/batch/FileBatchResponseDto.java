@@ -0,0 +1,14 @@
+package com.growlog.webide.domain.files.dto.batch;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FileBatchResponseDto {
+	// false 이면 atomic 요청에서 실패한 작업이 있어 아무것도 반영되지 않음
+	private boolean committed;
+	private List<FileBatchResultDto> results;
+}
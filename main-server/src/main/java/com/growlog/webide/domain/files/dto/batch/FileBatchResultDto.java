@@ -0,0 +1,18 @@
+package com.growlog.webide.domain.files.dto.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 작업 하나의 결과
+ * status 는 ok, failed(errorCode 참고), skipped(atomic 요청에서 앞의 작업이 실패), rolledBack(atomic 요청이라 되돌림)
+ */
+@Getter
+@AllArgsConstructor
+public class FileBatchResultDto {
+	private int index;
+	private String op;
+	private String path;
+	private String status;
+	private String errorCode;
+}
@@ -0,0 +1,20 @@
+package com.growlog.webide.domain.files.dto.search;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * 검색 결과 스트림의 한 줄: 파일 하나에서 일치한 줄 목록
+ */
+@Getter
+public class CodeSearchFileResultDto {
+	private final String type = "file";
+	private final String path;
+	private final List<CodeSearchMatchDto> matches;
+
+	public CodeSearchFileResultDto(String path, List<CodeSearchMatchDto> matches) {
+		this.path = path;
+		this.matches = matches;
+	}
+}
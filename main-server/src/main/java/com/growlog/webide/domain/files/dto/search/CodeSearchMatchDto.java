@@ -0,0 +1,21 @@
+package com.growlog.webide.domain.files.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 일치한 줄 하나
+ * text 는 줄의 내용(길면 일치한 부분 주변만)이고, start/end 는 text 안에서 일치한 범위입니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodeSearchMatchDto {
+	private int line;
+	private String text;
+	private int start;
+	private int end;
+}
@@ -0,0 +1,25 @@
+package com.growlog.webide.domain.files.dto.search;
+
+import lombok.Getter;
+
+/**
+ * 검색 결과 스트림의 마지막 줄
+ * truncated 는 결과 수 제한에, timedOut 은 시간 제한에 걸려서 중간에 멈췄는지 여부입니다.
+ */
+@Getter
+public class CodeSearchSummaryDto {
+	private final String type = "summary";
+	private final int files;
+	private final int matches;
+	private final int candidates;
+	private final boolean truncated;
+	private final boolean timedOut;
+
+	public CodeSearchSummaryDto(int files, int matches, int candidates, boolean truncated, boolean timedOut) {
+		this.files = files;
+		this.matches = matches;
+		this.candidates = candidates;
+		this.truncated = truncated;
+		this.timedOut = timedOut;
+	}
+}
@@ -0,0 +1,20 @@
+package com.growlog.webide.domain.files.dto.tree;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 여러 트리 변경을 한 번에 보내는 이벤트 (tree:batch)
+ * events 는 tree:add, tree:remove, tree:move 메시지이며 순서대로 반영합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreeBatchEventDto {
+	private List<WebSocketMessage> events;
+}
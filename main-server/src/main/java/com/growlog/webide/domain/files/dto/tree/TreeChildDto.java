@@ -0,0 +1,18 @@
+package com.growlog.webide.domain.files.dto.tree;
+
+import com.growlog.webide.domain.files.entity.FileMeta;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TreeChildDto {
+	private String path;
+	private String name;
+	private String type;
+
+	public static TreeChildDto from(FileMeta meta) {
+		return new TreeChildDto(meta.getPath(), meta.getName(), meta.getType());
+	}
+}
@@ -0,0 +1,18 @@
+package com.growlog.webide.domain.files.dto.tree;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 폴더 하나의 직속 자식 목록 한 페이지
+ * nextCursor 를 다음 요청의 cursor 로 보내면 이어서 조회합니다. (마지막 페이지면 null)
+ */
+@Getter
+@AllArgsConstructor
+public class TreeChildrenResponseDto {
+	private String path;
+	private List<TreeChildDto> children;
+	private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.growlog.webide.domain.files.dto.tree;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 트리 변경 이력 한 건
+ * type/payload 는 tree:add, tree:remove, tree:move, tree:batch 이벤트와 같으며, version 은 이 변경이 반영된 후의 트리 버전입니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreeDeltaDto {
+	private long version;
+	private String type;
+	private Object payload;
+}
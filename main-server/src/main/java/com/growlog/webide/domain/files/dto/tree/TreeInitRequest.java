@@ -0,0 +1,14 @@
+package com.growlog.webide.domain.files.dto.tree;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreeInitRequest {
+	private Long sinceVersion; // 클라이언트가 마지막으로 받은 트리 버전 (없으면 전체 트리)
+}
@@ -1,5 +1,7 @@
 package com.growlog.webide.domain.files.dto.tree;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,4 +14,11 @@ import lombok.Setter;
 public class WebSocketMessage {
 	private String type;
 	private Object payload;
+	// [추가] 이 메시지가 반영된 후의 트리 버전 (트리 인덱스가 없으면 생략)
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long version;
+
+	public WebSocketMessage(String type, Object payload) {
+		this(type, payload, null);
+	}
 }
@@ -4,11 +4,13 @@ import java.time.LocalDateTime;
 
 import com.growlog.webide.domain.projects.entity.Project;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -20,6 +22,9 @@ import lombok.NoArgsConstructor;
 @Entity
 @Table(name = "file_meta", uniqueConstraints = {
 	@UniqueConstraint(columnNames = {"project_id", "path", "deleted_at"})
+}, indexes = {
+	@Index(name = "idx_file_meta_parent", columnList = "project_id, parent_path"),
+	@Index(name = "idx_file_meta_parent_id", columnList = "parent_id")
 })
 @Getter
 @NoArgsConstructor
@@ -33,6 +38,15 @@ public class FileMeta {
 	private Project project;
 	private String name;
 	private String path; // /src/main/File.java
+	// [추가] 부모 폴더 경로 (/src/main). 폴더 하나의 직속 자식만 조회할 때 사용하며, 루트('/')는 null
+	@Column(name = "parent_path")
+	private String parentPath;
+	// [추가] 부모 폴더. 폴더를 이동해도 하위 항목의 부모는 바뀌지 않으므로 이동한 폴더 한 건만 갱신합니다.
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "parent_id")
+	private FileMeta parent;
+	// [추가] 루트('/')로부터의 깊이 (루트 0, /src 1, /src/Main.java 2)
+	private int depth;
 	private String type; // file | folder
 
 	// 추후 정렬, 필터 등에 유용
@@ -47,6 +61,8 @@ public class FileMeta {
 		this.project = project;
 		this.name = name;
 		this.path = path;
+		this.parentPath = parentPathOf(path);
+		this.depth = depthOf(path);
 		this.type = type;
 		this.deleted = deleted;
 		this.deletedAt = deletedAt;
@@ -68,6 +84,33 @@ public class FileMeta {
 
 	public void updatePath(String newPath) {
 		this.path = newPath;
+		this.parentPath = parentPathOf(newPath);
+		this.depth = depthOf(newPath);
 		this.name = newPath.substring(newPath.lastIndexOf('/') + 1);
 	}
+
+	public void attachTo(FileMeta parent) {
+		this.parent = parent;
+	}
+
+	public static int depthOf(String path) {
+		if (path == null || "/".equals(path)) {
+			return 0;
+		}
+		int depth = 0;
+		for (int i = 0; i < path.length(); i++) {
+			if (path.charAt(i) == '/') {
+				depth++;
+			}
+		}
+		return depth;
+	}
+
+	public static String parentPathOf(String path) {
+		if (path == null || "/".equals(path)) {
+			return null;
+		}
+		int lastSlash = path.lastIndexOf('/');
+		return lastSlash <= 0 ? "/" : path.substring(0, lastSlash);
+	}
 }
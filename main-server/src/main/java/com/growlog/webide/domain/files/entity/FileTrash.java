@@ -0,0 +1,59 @@
+package com.growlog.webide.domain.files.entity;
+
+import java.time.LocalDateTime;
+
+import com.growlog.webide.domain.projects.entity.Project;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * [추가] 삭제한 파일/폴더 한 건. 실제 내용은 {efs.base-path}/.trash/{projectId}/{storageName} 으로 옮겨 두었다가
+ * 보관 기간이 지나면 지웁니다. deletedAt 은 같이 삭제 처리한 file_meta 의 deleted_at 과 같습니다. (되살리기)
+ */
+@Entity
+@Table(name = "file_trash", indexes = {
+	@Index(name = "idx_file_trash_project", columnList = "project_id, deleted_at"),
+	@Index(name = "idx_file_trash_deleted_at", columnList = "deleted_at")
+})
+@Getter
+@NoArgsConstructor
+public class FileTrash {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "project_id", nullable = false)
+	private Project project;
+	private String path; // 삭제 전 경로 (/src/main)
+	private String type; // file | folder
+	@Column(name = "storage_name")
+	private String storageName;
+	@Column(name = "deleted_by")
+	private Long deletedBy;
+	@Column(name = "deleted_at")
+	private LocalDateTime deletedAt;
+
+	@Builder
+	public FileTrash(Project project, String path, String type, String storageName, Long deletedBy,
+		LocalDateTime deletedAt) {
+		this.project = project;
+		this.path = path;
+		this.type = type;
+		this.storageName = storageName;
+		this.deletedBy = deletedBy;
+		this.deletedAt = deletedAt;
+	}
+}
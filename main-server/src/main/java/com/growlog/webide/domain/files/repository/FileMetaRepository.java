@@ -1,25 +1,122 @@
 package com.growlog.webide.domain.files.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.growlog.webide.domain.files.entity.FileMeta;
 
 public interface FileMetaRepository extends JpaRepository<FileMeta, Long> {
 	Optional<FileMeta> findByProjectIdAndPath(Long projectId, String path);
 
-	List<FileMeta> findByProjectIdAndNameContainingIgnoreCaseAndDeletedFalse(Long projectId, String name);
-
 	List<FileMeta> findAllByProjectIdAndDeletedFalse(Long projectId);
 
-	// 특정 경로로 시작하는 모든 파일/폴더 메타데이터를 조회하는 메서드
-	List<FileMeta> findByProjectIdAndPathStartingWith(Long projectId, String path);
+	/**
+	 * [추가] 폴더 하위의 모든 항목 경로를 한 번의 UPDATE 로 바꿉니다. (이동한 폴더 자신은 제외)
+	 * descendantPattern 은 escapeLike(fromPath) + "/%" 이어야 하며, 이름이 비슷한 형제(/src2)는 포함되지 않습니다.
+	 * 하위 항목의 parent_id 는 그대로 유효하므로 경로/부모 경로/깊이만 바꿉니다.
+	 * fromLength 는 DB 의 SUBSTRING 과 같은 글자(code point) 단위인 pathLength(fromPath) 여야 합니다.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE FileMeta f SET "
+		+ "f.path = CONCAT(:toPath, SUBSTRING(f.path, :fromLength + 1)), "
+		+ "f.parentPath = CONCAT(:toPath, SUBSTRING(f.parentPath, :fromLength + 1)), "
+		+ "f.depth = f.depth + :depthDelta "
+		+ "WHERE f.project.id = :projectId AND f.deleted = false AND f.path LIKE :descendantPattern ESCAPE '!'")
+	int moveDescendants(
+		@Param("projectId") Long projectId,
+		@Param("descendantPattern") String descendantPattern,
+		@Param("toPath") String toPath,
+		@Param("fromLength") int fromLength,
+		@Param("depthDelta") int depthDelta
+	);
+
+	/**
+	 * [추가] 여러 항목을 한 번의 UPDATE 로 삭제 처리합니다. (컨테이너 안에서 지워진 파일 반영)
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE FileMeta f SET f.deleted = true, f.deletedAt = :deletedAt WHERE f.id IN :ids AND f.deleted = false")
+	int markDeletedByIds(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+	/**
+	 * [추가] 항목과 그 하위 항목을 한 번의 UPDATE 로 삭제 처리합니다. descendantPattern 은 escapeLike(path) + "/%"
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE FileMeta f SET f.deleted = true, f.deletedAt = :deletedAt WHERE f.project.id = :projectId "
+		+ "AND f.deleted = false AND (f.path = :path OR f.path LIKE :descendantPattern ESCAPE '!')")
+	int markSubtreeDeleted(
+		@Param("projectId") Long projectId,
+		@Param("path") String path,
+		@Param("descendantPattern") String descendantPattern,
+		@Param("deletedAt") LocalDateTime deletedAt
+	);
+
+	/**
+	 * [추가] 휴지통에서 되살린 항목과 그 하위 항목을 한 번의 UPDATE 로 되돌립니다.
+	 * 같이 삭제한 항목만 되돌리도록 삭제할 때의 deletedAt 이 같은 항목만 바꿉니다. (먼저 지운 하위 항목은 그대로)
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE FileMeta f SET f.deleted = false, f.deletedAt = null WHERE f.project.id = :projectId "
+		+ "AND f.deleted = true AND f.deletedAt = :deletedAt "
+		+ "AND (f.path = :path OR f.path LIKE :descendantPattern ESCAPE '!')")
+	int restoreSubtree(
+		@Param("projectId") Long projectId,
+		@Param("path") String path,
+		@Param("descendantPattern") String descendantPattern,
+		@Param("deletedAt") LocalDateTime deletedAt
+	);
+
+	// [추가] 항목과 그 하위 항목을 부모가 먼저 오도록 깊이 순으로 조회 (되살린 폴더의 트리 이벤트)
+	@Query("SELECT f FROM FileMeta f WHERE f.project.id = :projectId AND f.deleted = false "
+		+ "AND (f.path = :path OR f.path LIKE :descendantPattern ESCAPE '!') ORDER BY f.depth ASC, f.path ASC")
+	List<FileMeta> findSubtree(
+		@Param("projectId") Long projectId,
+		@Param("path") String path,
+		@Param("descendantPattern") String descendantPattern
+	);
+
+	/**
+	 * LIKE 패턴에서 문자 그대로 비교하도록 '!', '%', '_' 를 escape 합니다. (ESCAPE '!')
+	 */
+	static String escapeLike(String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
+	/**
+	 * DB 의 SUBSTRING/CHAR_LENGTH 와 같은 글자(code point) 단위 길이 (String.length() 는 UTF-16 단위라 이모지 등에서 다름)
+	 */
+	static int pathLength(String path) {
+		return path.codePointCount(0, path.length());
+	}
 
 	// 삭제되지 않은 데이터 중에서 경로로 조회 (생성 시 중복 체크용)
 	Optional<FileMeta> findByProjectIdAndPathAndDeletedFalse(Long projectId, String path);
 
 	//여러 경로를 한 번에 조회하기 위한 메서드
 	List<FileMeta> findByProjectIdAndPathInAndDeletedFalse(Long projectId, List<String> paths);
+
+	long countByProjectIdAndDeletedFalse(Long projectId);
+
+	// [추가] 한 폴더의 직속 자식 전체 조회 (idx_file_meta_parent 사용)
+	List<FileMeta> findByProjectIdAndParentPathAndDeletedFalse(Long projectId, String parentPath);
+
+	// [추가] 한 폴더의 직속 자식만 (이름, ID) 순으로 cursor 이후부터 조회 (idx_file_meta_parent 사용)
+	@Query("SELECT f FROM FileMeta f WHERE f.project.id = :projectId AND f.parentPath = :parentPath "
+		+ "AND f.deleted = false "
+		+ "AND (f.name > :cursorName OR (f.name = :cursorName AND f.id > :cursorId)) "
+		+ "ORDER BY f.name ASC, f.id ASC")
+	List<FileMeta> findChildrenAfter(
+		@Param("projectId") Long projectId,
+		@Param("parentPath") String parentPath,
+		@Param("cursorName") String cursorName,
+		@Param("cursorId") Long cursorId,
+		Pageable pageable
+	);
 }
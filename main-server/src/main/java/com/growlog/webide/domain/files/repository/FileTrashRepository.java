@@ -0,0 +1,19 @@
+package com.growlog.webide.domain.files.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.growlog.webide.domain.files.entity.FileTrash;
+
+public interface FileTrashRepository extends JpaRepository<FileTrash, Long> {
+	List<FileTrash> findByProjectIdOrderByDeletedAtDesc(Long projectId);
+
+	Optional<FileTrash> findByIdAndProjectId(Long id, Long projectId);
+
+	// [추가] 보관 기간이 지난 항목을 오래된 것부터 조회 (idx_file_trash_deleted_at 사용)
+	List<FileTrash> findByDeletedAtBeforeOrderByDeletedAtAsc(LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,459 @@
+package com.growlog.webide.domain.files.search;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.domain.files.service.FileWriteBackBuffer;
+import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 프로젝트별 코드 검색 색인(TrigramIndex) 보관소
+ *
+ * 프로젝트를 열 때 백그라운드에서 EFS 의 파일을 읽어 색인을 만들고, 이후에는 FileService 와 컨테이너 파일 감시의
+ * 저장/생성/삭제/이동/내용 변경으로 갱신합니다. 변경은 프로젝트마다 들어온 순서대로 반영하고,
+ * 색인을 만드는 중에 들어온 변경은 모아 두었다가 색인이 끝난 뒤에 같은 순서로 반영합니다.
+ * 색인은 노드마다 따로 있으므로, 변경한 경로를 Redis pub/sub 으로 다른 노드에 알리고 받은 노드는 그 경로를
+ * EFS 에서 다시 읽습니다. (pub/sub 메시지는 순서 없이 처리될 수 있으므로 변경 내용 대신 경로만 보냅니다.)
+ * [개선] 파일은 FileWriteBackBuffer 에 아직 쓰지 않은 저장 내용이 있으면 그 내용을, 없으면 EFS 를 읽습니다.
+ * 한동안 검색하지 않은 프로젝트의 색인은 버리고, 다음 검색 때 다시 만듭니다.
+ */
+@Slf4j
+@Component
+public class CodeSearchIndexRegistry implements MessageListener {
+
+	private static final int BINARY_SNIFF_BYTES = 8000;
+	private static final String REFRESH = "refresh";
+	private static final String RESET = "reset";
+
+	private final String efsBasePath;
+	private final long maxPostings;
+	private final long maxFileBytes;
+	private final long idleEvictMillis;
+	private final Set<String> excludedDirectories;
+	private final Map<Long, ProjectIndex> indexes = new ConcurrentHashMap<>();
+	private final ExecutorService executor;
+	private final String channel;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final StringRedisTemplate stringRedisTemplate;
+	private final FileWriteBackBuffer fileWriteBackBuffer;
+
+	public CodeSearchIndexRegistry(MeterRegistry meterRegistry,
+		StringRedisTemplate stringRedisTemplate,
+		RedisMessageListenerContainer redisMessageListenerContainer,
+		FileWriteBackBuffer fileWriteBackBuffer,
+		@Value("${efs.base-path}") String efsBasePath,
+		@Value("${code-search.index.max-postings-per-project:8000000}") long maxPostings,
+		@Value("${code-search.index.max-file-bytes:1048576}") long maxFileBytes,
+		@Value("${code-search.index.excluded-directories:.git,node_modules}") String[] excludedDirectories,
+		@Value("${code-search.index.idle-evict-minutes:30}") long idleEvictMinutes,
+		@Value("${code-search.index.threads:2}") int threads,
+		@Value("${code-search.index.change-channel:code-search-index:changed}") String channel) {
+		this.efsBasePath = efsBasePath;
+		this.maxPostings = maxPostings;
+		this.maxFileBytes = maxFileBytes;
+		this.excludedDirectories = Set.of(excludedDirectories);
+		this.idleEvictMillis = TimeUnit.MINUTES.toMillis(idleEvictMinutes);
+		this.executor = Executors.newFixedThreadPool(threads,
+			Thread.ofPlatform().name("code-search-index-", 0).daemon().factory());
+		this.channel = channel;
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.fileWriteBackBuffer = fileWriteBackBuffer;
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+		Gauge.builder("code.search.index.projects", indexes, Map::size)
+			.description("Projects whose code search index is in memory")
+			.register(meterRegistry);
+		Gauge.builder("code.search.index.postings", this, CodeSearchIndexRegistry::totalPostings)
+			.description("Trigram postings held by all code search indexes")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 색인이 없으면 백그라운드에서 만들기 시작합니다. (프로젝트를 열 때)
+	 */
+	public void open(Long projectId) {
+		load(projectId);
+	}
+
+	/**
+	 * 색인을 반환합니다. 아직 만드는 중이면 끝날 때까지 기다립니다.
+	 */
+	TrigramIndex index(Long projectId) {
+		try {
+			return load(projectId).future.join();
+		} catch (CompletionException e) {
+			log.error("Failed to build code search index. projectId={}", projectId, e.getCause());
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+		}
+	}
+
+	public void updateFile(Long projectId, String path, String content) {
+		if (isExcluded(path)) {
+			return;
+		}
+		whenLoaded(projectId, index -> {
+			if (content.length() > maxFileBytes) {
+				index.putUnindexed(path);
+			} else {
+				index.put(path, content);
+			}
+		});
+		publish(REFRESH, projectId, path);
+	}
+
+	/**
+	 * EFS 에서 파일을 읽어서 색인합니다. (컨테이너 안에서 만들어진 파일)
+	 */
+	public void indexFromDisk(Long projectId, String path) {
+		if (isExcluded(path)) {
+			return;
+		}
+		whenLoaded(projectId, index -> {
+			try {
+				indexFile(index, path, projectRoot(projectId).resolve(path.substring(1)));
+			} catch (IOException e) {
+				log.debug("Skipping unreadable file for code search. projectId={}, path={}", projectId, path);
+			}
+		});
+		publish(REFRESH, projectId, path);
+	}
+
+	/**
+	 * 파일 또는 폴더(하위 포함)를 색인에서 지웁니다.
+	 */
+	public void remove(Long projectId, String path) {
+		whenLoaded(projectId, index -> index.removeTree(path));
+		publish(REFRESH, projectId, path);
+	}
+
+	public void move(Long projectId, String fromPath, String toPath) {
+		whenLoaded(projectId, index -> index.move(fromPath, toPath));
+		publish(REFRESH, projectId, fromPath);
+		publish(REFRESH, projectId, toPath);
+	}
+
+	/**
+	 * [추가] 색인을 버리고, 메모리에 있던 프로젝트면 EFS 에서 다시 만듭니다. (압축 파일 가져오기처럼 한꺼번에 많이 바뀔 때)
+	 */
+	public void invalidate(Long projectId) {
+		rebuild(projectId);
+		publish(RESET, projectId, "/");
+	}
+
+	/**
+	 * 다른 노드가 보낸 변경 메시지 ("노드ID|refresh 또는 reset|프로젝트ID|경로")
+	 * refresh 는 경로(하위 포함)를 색인에서 지우고 EFS 에 지금 있는 파일로 다시 색인합니다.
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+		if (parts.length != 4 || nodeId.equals(parts[0])) {
+			return;
+		}
+		Long projectId;
+		try {
+			projectId = Long.valueOf(parts[2]);
+		} catch (NumberFormatException e) {
+			return;
+		}
+		if (RESET.equals(parts[1])) {
+			rebuild(projectId);
+		} else if (!isExcluded(parts[3])) {
+			String path = parts[3];
+			whenLoaded(projectId, index -> refresh(index, projectId, path));
+		}
+	}
+
+	@Scheduled(fixedRate = 5 * 60 * 1000)
+	public void evictIdleIndexes() {
+		long now = System.currentTimeMillis();
+		indexes.entrySet().removeIf(entry -> {
+			TrigramIndex index = entry.getValue().loadedIndex();
+			boolean idle = index != null && now - index.lastAccessMillis() > idleEvictMillis;
+			if (idle) {
+				log.debug("Evicting idle code search index for project {}", entry.getKey());
+			}
+			return idle;
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	Path projectRoot(Long projectId) {
+		return Paths.get(efsBasePath, String.valueOf(projectId));
+	}
+
+	long maxFileBytes() {
+		return maxFileBytes;
+	}
+
+	/**
+	 * [추가] 파일을 읽습니다. 이 노드에 아직 EFS 에 쓰지 않은 저장 내용이 있으면 그 내용을 읽습니다.
+	 */
+	InputStream openFile(Path file) throws IOException {
+		byte[] buffered = fileWriteBackBuffer.pendingContent(file);
+		return buffered == null ? Files.newInputStream(file) : new ByteArrayInputStream(buffered);
+	}
+
+	/**
+	 * 파일 내용을 UTF-8 로 읽습니다. 바이너리면 null 을 반환합니다. (크기는 호출한 쪽에서 확인)
+	 */
+	private String readText(Path file) throws IOException {
+		byte[] bytes;
+		try (InputStream in = openFile(file)) {
+			bytes = in.readAllBytes();
+		}
+		for (int i = 0; i < Math.min(bytes.length, BINARY_SNIFF_BYTES); i++) {
+			if (bytes[i] == 0) {
+				return null;
+			}
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 파일 앞부분에 NUL 이 있으면 바이너리로 봅니다.
+	 */
+	private boolean isBinary(Path file) throws IOException {
+		try (InputStream in = openFile(file)) {
+			byte[] head = in.readNBytes(BINARY_SNIFF_BYTES);
+			for (byte b : head) {
+				if (b == 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private ProjectIndex load(Long projectId) {
+		ProjectIndex created = new ProjectIndex();
+		ProjectIndex existing = indexes.putIfAbsent(projectId, created);
+		if (existing != null) {
+			return existing;
+		}
+		executor.execute(() -> {
+			try {
+				created.loaded(build(projectId));
+			} catch (RuntimeException | Error e) {
+				// 실패한 색인은 버려서 다음 요청 때 다시 만듭니다.
+				indexes.remove(projectId, created);
+				created.failed(e);
+			}
+		});
+		return created;
+	}
+
+	/**
+	 * 색인을 버리고, 메모리에 있던 프로젝트면 다시 만듭니다.
+	 */
+	private void rebuild(Long projectId) {
+		if (indexes.remove(projectId) != null) {
+			open(projectId);
+		}
+	}
+
+	/**
+	 * 색인이 메모리에 있으면 들어온 순서대로 반영합니다. (만드는 중이면 끝난 뒤에 반영)
+	 */
+	private void whenLoaded(Long projectId, Consumer<TrigramIndex> action) {
+		ProjectIndex projectIndex = indexes.get(projectId);
+		if (projectIndex != null) {
+			projectIndex.update(action);
+		}
+	}
+
+	private void publish(String type, Long projectId, String path) {
+		try {
+			stringRedisTemplate.convertAndSend(channel, nodeId + "|" + type + "|" + projectId + "|" + path);
+		} catch (RuntimeException e) {
+			// 알리지 못해도 다른 노드의 색인은 idle-evict 뒤에 다시 만들어지므로 저장은 실패시키지 않습니다.
+			log.warn("Failed to publish code search index change. projectId={}, path={}", projectId, path, e);
+		}
+	}
+
+	/**
+	 * path(하위 포함)를 색인에서 지우고, EFS 에 지금 있는 파일로 다시 색인합니다.
+	 */
+	private void refresh(TrigramIndex index, Long projectId, String path) {
+		index.removeTree(path);
+		Path root = projectRoot(projectId);
+		Path target = "/".equals(path) ? root : root.resolve(path.substring(1));
+		try {
+			if (Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+				indexTree(index, root, target);
+			} else {
+				indexFile(index, path, target);
+			}
+		} catch (IOException e) {
+			log.debug("Skipping unreadable path for code search. projectId={}, path={}", projectId, path);
+		}
+	}
+
+	private TrigramIndex build(Long projectId) {
+		long startedAt = System.nanoTime();
+		TrigramIndex index = new TrigramIndex(maxPostings);
+		Path root = projectRoot(projectId);
+		if (!Files.isDirectory(root)) {
+			return index;
+		}
+		try {
+			indexTree(index, root, root);
+		} catch (IOException e) {
+			throw new CompletionException(e);
+		}
+		log.info("Built code search index for project {}: {} files, {} postings in {} ms", projectId,
+			index.documentCount(), index.postingCount(), (System.nanoTime() - startedAt) / 1_000_000);
+		return index;
+	}
+
+	/**
+	 * start 폴더 밑의 파일을 모두 색인합니다. (제외 폴더는 건너뜀)
+	 */
+	private void indexTree(TrigramIndex index, Path root, Path start) throws IOException {
+		Files.walkFileTree(start, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				boolean excluded = !dir.equals(root) && excludedDirectories.contains(dir.getFileName().toString());
+				return excluded ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (attrs.isRegularFile()) {
+					String path = "/" + root.relativize(file).toString().replace('\\', '/');
+					indexFile(index, path, file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				return FileVisitResult.CONTINUE; // 색인하는 동안 지워진 파일
+			}
+		});
+	}
+
+	private void indexFile(TrigramIndex index, String path, Path file) throws IOException {
+		byte[] buffered = fileWriteBackBuffer.pendingContent(file);
+		if (buffered == null && !Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+			return;
+		}
+		long size = buffered == null ? Files.size(file) : buffered.length;
+		if (size > maxFileBytes) {
+			if (!isBinary(file)) {
+				index.putUnindexed(path);
+			}
+			return;
+		}
+		String content = readText(file);
+		if (content != null) {
+			index.put(path, content);
+		}
+	}
+
+	private boolean isExcluded(String path) {
+		for (String segment : path.split("/")) {
+			if (excludedDirectories.contains(segment)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private double totalPostings() {
+		long total = 0;
+		for (ProjectIndex projectIndex : indexes.values()) {
+			TrigramIndex index = projectIndex.loadedIndex();
+			if (index != null) {
+				total += index.postingCount();
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * 한 프로젝트의 색인과 색인을 만드는 동안 들어온 변경
+	 *
+	 * 변경은 이 객체의 lock 안에서 반영하므로 들어온 순서대로 적용됩니다.
+	 * 색인이 끝나면 모아 둔 변경을 먼저 반영한 뒤에 검색(future)에 내보냅니다.
+	 */
+	private static final class ProjectIndex {
+		private final CompletableFuture<TrigramIndex> future = new CompletableFuture<>();
+		private final List<Consumer<TrigramIndex>> pending = new ArrayList<>();
+		private volatile TrigramIndex index;
+
+		private synchronized void update(Consumer<TrigramIndex> action) {
+			if (index != null) {
+				apply(action, index);
+			} else if (!future.isDone()) {
+				pending.add(action);
+			}
+		}
+
+		private synchronized void loaded(TrigramIndex built) {
+			pending.forEach(action -> apply(action, built));
+			pending.clear();
+			index = built;
+			future.complete(built);
+		}
+
+		private synchronized void failed(Throwable error) {
+			pending.clear();
+			future.completeExceptionally(error);
+		}
+
+		/**
+		 * 다 만든 색인을 반환합니다. 만드는 중이거나 실패했으면 null 을 반환합니다.
+		 */
+		private TrigramIndex loadedIndex() {
+			return index;
+		}
+
+		private static void apply(Consumer<TrigramIndex> action, TrigramIndex index) {
+			try {
+				action.accept(index);
+			} catch (RuntimeException e) {
+				log.warn("Failed to update code search index", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package com.growlog.webide.domain.files.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
+
+/**
+ * 검증된 코드 검색 요청
+ * @param pattern  파일의 각 줄에 적용할 패턴 (literal 검색도 quote 한 패턴)
+ * @param literals 일치하는 줄이 반드시 포함하는 문자열 (trigram 후보 필터용, 비어 있으면 모든 파일 검사)
+ */
+public record CodeSearchQuery(Long projectId, String query, Pattern pattern, List<String> literals) {
+
+	private static final int MAX_QUERY_LENGTH = 256;
+	// 한 글자에 대응하는 문자 클래스(\d \w \s \h \v \R), 경계(\b \A \z \G), 제어 문자(\t \n)
+	private static final String SIMPLE_ESCAPES = "dDwWsShHvVRbBAzZGtnrfae";
+	private static final String INLINE_FLAGS = "idmsuxU-";
+	private static final String UNSUPPORTED_FLAGS = "xuU";
+
+	public static CodeSearchQuery of(Long projectId, String query, boolean regex, boolean caseSensitive) {
+		if (query == null || query.isEmpty() || query.length() > MAX_QUERY_LENGTH) {
+			throw new CustomException(ErrorCode.BAD_REQUEST);
+		}
+		int flags = caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+		try {
+			Pattern pattern = Pattern.compile(regex ? query : Pattern.quote(query), flags);
+			List<String> literals = regex ? requiredLiterals(query) : List.of(query);
+			if (!caseSensitive) {
+				// 색인은 ASCII 만 대소문자를 접으므로, 다른 글자의 대소문자가 다른 줄을 놓치지 않도록 뺍니다.
+				literals = literals.stream().filter(literal -> literal.chars().allMatch(ch -> ch < 128)).toList();
+			}
+			return new CodeSearchQuery(projectId, query, pattern, literals);
+		} catch (PatternSyntaxException e) {
+			throw new CustomException(ErrorCode.BAD_REQUEST);
+		}
+	}
+
+	/**
+	 * 정규식에서 모든 일치 결과가 반드시 포함하는 문자열 조각을 보수적으로 뽑습니다.
+	 * 최상위에 '|' 가 있거나 해석하지 않는 구문이 있으면 빈 목록(모든 파일 검사)을 반환하고, 확실한 조각만 반환합니다.
+	 */
+	static List<String> requiredLiterals(String regex) {
+		if (!isSimple(regex)) {
+			return List.of();
+		}
+		List<String> literals = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		int depth = 0;
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (depth > 0) {
+				// 그룹 안은 선택/반복될 수 있으므로 건너뜁니다.
+				if (c == '\\') {
+					i++;
+				} else if (c == '[') {
+					i = skipCharClass(regex, i);
+				} else if (c == '(') {
+					depth++;
+				} else if (c == ')') {
+					depth--;
+				}
+				continue;
+			}
+			switch (c) {
+				case '\\' -> {
+					char next = i + 1 < regex.length() ? regex.charAt(i + 1) : 0;
+					i++;
+					if (next != 0 && !Character.isLetterOrDigit(next)) {
+						current.append(next); // \. \( 처럼 escape 한 기호
+					} else {
+						flush(current, literals); // \d \w \b 등 (isSimple 에서 허용한 것만)
+					}
+				}
+				case '*', '?' -> {
+					dropLast(current); // 앞 글자가 없어도 됨
+					flush(current, literals);
+				}
+				case '{' -> {
+					dropLast(current);
+					flush(current, literals);
+					int end = regex.indexOf('}', i);
+					i = end < 0 ? i : end;
+				}
+				case '[' -> {
+					flush(current, literals);
+					i = skipCharClass(regex, i);
+				}
+				case '(' -> {
+					flush(current, literals);
+					depth++;
+				}
+				case '.', '^', '$', '+', ')' -> flush(current, literals);
+				default -> current.append(c);
+			}
+		}
+		flush(current, literals);
+		return literals;
+	}
+
+	/**
+	 * 최상위 '|' 와 아래 구문이 없으면 true 를 반환합니다.
+	 * - 한 글자 문자 클래스/경계/제어 문자가 아닌 escape: \x41 \u0041 \0101 \k<name> \1 \p{L} \Q...\E 등
+	 * - 공백과 # 주석을 무시하거나(x) 유니코드 대소문자를 접는(u, U) inline flag: (?x) (?iu:...) 등
+	 * - 중첩된 문자 클래스: [a[b]] [a&&[^b]] 등
+	 */
+	private static boolean isSimple(String regex) {
+		int depth = 0;
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				if (i + 1 >= regex.length() || !isSimpleEscape(regex.charAt(i + 1))) {
+					return false;
+				}
+				i++;
+			} else if (c == '[') {
+				i = skipCharClass(regex, i);
+				if (i < 0) {
+					return false;
+				}
+			} else if (c == '(') {
+				if (hasUnsupportedFlags(regex, i)) {
+					return false;
+				}
+				depth++;
+			} else if (c == ')') {
+				depth--;
+			} else if (c == '|' && depth == 0) {
+				return false; // 어느 쪽이 일치할지 알 수 없음
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSimpleEscape(char next) {
+		return !Character.isLetterOrDigit(next) || SIMPLE_ESCAPES.indexOf(next) >= 0;
+	}
+
+	private static boolean hasUnsupportedFlags(String regex, int start) {
+		if (!regex.startsWith("(?", start)) {
+			return false;
+		}
+		for (int i = start + 2; i < regex.length() && INLINE_FLAGS.indexOf(regex.charAt(i)) >= 0; i++) {
+			if (UNSUPPORTED_FLAGS.indexOf(regex.charAt(i)) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void dropLast(StringBuilder current) {
+		if (!current.isEmpty()) {
+			current.setLength(current.length() - 1);
+		}
+	}
+
+	private static void flush(StringBuilder current, List<String> literals) {
+		if (current.length() >= 3) {
+			literals.add(current.toString());
+		}
+		current.setLength(0);
+	}
+
+	/**
+	 * '[' 에서 시작한 문자 클래스를 닫는 ']' 의 위치를 반환합니다. 중첩된 클래스나 \Q 가 있으면 -1 을 반환합니다.
+	 */
+	private static int skipCharClass(String regex, int start) {
+		int i = start + 1;
+		if (i < regex.length() && regex.charAt(i) == '^') {
+			i++;
+		}
+		if (i < regex.length() && regex.charAt(i) == ']') {
+			i++;
+		}
+		while (i < regex.length() && regex.charAt(i) != ']') {
+			if (regex.charAt(i) == '[') {
+				return -1;
+			}
+			if (regex.charAt(i) == '\\') {
+				if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+					return -1;
+				}
+				i++;
+			}
+			i++;
+		}
+		return i;
+	}
+}
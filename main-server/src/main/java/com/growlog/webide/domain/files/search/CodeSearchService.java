@@ -0,0 +1,195 @@
+package com.growlog.webide.domain.files.search;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.growlog.webide.domain.files.dto.search.CodeSearchFileResultDto;
+import com.growlog.webide.domain.files.dto.search.CodeSearchMatchDto;
+import com.growlog.webide.domain.files.dto.search.CodeSearchSummaryDto;
+import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
+import com.growlog.webide.domain.projects.entity.Project;
+import com.growlog.webide.domain.projects.repository.ProjectRepository;
+import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 프로젝트 코드 검색
+ *
+ * trigram 색인으로 후보 파일을 고른 뒤 EFS 에서 파일을 한 줄씩 읽어서 실제로 일치하는 줄을 찾습니다.
+ * (아직 EFS 에 쓰지 않은 저장 내용이 있으면 그 내용을 읽습니다.)
+ * 파일 단위로 결과를 바로 내보내고, 일치한 줄 수가 max-results 에 이르거나 timeout 이 지나면 멈춥니다.
+ */
+@Slf4j
+@Service
+public class CodeSearchService {
+
+	private final CodeSearchIndexRegistry codeSearchIndexRegistry;
+	private final ProjectRepository projectRepository;
+	private final ProjectPermissionService permissionService;
+	private final int maxResults;
+	private final int maxMatchesPerFile;
+	private final int maxSnippetLength;
+	private final long timeoutMillis;
+
+	public CodeSearchService(CodeSearchIndexRegistry codeSearchIndexRegistry,
+		ProjectRepository projectRepository,
+		ProjectPermissionService permissionService,
+		@Value("${code-search.max-results:500}") int maxResults,
+		@Value("${code-search.max-matches-per-file:20}") int maxMatchesPerFile,
+		@Value("${code-search.max-snippet-length:240}") int maxSnippetLength,
+		@Value("${code-search.timeout-millis:5000}") long timeoutMillis) {
+		this.codeSearchIndexRegistry = codeSearchIndexRegistry;
+		this.projectRepository = projectRepository;
+		this.permissionService = permissionService;
+		this.maxResults = maxResults;
+		this.maxMatchesPerFile = maxMatchesPerFile;
+		this.maxSnippetLength = maxSnippetLength;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * 권한과 검색어를 확인합니다. 결과를 보내기 시작하기 전에 호출해야 오류를 일반 응답으로 돌려줄 수 있습니다.
+	 */
+	public CodeSearchQuery prepare(Long projectId, Long userId, String query, boolean regex, boolean caseSensitive) {
+		Project project = projectRepository.findById(projectId)
+			.orElseThrow(() -> new CustomException(ErrorCode.PROJECT_NOT_FOUND));
+		permissionService.checkReadAccess(project, userId);
+		return CodeSearchQuery.of(projectId, query, regex, caseSensitive);
+	}
+
+	/**
+	 * 일치하는 줄이 있는 파일마다 sink 로 결과를 보내고, 마지막에 요약을 반환합니다.
+	 */
+	public CodeSearchSummaryDto search(CodeSearchQuery query, Consumer<CodeSearchFileResultDto> sink) {
+		List<String> candidates = codeSearchIndexRegistry.index(query.projectId()).candidates(query.literals());
+		Path root = codeSearchIndexRegistry.projectRoot(query.projectId());
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		int files = 0;
+		int matches = 0;
+		boolean truncated = false;
+		boolean timedOut = false;
+
+		for (String path : candidates) {
+			if (matches >= maxResults) {
+				truncated = true;
+				break;
+			}
+			if (System.currentTimeMillis() > deadline) {
+				timedOut = true;
+				break;
+			}
+			List<CodeSearchMatchDto> found;
+			try {
+				found = searchFile(root.resolve(path.substring(1)), query.pattern(),
+					Math.min(maxMatchesPerFile, maxResults - matches), deadline);
+			} catch (SearchTimeoutException e) {
+				timedOut = true;
+				break;
+			} catch (IOException e) {
+				log.debug("Skipping unreadable file while searching. projectId={}, path={}", query.projectId(), path);
+				continue;
+			}
+			if (!found.isEmpty()) {
+				files++;
+				matches += found.size();
+				sink.accept(new CodeSearchFileResultDto(path, found));
+			}
+		}
+		return new CodeSearchSummaryDto(files, matches, candidates.size(), truncated, timedOut);
+	}
+
+	private List<CodeSearchMatchDto> searchFile(Path file, Pattern pattern, int limit, long deadline)
+		throws IOException {
+		List<CodeSearchMatchDto> found = new ArrayList<>();
+		CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(codeSearchIndexRegistry.openFile(file),
+			decoder))) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null && found.size() < limit) {
+				lineNumber++;
+				if (line.indexOf('\0') >= 0) {
+					return List.of(); // 바이너리
+				}
+				Matcher matcher = pattern.matcher(new DeadlineCharSequence(line, deadline));
+				if (matcher.find()) {
+					found.add(snippet(lineNumber, line, matcher.start(), matcher.end()));
+				}
+			}
+		}
+		return found;
+	}
+
+	private CodeSearchMatchDto snippet(int lineNumber, String line, int start, int end) {
+		if (line.length() <= maxSnippetLength) {
+			return new CodeSearchMatchDto(lineNumber, line, start, end);
+		}
+		// 긴 줄은 일치한 부분 앞쪽 일부부터 maxSnippetLength 글자만 보냅니다.
+		int from = Math.max(0, Math.min(start - maxSnippetLength / 4, line.length() - maxSnippetLength));
+		int to = from + maxSnippetLength;
+		return new CodeSearchMatchDto(lineNumber, line.substring(from, to), start - from, Math.min(end, to) - from);
+	}
+
+	/**
+	 * 정규식이 한 줄에서 너무 오래 도는 경우(catastrophic backtracking)에도 멈출 수 있도록
+	 * 글자를 읽을 때마다 가끔 시간을 확인하는 CharSequence
+	 */
+	private static final class DeadlineCharSequence implements CharSequence {
+		private static final int CHECK_INTERVAL = 4096;
+
+		private final CharSequence text;
+		private final long deadline;
+		private int reads;
+
+		private DeadlineCharSequence(CharSequence text, long deadline) {
+			this.text = text;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (++reads % CHECK_INTERVAL == 0 && System.currentTimeMillis() > deadline) {
+				throw new SearchTimeoutException();
+			}
+			return text.charAt(index);
+		}
+
+		@Override
+		public int length() {
+			return text.length();
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new DeadlineCharSequence(text.subSequence(start, end), deadline);
+		}
+
+		@Override
+		public String toString() {
+			return text.toString();
+		}
+	}
+
+	private static final class SearchTimeoutException extends RuntimeException {
+		private SearchTimeoutException() {
+			super(null, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package com.growlog.webide.domain.files.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 한 프로젝트의 파일 내용 trigram 역색인
+ *
+ * 파일 내용은 보관하지 않고, 연속된 세 글자(trigram)마다 그 글자를 포함한 파일 번호 목록(posting)만 보관합니다.
+ * 검색어의 trigram 을 모두 포함한 파일만 후보로 돌려주고, 실제 일치 여부는 호출한 쪽이 파일을 읽어서 확인합니다.
+ * 대소문자는 구분하지 않고, ASCII 가 아닌 글자는 하위 7비트로 접어서 24비트 키 하나로 만듭니다. (충돌은 후보만 늘어남)
+ *
+ * 파일을 고치면 새 번호로 다시 넣고 이전 번호는 삭제 표시만 합니다. 파일 번호는 계속 증가하므로 posting 은 항상 정렬되어 있고,
+ * 삭제된 번호가 살아있는 번호보다 많아지면 posting 에서 한꺼번에 걸러냅니다.
+ * posting 총 개수가 maxPostings 를 넘으면 더 이상 색인하지 않고 "색인 안 된 파일"로 두며, 이 파일들은 항상 후보에 포함됩니다.
+ */
+final class TrigramIndex {
+
+	private static final int COMPACT_MIN_DEAD_DOCS = 1024;
+
+	private final long maxPostings;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> docIds = new HashMap<>();
+	private final List<String> docPaths = new ArrayList<>(); // 파일 번호 → 경로 (삭제되면 null)
+	private final Map<Integer, Postings> postings = new HashMap<>();
+	private final Set<String> unindexed = new HashSet<>();
+	private long postingCount;
+	private int deadDocs;
+	private volatile long lastAccessMillis = System.currentTimeMillis();
+
+	TrigramIndex(long maxPostings) {
+		this.maxPostings = maxPostings;
+	}
+
+	/**
+	 * 파일 내용을 (다시) 색인합니다. 예산을 넘으면 색인하지 않고 항상 검사할 파일로 둡니다.
+	 */
+	void put(String path, CharSequence content) {
+		int[] keys = trigrams(content);
+		lock.writeLock().lock();
+		try {
+			removeLocked(path);
+			if (postingCount + keys.length > maxPostings && deadDocs > 0) {
+				compact(); // 예산을 넘으면 먼저 지워진 파일의 posting 을 정리합니다.
+			} else {
+				compactIfNeeded();
+			}
+			if (postingCount + keys.length > maxPostings) {
+				unindexed.add(path);
+				return;
+			}
+			int docId = docPaths.size();
+			docPaths.add(path);
+			docIds.put(path, docId);
+			for (int key : keys) {
+				postings.computeIfAbsent(key, k -> new Postings()).add(docId);
+			}
+			postingCount += keys.length;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 내용을 읽지 않고(파일이 너무 큰 경우 등) 항상 검사할 파일로 등록합니다.
+	 */
+	void putUnindexed(String path) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(path);
+			unindexed.add(path);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * path 와 그 하위의 모든 파일을 지웁니다.
+	 */
+	void removeTree(String path) {
+		lock.writeLock().lock();
+		try {
+			String prefix = path + "/";
+			for (String docPath : new ArrayList<>(docIds.keySet())) {
+				if (docPath.startsWith(prefix)) {
+					removeLocked(docPath);
+				}
+			}
+			unindexed.removeIf(docPath -> docPath.startsWith(prefix));
+			removeLocked(path);
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 파일 또는 폴더를 옮깁니다. 내용은 그대로이므로 경로만 바꿉니다.
+	 */
+	void move(String fromPath, String toPath) {
+		lock.writeLock().lock();
+		try {
+			String prefix = fromPath + "/";
+			Map<String, Integer> moved = new HashMap<>();
+			docIds.entrySet().removeIf(entry -> {
+				String path = entry.getKey();
+				if (!path.equals(fromPath) && !path.startsWith(prefix)) {
+					return false;
+				}
+				String newPath = toPath + path.substring(fromPath.length());
+				moved.put(newPath, entry.getValue());
+				docPaths.set(entry.getValue(), newPath);
+				return true;
+			});
+			moved.keySet().forEach(this::removeLocked); // 덮어쓴 파일
+			docIds.putAll(moved);
+
+			List<String> movedUnindexed = new ArrayList<>();
+			unindexed.removeIf(path -> {
+				boolean under = path.equals(fromPath) || path.startsWith(prefix);
+				if (under) {
+					movedUnindexed.add(toPath + path.substring(fromPath.length()));
+				}
+				return under;
+			});
+			unindexed.addAll(movedUnindexed);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * literals 를 모두 포함할 수 있는 파일 경로를 반환합니다. (색인 안 된 파일 포함, 경로 순)
+	 * literals 중 세 글자 이상인 것이 없으면 모든 파일을 반환합니다.
+	 */
+	List<String> candidates(List<String> literals) {
+		lastAccessMillis = System.currentTimeMillis();
+		int[] keys = literals.stream()
+			.filter(literal -> literal.length() >= 3)
+			.flatMapToInt(literal -> Arrays.stream(trigrams(literal)))
+			.distinct()
+			.toArray();
+		lock.readLock().lock();
+		try {
+			List<String> result = new ArrayList<>(unindexed);
+			if (keys.length == 0) {
+				result.addAll(docIds.keySet());
+			} else {
+				for (int docId : intersect(keys)) {
+					String path = docPaths.get(docId);
+					if (path != null) {
+						result.add(path);
+					}
+				}
+			}
+			result.sort(null);
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	long postingCount() {
+		return postingCount;
+	}
+
+	int documentCount() {
+		lock.readLock().lock();
+		try {
+			return docIds.size() + unindexed.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	long lastAccessMillis() {
+		return lastAccessMillis;
+	}
+
+	/**
+	 * 중복 없이 정렬된 trigram 키 목록
+	 */
+	static int[] trigrams(CharSequence text) {
+		if (text.length() < 3) {
+			return new int[0];
+		}
+		int[] keys = new int[text.length() - 2];
+		int key = (fold(text.charAt(0)) << 8) | fold(text.charAt(1));
+		for (int i = 2; i < text.length(); i++) {
+			key = ((key << 8) | fold(text.charAt(i))) & 0xFFFFFF;
+			keys[i - 2] = key;
+		}
+		Arrays.sort(keys);
+		int size = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (i == 0 || keys[i] != keys[i - 1]) {
+				keys[size++] = keys[i];
+			}
+		}
+		return Arrays.copyOf(keys, size);
+	}
+
+	private static int fold(char c) {
+		if (c >= 'A' && c <= 'Z') {
+			return c + ('a' - 'A');
+		}
+		return c < 128 ? c : 128 | (c & 0x7F);
+	}
+
+	private int[] intersect(int[] keys) {
+		Postings[] lists = new Postings[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			lists[i] = postings.get(keys[i]);
+			if (lists[i] == null) {
+				return new int[0];
+			}
+		}
+		// 가장 짧은 목록부터 교집합을 구합니다.
+		Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+		int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+		int size = result.length;
+		for (int i = 1; i < lists.length && size > 0; i++) {
+			size = lists[i].retainIn(result, size);
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	private void removeLocked(String path) {
+		unindexed.remove(path);
+		Integer docId = docIds.remove(path);
+		if (docId != null) {
+			docPaths.set(docId, null);
+			deadDocs++;
+		}
+	}
+
+	private void compactIfNeeded() {
+		if (deadDocs >= COMPACT_MIN_DEAD_DOCS && deadDocs >= docIds.size()) {
+			compact();
+		}
+	}
+
+	/**
+	 * 삭제된 번호를 posting 에서 걸러내고, 살아있는 파일 번호를 0부터 다시 매깁니다. (순서가 같으므로 정렬 유지)
+	 */
+	private void compact() {
+		int[] renumbered = new int[docPaths.size()];
+		List<String> livePaths = new ArrayList<>(docIds.size());
+		for (int docId = 0; docId < docPaths.size(); docId++) {
+			String path = docPaths.get(docId);
+			renumbered[docId] = path == null ? -1 : livePaths.size();
+			if (path != null) {
+				docIds.put(path, livePaths.size());
+				livePaths.add(path);
+			}
+		}
+		long remaining = 0;
+		for (Iterator<Postings> iterator = postings.values().iterator(); iterator.hasNext(); ) {
+			Postings list = iterator.next();
+			list.renumber(renumbered);
+			if (list.size == 0) {
+				iterator.remove();
+			}
+			remaining += list.size;
+		}
+		docPaths.clear();
+		docPaths.addAll(livePaths);
+		postingCount = remaining;
+		deadDocs = 0;
+	}
+
+	/**
+	 * 정렬된 파일 번호 목록 (int 배열, 박싱 없음)
+	 */
+	private static final class Postings {
+		private int[] ids = new int[4];
+		private int size;
+
+		private void add(int docId) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = docId;
+		}
+
+		/**
+		 * target[0, targetSize) 중 이 목록에도 있는 번호만 앞으로 모으고 그 개수를 반환합니다.
+		 */
+		private int retainIn(int[] target, int targetSize) {
+			int kept = 0;
+			int j = 0;
+			for (int i = 0; i < targetSize && j < size; i++) {
+				while (j < size && ids[j] < target[i]) {
+					j++;
+				}
+				if (j < size && ids[j] == target[i]) {
+					target[kept++] = target[i];
+				}
+			}
+			return kept;
+		}
+
+		private void renumber(int[] renumbered) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (renumbered[ids[i]] >= 0) {
+					ids[kept++] = renumbered[ids[i]];
+				}
+			}
+			size = kept;
+			if (ids.length > 16 && size < ids.length / 4) {
+				ids = Arrays.copyOf(ids, Math.max(size * 2, 4));
+			}
+		}
+	}
+}
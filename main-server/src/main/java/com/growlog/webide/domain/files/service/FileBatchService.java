@@ -0,0 +1,552 @@
+package com.growlog.webide.domain.files.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.growlog.webide.domain.files.dto.batch.FileBatchOperationDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchRequestDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchResponseDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchResultDto;
+import com.growlog.webide.domain.files.dto.tree.TreeAddEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeMoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeRemoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.entity.FileTrash;
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.repository.FileTrashRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
+import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
+import com.growlog.webide.domain.projects.entity.Project;
+import com.growlog.webide.domain.projects.repository.ProjectRepository;
+import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 여러 파일/폴더 생성, 삭제, 이동을 한 번의 요청과 한 트랜잭션으로 처리합니다. (스캐폴딩, 여러 파일 삭제)
+ *
+ * 권한 확인과 프로젝트 조회는 한 번만 하고, 요청에 나온 경로와 그 상위 폴더의 메타데이터는 한 번의 쿼리로 미리 읽어서
+ * 작업 순서대로 메모리에서 상태를 이어갑니다. 연속한 생성은 JDBC 배치 INSERT 한 번으로 저장하고,
+ * 트리 이벤트는 커밋된 후 tree:batch 하나로 보냅니다.
+ * 삭제는 FileService 와 같이 휴지통(FileTrashStorage)으로 rename 하고 FileTrash 를 남기므로 나중에 되살릴 수 있고,
+ * 롤백되면 휴지통으로 옮긴 항목을 포함해서 EFS 변경을 모두 되돌립니다.
+ * atomic 요청은 하나라도 실패하면 전체를 롤백하고, 아니면 실패한 작업만 건너뜁니다.
+ */
+@Slf4j
+@Service
+public class FileBatchService {
+
+	private static final String FILE = "file";
+	private static final String FOLDER = "folder";
+	private static final String ROOT = "/";
+	private static final int PREFETCH_CHUNK_SIZE = 1000;
+
+	private final String efsBasePath;
+	private final int maxOperations;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final ProjectRepository projectRepository;
+	private final ProjectPermissionService permissionService;
+	private final FileMetaRepository fileMetaRepository;
+	private final FileMetaBulkImporter fileMetaBulkImporter;
+	private final ProjectTreeIndexRegistry projectTreeIndexRegistry;
+	private final CodeSearchIndexRegistry codeSearchIndexRegistry;
+	private final FileWriteBackBuffer fileWriteBackBuffer;
+	private final FileContentCache fileContentCache;
+	private final FileTrashStorage fileTrashStorage;
+	private final FileTrashRepository fileTrashRepository;
+
+	// 기본 파일시스템 (운영에서는 EFS 마운트 경로)
+	private final FileSystem fileSystem;
+
+	public FileBatchService(@Value("${efs.base-path}") String efsBasePath,
+		@Value("${file-batch.max-operations:500}") int maxOperations,
+		SimpMessagingTemplate messagingTemplate,
+		ProjectRepository projectRepository,
+		ProjectPermissionService permissionService,
+		FileMetaRepository fileMetaRepository,
+		FileMetaBulkImporter fileMetaBulkImporter,
+		ProjectTreeIndexRegistry projectTreeIndexRegistry,
+		CodeSearchIndexRegistry codeSearchIndexRegistry,
+		FileWriteBackBuffer fileWriteBackBuffer,
+		FileContentCache fileContentCache,
+		FileTrashStorage fileTrashStorage,
+		FileTrashRepository fileTrashRepository) {
+		this.efsBasePath = efsBasePath;
+		this.maxOperations = maxOperations;
+		this.messagingTemplate = messagingTemplate;
+		this.projectRepository = projectRepository;
+		this.permissionService = permissionService;
+		this.fileMetaRepository = fileMetaRepository;
+		this.fileMetaBulkImporter = fileMetaBulkImporter;
+		this.projectTreeIndexRegistry = projectTreeIndexRegistry;
+		this.codeSearchIndexRegistry = codeSearchIndexRegistry;
+		this.fileWriteBackBuffer = fileWriteBackBuffer;
+		this.fileContentCache = fileContentCache;
+		this.fileTrashStorage = fileTrashStorage;
+		this.fileTrashRepository = fileTrashRepository;
+		this.fileSystem = FileSystems.getDefault();
+	}
+
+	@Transactional
+	public FileBatchResponseDto applyBatch(Long projectId, FileBatchRequestDto request, Long userId) {
+		List<FileBatchOperationDto> operations = request.getOperations();
+		if (operations == null || operations.isEmpty() || operations.size() > maxOperations) {
+			throw new CustomException(ErrorCode.BAD_REQUEST);
+		}
+		Project project = projectRepository.findById(projectId)
+			.orElseThrow(() -> new CustomException(ErrorCode.PROJECT_NOT_FOUND));
+		permissionService.checkWriteAccess(userId, projectId);
+		// [추가] 옮기거나 지울 파일에 아직 쓰지 않은 저장 내용이 남지 않도록 먼저 씁니다.
+		fileWriteBackBuffer.flushProject(projectId);
+
+		Batch batch = new Batch(projectId, project, userId, prefetch(projectId, operations));
+		// 커밋/롤백 결과에 따라 EFS 정리 또는 되돌리기를 하므로 EFS 를 바꾸기 전에 등록합니다.
+		boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+		if (inTransaction) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						onCommit(batch);
+					} else {
+						onRollback(batch);
+					}
+				}
+			});
+		}
+
+		List<FileBatchResultDto> results = new ArrayList<>(operations.size());
+		boolean failed = false;
+		try {
+			for (int i = 0; i < operations.size(); i++) {
+				FileBatchOperationDto operation = operations.get(i);
+				if (failed && request.isAtomic()) {
+					results.add(new FileBatchResultDto(i, operation.getOp(), operation.getPath(), "skipped", null));
+					continue;
+				}
+				try {
+					apply(batch, operation);
+					results.add(new FileBatchResultDto(i, operation.getOp(), operation.getPath(), "ok", null));
+				} catch (CustomException e) {
+					failed = true;
+					results.add(new FileBatchResultDto(i, operation.getOp(), operation.getPath(), "failed",
+						e.getErrorCode().getCode()));
+				}
+			}
+			if (!(failed && request.isAtomic())) {
+				flushCreates(batch);
+			}
+		} catch (RuntimeException e) {
+			if (!inTransaction) {
+				onRollback(batch);
+			}
+			throw e;
+		}
+
+		if (failed && request.isAtomic()) {
+			if (inTransaction) {
+				TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+			} else {
+				onRollback(batch);
+			}
+			List<FileBatchResultDto> rolledBack = results.stream()
+				.map(result -> "ok".equals(result.getStatus()) ? new FileBatchResultDto(result.getIndex(),
+					result.getOp(), result.getPath(), "rolledBack", null) : result)
+				.toList();
+			return new FileBatchResponseDto(false, rolledBack);
+		}
+		if (!inTransaction) {
+			onCommit(batch);
+		}
+		return new FileBatchResponseDto(true, results);
+	}
+
+	private void apply(Batch batch, FileBatchOperationDto operation) {
+		switch (operation.getOp() == null ? "" : operation.getOp()) {
+			case "create" -> create(batch, operation.getPath(), operation.getType());
+			case "delete" -> delete(batch, operation.getPath());
+			case "move" -> move(batch, operation.getPath(), operation.getToPath());
+			default -> throw new CustomException(ErrorCode.BAD_REQUEST);
+		}
+	}
+
+	/**
+	 * 생성은 EFS 에만 바로 반영하고, 메타데이터는 모아 두었다가 다음 삭제/이동 전이나 마지막에 한 번에 저장합니다.
+	 */
+	private void create(Batch batch, String path, String type) {
+		if (!(FILE.equals(type) || FOLDER.equals(type))) {
+			throw new CustomException(ErrorCode.BAD_REQUEST);
+		}
+		validatePath(path);
+		if (ROOT.equals(path) || lookup(batch, path) != null) {
+			throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+		}
+		List<String> missingParents = missingParents(batch, path);
+
+		Path target = resolve(batch.projectId, path);
+		try {
+			ensureDirectory(batch, target.getParent());
+			if (FILE.equals(type)) {
+				Files.createFile(target);
+			} else {
+				Files.createDirectories(target);
+			}
+		} catch (FileAlreadyExistsException e) {
+			throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+		} catch (IOException e) {
+			log.error("Failed to create {} on EFS in batch. path: {}", type, target, e);
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+		}
+		batch.undo.add(() -> {
+			Files.deleteIfExists(target);
+			deleteEmptyDirectories(batch.projectId, missingParents);
+		});
+
+		for (int i = missingParents.size() - 1; i >= 0; i--) {
+			batch.pendingCreates.put(missingParents.get(i), true);
+			batch.items.put(missingParents.get(i), new Item(null, true));
+		}
+		batch.pendingCreates.put(path, FOLDER.equals(type));
+		batch.items.put(path, new Item(null, FOLDER.equals(type)));
+		if (FILE.equals(type)) {
+			batch.afterCommit.add(() -> codeSearchIndexRegistry.updateFile(batch.projectId, path, ""));
+		}
+	}
+
+	private void delete(Batch batch, String path) {
+		validatePath(path);
+		if (ROOT.equals(path)) {
+			throw new CustomException(ErrorCode.PATH_NOT_ALLOWED);
+		}
+		flushCreates(batch);
+		Item item = lookup(batch, path);
+		if (item == null) {
+			throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+		}
+
+		// 하위 항목을 하나씩 지우지 않고 휴지통으로 한 번에 옮깁니다. (rename 한 번, 실제 삭제는 FileTrashPurger)
+		Path target = resolve(batch.projectId, path);
+		fileWriteBackBuffer.discardUnder(target);
+		String storageName;
+		try {
+			storageName = fileTrashStorage.moveToTrash(batch.projectId, target);
+		} catch (IOException e) {
+			log.error("Failed to move file or directory to trash in batch. Path: {}", target, e);
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+		}
+		if (storageName != null) {
+			batch.undo.add(() -> fileTrashStorage.restore(batch.projectId, storageName, target));
+		}
+		batch.ensuredDirectories.clear();
+
+		// DATETIME(6) 과 같게 마이크로초까지만 사용합니다. (FileTrash 와 같은 값으로 되살릴 하위 항목을 찾음)
+		LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		fileMetaRepository.markSubtreeDeleted(batch.projectId, path, FileMetaRepository.escapeLike(path) + "/%",
+			deletedAt);
+		if (storageName != null) {
+			fileTrashRepository.save(FileTrash.builder()
+				.project(batch.project)
+				.path(path)
+				.type(item.folder() ? FOLDER : FILE)
+				.storageName(storageName)
+				.deletedBy(batch.userId)
+				.deletedAt(deletedAt)
+				.build());
+		}
+		batch.items.remove(path);
+		descendants(batch.items, path).clear();
+		batch.events.add(new WebSocketMessage("tree:remove", new TreeRemoveEventDto(item.id(), path)));
+		batch.afterCommit.add(() -> codeSearchIndexRegistry.remove(batch.projectId, path));
+		batch.afterCommit.add(() -> fileContentCache.invalidateTree(target));
+	}
+
+	private void move(Batch batch, String fromPath, String toPath) {
+		validatePath(fromPath);
+		validatePath(toPath);
+		if (ROOT.equals(fromPath) || ROOT.equals(toPath)) {
+			throw new CustomException(ErrorCode.PATH_NOT_ALLOWED);
+		}
+		if (toPath.equals(fromPath) || toPath.startsWith(fromPath + "/")) {
+			throw new CustomException(ErrorCode.CANNOT_MOVE_TO_SUBFOLDER);
+		}
+		flushCreates(batch);
+		Item item = lookup(batch, fromPath);
+		if (item == null) {
+			throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+		}
+		if (lookup(batch, toPath) != null) {
+			throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+		}
+		List<String> missingParents = missingParents(batch, toPath);
+		FileMeta meta = fileMetaRepository.findById(item.id())
+			.orElseThrow(() -> new CustomException(ErrorCode.FILE_OPERATION_FAILED));
+
+		Path source = resolve(batch.projectId, fromPath);
+		Path target = resolve(batch.projectId, toPath);
+		try {
+			ensureDirectory(batch, target.getParent());
+			Files.move(source, target);
+		} catch (FileAlreadyExistsException e) {
+			throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+		} catch (NoSuchFileException e) {
+			throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+		} catch (IOException e) {
+			log.error("Failed to move file or directory on EFS in batch. from: {}, to: {}", source, target, e);
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+		}
+		batch.undo.add(() -> {
+			Files.move(target, source);
+			deleteEmptyDirectories(batch.projectId, missingParents);
+		});
+		batch.ensuredDirectories.clear();
+
+		for (int i = missingParents.size() - 1; i >= 0; i--) {
+			batch.pendingCreates.put(missingParents.get(i), true);
+		}
+		flushCreates(batch);
+		Item parent = batch.items.get(FileMeta.parentPathOf(toPath));
+
+		// 이동한 항목 한 건만 엔티티로 바꾸고, 하위 항목은 한 번의 UPDATE 로 경로 prefix 를 바꿉니다.
+		int depthDelta = FileMeta.depthOf(toPath) - FileMeta.depthOf(fromPath);
+		meta.updatePath(toPath);
+		meta.attachTo(parent == null || parent.id() == null ? null : fileMetaRepository.getReferenceById(parent.id()));
+		fileMetaRepository.save(meta);
+		if (item.folder()) {
+			fileMetaRepository.moveDescendants(batch.projectId, FileMetaRepository.escapeLike(fromPath) + "/%",
+				toPath, FileMetaRepository.pathLength(fromPath), depthDelta);
+		}
+
+		NavigableMap<String, Item> children = descendants(batch.items, fromPath);
+		Map<String, Item> renamed = new HashMap<>(children.size() * 2);
+		children.forEach((childPath, child) -> renamed.put(toPath + childPath.substring(fromPath.length()), child));
+		children.clear();
+		batch.items.remove(fromPath);
+		batch.items.put(toPath, item);
+		batch.items.putAll(renamed);
+		batch.movedTo.add(toPath);
+		batch.events.add(new WebSocketMessage("tree:move", new TreeMoveEventDto(item.id(), fromPath, toPath)));
+		batch.afterCommit.add(() -> codeSearchIndexRegistry.move(batch.projectId, fromPath, toPath));
+		batch.afterCommit.add(() -> fileContentCache.invalidateTree(source));
+	}
+
+	/**
+	 * 모아 둔 생성 항목을 JDBC 배치 INSERT 로 저장하고 트리 이벤트를 부모부터 추가합니다.
+	 */
+	private void flushCreates(Batch batch) {
+		if (batch.pendingCreates.isEmpty()) {
+			return;
+		}
+		Map<String, Long> folderIds = new HashMap<>();
+		batch.items.forEach((path, item) -> {
+			if (item.folder() && item.id() != null) {
+				folderIds.put(path, item.id());
+			}
+		});
+		Map<String, Long> insertedIds = fileMetaBulkImporter.importEntries(batch.projectId, batch.pendingCreates,
+			folderIds);
+
+		List<String> created = new ArrayList<>(batch.pendingCreates.keySet());
+		created.sort(Comparator.comparingInt(FileMeta::depthOf));
+		for (String path : created) {
+			boolean folder = batch.pendingCreates.get(path);
+			Long id = insertedIds.get(path);
+			batch.items.put(path, new Item(id, folder));
+			batch.events.add(new WebSocketMessage("tree:add", new TreeAddEventDto(id, path, folder ? FOLDER : FILE)));
+		}
+		batch.pendingCreates.clear();
+	}
+
+	/**
+	 * 이번 요청 기준으로 path 에 항목이 있는지 확인합니다.
+	 * 미리 읽은 경로는 메모리 상태로 판단하고, 이번 요청에서 이동해 온 폴더 밑의 경로만 DB 에서 다시 읽습니다.
+	 */
+	private Item lookup(Batch batch, String path) {
+		Item item = batch.items.get(path);
+		if (item != null || batch.movedTo.stream().noneMatch(moved -> path.startsWith(moved + "/"))) {
+			return item;
+		}
+		flushCreates(batch);
+		item = fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(batch.projectId, path)
+			.map(meta -> new Item(meta.getId(), FOLDER.equals(meta.getType())))
+			.orElse(null);
+		if (item != null) {
+			batch.items.put(path, item);
+		}
+		return item;
+	}
+
+	/**
+	 * 없는 상위 폴더 경로 (가까운 부모부터), 상위 경로에 파일이 있으면 만들 수 없습니다.
+	 */
+	private List<String> missingParents(Batch batch, String path) {
+		List<String> missing = new ArrayList<>();
+		String parent = FileMeta.parentPathOf(path);
+		while (!ROOT.equals(parent)) {
+			Item item = lookup(batch, parent);
+			if (item != null) {
+				if (!item.folder()) {
+					throw new CustomException(ErrorCode.INVALID_FILE_PATH);
+				}
+				break;
+			}
+			missing.add(parent);
+			parent = FileMeta.parentPathOf(parent);
+		}
+		return missing;
+	}
+
+	/**
+	 * 요청에 나온 모든 경로와 그 상위 폴더의 메타데이터를 한 번에 읽습니다.
+	 */
+	private NavigableMap<String, Item> prefetch(Long projectId, List<FileBatchOperationDto> operations) {
+		Set<String> paths = new LinkedHashSet<>();
+		for (FileBatchOperationDto operation : operations) {
+			for (String path : new String[] {operation.getPath(), operation.getToPath()}) {
+				for (String current = path; current != null && current.startsWith(ROOT);
+					current = FileMeta.parentPathOf(current)) {
+					if (!paths.add(current)) {
+						break;
+					}
+				}
+			}
+		}
+		NavigableMap<String, Item> items = new TreeMap<>();
+		List<String> pathList = new ArrayList<>(paths);
+		for (int i = 0; i < pathList.size(); i += PREFETCH_CHUNK_SIZE) {
+			List<String> chunk = pathList.subList(i, Math.min(i + PREFETCH_CHUNK_SIZE, pathList.size()));
+			for (FileMeta meta : fileMetaRepository.findByProjectIdAndPathInAndDeletedFalse(projectId, chunk)) {
+				items.put(meta.getPath(), new Item(meta.getId(), FOLDER.equals(meta.getType())));
+			}
+		}
+		return items;
+	}
+
+	private void onCommit(Batch batch) {
+		if (!batch.events.isEmpty()) {
+			WebSocketMessage message = new WebSocketMessage("tree:batch", new TreeBatchEventDto(batch.events));
+			message.setVersion(projectTreeIndexRegistry.apply(batch.projectId, message));
+			messagingTemplate.convertAndSend("/topic/projects/" + batch.projectId + "/tree", message);
+		}
+		batch.afterCommit.forEach(Runnable::run);
+	}
+
+	/**
+	 * EFS 변경을 역순으로 되돌립니다.
+	 */
+	private void onRollback(Batch batch) {
+		for (int i = batch.undo.size() - 1; i >= 0; i--) {
+			try {
+				batch.undo.get(i).run();
+			} catch (IOException e) {
+				log.error("Failed to undo batch file operation on EFS. projectId: {}", batch.projectId, e);
+			}
+		}
+	}
+
+	private void ensureDirectory(Batch batch, Path directory) throws IOException {
+		if (batch.ensuredDirectories.add(directory)) {
+			Files.createDirectories(directory);
+		}
+	}
+
+	/**
+	 * 이번 요청에서 만든 상위 폴더를 가까운 부모부터 지웁니다. (그 사이 다른 파일이 생긴 폴더는 남겨 둡니다.)
+	 */
+	private void deleteEmptyDirectories(Long projectId, List<String> directories) throws IOException {
+		for (String directory : directories) {
+			try {
+				Files.deleteIfExists(resolve(projectId, directory));
+			} catch (DirectoryNotEmptyException e) {
+				return;
+			}
+		}
+	}
+
+	private Path resolve(Long projectId, String path) {
+		return fileSystem.getPath(efsBasePath, String.valueOf(projectId)).resolve(path.substring(1));
+	}
+
+	private static void validatePath(String path) {
+		if (path == null || !path.startsWith(ROOT) || path.length() > 1 && path.endsWith(ROOT)
+			|| path.contains("//")) {
+			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
+		}
+		for (String segment : path.substring(1).split("/")) {
+			if (".".equals(segment) || "..".equals(segment)) {
+				throw new CustomException(ErrorCode.PATH_NOT_ALLOWED);
+			}
+		}
+	}
+
+	/**
+	 * path 하위의 모든 항목 ("/src" 이면 "/src/" 로 시작하는 경로, "/src2" 는 제외)
+	 */
+	private static NavigableMap<String, Item> descendants(NavigableMap<String, Item> items, String path) {
+		return items.subMap(path + "/", true, path + "0", false);
+	}
+
+	/**
+	 * @param id 아직 저장하지 않은 생성 항목이면 null
+	 */
+	private record Item(Long id, boolean folder) {
+	}
+
+	@FunctionalInterface
+	private interface Undo {
+		void run() throws IOException;
+	}
+
+	/**
+	 * 요청 하나를 처리하는 동안의 상태
+	 */
+	private static final class Batch {
+		private final Long projectId;
+		private final Project project;
+		private final Long userId;
+		// 이번 요청 기준으로 존재하는 항목 (미리 읽은 경로 + 이번 요청에서 만든/옮긴 항목)
+		private final NavigableMap<String, Item> items;
+		private final Map<String, Boolean> pendingCreates = new LinkedHashMap<>();
+		private final List<String> movedTo = new ArrayList<>();
+		private final Set<Path> ensuredDirectories = new HashSet<>();
+		private final List<Undo> undo = new ArrayList<>();
+		private final List<Runnable> afterCommit = new ArrayList<>();
+		private final List<WebSocketMessage> events = new ArrayList<>();
+
+		private Batch(Long projectId, Project project, Long userId, NavigableMap<String, Item> items) {
+			this.projectId = projectId;
+			this.project = project;
+			this.userId = userId;
+			this.items = items;
+		}
+	}
+}
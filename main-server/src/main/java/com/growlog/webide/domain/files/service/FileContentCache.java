@@ -0,0 +1,202 @@
+package com.growlog.webide.domain.files.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 최근에 연 파일 내용을 서버(노드)별로 메모리에 보관합니다. (탭 전환마다 EFS 에서 다시 읽지 않도록)
+ *
+ * 전체 크기(max-bytes)를 넘으면 가장 오래 쓰지 않은 파일부터 버립니다. (LRU)
+ * 꺼낼 때는 파일 속성 조회 한 번으로 크기와 수정 시각이 그대로인지 확인합니다. (컨테이너 안에서 바꾼 경우)
+ * EFS(NFS)는 다른 노드에서 바꾼 속성이 잠시 늦게 보일 수 있으므로, 저장/이동/삭제는 Redis pub/sub 으로
+ * 모든 노드에 알려서 바로 버립니다.
+ */
+@Slf4j
+@Component
+public class FileContentCache implements MessageListener {
+
+	private static final String FILE = "file";
+	private static final String TREE = "tree";
+
+	private final long maxBytes;
+	private final long maxFileBytes;
+	private final String channel;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final StringRedisTemplate stringRedisTemplate;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private long cachedBytes;
+
+	public FileContentCache(@Value("${file-content-cache.max-bytes:67108864}") long maxBytes,
+		@Value("${file-content-cache.max-file-bytes:1048576}") long maxFileBytes,
+		@Value("${file-content-cache.invalidation-channel:file-content-cache:invalidate}") String channel,
+		StringRedisTemplate stringRedisTemplate,
+		RedisMessageListenerContainer redisMessageListenerContainer,
+		MeterRegistry meterRegistry) {
+		this.maxBytes = maxBytes;
+		this.maxFileBytes = maxFileBytes;
+		this.channel = channel;
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.meterRegistry = meterRegistry;
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+		Gauge.builder("file.content.cache.bytes", this, FileContentCache::size)
+			.description("Bytes of file content held by the open file cache")
+			.register(meterRegistry);
+		Gauge.builder("file.content.cache.hit.ratio", this, FileContentCache::hitRatio)
+			.description("Share of file opens served from the open file cache")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 크기와 수정 시각이 그대로인 파일의 내용을 반환합니다. 없거나 바뀌었으면 null 을 반환합니다.
+	 */
+	public CachedFile get(Path file, BasicFileAttributes attrs) {
+		CachedFile cached;
+		synchronized (files) {
+			cached = files.get(file.toString());
+			if (cached != null && (cached.size() != attrs.size() || cached.mtime() != mtime(attrs))) {
+				remove(file.toString());
+				cached = null;
+			}
+		}
+		if (cached == null) {
+			misses.incrementAndGet();
+			meterRegistry.counter("file.content.cache.requests", "result", "miss").increment();
+			return null;
+		}
+		hits.incrementAndGet();
+		meterRegistry.counter("file.content.cache.requests", "result", "hit").increment();
+		meterRegistry.counter("file.content.cache.served.bytes").increment(cached.size());
+		return cached;
+	}
+
+	/**
+	 * 방금 읽은 파일 내용을 보관합니다. attrs 는 읽기 전에 조회한 값이어야 합니다.
+	 */
+	public void put(Path file, BasicFileAttributes attrs, String content, String etag) {
+		if (attrs.size() > maxFileBytes) {
+			return;
+		}
+		synchronized (files) {
+			remove(file.toString());
+			files.put(file.toString(), new CachedFile(content, etag, attrs.size(), mtime(attrs)));
+			cachedBytes += attrs.size();
+			// 접근 순서 LinkedHashMap 의 처음이 가장 오래 쓰지 않은 항목입니다.
+			Iterator<Map.Entry<String, CachedFile>> eldest = files.entrySet().iterator();
+			while (cachedBytes > maxBytes && eldest.hasNext()) {
+				cachedBytes -= eldest.next().getValue().size();
+				eldest.remove();
+			}
+		}
+	}
+
+	/**
+	 * 파일을 모든 노드의 캐시에서 버립니다. (저장)
+	 */
+	public void invalidate(Path file) {
+		evictFile(file.toString());
+		publish(FILE, file.toString());
+	}
+
+	/**
+	 * 파일 또는 폴더(하위 포함)를 모든 노드의 캐시에서 버립니다. (이동, 삭제, 압축 파일 가져오기)
+	 */
+	public void invalidateTree(Path path) {
+		evictTree(path.toString());
+		publish(TREE, path.toString());
+	}
+
+	/**
+	 * 다른 노드가 보낸 무효화 메시지 ("노드ID|file 또는 tree|경로")
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+		if (parts.length != 3 || nodeId.equals(parts[0])) {
+			return;
+		}
+		if (TREE.equals(parts[1])) {
+			evictTree(parts[2]);
+		} else {
+			evictFile(parts[2]);
+		}
+	}
+
+	private void publish(String type, String path) {
+		try {
+			stringRedisTemplate.convertAndSend(channel, nodeId + "|" + type + "|" + path);
+		} catch (RuntimeException e) {
+			// 알리지 못해도 다른 노드는 꺼낼 때 수정 시각을 확인하므로 저장은 실패시키지 않습니다.
+			log.warn("Failed to publish file cache invalidation. path: {}", path, e);
+		}
+	}
+
+	private void evictFile(String file) {
+		synchronized (files) {
+			remove(file);
+		}
+	}
+
+	private void evictTree(String path) {
+		String prefix = path + "/";
+		synchronized (files) {
+			Iterator<Map.Entry<String, CachedFile>> entries = files.entrySet().iterator();
+			while (entries.hasNext()) {
+				Map.Entry<String, CachedFile> entry = entries.next();
+				if (entry.getKey().equals(path) || entry.getKey().startsWith(prefix)) {
+					cachedBytes -= entry.getValue().size();
+					entries.remove();
+				}
+			}
+		}
+	}
+
+	private void remove(String file) {
+		CachedFile removed = files.remove(file);
+		if (removed != null) {
+			cachedBytes -= removed.size();
+		}
+	}
+
+	private double size() {
+		synchronized (files) {
+			return cachedBytes;
+		}
+	}
+
+	private double hitRatio() {
+		long total = hits.get() + misses.get();
+		return total == 0 ? 0 : (double)hits.get() / total;
+	}
+
+	private static long mtime(BasicFileAttributes attrs) {
+		return attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 보관한 파일 내용과 그때의 크기, 수정 시각(나노초)
+	 */
+	public record CachedFile(String content, String etag, long size, long mtime) {
+	}
+}
@@ -0,0 +1,162 @@
+package com.growlog.webide.domain.files.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * [추가] 파일 내용의 버전(ETag)을 만들고, 최근에 계산한 내용 해시를 기억합니다.
+ *
+ * ETag 는 "크기-내용해시" 형태의 강한 검증자입니다. 파일을 읽어서 응답할 때 읽은 바이트로 해시를 계산해 두므로,
+ * 크기와 수정 시각이 그대로인 다음 요청은 파일을 다시 읽지 않고 If-None-Match 를 비교할 수 있습니다.
+ * [개선] 수정 시각은 캐시가 유효한지만 확인하고 ETag 에는 넣지 않으므로, 메모리에 모아 둔 저장 내용(FileWriteBackBuffer)이
+ * EFS 에 써진 뒤에도 같은 ETag 를 가집니다.
+ * hash-max-bytes 보다 큰 파일(긴 로그 등)은 매번 전체를 읽어 해시하지 않도록 "크기-수정시각"으로 만듭니다.
+ */
+@Component
+public class FileContentVersions {
+
+	private static final int HASH_BYTES = 16;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final long hashMaxBytes;
+	private final Map<String, CachedHash> hashes;
+
+	public FileContentVersions(@Value("${file-read.hash-max-bytes:8388608}") long hashMaxBytes,
+		@Value("${file-read.hash-cache-size:10000}") int hashCacheSize) {
+		this.hashMaxBytes = hashMaxBytes;
+		// 접근 순서 LinkedHashMap 으로 가장 오래 쓰지 않은 항목부터 버립니다.
+		this.hashes = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedHash> eldest) {
+				return size() > hashCacheSize;
+			}
+		};
+	}
+
+	/**
+	 * 파일을 다시 읽지 않고 알 수 있으면 현재 ETag 를 반환합니다. 해시를 모르면 null 을 반환합니다. (읽어서 확인해야 함)
+	 */
+	public String cachedETag(Path file, BasicFileAttributes attrs) {
+		if (attrs.size() > hashMaxBytes) {
+			return format(attrs.size(), Long.toHexString(mtime(attrs)));
+		}
+		String hash = cachedHash(file, attrs.size(), mtime(attrs));
+		return hash == null ? null : format(attrs.size(), hash);
+	}
+
+	/**
+	 * 현재 ETag 를 반환합니다. 해시를 모르면 파일을 버퍼 크기씩 읽어서 계산합니다.
+	 */
+	public String etag(Path file, BasicFileAttributes attrs) throws IOException {
+		String etag = cachedETag(file, attrs);
+		if (etag != null) {
+			return etag;
+		}
+		MessageDigest digest = newDigest();
+		long size = 0;
+		try (InputStream in = Files.newInputStream(file)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+				size += read;
+			}
+		}
+		return remember(file, size, mtime(attrs), digest.digest());
+	}
+
+	/**
+	 * 방금 읽은 내용으로 ETag 를 만듭니다. attrs 는 읽기 전에 조회한 값이어야 합니다.
+	 * (읽는 중에 파일이 바뀌면 수정 시각이 달라지므로, 다음 요청이 이 해시를 잘못 쓰지 않습니다.)
+	 */
+	public String etag(Path file, BasicFileAttributes attrs, byte[] content) {
+		if (content.length > hashMaxBytes) {
+			return format(content.length, Long.toHexString(mtime(attrs)));
+		}
+		return remember(file, content.length, mtime(attrs), newDigest().digest(content));
+	}
+
+	/**
+	 * [추가] 아직 파일에 쓰지 않은 내용의 ETag 입니다. 해시할 수 있는 크기(hashes)일 때만 써진 뒤의 ETag 와 같습니다.
+	 */
+	public String etag(byte[] content) {
+		return format(content.length, hex(newDigest().digest(content)));
+	}
+
+	/**
+	 * [추가] 이 크기의 파일은 내용 해시로 ETag 를 만드는지 (수정 시각과 관계없는 ETag 인지)
+	 */
+	public boolean hashes(long size) {
+		return size <= hashMaxBytes;
+	}
+
+	/**
+	 * If-None-Match 헤더 값이 etag 와 일치하는지 확인합니다. (여러 값, "*", 약한 비교 W/ 지원)
+	 */
+	public static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null || etag == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if ("*".equals(tag) || etag.equals(tag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String cachedHash(Path file, long size, long mtime) {
+		synchronized (hashes) {
+			CachedHash cached = hashes.get(file.toString());
+			return cached != null && cached.size() == size && cached.mtime() == mtime ? cached.hash() : null;
+		}
+	}
+
+	private String remember(Path file, long size, long mtime, byte[] digest) {
+		String hash = hex(digest);
+		synchronized (hashes) {
+			hashes.put(file.toString(), new CachedHash(size, mtime, hash));
+		}
+		return format(size, hash);
+	}
+
+	private static String hex(byte[] digest) {
+		return HexFormat.of().formatHex(Arrays.copyOf(digest, HASH_BYTES));
+	}
+
+	private static String format(long size, String version) {
+		return "\"" + Long.toHexString(size) + "-" + version + "\"";
+	}
+
+	private static long mtime(BasicFileAttributes attrs) {
+		return attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private record CachedHash(long size, long mtime, String hash) {
+	}
+}
@@ -0,0 +1,395 @@
+package com.growlog.webide.domain.files.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 파일 경로 fuzzy 검색 (IDE 의 "파일로 이동")
+ *
+ * 검색어의 글자가 순서대로 나오면(subsequence) 일치하며, 연속해서 일치할수록, 단어 경계(/ . _ - 와 camelCase)에서
+ * 일치할수록 점수가 높습니다. 파일 이름에서 일치한 파일이 항상 먼저이고, 이름만으로 limit 개가 안 되거나
+ * 검색어에 '/' 가 있을 때만 경로 전체에서 찾습니다.
+ * 파일 수만큼의 String 을 매번 읽으면 캐시 미스가 대부분의 비용이므로, 소문자 이름을 하나의 char 배열에 이어 붙이고
+ * 단어 경계 여부와 포함한 글자의 비트마스크를 미리 계산해 둡니다. 대부분은 비트마스크 비교 한 번으로 거르고,
+ * 글자를 이어서 입력하면 직전 검색의 후보 안에서만 다시 찾습니다.
+ * 경로 전체 매칭은 폴더 부분을 고유 폴더마다 한 번만 맞춰 봅니다. (스레드 안전하지 않음, ProjectTreeIndex 가 동기화)
+ */
+final class FileFinder {
+
+	private static final int MATCH = 16;
+	private static final int CONSECUTIVE = 24;
+	private static final int BOUNDARY = 20;
+	private static final int NAME_START = 30;
+	private static final int NAME_PREFIX = 80;
+	private static final int EXACT_NAME = 200;
+	private static final int GAP_START = 3;
+	private static final int MAX_GAP_PENALTY = 8;
+
+	private final Long[] ids;
+	private final String[] paths;
+	private final int[] nameStarts;
+	private final int[] pathLengths;
+	// 소문자 이름을 이어 붙인 배열, i 번째 파일의 이름은 [nameOffsets[i], nameOffsets[i + 1])
+	private final char[] names;
+	private final boolean[] boundaries;
+	private final int[] nameOffsets;
+	private final long[] nameMasks;
+	// 파일마다 속한 폴더 (폴더 부분 = 경로에서 이름 앞까지, 마지막 '/' 포함, 소문자)
+	private final int[] directoryOf;
+	private final String[] directories;
+	private final boolean[][] directoryBoundaries;
+	private String lastQuery;
+	private int[] lastCandidates;
+	private int lastCandidateCount;
+
+	FileFinder(List<Long> ids, List<String> paths) {
+		int size = paths.size();
+		this.ids = ids.toArray(new Long[0]);
+		this.paths = paths.toArray(new String[0]);
+		this.nameStarts = new int[size];
+		this.pathLengths = new int[size];
+		this.nameOffsets = new int[size + 1];
+		this.nameMasks = new long[size];
+		this.directoryOf = new int[size];
+		int totalNameLength = 0;
+		for (int i = 0; i < size; i++) {
+			nameStarts[i] = this.paths[i].lastIndexOf('/') + 1;
+			pathLengths[i] = this.paths[i].length();
+			totalNameLength += this.paths[i].length() - nameStarts[i];
+		}
+		this.names = new char[totalNameLength];
+		this.boundaries = new boolean[totalNameLength];
+
+		Map<String, Integer> directoryIds = new HashMap<>();
+		List<String> uniqueDirectories = new ArrayList<>();
+		List<boolean[]> uniqueBoundaries = new ArrayList<>();
+		int offset = 0;
+		for (int i = 0; i < size; i++) {
+			String path = this.paths[i];
+			nameOffsets[i] = offset;
+			for (int at = nameStarts[i]; at < path.length(); at++, offset++) {
+				names[offset] = Character.toLowerCase(path.charAt(at));
+				boundaries[offset] = at == nameStarts[i] || isBoundary(path, at);
+			}
+			nameMasks[i] = mask(names, nameOffsets[i], offset);
+			String directory = path.substring(0, nameStarts[i]).toLowerCase(Locale.ROOT);
+			directoryOf[i] = directoryIds.computeIfAbsent(directory, key -> {
+				boolean[] directoryBoundary = new boolean[key.length()];
+				for (int at = 0; at < key.length(); at++) {
+					directoryBoundary[at] = isBoundary(path, at);
+				}
+				uniqueDirectories.add(key);
+				uniqueBoundaries.add(directoryBoundary);
+				return uniqueDirectories.size() - 1;
+			});
+		}
+		nameOffsets[size] = offset;
+		this.directories = uniqueDirectories.toArray(new String[0]);
+		this.directoryBoundaries = uniqueBoundaries.toArray(new boolean[0][]);
+	}
+
+	/**
+	 * 점수 순으로 최대 limit 개를 반환합니다. 공백은 무시합니다.
+	 */
+	List<Match> find(String rawQuery, int limit) {
+		char[] query = rawQuery.replaceAll("\\s+", "").toLowerCase(Locale.ROOT).toCharArray();
+		if (query.length == 0 || limit <= 0) {
+			return List.of();
+		}
+		// 점수 높은 순, 같으면 경로 순(인덱스가 작은 쪽)으로 상위 limit 개 (head 가 가장 낮은 항목)
+		PriorityQueue<Long> top = new PriorityQueue<>(limit + 1);
+		boolean[] nameMatched = null;
+		if (new String(query).indexOf('/') < 0) {
+			nameMatched = findInNames(query, limit, top);
+		}
+		if (top.size() < limit) {
+			findInPaths(query, limit, top, nameMatched);
+		}
+
+		List<Match> result = new ArrayList<>(top.size());
+		while (!top.isEmpty()) {
+			int index = Integer.MAX_VALUE - (int)(long)top.poll();
+			int[] positions = new int[query.length];
+			boolean inName = nameMatched != null && nameMatched[index];
+			int score = inName ? nameScore(query, index, positions) : pathScore(query, index, positions);
+			result.add(new Match(ids[index], paths[index], nameStarts[index], score, positions));
+		}
+		Collections.reverse(result);
+		return result;
+	}
+
+	/**
+	 * 파일 이름에서 찾습니다. 직전 검색어 뒤에 글자를 더 입력했으면 직전 후보만 다시 확인합니다.
+	 * @return 이름에서 일치한 파일 표시
+	 */
+	private boolean[] findInNames(char[] query, int limit, PriorityQueue<Long> top) {
+		String queryText = new String(query);
+		long queryMask = mask(query, 0, query.length);
+		// 한 글자이고 비트를 혼자 쓰는 글자면 비트마스크 비교만으로 일치 여부가 정해집니다.
+		boolean maskIsExact = query.length == 1 && Long.numberOfTrailingZeros(queryMask) < 40;
+		boolean narrowing = lastQuery != null && queryText.startsWith(lastQuery);
+		int scanCount = narrowing ? lastCandidateCount : paths.length;
+		int[] candidates = new int[scanCount];
+		int candidateCount = 0;
+		boolean[] matched = new boolean[paths.length];
+		for (int n = 0; n < scanCount; n++) {
+			int i = narrowing ? lastCandidates[n] : n;
+			if ((nameMasks[i] & queryMask) != queryMask
+				|| !maskIsExact && !isSubsequence(query, 0, names, nameOffsets[i], nameOffsets[i + 1])) {
+				continue;
+			}
+			candidates[candidateCount++] = i;
+			matched[i] = true;
+			// 이름 첫 글자부터 일치하지 않으면 받을 수 있는 최대 점수로도 못 들어가는 파일은 점수를 계산하지 않습니다.
+			if (top.size() < limit || names[nameOffsets[i]] == query[0]
+				|| maxScore(query.length, false, pathLengths[i]) >= minScore(top)) {
+				offer(top, limit, nameScore(query, i, null), i);
+			}
+		}
+		lastQuery = queryText;
+		lastCandidates = candidates;
+		lastCandidateCount = candidateCount;
+		return matched;
+	}
+
+	/**
+	 * 경로 전체에서 찾습니다. 앞에서부터 욕심껏 맞추면 폴더 부분에서 맞춘 글자 수는 폴더마다 같으므로
+	 * 폴더마다 한 번 계산하고, 파일마다 나머지 글자만 이름에서 확인합니다.
+	 */
+	private void findInPaths(char[] query, int limit, PriorityQueue<Long> top, boolean[] nameMatched) {
+		int[] consumed = new int[directories.length];
+		for (int d = 0; d < directories.length; d++) {
+			consumed[d] = greedyMatchCount(query, directories[d]);
+		}
+		// 폴더에서 맞추지 못한 나머지 검색어의 비트마스크
+		long[] remainingMasks = new long[query.length + 1];
+		for (int q = query.length - 1; q >= 0; q--) {
+			remainingMasks[q] = remainingMasks[q + 1] | mask(query, q, q + 1);
+		}
+		// 검색어가 폴더 부분에서 모두 일치하면 점수는 폴더와 경로 길이로만 정해지므로 폴더마다 한 번만 계산합니다.
+		int[] directoryScores = new int[directories.length];
+		Arrays.fill(directoryScores, Integer.MIN_VALUE);
+		for (int i = 0; i < paths.length; i++) {
+			if (nameMatched != null && nameMatched[i]) {
+				continue;
+			}
+			int directory = directoryOf[i];
+			int matched = consumed[directory];
+			if (matched == query.length) {
+				if (directoryScores[directory] == Integer.MIN_VALUE) {
+					directoryScores[directory] = pathScore(query, i, null) + pathLengths[i] / 8;
+				}
+				offer(top, limit, directoryScores[directory] - pathLengths[i] / 8, i);
+				continue;
+			}
+			if ((nameMasks[i] & remainingMasks[matched]) != remainingMasks[matched]
+				|| !isSubsequence(query, matched, names, nameOffsets[i], nameOffsets[i + 1])) {
+				continue;
+			}
+			if (top.size() < limit || maxScore(query.length, true, pathLengths[i]) >= minScore(top)) {
+				offer(top, limit, pathScore(query, i, null), i);
+			}
+		}
+	}
+
+	private static void offer(PriorityQueue<Long> top, int limit, int score, int index) {
+		long key = ((long)score << 32) | (Integer.MAX_VALUE - index);
+		if (top.size() < limit) {
+			top.add(key);
+		} else if (key > top.peek()) {
+			top.poll();
+			top.add(key);
+		}
+	}
+
+	private static int minScore(PriorityQueue<Long> top) {
+		return (int)(top.peek() >> 32);
+	}
+
+	/**
+	 * 글자마다 단어 경계에서 연속으로 일치했을 때의 점수 (이름 첫 글자부터 일치한 경우는 제외)
+	 * @param nameStart 이름 첫 글자 일치 보너스 포함 여부 (경로 전체 매칭에서는 이름 중간에 있을 수 있음)
+	 */
+	private static int maxScore(int queryLength, boolean nameStart, int pathLength) {
+		int score = queryLength * (MATCH + BOUNDARY) + (queryLength - 1) * CONSECUTIVE;
+		return score + (nameStart ? NAME_START : 0) - pathLength / 8;
+	}
+
+	private int nameScore(char[] query, int index, int[] positions) {
+		int from = nameOffsets[index];
+		int to = nameOffsets[index + 1];
+		int score = matchScore(query, from, to, positions, nameStarts[index] - from);
+		if (Arrays.equals(names, from, Math.min(from + query.length, to), query, 0, query.length)) {
+			score += to - from == query.length ? EXACT_NAME : NAME_PREFIX;
+		}
+		// 같은 점수면 짧은 경로(덜 깊은 파일)가 먼저
+		return score - pathLengths[index] / 8;
+	}
+
+	/**
+	 * 이름 안에서 검색어가 끝나는 가장 앞의 위치를 찾고, 거기서 거꾸로 다시 맞춰서 가장 짧은 구간으로 점수를 매깁니다.
+	 * positions 가 있으면 일치한 글자의 경로 내 위치(이름 배열 위치 + shift)를 채웁니다.
+	 */
+	private int matchScore(char[] query, int from, int to, int[] positions, int shift) {
+		int end = from;
+		for (char c : query) {
+			while (names[end] != c) {
+				end++;
+			}
+			end++;
+		}
+		int score = 0;
+		int next = -1;
+		int position = end - 1;
+		for (int q = query.length - 1; q >= 0; q--) {
+			while (names[position] != query[q]) {
+				position--;
+			}
+			if (positions != null) {
+				positions[q] = position + shift;
+			}
+			score += scoreAt(position, next, position == from, boundaries[position]);
+			next = position--;
+		}
+		return score;
+	}
+
+	/**
+	 * 경로 전체 기준 점수 (폴더 부분은 공유하는 폴더 문자열, 이름 부분은 이어 붙인 이름 배열에서 읽습니다.)
+	 */
+	private int pathScore(char[] query, int index, int[] positions) {
+		String directory = directories[directoryOf[index]];
+		int directoryLength = directory.length();
+		int end = 0;
+		for (char c : query) {
+			while (charAt(index, directory, end) != c) {
+				end++;
+			}
+			end++;
+		}
+		int score = 0;
+		int next = -1;
+		int position = end - 1;
+		for (int q = query.length - 1; q >= 0; q--) {
+			while (charAt(index, directory, position) != query[q]) {
+				position--;
+			}
+			if (positions != null) {
+				positions[q] = position;
+			}
+			boolean boundary = position < directoryLength ? directoryBoundaries[directoryOf[index]][position]
+				: boundaries[nameOffsets[index] + position - directoryLength];
+			score += scoreAt(position, next, position == directoryLength, boundary);
+			next = position--;
+		}
+		return score - pathLengths[index] / 8;
+	}
+
+	/**
+	 * 경로의 at 번째 소문자 (폴더 부분 + 이름 부분)
+	 */
+	private char charAt(int index, String directory, int at) {
+		return at < directory.length() ? directory.charAt(at) : names[nameOffsets[index] + at - directory.length()];
+	}
+
+	/**
+	 * @param next 다음 검색어 글자가 일치한 위치 (마지막 글자면 -1)
+	 */
+	private static int scoreAt(int position, int next, boolean nameStart, boolean boundary) {
+		int score = MATCH;
+		if (next == position + 1) {
+			score += CONSECUTIVE;
+		} else if (next >= 0) {
+			score -= GAP_START + Math.min(next - position - 1, MAX_GAP_PENALTY);
+		}
+		if (nameStart) {
+			score += NAME_START;
+		} else if (boundary) {
+			score += BOUNDARY;
+		}
+		return score;
+	}
+
+	private static boolean isBoundary(String path, int at) {
+		if (at == 0) {
+			return true;
+		}
+		char previous = path.charAt(at - 1);
+		if (previous == '/' || previous == '.' || previous == '_' || previous == '-' || previous == ' ') {
+			return true;
+		}
+		return Character.isUpperCase(path.charAt(at)) && Character.isLowerCase(previous);
+	}
+
+	/**
+	 * query[queryFrom..] 가 text[from, to) 에 순서대로 모두 나오는지
+	 */
+	private static boolean isSubsequence(char[] query, int queryFrom, char[] text, int from, int to) {
+		int position = from;
+		for (int q = queryFrom; q < query.length; q++) {
+			char c = query[q];
+			while (position < to && text[position] != c) {
+				position++;
+			}
+			if (position++ == to) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * text 에서 앞에서부터 순서대로 맞출 수 있는 검색어 글자 수
+	 */
+	private static int greedyMatchCount(char[] query, String text) {
+		int position = 0;
+		for (int q = 0; q < query.length; q++) {
+			position = text.indexOf(query[q], position);
+			if (position < 0) {
+				return q;
+			}
+			position++;
+		}
+		return query.length;
+	}
+
+	/**
+	 * [from, to) 에 포함한 글자의 비트마스크 (영문/숫자/기호는 글자마다 한 비트, 그 외는 나머지 비트에 나눠 담음)
+	 */
+	private static long mask(char[] lower, int from, int to) {
+		long mask = 0;
+		for (int i = from; i < to; i++) {
+			char c = lower[i];
+			int bit;
+			if (c >= 'a' && c <= 'z') {
+				bit = c - 'a';
+			} else if (c >= '0' && c <= '9') {
+				bit = 26 + c - '0';
+			} else if (c == '.') {
+				bit = 36;
+			} else if (c == '_') {
+				bit = 37;
+			} else if (c == '-') {
+				bit = 38;
+			} else if (c == '/') {
+				bit = 39;
+			} else {
+				bit = 40 + c % 24;
+			}
+			mask |= 1L << bit;
+		}
+		return mask;
+	}
+
+	/**
+	 * @param positions 경로에서 검색어 글자가 일치한 위치 (강조 표시용)
+	 */
+	record Match(Long id, String path, int nameStart, int score, int[] positions) {
+	}
+}
@@ -0,0 +1,247 @@
+package com.growlog.webide.domain.files.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EFS 의 프로젝트 폴더 전체를 file_meta 에 한꺼번에 저장합니다. (프로젝트 생성, 최초 트리 동기화)
+ *
+ * 폴더마다 ForkJoin 작업으로 나눠서 병렬로 스캔하고, 깊이 순으로 JDBC 배치 INSERT 합니다.
+ * FileMeta 는 IDENTITY 전략이라 JPA saveAll 로는 배치가 되지 않으므로 JDBC 로 직접 저장하며,
+ * 배치로 받은 생성 키로 다음 깊이 항목의 parent_id 를 채웁니다.
+ * 항목이 많으면 진행 상황을 프로젝트 트리 토픽으로 보냅니다. (tree:import)
+ */
+@Slf4j
+@Component
+public class FileMetaBulkImporter {
+
+	private static final String INSERT_SQL = "INSERT INTO file_meta "
+		+ "(project_id, name, path, parent_path, parent_id, depth, type, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, false)";
+	private static final String ROOT = "/";
+	private static final String FOLDER = "folder";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final ForkJoinPool scanPool;
+	private final int batchSize;
+	private final int progressInterval;
+
+	public FileMetaBulkImporter(JdbcTemplate jdbcTemplate, SimpMessagingTemplate messagingTemplate,
+		@Value("${file-meta.import.scan-parallelism:8}") int scanParallelism,
+		@Value("${file-meta.import.batch-size:1000}") int batchSize,
+		@Value("${file-meta.import.progress-interval:5000}") int progressInterval) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.messagingTemplate = messagingTemplate;
+		// EFS(NFS) 는 디렉터리 조회마다 네트워크 왕복이 있으므로 CPU 수보다 많이 병렬로 조회할 수 있습니다.
+		this.scanPool = new ForkJoinPool(scanParallelism);
+		this.batchSize = batchSize;
+		this.progressInterval = progressInterval;
+	}
+
+	/**
+	 * projectRoot 하위의 모든 파일/폴더를 저장합니다. 호출한 트랜잭션의 커넥션을 그대로 사용합니다.
+	 * @param rootId 이미 저장된 루트('/') 메타데이터 ID, null 이면 루트도 함께 저장합니다.
+	 * @return 저장한 항목 수 (루트 포함)
+	 */
+	public int importTree(Long projectId, Path projectRoot, Long rootId) {
+		long startedAt = System.nanoTime();
+		List<ScannedEntry> entries = scanPool.invoke(new ScanTask(projectRoot, ROOT));
+		// 부모가 항상 먼저 저장되도록 깊이 순으로 정렬합니다.
+		entries.sort(Comparator.comparingInt(ScannedEntry::depth));
+		long scannedAt = System.nanoTime();
+
+		Map<String, Long> folderIds = new HashMap<>();
+		if (rootId != null) {
+			folderIds.put(ROOT, rootId);
+		}
+		int saved = jdbcTemplate.execute((ConnectionCallback<Integer>)connection ->
+			insertAll(connection, projectId, entries, folderIds, null));
+		log.info("Imported {} file metas for project {} (scan {} ms, insert {} ms)", saved, projectId,
+			(scannedAt - startedAt) / 1_000_000, (System.nanoTime() - scannedAt) / 1_000_000);
+		return saved;
+	}
+
+	/**
+	 * [추가] 이미 저장된 프로젝트에 새 항목만 저장합니다. (컨테이너 안에서 만들어진 파일 반영)
+	 * 호출한 트랜잭션이 있으면 거기에 참여하고, 없으면 이 배치만 짧은 트랜잭션으로 저장합니다.
+	 * @param entries   저장할 경로 → 폴더 여부
+	 * @param folderIds 이미 저장된 상위 폴더 경로 → ID (새로 저장한 폴더도 여기에 추가됩니다.)
+	 * @return 저장한 경로 → 생성된 ID
+	 */
+	@Transactional
+	public Map<String, Long> importEntries(Long projectId, Map<String, Boolean> entries, Map<String, Long> folderIds) {
+		List<ScannedEntry> sorted = new ArrayList<>(entries.size());
+		entries.forEach((path, folder) -> sorted.add(new ScannedEntry(path, folder)));
+		sorted.sort(Comparator.comparingInt(ScannedEntry::depth));
+		Map<String, Long> insertedIds = new HashMap<>(entries.size() * 2);
+		jdbcTemplate.execute((ConnectionCallback<Integer>)connection ->
+			insertAll(connection, projectId, sorted, folderIds, insertedIds));
+		return insertedIds;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		scanPool.shutdownNow();
+	}
+
+	/**
+	 * @param folderIds   상위 폴더 경로 → ID, 루트가 없으면 루트도 함께 저장합니다.
+	 * @param insertedIds 저장한 모든 항목의 ID 를 받을 맵 (필요 없으면 null)
+	 */
+	private int insertAll(Connection connection, Long projectId, List<ScannedEntry> entries,
+		Map<String, Long> folderIds, Map<String, Long> insertedIds) throws SQLException {
+		boolean insertRoot = !folderIds.containsKey(ROOT);
+		int total = entries.size() + (insertRoot ? 1 : 0);
+		int saved = 0;
+		try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+			if (insertRoot) {
+				ScannedEntry root = new ScannedEntry(ROOT, true);
+				addBatch(insert, projectId, root, null);
+				executeBatch(insert, List.of(root), folderIds, insertedIds);
+				saved++;
+			}
+
+			List<ScannedEntry> batch = new ArrayList<>(batchSize);
+			int depth = entries.isEmpty() ? 0 : entries.get(0).depth();
+			for (ScannedEntry entry : entries) {
+				// 다음 깊이로 넘어가기 전에 부모 폴더 ID 를 받아 둬야 하므로 깊이가 바뀌면 배치를 먼저 실행합니다.
+				if (batch.size() == batchSize || entry.depth() != depth) {
+					saved += flush(insert, batch, folderIds, insertedIds, projectId, total, saved);
+					depth = entry.depth();
+				}
+				addBatch(insert, projectId, entry, folderIds.get(FileMeta.parentPathOf(entry.path())));
+				batch.add(entry);
+			}
+			saved += flush(insert, batch, folderIds, insertedIds, projectId, total, saved);
+		}
+		return saved;
+	}
+
+	private int flush(PreparedStatement insert, List<ScannedEntry> batch, Map<String, Long> folderIds,
+		Map<String, Long> insertedIds, Long projectId, int total, int savedBefore) throws SQLException {
+		if (batch.isEmpty()) {
+			return 0;
+		}
+		executeBatch(insert, batch, folderIds, insertedIds);
+		int flushed = batch.size();
+		batch.clear();
+
+		int saved = savedBefore + flushed;
+		if (total >= progressInterval && saved / progressInterval != savedBefore / progressInterval) {
+			log.info("File meta import progress for project {}: {}/{}", projectId, saved, total);
+			messagingTemplate.convertAndSend("/topic/projects/" + projectId + "/tree",
+				new WebSocketMessage("tree:import", Map.of("processed", saved, "total", total)));
+		}
+		return flushed;
+	}
+
+	private void addBatch(PreparedStatement insert, Long projectId, ScannedEntry entry, Long parentId)
+		throws SQLException {
+		String path = entry.path();
+		insert.setLong(1, projectId);
+		insert.setString(2, path.substring(path.lastIndexOf('/') + 1));
+		insert.setString(3, path);
+		insert.setString(4, FileMeta.parentPathOf(path));
+		if (parentId == null) {
+			insert.setNull(5, Types.BIGINT);
+		} else {
+			insert.setLong(5, parentId);
+		}
+		insert.setInt(6, entry.depth());
+		insert.setString(7, entry.folder() ? FOLDER : "file");
+		insert.addBatch();
+	}
+
+	/**
+	 * 배치를 실행하고 생성 키를 읽습니다. 폴더의 ID 는 하위 항목의 parent_id 로 쓰기 위해 보관합니다.
+	 */
+	private void executeBatch(PreparedStatement insert, List<ScannedEntry> batch, Map<String, Long> folderIds,
+		Map<String, Long> insertedIds) throws SQLException {
+		insert.executeBatch();
+		try (ResultSet keys = insert.getGeneratedKeys()) {
+			for (int i = 0; i < batch.size() && keys.next(); i++) {
+				long id = keys.getLong(1);
+				if (batch.get(i).folder()) {
+					folderIds.put(batch.get(i).path(), id);
+				}
+				if (insertedIds != null) {
+					insertedIds.put(batch.get(i).path(), id);
+				}
+			}
+		}
+	}
+
+	private record ScannedEntry(String path, boolean folder) {
+		private int depth() {
+			return FileMeta.depthOf(path);
+		}
+	}
+
+	/**
+	 * 폴더 하나를 조회하고, 하위 폴더는 별도 작업으로 나눠서 병렬로 조회합니다.
+	 * 심볼릭 링크는 따라가지 않습니다.
+	 */
+	private static final class ScanTask extends RecursiveTask<List<ScannedEntry>> {
+		private final Path directory;
+		private final String relativePath;
+
+		private ScanTask(Path directory, String relativePath) {
+			this.directory = directory;
+			this.relativePath = relativePath;
+		}
+
+		@Override
+		protected List<ScannedEntry> compute() {
+			List<ScannedEntry> entries = new ArrayList<>();
+			List<ScanTask> subdirectories = new ArrayList<>();
+			try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+				for (Path child : children) {
+					String childPath = (ROOT.equals(relativePath) ? "" : relativePath) + "/" + child.getFileName();
+					boolean isDirectory = Files.readAttributes(child, BasicFileAttributes.class,
+						LinkOption.NOFOLLOW_LINKS).isDirectory();
+					entries.add(new ScannedEntry(childPath, isDirectory));
+					if (isDirectory) {
+						subdirectories.add(new ScanTask(child, childPath));
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to scan " + directory, e);
+			}
+			for (ScanTask task : invokeAll(subdirectories)) {
+				entries.addAll(task.join());
+			}
+			return entries;
+		}
+	}
+}
@@ -2,40 +2,55 @@ package com.growlog.webide.domain.files.service;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import com.growlog.webide.domain.files.dto.CreateFileRequest;
+import com.growlog.webide.domain.files.dto.FileEditDto;
 import com.growlog.webide.domain.files.dto.FileOpenResponseDto;
+import com.growlog.webide.domain.files.dto.FilePatchRequestDto;
+import com.growlog.webide.domain.files.dto.FilePatchResponseDto;
+import com.growlog.webide.domain.files.dto.FileRawContent;
+import com.growlog.webide.domain.files.dto.FileTrashResponseDto;
 import com.growlog.webide.domain.files.dto.tree.TreeAddEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
 import com.growlog.webide.domain.files.dto.tree.TreeMoveEventDto;
 import com.growlog.webide.domain.files.dto.tree.TreeRemoveEventDto;
 import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
 import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.entity.FileTrash;
 import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.repository.FileTrashRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
 import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
 import com.growlog.webide.domain.projects.entity.Project;
 import com.growlog.webide.domain.projects.repository.ProjectRepository;
 import com.growlog.webide.global.common.exception.CustomException;
 import com.growlog.webide.global.common.exception.ErrorCode;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -43,12 +58,25 @@ import lombok.extern.slf4j.Slf4j;
 public class FileService {
 	private static final String FILE = "file";
 	private static final String FOLDER = "folder";
+	private static final int SAVE_LOCK_STRIPES = 64;
+	// [추가] 되살린 폴더의 트리 이벤트를 tree:batch 하나에 담는 최대 수
+	private static final int RESTORE_EVENT_CHUNK_SIZE = 500;
 	private final String efsBasePath;
 
 	private final SimpMessagingTemplate messagingTemplate;
 	private final ProjectRepository projectRepository;
 	private final ProjectPermissionService permissionService;
 	private final FileMetaRepository fileMetaRepository;
+	private final ProjectTreeIndexRegistry projectTreeIndexRegistry;
+	private final CodeSearchIndexRegistry codeSearchIndexRegistry;
+	private final FileContentVersions fileContentVersions;
+	private final FileWriteBackBuffer fileWriteBackBuffer;
+	private final FileContentCache fileContentCache;
+	private final FileTrashStorage fileTrashStorage;
+	private final FileTrashRepository fileTrashRepository;
+	private final MeterRegistry meterRegistry;
+	// [추가] 같은 파일의 저장을 순서대로 처리하기 위한 잠금 (경로 해시로 나눔)
+	private final Object[] saveLocks = new Object[SAVE_LOCK_STRIPES];
 
 	// 기본 파일시스템 (운영에서는 EFS 마운트 경로)
 	private final FileSystem fileSystem;
@@ -57,12 +85,31 @@ public class FileService {
 		SimpMessagingTemplate messagingTemplate,
 		ProjectRepository projectRepository,
 		ProjectPermissionService permissionService,
-		FileMetaRepository fileMetaRepository) {
+		FileMetaRepository fileMetaRepository,
+		ProjectTreeIndexRegistry projectTreeIndexRegistry,
+		CodeSearchIndexRegistry codeSearchIndexRegistry,
+		FileContentVersions fileContentVersions,
+		FileWriteBackBuffer fileWriteBackBuffer,
+		FileContentCache fileContentCache,
+		FileTrashStorage fileTrashStorage,
+		FileTrashRepository fileTrashRepository,
+		MeterRegistry meterRegistry) {
 		this.efsBasePath = efsBasePath;
 		this.messagingTemplate = messagingTemplate;
 		this.projectRepository = projectRepository;
 		this.permissionService = permissionService;
 		this.fileMetaRepository = fileMetaRepository;
+		this.projectTreeIndexRegistry = projectTreeIndexRegistry;
+		this.codeSearchIndexRegistry = codeSearchIndexRegistry;
+		this.fileContentVersions = fileContentVersions;
+		this.fileWriteBackBuffer = fileWriteBackBuffer;
+		this.fileContentCache = fileContentCache;
+		this.fileTrashStorage = fileTrashStorage;
+		this.fileTrashRepository = fileTrashRepository;
+		this.meterRegistry = meterRegistry;
+		for (int i = 0; i < saveLocks.length; i++) {
+			saveLocks[i] = new Object();
+		}
 		this.fileSystem = FileSystems.getDefault();
 	}
 
@@ -85,11 +132,14 @@ public class FileService {
 		File file = new File(request.getPath());
 
 		// Save DB
-		saveAllParentFolders(file, project);
-		Long fileMetaId = saveFileMeta(request, project);
+		FileMeta parentMeta = saveAllParentFolders(file, project);
+		Long fileMetaId = saveFileMeta(request, project, parentMeta);
 
 		// Save EFS
 		saveFileOrDirectoryEfs(projectId, request.getType(), request.getPath());
+		if (FILE.equals(request.getType())) {
+			codeSearchIndexRegistry.updateFile(projectId, request.getPath(), "");
+		}
 
 		sendEvent(new WebSocketMessage("tree:add",
 			new TreeAddEventDto(fileMetaId, request.getPath(), request.getType())), projectId);
@@ -103,6 +153,11 @@ public class FileService {
 		//파일 삭제는 쓰기(and 오너) 권한을 가진 사람만 가능(읽기 권한이 아닌 사람.)
 		permissionService.checkWriteAccess(userId, project.getId());
 
+		// [추가] 프로젝트 루트는 휴지통으로 옮길 수 없습니다.
+		if ("/".equals(path)) {
+			throw new CustomException(ErrorCode.PATH_NOT_ALLOWED);
+		}
+
 		//db에서 파일 메타 정보 조회
 		FileMeta meta = fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, path)
 			.orElseThrow(() -> new CustomException(ErrorCode.FILE_NOT_FOUND));
@@ -115,40 +170,131 @@ public class FileService {
 			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
 		}
 
-		//java nio api를 사용한 파일/폴더 삭제
+		// [추가] 아직 쓰지 않은 저장 내용이 삭제 후에 다시 써지지 않도록 버립니다.
+		fileWriteBackBuffer.discardUnder(targetPath);
+
+		// [개선] 하위 항목을 하나씩 지우지 않고 휴지통으로 한 번에 옮깁니다. (rename 한 번, 실제 삭제는 FileTrashPurger)
+		String storageName;
 		try {
-			if (Files.exists(targetPath)) {
-				if (Files.isDirectory(targetPath)) {
-					// 디렉터리인 경우, 재귀적으로 삭제
-					try (Stream<Path> walk = Files.walk(targetPath)) {
-						walk.sorted(Comparator.reverseOrder()).forEach(p -> {
-							try {
-								Files.delete(p);
-							} catch (IOException ex) {
-								throw new UncheckedIOException(ex);
-							}
-						});
-					}
-				} else {
-					// 파일인 경우, 바로 삭제
-					Files.delete(targetPath);
-				}
-			} else {
-				log.warn("File not found on EFS, but metadata exists. Path: {}", targetPath);
-			}
-		} catch (UncheckedIOException | IOException e) {
-			log.error("Failed to delete file or directory on EFS. Path: {}", targetPath, e);
+			storageName = fileTrashStorage.moveToTrash(projectId, targetPath);
+		} catch (IOException e) {
+			log.error("Failed to move file or directory to trash. Path: {}", targetPath, e);
 			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
 		}
 
 		//db에서 메타데이터 삭제
-		meta.markDeleted();
-		fileMetaRepository.save(meta);
+		// [개선] 하위 항목까지 한 번의 UPDATE 로 삭제 처리합니다. (DATETIME(6) 과 같게 마이크로초까지만 사용)
+		LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		int deleted = fileMetaRepository.markSubtreeDeleted(projectId, path,
+			FileMetaRepository.escapeLike(path) + "/%", deletedAt);
+		log.info("Deleted {} file metas under {}", deleted, path);
+		if (storageName != null) {
+			fileTrashRepository.save(FileTrash.builder()
+				.project(project)
+				.path(path)
+				.type(meta.getType())
+				.storageName(storageName)
+				.deletedBy(userId)
+				.deletedAt(deletedAt)
+				.build());
+			// 롤백되면 휴지통으로 옮긴 항목을 원래 자리로 되돌립니다.
+			afterRollback(() -> {
+				try {
+					fileTrashStorage.restore(projectId, storageName, targetPath);
+				} catch (IOException e) {
+					log.error("Failed to restore trashed file after rollback. Path: {}", targetPath, e);
+				}
+			});
+		}
+		codeSearchIndexRegistry.remove(projectId, path);
+		fileContentCache.invalidateTree(targetPath);
 
 		// ✅ WebSocket 이벤트 푸시
 		sendEvent(new WebSocketMessage("tree:remove", new TreeRemoveEventDto(meta.getId(), path)), projectId);
 	}
 
+	/**
+	 * [추가] 휴지통의 항목 목록 (최근에 삭제한 순)
+	 */
+	@Transactional(readOnly = true)
+	public List<FileTrashResponseDto> findTrash(Long projectId, Long userId) {
+		permissionService.checkReadAccess(findProjectById(projectId), userId);
+		return fileTrashRepository.findByProjectIdOrderByDeletedAtDesc(projectId).stream()
+			.map(FileTrashResponseDto::from)
+			.toList();
+	}
+
+	/**
+	 * [추가] 휴지통의 항목을 삭제 전 경로로 되살립니다. (삭제 취소)
+	 * 같이 삭제한 하위 항목의 메타데이터도 한 번의 UPDATE 로 되돌리고, 그 자리에 새 항목이 있으면 되살리지 않습니다.
+	 */
+	@Transactional
+	public void restoreFromTrash(Long projectId, Long trashId, Long userId) {
+		Project project = findProjectById(projectId);
+		permissionService.checkWriteAccess(userId, project.getId());
+
+		FileTrash trash = fileTrashRepository.findByIdAndProjectId(trashId, projectId)
+			.orElseThrow(() -> new CustomException(ErrorCode.FILE_NOT_FOUND));
+		String path = trash.getPath();
+		checkAlreadyExistsFile(projectId, path);
+
+		Path targetPath;
+		try {
+			targetPath = resolveProjectPath(projectId, path);
+		} catch (IOException e) {
+			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
+		}
+		if (Files.exists(targetPath)) {
+			throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+		}
+
+		String descendantPattern = FileMetaRepository.escapeLike(path) + "/%";
+		int restored = fileMetaRepository.restoreSubtree(projectId, path, descendantPattern, trash.getDeletedAt());
+		FileMeta rootMeta = fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, path)
+			.orElseThrow(() -> new CustomException(ErrorCode.FILE_NOT_FOUND));
+		// 부모 폴더가 그 사이에 지워졌을 수 있으므로 다시 찾거나 만들어서 연결합니다.
+		rootMeta.attachTo(saveAllParentFolders(new File(path), project));
+		fileMetaRepository.save(rootMeta);
+		fileTrashRepository.delete(trash);
+
+		try {
+			Files.createDirectories(targetPath.getParent());
+			fileTrashStorage.restore(projectId, trash.getStorageName(), targetPath);
+		} catch (NoSuchFileException e) {
+			// 보관 기간이 지나 이미 지워진 경우
+			throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+		} catch (IOException e) {
+			log.error("Failed to restore file or directory from trash. Path: {}", targetPath, e);
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+		}
+		afterRollback(() -> {
+			try {
+				fileTrashStorage.moveToTrash(projectId, targetPath, trash.getStorageName());
+			} catch (IOException e) {
+				log.error("Failed to move restored file back to trash after rollback. Path: {}", targetPath, e);
+			}
+		});
+		log.info("Restored {} file metas under {}", restored, path);
+
+		if (FILE.equals(rootMeta.getType())) {
+			codeSearchIndexRegistry.indexFromDisk(projectId, path);
+			sendEvent(new WebSocketMessage("tree:add", new TreeAddEventDto(rootMeta.getId(), path, FILE)), projectId);
+			return;
+		}
+		codeSearchIndexRegistry.invalidate(projectId);
+		// 부모가 먼저 오도록 깊이 순으로 보내고, 많으면 tree:batch 여러 개로 나눕니다.
+		List<WebSocketMessage> events = fileMetaRepository.findSubtree(projectId, path, descendantPattern).stream()
+			.map(meta -> new WebSocketMessage("tree:add",
+				new TreeAddEventDto(meta.getId(), meta.getPath(), meta.getType())))
+			.toList();
+		for (int i = 0; i < events.size(); i += RESTORE_EVENT_CHUNK_SIZE) {
+			List<WebSocketMessage> chunk = events.subList(i, Math.min(i + RESTORE_EVENT_CHUNK_SIZE, events.size()));
+			sendEvent(chunk.size() == 1
+				? chunk.get(0)
+				: new WebSocketMessage("tree:batch", new TreeBatchEventDto(new ArrayList<>(chunk))), projectId);
+		}
+	}
+
 	@Transactional
 	public void moveFileOrDirectory(Long projectId, String fromPath, String toPath, Long userId) {
 		Project project = findProjectById(projectId);
@@ -187,42 +333,43 @@ public class FileService {
 			//대상 경로의 부모 디렉터리가 없으면 생성
 			Files.createDirectories(targetPath.getParent());
 
+			// [추가] 아직 쓰지 않은 저장 내용을 먼저 써야 옮긴 파일에 들어갑니다.
+			fileWriteBackBuffer.flushUnder(sourcePath);
 			Files.move(sourcePath, targetPath);
 		} catch (IOException e) {
 			log.error("Failed to move file or directory on EFS. from: {}, to: {}", sourcePath, targetPath, e);
 			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
 		}
 
-		saveAllParentFolders(new File(toPath), project);
+		FileMeta newParent = saveAllParentFolders(new File(toPath), project);
 
 		//DB 메타데이터 업데이트
-		// 이동할 대상과 그 하위의 모든 파일/폴더 메타데이터를 DB에서 조회
-		List<FileMeta> metasToMove = fileMetaRepository.findByProjectIdAndPathStartingWith(projectId, fromPath);
-
-		if (metasToMove.isEmpty()) {
-			// 실제 파일은 있으나 DB에 정보가 없는 경우. 에러를 던지거나 경고 로그를 남길 수 있음.
-			log.warn("File was moved on EFS, but no corresponding metadata found in DB for path starting with: {}",
-				fromPath);
-			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
-		}
-
-		for (FileMeta meta : metasToMove) {
-			String oldPath = meta.getPath();
-			// 기존 경로의 시작 부분(fromPath)을 새로운 경로(toPath)로 교체
-			String newPath = oldPath.replaceFirst(Pattern.quote(fromPath), toPath);
-			meta.updatePath(newPath);
+		// [개선] 이동한 항목 한 건만 엔티티로 바꾸고, 하위 항목은 한 번의 UPDATE 로 경로 prefix 를 바꿉니다.
+		//        (하위 항목 수와 관계없이 SQL 문 수가 일정하고, /src 를 옮길 때 /src2 는 건드리지 않습니다.)
+		FileMeta rootMeta = fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, fromPath)
+			.orElseThrow(() -> {
+				// 실제 파일은 있으나 DB에 정보가 없는 경우
+				log.warn("File was moved on EFS, but no corresponding metadata found in DB for path: {}", fromPath);
+				return new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+			});
+		int depthDelta = FileMeta.depthOf(toPath) - FileMeta.depthOf(fromPath);
+		rootMeta.updatePath(toPath);
+		rootMeta.attachTo(newParent);
+		fileMetaRepository.save(rootMeta);
+
+		if (FOLDER.equals(rootMeta.getType())) {
+			int movedDescendants = fileMetaRepository.moveDescendants(projectId,
+				FileMetaRepository.escapeLike(fromPath) + "/%", toPath, FileMetaRepository.pathLength(fromPath),
+				depthDelta);
+			log.info("Moved {} descendants from {} to {}", movedDescendants, fromPath, toPath);
 		}
-		fileMetaRepository.saveAll(metasToMove); // 변경된 모든 메타데이터를 한번에 저장
+		codeSearchIndexRegistry.move(projectId, fromPath, toPath);
+		fileContentCache.invalidateTree(sourcePath);
 
 		// ✅ WebSocket 이벤트 푸시
 		// 가장 상위의 메타데이터 ID를 사용
-		metasToMove.stream()
-			.filter(m -> m.getPath().equals(toPath)) // 경로가 업데이트 되었으므로 toPath와 비교
-			.findFirst()
-			.ifPresent(rootMeta -> sendEvent(
-				new WebSocketMessage("tree:move", new TreeMoveEventDto(rootMeta.getId(), fromPath, toPath)),
-				projectId));
-
+		sendEvent(new WebSocketMessage("tree:move", new TreeMoveEventDto(rootMeta.getId(), fromPath, toPath)),
+			projectId);
 	}
 
 	public FileOpenResponseDto openFile(Long projectId, String relativePath, Long userId) {
@@ -233,41 +380,88 @@ public class FileService {
 
 		Path targetPath;
 		try {
-			//실제 파일 경로 계산
 			targetPath = resolveProjectPath(projectId, relativePath);
 		} catch (IOException e) {
 			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
 		}
 
-		//파일 존재 여부 확인
-		if (!Files.exists(targetPath) || Files.isDirectory(targetPath)) {
+		try {
+			// [개선] 아직 쓰지 않은 저장 내용이 있으면 그 내용을 반환합니다.
+			FileWriteBackBuffer.Pending buffered = fileWriteBackBuffer.get(projectId, targetPath);
+			if (buffered != null) {
+				return FileOpenResponseDto.of(projectId, relativePath, decode(buffered.content()), true,
+					buffered.etag());
+			}
+
+			// [개선] 존재/폴더 확인을 속성 조회 한 번으로 하고, 크기와 수정 시각이 그대로면 캐시한 내용을 반환합니다.
+			BasicFileAttributes attrs = Files.readAttributes(targetPath, BasicFileAttributes.class);
+			if (attrs.isDirectory()) {
+				throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+			}
+			FileContentCache.CachedFile cached = fileContentCache.get(targetPath, attrs);
+			if (cached != null) {
+				return FileOpenResponseDto.of(projectId, relativePath, cached.content(), true, cached.etag());
+			}
+
+			// 읽은 바이트로 ETag 를 함께 만듭니다. (수정 시각은 읽기 전에 조회)
+			byte[] bytes = Files.readAllBytes(targetPath);
+			String fileContent = decode(bytes);
+			String etag = fileContentVersions.etag(targetPath, attrs, bytes);
+			fileContentCache.put(targetPath, attrs, fileContent, etag);
+
+			return FileOpenResponseDto.of(projectId, relativePath, fileContent,
+				true, etag); // editable은 write 권한 체크 결과로 설정 가능
+		} catch (NoSuchFileException e) {
 			throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+		} catch (IOException e) {
+			log.error("Failed to read file on EFS. path: {}", targetPath, e);
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
 		}
+	}
 
+	/**
+	 * [추가] 파일을 다시 읽지 않고 알 수 있는 현재 ETag (If-None-Match 확인용). 모르면 null 을 반환합니다.
+	 */
+	public String findCachedETag(Long projectId, String relativePath, Long userId) {
+		permissionService.checkReadAccess(findProjectById(projectId), userId);
+		Path targetPath = resolveReadableFile(projectId, relativePath);
+		FileWriteBackBuffer.Pending buffered = fileWriteBackBuffer.get(projectId, targetPath);
+		if (buffered != null) {
+			return buffered.etag();
+		}
 		try {
-			String fileContent = Files.readString(targetPath);
+			return fileContentVersions.cachedETag(targetPath,
+				Files.readAttributes(targetPath, BasicFileAttributes.class));
+		} catch (IOException e) {
+			return null;
+		}
+	}
 
-			return FileOpenResponseDto.of(projectId, relativePath, fileContent,
-				true); // editable은 write 권한 체크 결과로 설정 가능
+	/**
+	 * [추가] 파일 원본을 범위(Range)로 읽을 수 있도록 경로와 ETag 를 반환합니다. 내용은 응답을 쓸 때 읽습니다.
+	 * EFS 에서 직접 읽으므로 아직 쓰지 않은 저장 내용을 먼저 씁니다.
+	 */
+	public FileRawContent openRawFile(Long projectId, String relativePath, Long userId) {
+		permissionService.checkReadAccess(findProjectById(projectId), userId);
+		Path targetPath = resolveReadableFile(projectId, relativePath);
+		fileWriteBackBuffer.flush(targetPath);
+		try {
+			BasicFileAttributes attrs = Files.readAttributes(targetPath, BasicFileAttributes.class);
+			return new FileRawContent(targetPath, fileContentVersions.etag(targetPath, attrs), attrs.size());
 		} catch (IOException e) {
 			log.error("Failed to read file on EFS. path: {}", targetPath, e);
 			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
 		}
 	}
 
-	/*public List<FileSearchResponseDto> searchFilesByName(Long projectId, String query) {
-		return fileMetaRepository.findByProjectIdAndNameContainingIgnoreCaseAndDeletedFalse(projectId, query)
-			.stream()
-			.map(FileSearchResponseDto::from)
-			.toList();
-	}*/
-
+	/**
+	 * 파일 전체 내용을 저장합니다.
+	 * [개선] 임시 파일에 쓰고 fsync 한 뒤 rename 하므로, 저장 중에 서버가 죽어도 파일이 반만 써지지 않습니다.
+	 * [개선] 내용은 FileWriteBackBuffer 에 모았다가 씁니다. 이미 모아 둔 파일은 프로젝트/메타데이터를 다시 조회하지 않습니다.
+	 * @return 저장한 뒤의 새 버전(ETag)
+	 */
 	@Transactional(readOnly = true)
-	public void saveFileToStorage(Long projectId, String relativePath, String content, Long userId) {
-		Project project = findProjectById(projectId);
-
-		permissionService.checkWriteAccess(userId, project.getId());
-
+	public String saveFileToStorage(Long projectId, String relativePath, String content, Long userId) {
 		Path targetPath;
 		try {
 			targetPath = resolveProjectPath(projectId, relativePath);
@@ -275,22 +469,117 @@ public class FileService {
 			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
 		}
 
-		//파일이 존재하는지 확인
-		fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, relativePath)
-			.orElseThrow(() -> new CustomException(ErrorCode.FILE_NOT_FOUND));
+		if (fileWriteBackBuffer.contains(targetPath)) {
+			// 모아 둔 파일은 처음 저장할 때 프로젝트와 파일이 있는지 확인했으므로 권한만 확인합니다.
+			permissionService.checkWriteAccess(userId, projectId);
+		} else {
+			Project project = findProjectById(projectId);
+			permissionService.checkWriteAccess(userId, project.getId());
+
+			//파일이 존재하는지 확인
+			fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, relativePath)
+				.orElseThrow(() -> new CustomException(ErrorCode.FILE_NOT_FOUND));
+		}
 
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
 		try {
-			Files.createDirectories(targetPath.getParent());
-			Files.writeString(targetPath, content);
+			String etag;
+			synchronized (saveLock(targetPath)) {
+				etag = fileWriteBackBuffer.write(projectId, targetPath, bytes);
+			}
 			log.info("✅ File saved successfully. - path: {}", targetPath);
+			codeSearchIndexRegistry.updateFile(projectId, relativePath, content);
+			recordSave("full", bytes.length, bytes.length);
+			return etag;
 		} catch (IOException e) {
 			log.error("Failed to save file on EFS. path: {}", targetPath, e);
 			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
 		}
 	}
 
-	private Long saveFileMeta(CreateFileRequest request, Project project) {
+	/**
+	 * [추가] 기준 버전(ETag)과 편집 목록만 받아서 서버에서 적용하고 저장합니다. (자동 저장 시 전체 내용 대신 변경분만 전송)
+	 * 파일이 기준 버전에서 바뀌었으면 FILE_VERSION_CONFLICT 로 거부하므로, 클라이언트는 다시 열어서 합친 뒤 저장합니다.
+	 */
+	@Transactional(readOnly = true)
+	public FilePatchResponseDto patchFile(Long projectId, FilePatchRequestDto request, Long userId) {
+		Project project = findProjectById(projectId);
+		permissionService.checkWriteAccess(userId, project.getId());
+		if (!StringUtils.hasText(request.getBaseVersion()) || request.getEdits() == null) {
+			throw new CustomException(ErrorCode.BAD_REQUEST);
+		}
+
+		Path targetPath = resolveReadableFile(projectId, request.getPath());
+		fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, request.getPath())
+			.orElseThrow(() -> new CustomException(ErrorCode.FILE_NOT_FOUND));
+
+		String baseVersion = request.getBaseVersion().startsWith("\"")
+			? request.getBaseVersion()
+			: "\"" + request.getBaseVersion() + "\"";
+		try {
+			String content;
+			byte[] updated;
+			String etag;
+			// 같은 파일을 동시에 저장하면 둘 다 같은 기준 버전을 통과하지 않도록 확인부터 쓰기까지 묶습니다.
+			synchronized (saveLock(targetPath)) {
+				FileSnapshot snapshot = readSnapshot(projectId, targetPath);
+				if (!baseVersion.equals(snapshot.etag())) {
+					throw new CustomException(ErrorCode.FILE_VERSION_CONFLICT);
+				}
+				content = applyEdits(decode(snapshot.bytes()), request.getEdits());
+				updated = content.getBytes(StandardCharsets.UTF_8);
+				etag = fileWriteBackBuffer.write(projectId, targetPath, updated);
+			}
+			codeSearchIndexRegistry.updateFile(projectId, request.getPath(), content);
+
+			long payloadBytes = 0;
+			for (FileEditDto edit : request.getEdits()) {
+				payloadBytes += edit.getText() == null ? 0 : edit.getText().getBytes(StandardCharsets.UTF_8).length;
+			}
+			recordSave("patch", payloadBytes, updated.length);
+			return new FilePatchResponseDto(etag, updated.length);
+		} catch (IOException e) {
+			log.error("Failed to patch file on EFS. path: {}", targetPath, e);
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+		}
+	}
+
+	/**
+	 * [추가] 파일을 닫을 때 아직 쓰지 않은 저장 내용을 EFS 에 씁니다.
+	 */
+	public void closeFile(Long projectId, String relativePath, Long userId) {
+		permissionService.checkReadAccess(findProjectById(projectId), userId);
+		try {
+			fileWriteBackBuffer.flush(resolveProjectPath(projectId, relativePath));
+		} catch (IOException e) {
+			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
+		}
+	}
+
+	/**
+	 * 편집 목록을 시작 위치 순으로 적용합니다. 범위를 벗어나거나 서로 겹치면 BAD_REQUEST 입니다.
+	 */
+	static String applyEdits(String base, List<FileEditDto> edits) {
+		List<FileEditDto> sorted = new ArrayList<>(edits);
+		sorted.sort(Comparator.comparingInt(FileEditDto::getStart));
+		StringBuilder result = new StringBuilder(base.length());
+		int position = 0;
+		for (FileEditDto edit : sorted) {
+			if (edit.getStart() < position || edit.getEnd() < edit.getStart() || edit.getEnd() > base.length()) {
+				throw new CustomException(ErrorCode.BAD_REQUEST);
+			}
+			result.append(base, position, edit.getStart());
+			if (edit.getText() != null) {
+				result.append(edit.getText());
+			}
+			position = edit.getEnd();
+		}
+		return result.append(base, position, base.length()).toString();
+	}
+
+	private Long saveFileMeta(CreateFileRequest request, Project project, FileMeta parentMeta) {
 		FileMeta fileMeta = FileMeta.relativePath(project, request.getPath(), request.getType());
+		fileMeta.attachTo(parentMeta);
 		fileMetaRepository.save(fileMeta);
 		return fileMeta.getId();
 	}
@@ -300,6 +589,52 @@ public class FileService {
 			.orElseThrow(() -> new CustomException(ErrorCode.PROJECT_NOT_FOUND));
 	}
 
+	/**
+	 * 파일의 최신 내용과 버전을 읽습니다. 아직 쓰지 않은 저장 내용이 있으면 EFS 대신 그 내용입니다.
+	 */
+	private FileSnapshot readSnapshot(Long projectId, Path targetPath) throws IOException {
+		FileWriteBackBuffer.Pending buffered = fileWriteBackBuffer.get(projectId, targetPath);
+		if (buffered != null) {
+			return new FileSnapshot(buffered.content(), buffered.etag());
+		}
+		// 수정 시각은 읽기 전에 조회합니다.
+		BasicFileAttributes attrs = Files.readAttributes(targetPath, BasicFileAttributes.class);
+		byte[] bytes = Files.readAllBytes(targetPath);
+		return new FileSnapshot(bytes, fileContentVersions.etag(targetPath, attrs, bytes));
+	}
+
+	private static String decode(byte[] bytes) throws IOException {
+		return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+	}
+
+	private Object saveLock(Path targetPath) {
+		return saveLocks[Math.floorMod(targetPath.hashCode(), saveLocks.length)];
+	}
+
+	private void recordSave(String mode, long payloadBytes, long contentBytes) {
+		meterRegistry.counter("file.save.payload.bytes", "mode", mode).increment(payloadBytes);
+		meterRegistry.counter("file.save.content.bytes", "mode", mode).increment(contentBytes);
+	}
+
+	/**
+	 * 읽을 파일의 실제 경로 (없거나 폴더면 FILE_NOT_FOUND)
+	 */
+	private Path resolveReadableFile(Long projectId, String relativePath) {
+		Path targetPath;
+		try {
+			//실제 파일 경로 계산
+			targetPath = resolveProjectPath(projectId, relativePath);
+		} catch (IOException e) {
+			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
+		}
+
+		//파일 존재 여부 확인
+		if (!Files.exists(targetPath) || Files.isDirectory(targetPath)) {
+			throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+		}
+		return targetPath;
+	}
+
 	//입력한 파일 전체 경로 생성
 	private Path resolveProjectPath(Long projectId, String relativePath) throws IOException {
 		//프로젝트별 기본 경로 생성 (ex: /app/123)
@@ -310,7 +645,8 @@ public class FileService {
 			throw new CustomException(ErrorCode.BAD_REQUEST);
 		}
 
-		Path fullPath = getFullPath(relativePath, projectRoot);
+		// [개선] "/../" 로 다른 프로젝트를 가리키지 못하도록 정규화한 뒤 확인합니다.
+		Path fullPath = getFullPath(relativePath, projectRoot).normalize();
 
 		log.info("Resolved project path: {}", fullPath);
 		log.info("fullPath: {}, projectRoot: {}", fullPath, projectRoot);
@@ -341,8 +677,42 @@ public class FileService {
 		}
 	}
 
+	/**
+	 * [개선] 커밋된 후에 트리 인덱스에 반영하고, 반영된 버전을 붙여서 전송합니다.
+	 * 롤백되면 인덱스와 클라이언트 트리 모두 바뀌지 않습니다. (트랜잭션 밖에서는 바로 전송)
+	 */
 	private void sendEvent(WebSocketMessage fileMeta, Long projectId) {
-		messagingTemplate.convertAndSend("/topic/projects/" + projectId + "/tree", fileMeta);
+		Runnable publish = () -> {
+			fileMeta.setVersion(projectTreeIndexRegistry.apply(projectId, fileMeta));
+			messagingTemplate.convertAndSend("/topic/projects/" + projectId + "/tree", fileMeta);
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			publish.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				publish.run();
+			}
+		});
+	}
+
+	/**
+	 * [추가] 롤백되면 EFS 에서 먼저 한 작업(휴지통으로 옮기기/되살리기)을 되돌립니다. (트랜잭션 밖에서는 아무것도 안 함)
+	 */
+	private void afterRollback(Runnable compensation) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_ROLLED_BACK) {
+					compensation.run();
+				}
+			}
+		});
 	}
 
 	private void saveFileOrDirectoryEfs(Long projectId, String type, String path) {
@@ -366,32 +736,46 @@ public class FileService {
 		}
 	}
 
-	private void saveAllParentFolders(File file, Project project) {
-		if (StringUtils.hasText(file.getParent())) {
-			List<String> parents = new ArrayList<>();
-
-			File parent = file.getParentFile();
-
-			while (parent != null) {
-				parents.add(parent.getPath());
-				parent = parent.getParentFile();
-			}
+	/**
+	 * DB 에 없는 상위 폴더를 저장하고, 바로 위 부모 폴더의 메타데이터를 반환합니다. (부모가 없으면 null)
+	 */
+	private FileMeta saveAllParentFolders(File file, Project project) {
+		if (!StringUtils.hasText(file.getParent())) {
+			return null;
+		}
+		List<String> parents = new ArrayList<>();
 
-			Set<String> existingPaths = fileMetaRepository
-				.findByProjectIdAndPathInAndDeletedFalse(project.getId(), parents)
-				.stream()
-				.map(FileMeta::getPath)
-				.collect(Collectors.toSet());
+		File parent = file.getParentFile();
 
-			List<FileMeta> newFoldersToSave = parents.stream()
-				.filter(path -> !existingPaths.contains(path))
-				.map(path -> FileMeta.relativePath(project, path, "folder"))
-				.toList();
+		while (parent != null) {
+			parents.add(parent.getPath());
+			parent = parent.getParentFile();
+		}
 
-			if (!newFoldersToSave.isEmpty()) {
-				fileMetaRepository.saveAll(newFoldersToSave);
+		Map<String, FileMeta> existingFolders = fileMetaRepository
+			.findByProjectIdAndPathInAndDeletedFalse(project.getId(), parents)
+			.stream()
+			.collect(Collectors.toMap(FileMeta::getPath, meta -> meta, (first, second) -> first));
+
+		// [개선] 루트부터 내려가면서 부모를 연결합니다. saveAll 은 목록 순서대로 저장하므로 부모가 먼저 INSERT 됩니다.
+		List<FileMeta> newFoldersToSave = new ArrayList<>();
+		FileMeta current = null;
+		for (int i = parents.size() - 1; i >= 0; i--) {
+			FileMeta folder = existingFolders.get(parents.get(i));
+			if (folder == null) {
+				folder = FileMeta.relativePath(project, parents.get(i), FOLDER);
+				folder.attachTo(current);
+				newFoldersToSave.add(folder);
 			}
+			current = folder;
 		}
+
+		if (!newFoldersToSave.isEmpty()) {
+			fileMetaRepository.saveAll(newFoldersToSave);
+		}
+		return current;
 	}
 
+	private record FileSnapshot(byte[] bytes, String etag) {
+	}
 }
@@ -0,0 +1,69 @@
+package com.growlog.webide.domain.files.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 휴지통 비우기(FileTrashPurger)를 한 노드만 하도록 Redis 에 임대(lease)를 둡니다.
+ *
+ * 모든 Main-Server 에서 같은 주기로 실행되므로, 임대가 없으면 여러 노드가 같은 행을 동시에 지웁니다.
+ * 임대는 항목을 하나 지울 때마다 연장하고, 노드가 죽으면 lease-millis 가 지난 뒤 다른 노드가 가져갑니다.
+ * Redis 에 접근할 수 없으면 이번 주기는 건너뜁니다. (다음 주기에 다시 시도)
+ */
+@Slf4j
+@Component
+public class FileTrashPurgeLease {
+
+	private static final String KEY = "file-trash:purge:lease";
+
+	// 비어 있으면 가져가고, 내 임대이면 연장합니다.
+	private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+		"local owner = redis.call('get', KEYS[1]) "
+			+ "if not owner then redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end "
+			+ "if owner == ARGV[1] then redis.call('pexpire', KEYS[1], ARGV[2]) return 1 end "
+			+ "return 0", Long.class);
+	// 내 임대일 때만 지웁니다.
+	private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+		"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+		Long.class);
+
+	private final StringRedisTemplate stringRedisTemplate;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final long leaseMillis;
+
+	public FileTrashPurgeLease(StringRedisTemplate stringRedisTemplate,
+		@Value("${file-trash.purge-lease-millis:300000}") long leaseMillis) {
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.leaseMillis = leaseMillis;
+	}
+
+	/**
+	 * 임대를 가져오거나 연장합니다.
+	 * @return 이 노드가 휴지통을 비워도 되면 true
+	 */
+	public boolean tryAcquire() {
+		try {
+			Long acquired = stringRedisTemplate.execute(ACQUIRE, List.of(KEY), nodeId, String.valueOf(leaseMillis));
+			return acquired != null && acquired == 1L;
+		} catch (RuntimeException e) {
+			log.warn("Failed to acquire file trash purge lease.", e);
+			return false;
+		}
+	}
+
+	public void release() {
+		try {
+			stringRedisTemplate.execute(RELEASE, List.of(KEY), nodeId);
+		} catch (RuntimeException e) {
+			log.debug("Failed to release file trash purge lease.", e);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.growlog.webide.domain.files.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.domain.files.entity.FileTrash;
+import com.growlog.webide.domain.files.repository.FileTrashRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 보관 기간(file-trash.retention-hours)이 지난 휴지통 항목을 지웁니다.
+ *
+ * node_modules 처럼 큰 폴더는 지우는 데 오래 걸리므로 요청/트랜잭션 밖에서 정해진 수(purge-threads)만큼만
+ * 동시에 지웁니다. 지우지 못한 항목은 행을 남겨 두고 다음 주기에 다시 시도합니다.
+ * [개선] 여러 Main-Server 중 임대(FileTrashPurgeLease)를 가진 한 노드만 지웁니다.
+ */
+@Slf4j
+@Component
+public class FileTrashPurger {
+
+	private final Duration retention;
+	private final int batchSize;
+	private final FileTrashRepository fileTrashRepository;
+	private final FileTrashStorage fileTrashStorage;
+	private final FileTrashPurgeLease fileTrashPurgeLease;
+	private final MeterRegistry meterRegistry;
+	private final ExecutorService executor;
+
+	public FileTrashPurger(@Value("${file-trash.retention-hours:24}") long retentionHours,
+		@Value("${file-trash.purge-batch-size:100}") int batchSize,
+		@Value("${file-trash.purge-threads:2}") int threads,
+		FileTrashRepository fileTrashRepository,
+		FileTrashStorage fileTrashStorage,
+		FileTrashPurgeLease fileTrashPurgeLease,
+		MeterRegistry meterRegistry) {
+		this.retention = Duration.ofHours(retentionHours);
+		this.batchSize = batchSize;
+		this.fileTrashRepository = fileTrashRepository;
+		this.fileTrashStorage = fileTrashStorage;
+		this.fileTrashPurgeLease = fileTrashPurgeLease;
+		this.meterRegistry = meterRegistry;
+		this.executor = Executors.newFixedThreadPool(threads,
+			Thread.ofPlatform().name("file-trash-purge-", 0).daemon().factory());
+	}
+
+	@Scheduled(fixedDelayString = "${file-trash.purge-interval-millis:600000}")
+	public void purgeExpired() {
+		if (!fileTrashPurgeLease.tryAcquire()) {
+			return;
+		}
+		try {
+			List<FileTrash> expired = fileTrashRepository.findByDeletedAtBeforeOrderByDeletedAtAsc(
+				LocalDateTime.now().minus(retention), PageRequest.of(0, batchSize));
+			if (expired.isEmpty()) {
+				return;
+			}
+			CompletableFuture.allOf(expired.stream()
+				.map(trash -> CompletableFuture.runAsync(() -> purge(trash), executor))
+				.toArray(CompletableFuture[]::new)).join();
+		} finally {
+			fileTrashPurgeLease.release();
+		}
+	}
+
+	private void purge(FileTrash trash) {
+		long start = System.nanoTime();
+		try {
+			fileTrashStorage.purge(trash.getProject().getId(), trash.getStorageName());
+			fileTrashRepository.deleteById(trash.getId());
+			meterRegistry.counter("file.trash.purged").increment();
+			log.info("Purged trash item. id: {}, path: {}, elapsed: {}ms", trash.getId(), trash.getPath(),
+				(System.nanoTime() - start) / 1_000_000);
+		} catch (IOException | RuntimeException e) {
+			meterRegistry.counter("file.trash.purge.failures").increment();
+			log.error("Failed to purge trash item. id: {}, path: {}", trash.getId(), trash.getPath(), e);
+		}
+		// 큰 폴더가 많아 오래 걸려도 다른 노드가 가져가지 않도록 연장합니다.
+		fileTrashPurgeLease.tryAcquire();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
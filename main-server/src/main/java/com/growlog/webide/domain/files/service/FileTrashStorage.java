@@ -0,0 +1,108 @@
+package com.growlog.webide.domain.files.service;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 삭제한 파일/폴더를 프로젝트별 휴지통({efs.base-path}/.trash/{projectId})으로 옮기고 되돌리거나 지웁니다.
+ *
+ * 같은 EFS 안의 rename 이므로 하위 항목 수와 관계없이 한 번에 끝납니다. 실제로 지우는 일은 FileTrashPurger 가
+ * 요청과 트랜잭션 밖에서 합니다. 휴지통은 프로젝트 폴더 밖에 있으므로 컨테이너에서는 보이지 않습니다.
+ */
+@Slf4j
+@Component
+public class FileTrashStorage {
+
+	static final String TRASH_DIRECTORY = ".trash";
+
+	private final String efsBasePath;
+	// 기본 파일시스템 (운영에서는 EFS 마운트 경로)
+	private final FileSystem fileSystem;
+
+	public FileTrashStorage(@Value("${efs.base-path}") String efsBasePath) {
+		this.efsBasePath = efsBasePath;
+		this.fileSystem = FileSystems.getDefault();
+	}
+
+	/**
+	 * source 를 휴지통으로 옮기고 휴지통 안의 이름을 반환합니다. source 가 이미 없으면 null 을 반환합니다.
+	 */
+	public String moveToTrash(Long projectId, Path source) throws IOException {
+		String storageName = UUID.randomUUID().toString();
+		return moveToTrash(projectId, source, storageName) ? storageName : null;
+	}
+
+	/**
+	 * source 를 휴지통의 storageName 으로 옮깁니다. (되살리기가 롤백되면 같은 이름으로 되돌립니다)
+	 */
+	public boolean moveToTrash(Long projectId, Path source, String storageName) throws IOException {
+		Path trashed = trashPath(source.getFileSystem(), projectId, storageName);
+		Files.createDirectories(trashed.getParent());
+		try {
+			Files.move(source, trashed);
+		} catch (NoSuchFileException e) {
+			log.warn("File not found on EFS, but metadata exists. Path: {}", source);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 휴지통의 항목을 target 으로 되돌립니다. (부모 폴더는 호출하는 쪽에서 만들어 둡니다)
+	 */
+	public void restore(Long projectId, String storageName, Path target) throws IOException {
+		Files.move(trashPath(target.getFileSystem(), projectId, storageName), target);
+	}
+
+	/**
+	 * 휴지통의 항목을 하위 항목까지 지웁니다. 다른 노드가 같은 항목을 지우고 있어도 실패하지 않습니다.
+	 */
+	public void purge(Long projectId, String storageName) throws IOException {
+		Path trashed = trashPath(fileSystem, projectId, storageName);
+		try {
+			Files.walkFileTree(trashed, new SimpleFileVisitor<>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					Files.deleteIfExists(file);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+					if (e instanceof NoSuchFileException) {
+						return FileVisitResult.CONTINUE;
+					}
+					throw e;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+					if (e != null && !(e instanceof NoSuchFileException)) {
+						throw e;
+					}
+					Files.deleteIfExists(dir);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (NoSuchFileException e) {
+			log.debug("Trash item already purged. Path: {}", trashed);
+		}
+	}
+
+	private Path trashPath(FileSystem fs, Long projectId, String storageName) {
+		return fs.getPath(efsBasePath, TRASH_DIRECTORY, String.valueOf(projectId), storageName);
+	}
+}
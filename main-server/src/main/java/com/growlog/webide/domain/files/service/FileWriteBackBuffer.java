@@ -0,0 +1,343 @@
+package com.growlog.webide.domain.files.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 에디터의 자동 저장 내용을 파일별로 메모리에 모아 두었다가 EFS 에 씁니다. (write-back)
+ *
+ * 자동 저장은 몇 초에 한 번씩 들어오므로, 매번 EFS 에 작은 동기 쓰기를 하지 않고 마지막 내용만 들고 있다가
+ * 마지막 저장 후 debounce 시간이 지나면 씁니다. 계속 저장하더라도 처음 모은 뒤 max-delay 가 지나면 쓰고,
+ * 모아 둔 내용이 max-buffered-bytes 를 넘으면 오래된 것부터 바로 씁니다.
+ * 코드 실행, 파일 닫기, 내보내기처럼 EFS 의 내용이 최신이어야 하는 곳은 먼저 flush 를 호출합니다.
+ *
+ * 모아 둔 내용은 이 노드의 메모리에만 있으므로 다음을 감수합니다.
+ * - 다른 노드는 EFS 의 이전 내용을 보고, 그 내용으로 저장하면 ETag 가 달라 충돌로 처리됩니다.
+ *   그래서 다른 노드도 같은 프로젝트를 다루는 동안(ProjectNodePresence)에는 모으지 않고 바로 쓰고,
+ *   공유가 시작되면 모아 둔 내용도 바로 씁니다. 공유를 알아채기 전의 짧은 사이에는 이전 내용이 보일 수 있습니다.
+ * - 노드가 비정상 종료되면 아직 쓰지 않은 내용(최대 max-delay 동안의 저장)을 잃습니다.
+ *   정상 종료(@PreDestroy)에서는 모두 씁니다. 이 손실을 감수할 수 없으면 enabled 를 끕니다.
+ */
+@Slf4j
+@Component
+public class FileWriteBackBuffer {
+
+	private static final int WRITE_LOCK_STRIPES = 64;
+
+	private final boolean enabled;
+	private final long debounceNanos;
+	private final long maxDelayNanos;
+	private final long maxBufferedBytes;
+	private final FileContentVersions fileContentVersions;
+	private final FileContentCache fileContentCache;
+	private final ProjectNodePresence projectNodePresence;
+	private final MeterRegistry meterRegistry;
+	private final Map<Path, Pending> pending = new ConcurrentHashMap<>();
+	private final AtomicLong bufferedBytes = new AtomicLong();
+	// 같은 파일을 EFS 에 쓰는 작업(flush, 바로 쓰기)을 순서대로 처리하기 위한 잠금 (경로 해시로 나눔)
+	private final Object[] writeLocks = new Object[WRITE_LOCK_STRIPES];
+
+	public FileWriteBackBuffer(@Value("${file-write-back.enabled:true}") boolean enabled,
+		@Value("${file-write-back.debounce-millis:2000}") long debounceMillis,
+		@Value("${file-write-back.max-delay-millis:10000}") long maxDelayMillis,
+		@Value("${file-write-back.max-buffered-bytes:67108864}") long maxBufferedBytes,
+		FileContentVersions fileContentVersions,
+		FileContentCache fileContentCache,
+		ProjectNodePresence projectNodePresence,
+		MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+		this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+		this.maxBufferedBytes = maxBufferedBytes;
+		this.fileContentVersions = fileContentVersions;
+		this.fileContentCache = fileContentCache;
+		this.projectNodePresence = projectNodePresence;
+		this.meterRegistry = meterRegistry;
+		for (int i = 0; i < writeLocks.length; i++) {
+			writeLocks[i] = new Object();
+		}
+		Gauge.builder("file.write-back.buffered.bytes", bufferedBytes, AtomicLong::get)
+			.description("Saved file content not yet written to EFS")
+			.register(meterRegistry);
+		Gauge.builder("file.write-back.buffered.files", pending, Map::size)
+			.description("Files whose latest save is not yet written to EFS")
+			.register(meterRegistry);
+		projectNodePresence.addSharedListener(this::flushSharedProject);
+	}
+
+	/**
+	 * 파일 내용을 저장하고 새 버전(ETag)을 반환합니다.
+	 * 버퍼에 넣을 수 있으면 EFS 에 쓰지 않고 바로 반환하며, 아직 쓰지 않은 이전 내용은 버립니다.
+	 * 버퍼를 끄거나 해시하지 않는 큰 파일이면 바로 씁니다. (써진 뒤의 ETag 가 수정 시각에 따라 달라지므로)
+	 * 다른 노드도 같은 프로젝트를 다루는 중이면 바로 씁니다.
+	 * 처음 모을 때 폴더가 없어도 바로 씁니다. 모은 뒤에 폴더가 없어지면 컨테이너에서 지운 것으로 보고 버립니다.
+	 */
+	public String write(Long projectId, Path targetPath, byte[] content) throws IOException {
+		boolean writeThrough = !enabled || projectNodePresence.touch(projectId)
+			|| !fileContentVersions.hashes(content.length)
+			|| (!pending.containsKey(targetPath) && !Files.isDirectory(targetPath.getParent()));
+		if (writeThrough) {
+			synchronized (writeLock(targetPath)) {
+				Pending previous = pending.remove(targetPath);
+				if (previous != null) {
+					bufferedBytes.addAndGet(-previous.content().length);
+				}
+				Files.createDirectories(targetPath.getParent());
+				return writeAtomically(targetPath, content);
+			}
+		}
+
+		long now = System.nanoTime();
+		Pending buffered = new Pending(projectId, content, fileContentVersions.etag(content), now, now);
+		synchronized (writeLock(targetPath)) {
+			Pending previous = pending.put(targetPath, buffered.since(pending.get(targetPath)));
+			bufferedBytes.addAndGet(content.length - (previous == null ? 0 : previous.content().length));
+			if (previous != null) {
+				meterRegistry.counter("file.write-back.coalesced").increment();
+			}
+		}
+		if (bufferedBytes.get() > maxBufferedBytes) {
+			relieveMemoryPressure();
+		}
+		return buffered.etag();
+	}
+
+	/**
+	 * 아직 EFS 에 쓰지 않은 최신 내용입니다. 없으면 null 을 반환합니다. (EFS 의 내용이 최신)
+	 * 이 노드가 프로젝트를 다루고 있다고 기록해서, 다른 노드가 모아 둔 내용을 쓰고 이후 저장은 바로 쓰게 합니다.
+	 */
+	Pending get(Long projectId, Path targetPath) {
+		if (enabled) {
+			projectNodePresence.touch(projectId);
+		}
+		return pending.get(targetPath);
+	}
+
+	/**
+	 * [추가] 아직 EFS 에 쓰지 않은 최신 내용만 반환합니다. 없으면 null 을 반환합니다. (코드 검색)
+	 * get 과 달리 이 노드가 프로젝트를 다루고 있다고 기록하지 않습니다.
+	 */
+	public byte[] pendingContent(Path targetPath) {
+		Pending entry = pending.get(targetPath);
+		return entry == null ? null : entry.content();
+	}
+
+	public boolean contains(Path targetPath) {
+		return pending.containsKey(targetPath);
+	}
+
+	/**
+	 * 파일 하나를 바로 씁니다. (파일 닫기, 원본 읽기)
+	 */
+	public void flush(Path targetPath) {
+		flushMatching((target, entry) -> target.equals(targetPath), "close");
+	}
+
+	/**
+	 * 경로 아래(자신 포함)의 파일을 모두 씁니다. (이동 전)
+	 */
+	public void flushUnder(Path path) {
+		flushMatching((target, entry) -> target.startsWith(path), "move");
+	}
+
+	/**
+	 * 프로젝트의 파일을 모두 씁니다. 컨테이너나 압축 파일이 EFS 의 최신 내용을 보아야 할 때 먼저 호출합니다. (코드 실행 등)
+	 */
+	public void flushProject(Long projectId) {
+		flushMatching((target, entry) -> projectId.equals(entry.projectId()), "project");
+	}
+
+	/**
+	 * 경로 아래(자신 포함)의 파일을 쓰지 않고 버립니다. (삭제 전, 지운 파일이 나중에 다시 써지지 않도록)
+	 */
+	public void discardUnder(Path path) {
+		for (Path target : List.copyOf(pending.keySet())) {
+			if (target.startsWith(path)) {
+				synchronized (writeLock(target)) {
+					Pending removed = pending.remove(target);
+					if (removed != null) {
+						bufferedBytes.addAndGet(-removed.content().length);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 마지막 저장 후 debounce 가 지났거나, 처음 모은 뒤 max-delay 가 지난 파일을 씁니다.
+	 */
+	@Scheduled(fixedDelayString = "${file-write-back.flush-interval-millis:500}")
+	public void flushDue() {
+		long now = System.nanoTime();
+		pending.forEach((target, entry) -> {
+			if (now - entry.lastSavedAt() >= debounceNanos || now - entry.firstSavedAt() >= maxDelayNanos) {
+				try {
+					flush(target, entry, "debounce");
+				} catch (IOException e) {
+					log.error("Failed to flush buffered file. Retrying later. path: {}", target, e);
+				}
+			}
+		});
+	}
+
+	@PreDestroy
+	public void flushAll() {
+		pending.forEach((target, entry) -> {
+			try {
+				flush(target, entry, "shutdown");
+			} catch (IOException e) {
+				log.error("Failed to flush buffered file on shutdown. path: {}", target, e);
+			}
+		});
+	}
+
+	/**
+	 * 같은 디렉터리의 임시 파일에 쓰고 fsync 한 뒤 원래 파일로 rename 합니다. 새 버전(ETag)을 반환합니다.
+	 * rename 은 원자적이므로 다른 사용자나 컨테이너는 이전 내용 또는 새 내용만 봅니다.
+	 */
+	private String writeAtomically(Path targetPath, byte[] content) throws IOException {
+		Path tempPath = targetPath.resolveSibling("." + targetPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.wrap(content);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+			copyPermissions(targetPath, tempPath);
+			Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tempPath);
+		}
+		syncDirectory(targetPath.getParent());
+		// [추가] 다른 노드가 캐시한 이전 내용을 버리게 합니다.
+		fileContentCache.invalidate(targetPath);
+		BasicFileAttributes attrs = Files.readAttributes(targetPath, BasicFileAttributes.class);
+		return fileContentVersions.etag(targetPath, attrs, content);
+	}
+
+	/**
+	 * 다른 노드가 같은 프로젝트를 다루기 시작했으면 모아 둔 내용을 바로 씁니다.
+	 */
+	private void flushSharedProject(Long projectId) {
+		flushMatching((target, entry) -> projectId.equals(entry.projectId()), "shared");
+	}
+
+	private void flushMatching(BiPredicate<Path, Pending> filter, String reason) {
+		for (Path target : List.copyOf(pending.keySet())) {
+			Pending entry = pending.get(target);
+			if (entry == null || !filter.test(target, entry)) {
+				continue;
+			}
+			try {
+				flush(target, entry, reason);
+			} catch (IOException e) {
+				log.error("Failed to flush buffered file. path: {}", target, e);
+				throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+			}
+		}
+	}
+
+	/**
+	 * 모아 둔 내용을 씁니다. 쓰는 동안 새로 저장된 내용은 남겨 두었다가 다음에 씁니다.
+	 */
+	private void flush(Path target, Pending entry, String reason) throws IOException {
+		synchronized (writeLock(target)) {
+			if (pending.get(target) != entry) {
+				return; // 그 사이에 새 내용으로 바뀌었거나 이미 썼음
+			}
+			try {
+				writeAtomically(target, entry.content());
+			} catch (NoSuchFileException e) {
+				// 컨테이너에서 폴더째 지운 경우: 다시 만들지 않고 버립니다.
+				log.warn("Dropping buffered file whose folder no longer exists. path: {}", target);
+			}
+			pending.remove(target);
+			bufferedBytes.addAndGet(-entry.content().length);
+		}
+		meterRegistry.counter("file.write-back.flushes", "reason", reason).increment();
+	}
+
+	/**
+	 * 모아 둔 내용이 너무 많으면 오래된 것부터 max-buffered-bytes 의 절반 아래가 될 때까지 씁니다.
+	 */
+	private void relieveMemoryPressure() {
+		List<Map.Entry<Path, Pending>> oldestFirst = new ArrayList<>(pending.entrySet());
+		oldestFirst.sort(Comparator.comparingLong(entry -> entry.getValue().firstSavedAt()));
+		for (Map.Entry<Path, Pending> entry : oldestFirst) {
+			if (bufferedBytes.get() <= maxBufferedBytes / 2) {
+				return;
+			}
+			try {
+				flush(entry.getKey(), entry.getValue(), "memory");
+			} catch (IOException e) {
+				log.error("Failed to flush buffered file. path: {}", entry.getKey(), e);
+			}
+		}
+	}
+
+	/**
+	 * 실행 권한 등 기존 파일의 권한을 유지합니다. (POSIX 권한이 없는 파일시스템이면 건너뜀)
+	 */
+	private void copyPermissions(Path from, Path to) throws IOException {
+		if (!Files.exists(from) || !from.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			return;
+		}
+		Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+	}
+
+	/**
+	 * rename 결과가 디스크에 남도록 디렉터리도 fsync 합니다. 지원하지 않는 파일시스템이면 건너뜁니다.
+	 */
+	private void syncDirectory(Path directory) {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException | UnsupportedOperationException e) {
+			log.debug("Directory fsync is not supported. path: {}", directory);
+		}
+	}
+
+	private Object writeLock(Path targetPath) {
+		return writeLocks[Math.floorMod(targetPath.hashCode(), writeLocks.length)];
+	}
+
+	/**
+	 * 아직 쓰지 않은 파일 내용. firstSavedAt 은 쓰지 않은 채로 처음 저장된 시각입니다. (System.nanoTime)
+	 */
+	record Pending(Long projectId, byte[] content, String etag, long firstSavedAt, long lastSavedAt) {
+
+		private Pending since(Pending previous) {
+			return previous == null ? this : new Pending(projectId, content, etag, previous.firstSavedAt, lastSavedAt);
+		}
+	}
+}
@@ -0,0 +1,498 @@
+package com.growlog.webide.domain.files.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import com.growlog.webide.domain.files.dto.archive.ProjectArchiveImportResponseDto;
+import com.growlog.webide.domain.files.dto.tree.TreeAddEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
+import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
+import com.growlog.webide.domain.projects.entity.Project;
+import com.growlog.webide.domain.projects.repository.ProjectRepository;
+import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 프로젝트 전체를 zip 으로 내보내고, 업로드한 zip 을 프로젝트에 풀어 넣습니다.
+ *
+ * 내보내기는 EFS 의 파일을 하나씩 읽으면서 바로 응답 스트림에 압축해서 쓰고,
+ * 가져오기는 요청 본문을 읽으면서 항목마다 바로 EFS 에 풀어 씁니다. 어느 쪽도 파일 내용을 메모리에 모으지 않으므로
+ * 프로젝트 크기와 상관없이 버퍼 크기만큼의 메모리만 씁니다. (경로 목록만 메모리에 둡니다.)
+ * [개선] 가져오기는 트랜잭션 없이 풀어 쓰고, 새로 생긴 항목의 메타데이터는 flush-size 건씩 짧은 트랜잭션의 JDBC 배치로
+ * 저장합니다. 업로드가 오래 걸려도 DB 커넥션을 붙잡지 않습니다. 기존 메타데이터는 zip 이 건드린 폴더의 자식만 폴더별로 읽습니다.
+ * 처리량은 로그와 메트릭으로 남깁니다.
+ */
+@Slf4j
+@Service
+public class ProjectArchiveService {
+
+	private static final String ROOT = "/";
+	private static final String FOLDER = "folder";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+	private final String efsBasePath;
+	private final int compressionLevel;
+	private final int maxEntries;
+	private final long maxBytes;
+	private final int flushSize;
+	private final int maxTreeEvents;
+	private final int maxBatchEvents;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final ProjectRepository projectRepository;
+	private final ProjectPermissionService permissionService;
+	private final FileMetaRepository fileMetaRepository;
+	private final FileMetaBulkImporter fileMetaBulkImporter;
+	private final ProjectTreeIndexRegistry projectTreeIndexRegistry;
+	private final CodeSearchIndexRegistry codeSearchIndexRegistry;
+	private final TreeService treeService;
+	private final FileWriteBackBuffer fileWriteBackBuffer;
+	private final FileContentCache fileContentCache;
+	private final MeterRegistry meterRegistry;
+
+	// 기본 파일시스템 (운영에서는 EFS 마운트 경로)
+	private final FileSystem fileSystem;
+
+	public ProjectArchiveService(@Value("${efs.base-path}") String efsBasePath,
+		@Value("${project-archive.export.compression-level:1}") int compressionLevel,
+		@Value("${project-archive.import.max-entries:200000}") int maxEntries,
+		@Value("${project-archive.import.max-bytes:10737418240}") long maxBytes,
+		@Value("${project-archive.import.flush-size:1000}") int flushSize,
+		@Value("${project-archive.import.max-tree-events:5000}") int maxTreeEvents,
+		@Value("${container-fs-watch.max-batch-events:500}") int maxBatchEvents,
+		SimpMessagingTemplate messagingTemplate,
+		ProjectRepository projectRepository,
+		ProjectPermissionService permissionService,
+		FileMetaRepository fileMetaRepository,
+		FileMetaBulkImporter fileMetaBulkImporter,
+		ProjectTreeIndexRegistry projectTreeIndexRegistry,
+		CodeSearchIndexRegistry codeSearchIndexRegistry,
+		TreeService treeService,
+		FileWriteBackBuffer fileWriteBackBuffer,
+		FileContentCache fileContentCache,
+		MeterRegistry meterRegistry) {
+		this.efsBasePath = efsBasePath;
+		this.compressionLevel = compressionLevel;
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.flushSize = flushSize;
+		this.maxTreeEvents = maxTreeEvents;
+		this.maxBatchEvents = maxBatchEvents;
+		this.messagingTemplate = messagingTemplate;
+		this.projectRepository = projectRepository;
+		this.permissionService = permissionService;
+		this.fileMetaRepository = fileMetaRepository;
+		this.fileMetaBulkImporter = fileMetaBulkImporter;
+		this.projectTreeIndexRegistry = projectTreeIndexRegistry;
+		this.codeSearchIndexRegistry = codeSearchIndexRegistry;
+		this.treeService = treeService;
+		this.fileWriteBackBuffer = fileWriteBackBuffer;
+		this.fileContentCache = fileContentCache;
+		this.meterRegistry = meterRegistry;
+		this.fileSystem = FileSystems.getDefault();
+	}
+
+	/**
+	 * 권한을 확인하고 내려받을 파일 이름을 반환합니다. 응답을 보내기 시작하기 전에 호출해야 오류를 일반 응답으로 돌려줄 수 있습니다.
+	 */
+	public String prepareExport(Long projectId, Long userId) {
+		Project project = projectRepository.findById(projectId)
+			.orElseThrow(() -> new CustomException(ErrorCode.PROJECT_NOT_FOUND));
+		permissionService.checkReadAccess(project, userId);
+		if (!Files.isDirectory(projectRoot(projectId))) {
+			throw new CustomException(ErrorCode.FILE_NOT_FOUND);
+		}
+		return project.getProjectName() + ".zip";
+	}
+
+	/**
+	 * 프로젝트 폴더 전체를 zip 으로 out 에 씁니다. 심볼릭 링크는 따라가지 않고 건너뜁니다.
+	 * 내보내는 동안 지워진 파일은 건너뜁니다. out 은 닫지 않습니다.
+	 */
+	public void export(Long projectId, OutputStream out) throws IOException {
+		long startedAt = System.nanoTime();
+		// [추가] 아직 쓰지 않은 자동 저장 내용도 내보내도록 먼저 씁니다.
+		fileWriteBackBuffer.flushProject(projectId);
+		Path root = projectRoot(projectId);
+		Totals totals = new Totals();
+		ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+		// 압축률보다 처리량이 중요하므로 기본값은 가장 빠른 수준(1)입니다.
+		zip.setLevel(compressionLevel);
+		Files.walkFileTree(root, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				if (!dir.equals(root)) {
+					// 빈 폴더도 그대로 옮겨지도록 폴더 항목을 따로 씁니다.
+					ZipEntry entry = new ZipEntry(entryName(root, dir) + "/");
+					entry.setLastModifiedTime(attrs.lastModifiedTime());
+					zip.putNextEntry(entry);
+					zip.closeEntry();
+					totals.folders++;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (!attrs.isRegularFile()) {
+					return FileVisitResult.CONTINUE;
+				}
+				InputStream in;
+				try {
+					in = Files.newInputStream(file, LinkOption.NOFOLLOW_LINKS);
+				} catch (NoSuchFileException e) {
+					return FileVisitResult.CONTINUE;
+				}
+				try (in) {
+					ZipEntry entry = new ZipEntry(entryName(root, file));
+					entry.setLastModifiedTime(attrs.lastModifiedTime());
+					zip.putNextEntry(entry);
+					totals.bytes += in.transferTo(zip);
+					zip.closeEntry();
+					totals.files++;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		zip.finish();
+		zip.flush();
+		record("export", projectId, totals, System.nanoTime() - startedAt);
+	}
+
+	/**
+	 * 업로드한 zip 을 프로젝트 폴더에 풀어 넣습니다. 같은 경로의 파일은 덮어쓰고, 없던 항목은 메타데이터를 새로 저장합니다.
+	 * 항목 수나 풀어 쓴 크기가 제한을 넘거나, 프로젝트 밖을 가리키는 경로(zip slip)가 있으면 중단합니다.
+	 * 중간에 실패하면 이미 저장한 배치의 메타데이터와 풀어 쓴 파일은 남습니다. 트리 인덱스와 코드 검색 색인은 버려서
+	 * 다음 요청 때 다시 만들고, 아직 저장하지 않은 항목은 컨테이너 파일 감시가 트리에 반영합니다.
+	 */
+	public ProjectArchiveImportResponseDto importArchive(Long projectId, InputStream body, Long userId) {
+		projectRepository.findById(projectId).orElseThrow(() -> new CustomException(ErrorCode.PROJECT_NOT_FOUND));
+		permissionService.checkWriteAccess(userId, projectId);
+		// [추가] 아직 쓰지 않은 저장 내용이 가져온 파일을 나중에 덮어쓰지 않도록 먼저 씁니다.
+		fileWriteBackBuffer.flushProject(projectId);
+
+		long startedAt = System.nanoTime();
+		Unpack unpack = new Unpack(projectId, projectRoot(projectId));
+		fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, ROOT)
+			.ifPresent(root -> unpack.folderIds.put(ROOT, root.getId()));
+		try {
+			unzip(unpack, body);
+			flush(unpack);
+		} catch (RuntimeException e) {
+			if (unpack.flushed) {
+				projectTreeIndexRegistry.invalidate(projectId);
+				codeSearchIndexRegistry.invalidate(projectId);
+			}
+			throw e;
+		} finally {
+			// [추가] 덮어쓴 파일을 모든 노드의 열린 파일 캐시에서 버립니다. (실패해도 풀어 쓴 파일은 남으므로)
+			fileContentCache.invalidateTree(unpack.root);
+		}
+
+		long elapsedNanos = System.nanoTime() - startedAt;
+		record("import", projectId, unpack.totals, elapsedNanos);
+		publish(unpack);
+		return new ProjectArchiveImportResponseDto(unpack.totals.files, unpack.totals.folders,
+			unpack.overwrittenFiles, unpack.totals.bytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+			megabytesPerSecond(unpack.totals.bytes, elapsedNanos));
+	}
+
+	/**
+	 * 요청 본문을 읽으면서 항목마다 EFS 에 풀어 씁니다. 트랜잭션 밖에서 호출합니다.
+	 */
+	private void unzip(Unpack unpack, InputStream body) {
+		try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(body, BUFFER_SIZE))) {
+			Files.createDirectories(unpack.root);
+			unpack.verifiedDirectories.add(ROOT);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int entries = 0;
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				if (++entries > maxEntries) {
+					throw new CustomException(ErrorCode.ARCHIVE_TOO_LARGE);
+				}
+				String path = normalize(entry.getName());
+				if (path == null) {
+					continue;
+				}
+				if (entry.isDirectory()) {
+					ensureFolder(unpack, path);
+				} else {
+					ensureFolder(unpack, FileMeta.parentPathOf(path));
+					writeFile(unpack, path, zip, buffer);
+				}
+			}
+		} catch (ZipException e) {
+			throw new CustomException(ErrorCode.INVALID_ARCHIVE);
+		} catch (IOException e) {
+			log.error("Failed to import project archive. projectId={}", unpack.projectId, e);
+			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
+		}
+	}
+
+	/**
+	 * zip 항목 이름을 "/a/b" 형태의 프로젝트 경로로 바꿉니다. 루트 자신이면 null 을 반환합니다.
+	 * ".." 이 들어간 이름은 프로젝트 밖을 가리킬 수 있으므로 거부합니다.
+	 */
+	static String normalize(String entryName) {
+		StringBuilder path = new StringBuilder();
+		for (String segment : entryName.replace('\\', '/').split("/")) {
+			if (segment.isEmpty() || ".".equals(segment)) {
+				continue;
+			}
+			if ("..".equals(segment) || segment.indexOf('\0') >= 0) {
+				throw new CustomException(ErrorCode.INVALID_FILE_PATH);
+			}
+			path.append('/').append(segment);
+		}
+		return path.isEmpty() ? null : path.toString();
+	}
+
+	/**
+	 * 상위 폴더부터 차례로 EFS 에 폴더가 있는지 확인하고 없으면 만듭니다.
+	 * 처음 보는 폴더는 디스크에서 심볼릭 링크가 아닌지 확인하므로, 링크를 따라 프로젝트 밖에 쓰지 않습니다.
+	 */
+	private void ensureFolder(Unpack unpack, String path) throws IOException {
+		if (unpack.verifiedDirectories.contains(path)) {
+			return;
+		}
+		String parent = FileMeta.parentPathOf(path);
+		ensureFolder(unpack, parent);
+		listChildren(unpack, parent);
+		if (Boolean.FALSE.equals(unpack.known.get(path))) {
+			throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+		}
+
+		// 디스크에 이미 있는 폴더는 그대로 씁니다. (메타데이터가 없으면 컨테이너에서 방금 만든 폴더)
+		Path directory = resolve(unpack, path);
+		if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+			if (Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+				throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+			}
+			Files.createDirectory(directory);
+		}
+		unpack.verifiedDirectories.add(path);
+		if (!unpack.known.containsKey(path)) {
+			unpack.known.put(path, true);
+			// 메타데이터가 없던 폴더이므로 저장된 자식도 없습니다.
+			unpack.listedDirectories.add(path);
+			unpack.totals.folders++;
+			stage(unpack, path, true);
+		}
+	}
+
+	/**
+	 * 항목 내용을 버퍼 크기씩 읽어서 바로 파일에 씁니다. 풀어 쓴 전체 크기가 max-bytes 를 넘으면 중단합니다. (zip bomb)
+	 */
+	private void writeFile(Unpack unpack, String path, InputStream in, byte[] buffer) throws IOException {
+		listChildren(unpack, FileMeta.parentPathOf(path));
+		Boolean existing = unpack.known.get(path);
+		if (Boolean.TRUE.equals(existing)) {
+			throw new CustomException(ErrorCode.FILE_ALREADY_EXISTS);
+		}
+		Path target = resolve(unpack, path);
+		try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, LinkOption.NOFOLLOW_LINKS)) {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				unpack.totals.bytes += read;
+				if (unpack.totals.bytes > maxBytes) {
+					throw new CustomException(ErrorCode.ARCHIVE_TOO_LARGE);
+				}
+				out.write(buffer, 0, read);
+			}
+		}
+
+		if (existing == null) {
+			unpack.known.put(path, false);
+			unpack.totals.files++;
+			stage(unpack, path, false);
+		} else {
+			unpack.overwrittenFiles++;
+		}
+		if (unpack.changedFiles != null) {
+			unpack.changedFiles.add(path);
+			if (unpack.changedFiles.size() > maxTreeEvents) {
+				unpack.changedFiles = null;
+			}
+		}
+	}
+
+	/**
+	 * 폴더의 직속 자식 메타데이터를 처음 볼 때 한 번만 읽어서 known 에 채웁니다.
+	 * 프로젝트 전체가 아니라 zip 이 건드린 폴더의 자식만 메모리에 둡니다.
+	 */
+	private void listChildren(Unpack unpack, String folder) {
+		if (!unpack.listedDirectories.add(folder)) {
+			return;
+		}
+		for (FileMeta meta : fileMetaRepository.findByProjectIdAndParentPathAndDeletedFalse(unpack.projectId, folder)) {
+			boolean isFolder = FOLDER.equals(meta.getType());
+			unpack.known.putIfAbsent(meta.getPath(), isFolder);
+			if (isFolder) {
+				unpack.folderIds.putIfAbsent(meta.getPath(), meta.getId());
+			}
+		}
+	}
+
+	private void stage(Unpack unpack, String path, boolean folder) {
+		unpack.pending.put(path, folder);
+		if (unpack.pending.size() >= flushSize) {
+			flush(unpack);
+		}
+	}
+
+	/**
+	 * 모아 둔 새 항목의 메타데이터를 JDBC 배치로 저장(배치마다 커밋)하고 트리 이벤트를 만듭니다.
+	 * 항목이 max-tree-events 보다 많으면 이벤트는 버리고 다 가져온 후에 트리를 통째로 다시 보냅니다.
+	 */
+	private void flush(Unpack unpack) {
+		if (unpack.pending.isEmpty()) {
+			return;
+		}
+		Map<String, Long> ids = fileMetaBulkImporter.importEntries(unpack.projectId, unpack.pending,
+			unpack.folderIds);
+		unpack.flushed = true;
+		if (unpack.events != null) {
+			unpack.pending.forEach((path, folder) -> unpack.events.add(new WebSocketMessage("tree:add",
+				new TreeAddEventDto(ids.get(path), path, folder ? FOLDER : "file"))));
+			if (unpack.events.size() > maxTreeEvents) {
+				unpack.events = null;
+			}
+		}
+		unpack.pending.clear();
+	}
+
+	/**
+	 * 저장한 항목을 트리 인덱스와 코드 검색 색인에 반영하고 구독자에게 보냅니다. (배치마다 이미 커밋됨)
+	 */
+	private void publish(Unpack unpack) {
+		Long projectId = unpack.projectId;
+		if (unpack.changedFiles == null) {
+			codeSearchIndexRegistry.invalidate(projectId);
+		} else {
+			unpack.changedFiles.forEach(path -> codeSearchIndexRegistry.indexFromDisk(projectId, path));
+		}
+
+		List<WebSocketMessage> events = unpack.events;
+		if (events == null) {
+			// 너무 많이 바뀌었으면 이벤트 대신 트리를 다시 읽어서 전체 트리(tree:init/tree:lazy)로 보냅니다.
+			projectTreeIndexRegistry.invalidate(projectId);
+			messagingTemplate.convertAndSend("/topic/projects/" + projectId + "/tree",
+				treeService.getTreeSince(projectId, null));
+			return;
+		}
+		for (int i = 0; i < events.size(); i += maxBatchEvents) {
+			List<WebSocketMessage> chunk = events.subList(i, Math.min(i + maxBatchEvents, events.size()));
+			WebSocketMessage message = chunk.size() == 1
+				? chunk.get(0)
+				: new WebSocketMessage("tree:batch", new TreeBatchEventDto(new ArrayList<>(chunk)));
+			message.setVersion(projectTreeIndexRegistry.apply(projectId, message));
+			messagingTemplate.convertAndSend("/topic/projects/" + projectId + "/tree", message);
+		}
+	}
+
+	private void record(String direction, Long projectId, Totals totals, long elapsedNanos) {
+		meterRegistry.counter("project.archive.bytes", "direction", direction).increment(totals.bytes);
+		meterRegistry.counter("project.archive.files", "direction", direction).increment(totals.files);
+		meterRegistry.timer("project.archive.duration", "direction", direction)
+			.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		log.info("Project archive {} for project {}: {} files, {} folders, {} bytes in {} ms ({} MB/s)", direction,
+			projectId, totals.files, totals.folders, totals.bytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+			String.format("%.1f", megabytesPerSecond(totals.bytes, elapsedNanos)));
+	}
+
+	private static double megabytesPerSecond(long bytes, long elapsedNanos) {
+		return elapsedNanos == 0 ? 0 : bytes / BYTES_PER_MEGABYTE / (elapsedNanos / 1_000_000_000.0);
+	}
+
+	private static String entryName(Path root, Path path) {
+		return root.relativize(path).toString().replace('\\', '/');
+	}
+
+	private Path resolve(Unpack unpack, String path) {
+		try {
+			return ROOT.equals(path) ? unpack.root : unpack.root.resolve(path.substring(1));
+		} catch (InvalidPathException e) {
+			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
+		}
+	}
+
+	private Path projectRoot(Long projectId) {
+		return fileSystem.getPath(efsBasePath, String.valueOf(projectId));
+	}
+
+	private static final class Totals {
+		private int files;
+		private int folders;
+		private long bytes;
+	}
+
+	/**
+	 * 가져오기 한 번의 상태
+	 */
+	private static final class Unpack {
+		private final Long projectId;
+		private final Path root;
+		// 자식을 읽은 폴더(listedDirectories)의 저장된 항목과 이번에 만든 경로 → 폴더 여부
+		private final Map<String, Boolean> known = new HashMap<>();
+		private final Map<String, Long> folderIds = new HashMap<>();
+		private final Set<String> listedDirectories = new HashSet<>();
+		private final Set<String> verifiedDirectories = new HashSet<>();
+		private final Map<String, Boolean> pending = new LinkedHashMap<>();
+		private final Totals totals = new Totals();
+		private int overwrittenFiles;
+		// 메타데이터를 한 배치라도 저장했는지 (실패했을 때 인덱스를 버릴지)
+		private boolean flushed;
+		// max-tree-events 를 넘으면 null (트리와 색인을 통째로 다시 만듭니다.)
+		private List<WebSocketMessage> events = new ArrayList<>();
+		private List<String> changedFiles = new ArrayList<>();
+
+		private Unpack(Long projectId, Path root) {
+			this.projectId = projectId;
+			this.root = root;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.growlog.webide.domain.files.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * [추가] 프로젝트의 파일을 최근에 열거나 저장한 Main-Server 노드를 Redis 에 기록합니다.
+ *
+ * FileWriteBackBuffer 는 저장 내용을 노드 메모리에 모으므로, 다른 노드가 같은 프로젝트를 다루면 이전 내용을 보게 됩니다.
+ * 그래서 presence-millis 안에 다른 노드도 같은 프로젝트를 다뤘으면 "공유 중"으로 보고 모으지 않고 바로 씁니다.
+ * 공유가 시작된 노드는 pub/sub 으로 알리고, 받은 노드는 모아 둔 내용을 바로 씁니다. (listener)
+ * Redis 조회는 프로젝트마다 presence-millis 의 1/4 에 한 번만 하고, 실패하면 공유 중으로 봅니다.
+ */
+@Slf4j
+@Component
+public class ProjectNodePresence implements MessageListener {
+
+	private static final String KEY_PREFIX = "file-write-back:nodes:";
+
+	// 이 노드를 Redis 시각으로 기록하고, 오래된 노드를 지운 뒤 다른 노드 수를 반환합니다.
+	private static final RedisScript<Long> TOUCH = new DefaultRedisScript<>(
+		"local time = redis.call('time') "
+			+ "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+			+ "redis.call('zadd', KEYS[1], now, ARGV[1]) "
+			+ "redis.call('zremrangebyscore', KEYS[1], '-inf', now - tonumber(ARGV[2])) "
+			+ "redis.call('pexpire', KEYS[1], ARGV[2]) "
+			+ "return redis.call('zcard', KEYS[1]) - 1", Long.class);
+
+	private final StringRedisTemplate stringRedisTemplate;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final String channel;
+	private final long presenceMillis;
+	private final Map<Long, Presence> presences = new ConcurrentHashMap<>();
+	private final List<Consumer<Long>> sharedListeners = new CopyOnWriteArrayList<>();
+
+	public ProjectNodePresence(StringRedisTemplate stringRedisTemplate,
+		RedisMessageListenerContainer redisMessageListenerContainer,
+		@Value("${file-write-back.presence-millis:60000}") long presenceMillis,
+		@Value("${file-write-back.shared-channel:file-write-back:shared}") String channel) {
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.presenceMillis = presenceMillis;
+		this.channel = channel;
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+	}
+
+	/**
+	 * 이 노드가 프로젝트를 다루고 있다고 기록합니다.
+	 * @return 다른 노드도 최근에 이 프로젝트를 다뤘으면 true
+	 */
+	public boolean touch(Long projectId) {
+		long now = System.currentTimeMillis();
+		Presence presence = presences.get(projectId);
+		if (presence != null && now - presence.checkedAt() < presenceMillis / 4) {
+			return presence.shared();
+		}
+		boolean shared;
+		try {
+			Long others = stringRedisTemplate.execute(TOUCH, List.of(KEY_PREFIX + projectId), nodeId,
+				String.valueOf(presenceMillis));
+			shared = others == null || others > 0;
+		} catch (RuntimeException e) {
+			log.warn("Failed to record project node presence. Writing through. projectId={}", projectId, e);
+			shared = true;
+		}
+		presences.put(projectId, new Presence(now, shared));
+		if (shared && (presence == null || !presence.shared())) {
+			announce(projectId);
+		}
+		return shared;
+	}
+
+	/**
+	 * 다른 노드가 프로젝트를 공유하기 시작했을 때 호출할 listener 를 등록합니다. (모아 둔 내용 쓰기)
+	 */
+	public void addSharedListener(Consumer<Long> listener) {
+		sharedListeners.add(listener);
+	}
+
+	/**
+	 * 다른 노드가 보낸 공유 시작 메시지 ("노드ID|프로젝트ID")
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+		if (parts.length != 2 || nodeId.equals(parts[0])) {
+			return;
+		}
+		Long projectId;
+		try {
+			projectId = Long.valueOf(parts[1]);
+		} catch (NumberFormatException e) {
+			return;
+		}
+		// 조회 시각은 그대로 두어 다음 조회 때 이 노드도 Redis 에 기록되게 합니다.
+		presences.computeIfPresent(projectId, (id, presence) -> new Presence(presence.checkedAt(), true));
+		for (Consumer<Long> listener : sharedListeners) {
+			try {
+				listener.accept(projectId);
+			} catch (RuntimeException e) {
+				log.error("Failed to handle shared project. projectId={}", projectId, e);
+			}
+		}
+	}
+
+	/**
+	 * 오래 다루지 않은 프로젝트의 기록을 버립니다.
+	 */
+	@Scheduled(fixedRateString = "${file-write-back.presence-millis:60000}")
+	public void evictStale() {
+		long now = System.currentTimeMillis();
+		presences.values().removeIf(presence -> now - presence.checkedAt() > presenceMillis);
+	}
+
+	private void announce(Long projectId) {
+		try {
+			stringRedisTemplate.convertAndSend(channel, nodeId + "|" + projectId);
+		} catch (RuntimeException e) {
+			log.warn("Failed to announce shared project. projectId={}", projectId, e);
+		}
+	}
+
+	private record Presence(long checkedAt, boolean shared) {
+	}
+}
@@ -0,0 +1,267 @@
+package com.growlog.webide.domain.files.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.growlog.webide.domain.files.dto.tree.TreeAddEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeDeltaDto;
+import com.growlog.webide.domain.files.dto.tree.TreeMoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeNodeDto;
+import com.growlog.webide.domain.files.dto.tree.TreeRemoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+
+/**
+ * 한 프로젝트의 파일 트리를 메모리에 유지하는 인덱스
+ *
+ * 경로 순으로 정렬된 TreeMap 에 노드를 보관하므로 하위 트리는 prefix 범위(subMap)로 바로 찾습니다.
+ * 변경될 때마다 버전이 1씩 올라가고, 최근 변경 이력(delta)을 maxDeltas 건까지 보관합니다.
+ * 모든 메서드는 인덱스 단위로 동기화됩니다.
+ */
+final class ProjectTreeIndex {
+
+	private static final String ROOT = "/";
+	private static final String FOLDER = "folder";
+
+	private final int maxDeltas;
+	private final LongSupplier baseVersionSupplier;
+	private final NavigableMap<String, Node> nodes = new TreeMap<>();
+	private final ArrayDeque<TreeDeltaDto> deltas = new ArrayDeque<>();
+	private boolean loaded;
+	private long baseVersion;
+	private long version;
+	private TreeNodeDto cachedTree;
+	private long cachedTreeVersion;
+	private FileFinder finder;
+	private long finderVersion;
+	private volatile long lastAccessMillis = System.currentTimeMillis();
+
+	ProjectTreeIndex(int maxDeltas) {
+		this(maxDeltas, () -> System.currentTimeMillis() * 1000);
+	}
+
+	/**
+	 * @param baseVersionSupplier 로드할 때 시작 버전을 정합니다. 다른 인덱스(다른 노드)와 겹치지 않는 값이어야 합니다.
+	 */
+	ProjectTreeIndex(int maxDeltas, LongSupplier baseVersionSupplier) {
+		this.maxDeltas = maxDeltas;
+		this.baseVersionSupplier = baseVersionSupplier;
+	}
+
+	/**
+	 * 아직 로드되지 않았으면 loader 로 DB 의 파일 메타 정보를 읽어서 채웁니다.
+	 * 로드하는 동안에는 apply 가 기다리므로, 로드 중에 커밋된 변경도 빠지지 않습니다.
+	 */
+	synchronized void ensureLoaded(Supplier<List<FileMeta>> loader) {
+		lastAccessMillis = System.currentTimeMillis();
+		if (loaded) {
+			return;
+		}
+		nodes.clear();
+		for (FileMeta meta : loader.get()) {
+			nodes.put(meta.getPath(), new Node(meta.getId(), meta.getType()));
+		}
+		// 인덱스를 다시 만들면 이전 버전과 겹치지 않는 새 시작 버전을 받습니다.
+		baseVersion = baseVersionSupplier.getAsLong();
+		version = baseVersion;
+		loaded = true;
+	}
+
+	/**
+	 * 트리 변경 이벤트를 반영하고 새 버전을 반환합니다. 아직 로드되지 않았으면 null 을 반환합니다.
+	 * (로드 전의 변경은 커밋된 후에 호출되므로 로드할 때 DB 에서 읽힙니다.)
+	 */
+	synchronized Long apply(WebSocketMessage event) {
+		if (!loaded) {
+			return null;
+		}
+		if (!mutate(event)) {
+			return version;
+		}
+		version++;
+		deltas.addLast(new TreeDeltaDto(version, event.getType(), event.getPayload()));
+		while (deltas.size() > maxDeltas) {
+			deltas.removeFirst();
+		}
+		return version;
+	}
+
+	/**
+	 * sinceVersion 이후의 변경 이력을 반환합니다.
+	 * 이력이 이미 잘려서 이어 붙일 수 없거나 이 인덱스가 발급하지 않은 버전이면 null 을 반환합니다. (전체 트리 필요)
+	 */
+	synchronized List<TreeDeltaDto> deltasSince(long sinceVersion) {
+		lastAccessMillis = System.currentTimeMillis();
+		if (sinceVersion < baseVersion || sinceVersion > version) {
+			return null;
+		}
+		if (sinceVersion == version) {
+			return List.of();
+		}
+		if (deltas.isEmpty() || deltas.peekFirst().getVersion() > sinceVersion + 1) {
+			return null;
+		}
+		List<TreeDeltaDto> result = new ArrayList<>();
+		for (TreeDeltaDto delta : deltas) {
+			if (delta.getVersion() > sinceVersion) {
+				result.add(delta);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return 파일/폴더 수, 아직 로드되지 않았으면 null
+	 */
+	synchronized Integer size() {
+		return loaded ? nodes.size() : null;
+	}
+
+	/**
+	 * 전체 트리와 그 트리의 버전을 함께 반환합니다.
+	 */
+	synchronized TreeSnapshot snapshot() {
+		return new TreeSnapshot(tree(), version);
+	}
+
+	/**
+	 * 전체 트리를 만듭니다. 같은 버전이면 이전에 만든 트리를 그대로 반환합니다. (직렬화 전용, 수정 금지)
+	 */
+	synchronized TreeNodeDto tree() {
+		lastAccessMillis = System.currentTimeMillis();
+		if (cachedTree != null && cachedTreeVersion == version) {
+			return cachedTree;
+		}
+		Map<String, TreeNodeDto> built = new HashMap<>(nodes.size() * 2);
+		// 경로 순으로 순회하므로 부모가 항상 자식보다 먼저 만들어집니다.
+		for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+			String path = entry.getKey();
+			TreeNodeDto node = new TreeNodeDto(entry.getValue().id(), path, entry.getValue().type());
+			built.put(path, node);
+			TreeNodeDto parent = ROOT.equals(path) ? null : built.get(parentPath(path));
+			if (parent != null && parent.getChildren() != null) {
+				parent.addChild(node);
+			}
+		}
+		TreeNodeDto root = built.get(ROOT);
+		if (root == null) {
+			throw new IllegalStateException("데이터 오류: FileMeta에 루트('/') 정보가 없습니다.");
+		}
+		cachedTree = root;
+		cachedTreeVersion = version;
+		return root;
+	}
+
+	/**
+	 * [추가] 파일 경로 fuzzy 검색 (파일로 이동). 트리가 바뀐 뒤 처음 검색할 때 검색용 배열을 다시 만듭니다.
+	 */
+	synchronized List<FileFinder.Match> findFiles(String query, int limit) {
+		lastAccessMillis = System.currentTimeMillis();
+		if (finder == null || finderVersion != version) {
+			List<Long> ids = new ArrayList<>();
+			List<String> paths = new ArrayList<>();
+			nodes.forEach((path, node) -> {
+				if (!FOLDER.equals(node.type())) {
+					ids.add(node.id());
+					paths.add(path);
+				}
+			});
+			finder = new FileFinder(ids, paths);
+			finderVersion = version;
+		}
+		return finder.find(query, limit);
+	}
+
+	long lastAccessMillis() {
+		return lastAccessMillis;
+	}
+
+	static String parentPath(String path) {
+		int lastSlash = path.lastIndexOf('/');
+		return lastSlash <= 0 ? ROOT : path.substring(0, lastSlash);
+	}
+
+	/**
+	 * 이벤트를 노드에 반영합니다. tree:batch 는 안의 이벤트를 순서대로 반영하고 버전은 한 번만 올립니다.
+	 * @return 트리 변경 이벤트가 아니면 false
+	 */
+	private boolean mutate(WebSocketMessage event) {
+		switch (event.getType()) {
+			case "tree:add" -> {
+				TreeAddEventDto add = (TreeAddEventDto)event.getPayload();
+				addAncestors(add.getPath());
+				nodes.put(add.getPath(), new Node(add.getId(), add.getType()));
+			}
+			case "tree:remove" -> {
+				TreeRemoveEventDto remove = (TreeRemoveEventDto)event.getPayload();
+				nodes.remove(remove.getPath());
+				descendants(remove.getPath()).clear();
+			}
+			case "tree:move" -> {
+				TreeMoveEventDto move = (TreeMoveEventDto)event.getPayload();
+				move(move.getFromPath(), move.getToPath());
+			}
+			case "tree:batch" -> {
+				for (WebSocketMessage child : ((TreeBatchEventDto)event.getPayload()).getEvents()) {
+					mutate(child);
+				}
+			}
+			default -> {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void move(String fromPath, String toPath) {
+		Node moved = nodes.remove(fromPath);
+		NavigableMap<String, Node> children = descendants(fromPath);
+		Map<String, Node> renamed = new HashMap<>(children.size() * 2);
+		children.forEach((path, node) -> renamed.put(toPath + path.substring(fromPath.length()), node));
+		children.clear();
+
+		addAncestors(toPath);
+		if (moved != null) {
+			nodes.put(toPath, moved);
+		}
+		nodes.putAll(renamed);
+	}
+
+	/**
+	 * path 하위의 모든 노드 ("/src" 이면 "/src/" 로 시작하는 경로, "/src2" 는 제외)
+	 */
+	private NavigableMap<String, Node> descendants(String path) {
+		String prefix = ROOT.equals(path) ? ROOT : path + "/";
+		// '/' 다음 문자는 '0' 이므로 [prefix, prefix 의 마지막 '/' 를 '0' 으로 바꾼 값) 이 정확히 prefix 범위입니다.
+		String end = prefix.substring(0, prefix.length() - 1) + '0';
+		return nodes.subMap(prefix, true, end, false);
+	}
+
+	/**
+	 * 파일 생성/이동 시 DB 에 함께 저장되는 상위 폴더를 인덱스에도 추가합니다.
+	 */
+	private void addAncestors(String path) {
+		String parent = parentPath(path);
+		while (!nodes.containsKey(parent)) {
+			nodes.put(parent, new Node(null, FOLDER));
+			if (ROOT.equals(parent)) {
+				return;
+			}
+			parent = parentPath(parent);
+		}
+	}
+
+	record TreeSnapshot(TreeNodeDto root, long version) {
+	}
+
+	private record Node(Long id, String type) {
+	}
+}
@@ -0,0 +1,176 @@
+package com.growlog.webide.domain.files.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.domain.files.dto.tree.TreeDeltaDto;
+import com.growlog.webide.domain.files.dto.tree.TreeNodeDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.service.ProjectTreeIndex.TreeSnapshot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 프로젝트별 트리 인덱스(ProjectTreeIndex) 보관소
+ *
+ * 인덱스는 처음 트리를 요청할 때 DB 에서 한 번 읽어서 만들고, 이후에는 FileService 의 생성/이동/삭제 이벤트로 갱신합니다.
+ * 한동안 요청이 없던 프로젝트의 인덱스는 버리고, 다음 요청 때 다시 만듭니다.
+ *
+ * [개선] 변경은 그 변경을 처리한 노드에서만 반영되므로, 반영할 때 Redis pub/sub 으로 다른 노드에 알립니다.
+ * 받은 노드는 자기 인덱스를 버리고 다음 요청 때 커밋된 DB 에서 다시 만듭니다.
+ * 시작 버전은 Redis 카운터로 받아 노드/인덱스마다 겹치지 않게 하므로, 다른 인덱스가 발급한 버전으로 요청하면
+ * delta 대신 전체 트리(tree:init)를 받습니다.
+ */
+@Slf4j
+@Component
+public class ProjectTreeIndexRegistry implements MessageListener {
+
+	private static final String EPOCH_KEY = "tree-index:epoch";
+	// 한 인덱스가 시작 버전부터 쓸 수 있는 버전 수 (2^32)
+	private static final int VERSION_BITS = 32;
+
+	private final int maxDeltas;
+	private final long idleEvictMillis;
+	private final StringRedisTemplate stringRedisTemplate;
+	private final String channel;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final Map<Long, ProjectTreeIndex> indexes = new ConcurrentHashMap<>();
+
+	public ProjectTreeIndexRegistry(MeterRegistry meterRegistry,
+		StringRedisTemplate stringRedisTemplate,
+		RedisMessageListenerContainer redisMessageListenerContainer,
+		@Value("${tree-index.max-deltas:500}") int maxDeltas,
+		@Value("${tree-index.idle-evict-minutes:30}") long idleEvictMinutes,
+		@Value("${tree-index.change-channel:tree-index:changed}") String channel) {
+		this.maxDeltas = maxDeltas;
+		this.idleEvictMillis = TimeUnit.MINUTES.toMillis(idleEvictMinutes);
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.channel = channel;
+		Gauge.builder("tree.index.projects", indexes, Map::size)
+			.description("Projects whose file tree is cached in memory")
+			.register(meterRegistry);
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+	}
+
+	public TreeNodeDto tree(Long projectId, Supplier<List<FileMeta>> loader) {
+		return load(projectId, loader).tree();
+	}
+
+	TreeSnapshot snapshot(Long projectId, Supplier<List<FileMeta>> loader) {
+		return load(projectId, loader).snapshot();
+	}
+
+	/**
+	 * @return sinceVersion 이후의 변경 이력, 이어 붙일 수 없으면 null (전체 트리 필요)
+	 */
+	public List<TreeDeltaDto> deltasSince(Long projectId, long sinceVersion, Supplier<List<FileMeta>> loader) {
+		return load(projectId, loader).deltasSince(sinceVersion);
+	}
+
+	/**
+	 * [추가] 파일 경로 fuzzy 검색, 점수 순
+	 */
+	List<FileFinder.Match> findFiles(Long projectId, String query, int limit, Supplier<List<FileMeta>> loader) {
+		return load(projectId, loader).findFiles(query, limit);
+	}
+
+	/**
+	 * 커밋된 트리 변경 이벤트를 인덱스에 반영하고, 다른 노드의 인덱스는 버리도록 알립니다.
+	 * @return 반영된 후의 트리 버전, 인덱스가 없으면 null (다음 요청 때 DB 에서 새로 읽습니다.)
+	 */
+	public Long apply(Long projectId, WebSocketMessage event) {
+		ProjectTreeIndex index = indexes.get(projectId);
+		Long version = index == null ? null : index.apply(event);
+		publish(projectId);
+		return version;
+	}
+
+	/**
+	 * @return 메모리에 올라온 인덱스의 파일/폴더 수, 인덱스가 없으면 null
+	 */
+	public Integer size(Long projectId) {
+		ProjectTreeIndex index = indexes.get(projectId);
+		return index == null ? null : index.size();
+	}
+
+	public void invalidate(Long projectId) {
+		indexes.remove(projectId);
+		publish(projectId);
+	}
+
+	/**
+	 * [추가] 다른 노드가 보낸 트리 변경 메시지 ("노드ID|프로젝트ID")
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+		if (parts.length != 2 || nodeId.equals(parts[0])) {
+			return;
+		}
+		try {
+			indexes.remove(Long.valueOf(parts[1]));
+		} catch (NumberFormatException e) {
+			log.debug("Ignoring malformed tree index message: {}", parts[1]);
+		}
+	}
+
+	@Scheduled(fixedRate = 5 * 60 * 1000)
+	public void evictIdleIndexes() {
+		long now = System.currentTimeMillis();
+		indexes.entrySet().removeIf(entry -> {
+			boolean idle = now - entry.getValue().lastAccessMillis() > idleEvictMillis;
+			if (idle) {
+				log.debug("Evicting idle tree index for project {}", entry.getKey());
+			}
+			return idle;
+		});
+	}
+
+	private ProjectTreeIndex load(Long projectId, Supplier<List<FileMeta>> loader) {
+		ProjectTreeIndex index = indexes.computeIfAbsent(projectId,
+			id -> new ProjectTreeIndex(maxDeltas, this::nextBaseVersion));
+		index.ensureLoaded(loader);
+		return index;
+	}
+
+	/**
+	 * 모든 노드에서 겹치지 않는 시작 버전을 Redis 카운터로 받습니다.
+	 * Redis 를 쓸 수 없으면 현재 시각 기준으로 시작합니다. (이 경우 다른 노드와 겹칠 수 있습니다.)
+	 */
+	private long nextBaseVersion() {
+		try {
+			Long epoch = stringRedisTemplate.opsForValue().increment(EPOCH_KEY);
+			if (epoch != null) {
+				return epoch << VERSION_BITS;
+			}
+		} catch (RuntimeException e) {
+			log.warn("Failed to allocate tree index version from Redis. Falling back to clock.", e);
+		}
+		return System.currentTimeMillis() * 1000;
+	}
+
+	private void publish(Long projectId) {
+		try {
+			stringRedisTemplate.convertAndSend(channel, nodeId + "|" + projectId);
+		} catch (RuntimeException e) {
+			log.warn("Failed to publish tree index change. projectId={}", projectId, e);
+		}
+	}
+}
@@ -1,22 +1,28 @@
 package com.growlog.webide.domain.files.service;
 
-import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.growlog.webide.domain.files.dto.FileSearchResponseDto;
+import com.growlog.webide.domain.files.dto.tree.TreeChildDto;
+import com.growlog.webide.domain.files.dto.tree.TreeChildrenResponseDto;
+import com.growlog.webide.domain.files.dto.tree.TreeDeltaDto;
 import com.growlog.webide.domain.files.dto.tree.TreeNodeDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
 import com.growlog.webide.domain.files.entity.FileMeta;
 import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.service.ProjectTreeIndex.TreeSnapshot;
 import com.growlog.webide.domain.projects.entity.Project;
 import com.growlog.webide.domain.projects.repository.ProjectRepository;
 import com.growlog.webide.global.common.exception.CustomException;
@@ -34,17 +40,54 @@ public class TreeService {
 
 	private final FileMetaRepository fileMetaRepository;
 	private final ProjectRepository projectRepository;
+	private final ProjectTreeIndexRegistry projectTreeIndexRegistry;
+	private final FileMetaBulkImporter fileMetaBulkImporter;
 	@Value("${efs.base-path}")
 	private String efsBasePath;
+	// [추가] 파일/폴더 수가 이보다 많은 프로젝트는 전체 트리 대신 루트의 첫 페이지만 보냅니다. (나머지는 children API)
+	@Value("${tree.lazy-threshold:5000}")
+	private long lazyThreshold;
+	@Value("${tree.children.default-page-size:200}")
+	private int defaultPageSize;
+	@Value("${tree.children.max-page-size:1000}")
+	private int maxPageSize;
+	@Value("${tree.finder.max-results:100}")
+	private int maxFinderResults;
 
+	/**
+	 * [개선] 매번 DB 에서 전체 트리를 다시 만들지 않고, 메모리의 프로젝트 트리 인덱스에서 반환합니다.
+	 */
 	@Transactional
 	public TreeNodeDto getInitialTree(Long projectId) {
-		boolean isEmpty = fileMetaRepository.findAllByProjectIdAndDeletedFalse(projectId).isEmpty();
-		if (isEmpty) {
-			log.info("[TreeService] DB가 비어있어 EFS와 동기화를 시작합니다.");
-			syncFromEfs(projectId);
+		return projectTreeIndexRegistry.tree(projectId, () -> loadFileMetas(projectId));
+	}
+
+	/**
+	 * [추가] 클라이언트가 마지막으로 받은 버전 이후의 변경만 보냅니다.
+	 * 변경 이력이 이미 잘렸거나 버전을 모르면 전체 트리(tree:init)를 보냅니다.
+	 * @param sinceVersion 클라이언트가 마지막으로 받은 트리 버전 (null 이면 전체 트리)
+	 */
+	@Transactional
+	public WebSocketMessage getTreeSince(Long projectId, Long sinceVersion) {
+		// [추가] 큰 프로젝트는 전체 트리를 메모리에 올리거나 보내지 않고 루트의 직속 자식 첫 페이지만 보냅니다.
+		//       인덱스가 이미 올라와 있으면(파일 검색 등) 그 크기로, 아니면 DB 의 개수로 판단합니다.
+		Integer indexedCount = projectTreeIndexRegistry.size(projectId);
+		long count = indexedCount != null
+			? indexedCount
+			: fileMetaRepository.countByProjectIdAndDeletedFalse(projectId);
+		if (count > lazyThreshold) {
+			return new WebSocketMessage("tree:lazy", getChildren(projectId, "/", null, null));
+		}
+		if (sinceVersion != null) {
+			List<TreeDeltaDto> deltas = projectTreeIndexRegistry.deltasSince(projectId, sinceVersion,
+				() -> loadFileMetas(projectId));
+			if (deltas != null) {
+				long version = deltas.isEmpty() ? sinceVersion : deltas.get(deltas.size() - 1).getVersion();
+				return new WebSocketMessage("tree:delta", deltas, version);
+			}
 		}
-		return buildTreeFromDb(projectId);
+		TreeSnapshot snapshot = projectTreeIndexRegistry.snapshot(projectId, () -> loadFileMetas(projectId));
+		return new WebSocketMessage("tree:init", Collections.singletonList(snapshot.root()), snapshot.version());
 	}
 
 	@Transactional
@@ -53,15 +96,15 @@ public class TreeService {
 			.orElseThrow(() -> new CustomException(ErrorCode.PROJECT_NOT_FOUND));
 
 		// DB에서 루트 경로("/")가 이미 있는지 확인(없으면 생성하여 오류 방지)
-		fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, "/")
-			.ifPresentOrElse(
-				(meta) -> log.info("DB에 루트'/' 정보가 이미 존재합니다. 동기화를 계속합니다. projectId: {}", projectId),
-				() -> {
-					log.info("DB에 루트'/' 정보가 없어 새로 생성합니다. projectId: {}", projectId);
-					FileMeta rootMeta = FileMeta.relativePath(project, "/", "folder");
-					fileMetaRepository.save(rootMeta);
-				}
-			);
+		FileMeta rootMeta = fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, "/")
+			.map(meta -> {
+				log.info("DB에 루트'/' 정보가 이미 존재합니다. 동기화를 계속합니다. projectId: {}", projectId);
+				return meta;
+			})
+			.orElseGet(() -> {
+				log.info("DB에 루트'/' 정보가 없어 새로 생성합니다. projectId: {}", projectId);
+				return fileMetaRepository.save(FileMeta.relativePath(project, "/", "folder"));
+			});
 
 		Path projectPath = FileSystems.getDefault().getPath(efsBasePath, String.valueOf(projectId));
 
@@ -70,72 +113,106 @@ public class TreeService {
 			return;
 		}
 
-		try (Stream<Path> paths = Files.walk(projectPath)) {
-			List<FileMeta> metasToSave = new ArrayList<>();
-			paths.filter(path -> !path.equals(projectPath)).forEach(path -> {
-				String relPath = "/" + projectPath.relativize(path).toString().replace("\\", "/");
-				String type = Files.isDirectory(path) ? "folder" : "file";
-				metasToSave.add(FileMeta.relativePath(project, relPath, type));
-			});
-			fileMetaRepository.saveAll(metasToSave);
-		} catch (IOException e) {
+		// [개선] 폴더 단위 병렬 스캔 + JDBC 배치 INSERT (행마다 INSERT 하던 saveAll 대체)
+		try {
+			fileMetaBulkImporter.importTree(projectId, projectPath, rootMeta.getId());
+		} catch (UncheckedIOException e) {
 			log.error("EFS 스캔 중 오류 발생. projectId={}", projectId, e);
 			throw new CustomException(ErrorCode.FILE_OPERATION_FAILED);
 		}
 	}
 
 	/**
-	 * DB 기반으로 트리 빌드
+	 * [추가] 폴더 하나의 직속 자식만 (이름, ID) 순으로 한 페이지 조회합니다.
+	 * 부모 경로 인덱스(idx_file_meta_parent)로 해당 폴더의 행만 읽으므로 프로젝트 크기와 무관합니다.
+	 * @param cursor 이전 페이지 응답의 nextCursor (첫 페이지면 null)
+	 * @param size   페이지 크기 (null 이면 기본값, 최대 tree.children.max-page-size)
 	 */
 	@Transactional(readOnly = true)
-	public TreeNodeDto buildTreeFromDb(Long projectId) {
-		List<FileMeta> files = fileMetaRepository.findAllByProjectIdAndDeletedFalse(projectId);
-
-		if (files.isEmpty()) {
-			throw new IllegalStateException("데이터 오류: projectId " + projectId + "에 해당하는 파일 정보가 없습니다.");
+	public TreeChildrenResponseDto getChildren(Long projectId, String path, String cursor, Integer size) {
+		if (path == null || !path.startsWith("/")) {
+			throw new CustomException(ErrorCode.INVALID_FILE_PATH);
 		}
-
-		Map<String, TreeNodeDto> nodes = new HashMap<>();
-
-		for (FileMeta meta : files) {
-			String path = meta.getPath();
-			TreeNodeDto node = new TreeNodeDto(meta.getId(), path, meta.getType());
-			nodes.put(path, node);
+		String parentPath = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+		if (!"/".equals(parentPath)) {
+			FileMeta parent = fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, parentPath)
+				.orElseThrow(() -> new CustomException(ErrorCode.FILE_NOT_FOUND));
+			if (!"folder".equals(parent.getType())) {
+				throw new CustomException(ErrorCode.BAD_REQUEST);
+			}
 		}
 
-		TreeNodeDto root = nodes.get("/");
-		if (root == null) {
-			// 이 경우는 데이터가 잘못된 상태이므로 예외를 발생
-			throw new IllegalStateException("데이터 오류: projectId " + projectId + "의 FileMeta에 루트('/') 정보가 없습니다.");
+		int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+		String cursorName = "";
+		long cursorId = 0L;
+		if (cursor != null && !cursor.isEmpty()) {
+			String decoded = decodeCursor(cursor);
+			int separator = decoded.indexOf(':');
+			cursorId = Long.parseLong(decoded.substring(0, separator));
+			cursorName = decoded.substring(separator + 1);
 		}
 
-		// parent-child 관계 구성
-		for (FileMeta meta : files) {
-			if (meta.getPath().equals("/")) {
-				continue; //루트 노드는 건너뜀
-			}
-
-			String parent = getParentPath(meta.getPath());
-			TreeNodeDto parentNode = nodes.get(parent);
-			TreeNodeDto childNode = nodes.get(meta.getPath());
-
-			if (parentNode != null && childNode != null) {
-				parentNode.addChild(childNode);
-			}
+		// 한 건 더 조회해서 다음 페이지가 있는지 확인합니다.
+		List<FileMeta> rows = fileMetaRepository.findChildrenAfter(projectId, parentPath, cursorName, cursorId,
+			PageRequest.of(0, pageSize + 1));
+		boolean hasMore = rows.size() > pageSize;
+		List<FileMeta> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+		String nextCursor = null;
+		if (hasMore) {
+			FileMeta last = page.get(page.size() - 1);
+			nextCursor = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((last.getId() + ":" + last.getName()).getBytes(StandardCharsets.UTF_8));
 		}
+		return new TreeChildrenResponseDto(parentPath, page.stream().map(TreeChildDto::from).toList(), nextCursor);
+	}
 
-		return root;
+	/**
+	 * [추가] 파일로 이동(quick open) 검색
+	 * DB 의 LIKE '%query%' 대신 메모리의 트리 인덱스에서 파일 경로를 fuzzy 매칭하고 점수 순으로 반환합니다.
+	 * @param limit 최대 결과 수 (null 이면 tree.finder.max-results)
+	 */
+	@Transactional(readOnly = true)
+	public List<FileSearchResponseDto> findFiles(Long projectId, String query, Integer limit) {
+		if (query == null || query.isBlank()) {
+			return List.of();
+		}
+		int maxResults = limit == null ? maxFinderResults : Math.max(1, Math.min(limit, maxFinderResults));
+		return projectTreeIndexRegistry.findFiles(projectId, query, maxResults, () -> loadFileMetas(projectId))
+			.stream()
+			.map(match -> new FileSearchResponseDto(match.id(), match.path().substring(match.nameStart()), "file",
+				match.path(), match.score(), match.positions()))
+			.toList();
 	}
 
-	private String getParentPath(String path) {
-		if (path == null || path.equals("/")) {
-			return null;
+	/**
+	 * 트리 인덱스를 만들 때 한 번만 호출됩니다.
+	 * [개선] 비어 있는지 확인하려고 전체 조회를 한 번 더 하지 않고, 조회 결과가 비어 있을 때만 EFS 와 동기화합니다.
+	 */
+	private List<FileMeta> loadFileMetas(Long projectId) {
+		List<FileMeta> files = fileMetaRepository.findAllByProjectIdAndDeletedFalse(projectId);
+		if (files.isEmpty()) {
+			log.info("[TreeService] DB가 비어있어 EFS와 동기화를 시작합니다.");
+			syncFromEfs(projectId);
+			files = fileMetaRepository.findAllByProjectIdAndDeletedFalse(projectId);
+		}
+		if (files.isEmpty()) {
+			throw new IllegalStateException("데이터 오류: projectId " + projectId + "에 해당하는 파일 정보가 없습니다.");
 		}
-		int lastSlash = path.lastIndexOf('/');
-		if (lastSlash == 0) {
-			return "/"; // 최상위 파일/폴더의 부모는 "/"
+		return files;
+	}
+
+	private String decodeCursor(String cursor) {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (decoded.indexOf(':') <= 0) {
+				throw new IllegalArgumentException("Malformed cursor");
+			}
+			Long.parseLong(decoded.substring(0, decoded.indexOf(':')));
+			return decoded;
+		} catch (IllegalArgumentException e) { // NumberFormatException 포함
+			throw new CustomException(ErrorCode.BAD_REQUEST);
 		}
-		return path.substring(0, lastSlash);
 	}
 }
 
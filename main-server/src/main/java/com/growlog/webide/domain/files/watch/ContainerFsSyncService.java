@@ -0,0 +1,202 @@
+package com.growlog.webide.domain.files.watch;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.growlog.webide.domain.files.dto.tree.TreeAddEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeMoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeRemoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
+import com.growlog.webide.domain.files.service.FileMetaBulkImporter;
+import com.growlog.webide.domain.files.service.ProjectTreeIndexRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 컨테이너 안에서 바뀐 파일(터미널의 javac, git clone, mkdir 등)을 FileMeta 와 트리 구독자에게 반영합니다.
+ *
+ * FileService 를 거친 변경도 스캔에 잡히므로, DB 에 이미 반영된 변경은 건너뜁니다.
+ * 이벤트는 tree:batch 하나로 묶어서 보내고, 너무 많으면 max-batch-events 건씩 나눠 보냅니다.
+ */
+@Slf4j
+@Service
+public class ContainerFsSyncService {
+
+	private static final String FOLDER = "folder";
+	private static final int DELETE_CHUNK_SIZE = 1000;
+
+	private final FileMetaRepository fileMetaRepository;
+	private final FileMetaBulkImporter fileMetaBulkImporter;
+	private final ProjectTreeIndexRegistry projectTreeIndexRegistry;
+	private final CodeSearchIndexRegistry codeSearchIndexRegistry;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final MeterRegistry meterRegistry;
+	private final int maxBatchEvents;
+
+	public ContainerFsSyncService(FileMetaRepository fileMetaRepository,
+		FileMetaBulkImporter fileMetaBulkImporter,
+		ProjectTreeIndexRegistry projectTreeIndexRegistry,
+		CodeSearchIndexRegistry codeSearchIndexRegistry,
+		SimpMessagingTemplate messagingTemplate,
+		MeterRegistry meterRegistry,
+		@Value("${container-fs-watch.max-batch-events:500}") int maxBatchEvents) {
+		this.fileMetaRepository = fileMetaRepository;
+		this.fileMetaBulkImporter = fileMetaBulkImporter;
+		this.projectTreeIndexRegistry = projectTreeIndexRegistry;
+		this.codeSearchIndexRegistry = codeSearchIndexRegistry;
+		this.messagingTemplate = messagingTemplate;
+		this.meterRegistry = meterRegistry;
+		this.maxBatchEvents = maxBatchEvents;
+	}
+
+	@Transactional
+	public void apply(Long projectId, FsChangeSet changes) {
+		Map<String, FileMeta> stored = fileMetaRepository.findAllByProjectIdAndDeletedFalse(projectId).stream()
+			.collect(Collectors.toMap(FileMeta::getPath, Function.identity(), (first, second) -> first));
+		Map<String, Long> folderIds = new HashMap<>();
+		stored.forEach((path, meta) -> {
+			if (FOLDER.equals(meta.getType())) {
+				folderIds.put(path, meta.getId());
+			}
+		});
+		List<WebSocketMessage> events = new ArrayList<>();
+
+		// 1. 삭제: 하위 항목까지 한 번에 삭제 처리하고, 이벤트는 가장 위의 경로만 보냅니다.
+		List<Long> removedIds = new ArrayList<>();
+		Set<String> removedPaths = new HashSet<>(changes.removed());
+		for (String path : changes.removed()) {
+			FileMeta meta = stored.remove(path);
+			if (meta == null) {
+				continue; // 이미 FileService 로 삭제됨
+			}
+			removedIds.add(meta.getId());
+			folderIds.remove(path);
+			if (!removedPaths.contains(FileMeta.parentPathOf(path))) {
+				events.add(new WebSocketMessage("tree:remove", new TreeRemoveEventDto(meta.getId(), path)));
+				codeSearchIndexRegistry.remove(projectId, path);
+			}
+		}
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < removedIds.size(); i += DELETE_CHUNK_SIZE) {
+			fileMetaRepository.markDeletedByIds(removedIds.subList(i, Math.min(i + DELETE_CHUNK_SIZE,
+				removedIds.size())), now);
+		}
+
+		// 2. 이동할 폴더 밑에 새로 생긴 항목은 이동한 뒤에 추가해야 하므로 나눠 둡니다.
+		Map<String, Boolean> addedBeforeMoves = new LinkedHashMap<>();
+		Map<String, Boolean> addedAfterMoves = new LinkedHashMap<>();
+		changes.added().forEach((path, folder) -> {
+			if (stored.containsKey(path)) {
+				return; // 이미 FileService 로 생성됨
+			}
+			boolean underMove = changes.moved().values().stream().anyMatch(to -> path.startsWith(to + "/"));
+			(underMove ? addedAfterMoves : addedBeforeMoves).put(path, folder);
+		});
+		addEntries(projectId, addedBeforeMoves, folderIds, events);
+
+		// 3. 이동: FileService 와 같이 폴더 자신은 엔티티로, 하위 항목은 UPDATE 한 번으로 옮깁니다.
+		changes.moved().forEach((from, to) -> {
+			if (!stored.containsKey(from) || stored.containsKey(to)) {
+				return; // 이미 FileService 로 이동됨
+			}
+			move(projectId, from, to, folderIds, events);
+		});
+		addEntries(projectId, addedAfterMoves, folderIds, events);
+
+		// 4. 내용만 바뀐 파일은 DB 에 쓸 것이 없으므로 검색 색인만 다시 만듭니다.
+		changes.modified().forEach(path -> codeSearchIndexRegistry.indexFromDisk(projectId, path));
+
+		if (events.isEmpty()) {
+			return;
+		}
+		log.info("Applying {} container file changes to project {} ({} events)", changes.size(), projectId,
+			events.size());
+		meterRegistry.counter("tree.watch.events").increment(events.size());
+		publishAfterCommit(projectId, events);
+	}
+
+	private void addEntries(Long projectId, Map<String, Boolean> entries, Map<String, Long> folderIds,
+		List<WebSocketMessage> events) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		Map<String, Long> ids = fileMetaBulkImporter.importEntries(projectId, entries, folderIds);
+		entries.forEach((path, folder) -> {
+			String type = folder ? FOLDER : "file";
+			events.add(new WebSocketMessage("tree:add", new TreeAddEventDto(ids.get(path), path, type)));
+			if (!folder) {
+				codeSearchIndexRegistry.indexFromDisk(projectId, path);
+			}
+		});
+	}
+
+	private void move(Long projectId, String from, String to, Map<String, Long> folderIds,
+		List<WebSocketMessage> events) {
+		FileMeta meta = fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, from).orElse(null);
+		FileMeta newParent = fileMetaRepository
+			.findByProjectIdAndPathAndDeletedFalse(projectId, FileMeta.parentPathOf(to)).orElse(null);
+		if (meta == null || newParent == null) {
+			log.warn("Skipping container move {} -> {} in project {}: metadata not found", from, to, projectId);
+			return;
+		}
+		int depthDelta = FileMeta.depthOf(to) - meta.getDepth();
+		meta.updatePath(to);
+		meta.attachTo(newParent);
+		fileMetaRepository.save(meta);
+		if (FOLDER.equals(meta.getType())) {
+			fileMetaRepository.moveDescendants(projectId, FileMetaRepository.escapeLike(from) + "/%", to,
+				FileMetaRepository.pathLength(from), depthDelta);
+			// 이후 추가할 항목의 부모 ID 를 찾을 수 있도록 옮겨진 폴더 경로도 바꿔 둡니다.
+			Map<String, Long> movedFolders = new HashMap<>();
+			folderIds.entrySet().removeIf(entry -> {
+				boolean under = entry.getKey().equals(from) || entry.getKey().startsWith(from + "/");
+				if (under) {
+					movedFolders.put(to + entry.getKey().substring(from.length()), entry.getValue());
+				}
+				return under;
+			});
+			folderIds.putAll(movedFolders);
+		}
+		events.add(new WebSocketMessage("tree:move", new TreeMoveEventDto(meta.getId(), from, to)));
+		codeSearchIndexRegistry.move(projectId, from, to);
+	}
+
+	/**
+	 * 커밋된 후에 트리 인덱스에 반영하고 구독자에게 보냅니다. (FileService.sendEvent 와 같은 순서)
+	 */
+	private void publishAfterCommit(Long projectId, List<WebSocketMessage> events) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				for (int i = 0; i < events.size(); i += maxBatchEvents) {
+					List<WebSocketMessage> chunk = events.subList(i, Math.min(i + maxBatchEvents, events.size()));
+					WebSocketMessage message = chunk.size() == 1
+						? chunk.get(0)
+						: new WebSocketMessage("tree:batch", new TreeBatchEventDto(new ArrayList<>(chunk)));
+					message.setVersion(projectTreeIndexRegistry.apply(projectId, message));
+					messagingTemplate.convertAndSend("/topic/projects/" + projectId + "/tree", message);
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,161 @@
+package com.growlog.webide.domain.files.watch;
+
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.watch.ProjectFsScanner.FsEntry;
+import com.growlog.webide.domain.projects.entity.InstanceStatus;
+import com.growlog.webide.domain.terminal.repository.ActiveInstanceRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 컨테이너가 실행 중인 프로젝트의 EFS 폴더를 감시해서, 터미널에서 바뀐 파일을 트리에 반영합니다.
+ *
+ * 컨테이너는 Worker 서버에서 EFS(NFS)에 직접 쓰므로 이 서버의 inotify/WatchService 로는 변경을 알 수 없습니다.
+ * 그래서 poll-interval 마다 바뀐 폴더만 다시 읽는 스캔으로 감시합니다. (ProjectFsScanner)
+ * 실행 중인 컨테이너(ActiveInstance ACTIVE)가 없어진 프로젝트는 감시를 멈춥니다.
+ * [개선] 여러 Main-Server 중 임대(ProjectWatchLease)를 가진 한 노드만 프로젝트를 감시하고 DB 에 반영합니다.
+ */
+@Slf4j
+@Component
+public class ContainerFsWatchService {
+
+	private final ActiveInstanceRepository activeInstanceRepository;
+	private final FileMetaRepository fileMetaRepository;
+	private final ContainerFsSyncService containerFsSyncService;
+	private final ProjectWatchLease projectWatchLease;
+	private final String efsBasePath;
+	private final boolean enabled;
+	private final long maxDelayMillis;
+	private final int fullScanEvery;
+	private final Map<Long, ProjectFsWatcher> watchers = new ConcurrentHashMap<>();
+	private final ExecutorService executor;
+
+	public ContainerFsWatchService(ActiveInstanceRepository activeInstanceRepository,
+		FileMetaRepository fileMetaRepository,
+		ContainerFsSyncService containerFsSyncService,
+		ProjectWatchLease projectWatchLease,
+		MeterRegistry meterRegistry,
+		@Value("${efs.base-path}") String efsBasePath,
+		@Value("${container-fs-watch.enabled:true}") boolean enabled,
+		@Value("${container-fs-watch.threads:4}") int threads,
+		@Value("${container-fs-watch.max-delay-millis:10000}") long maxDelayMillis,
+		@Value("${container-fs-watch.full-scan-every:30}") int fullScanEvery) {
+		this.activeInstanceRepository = activeInstanceRepository;
+		this.fileMetaRepository = fileMetaRepository;
+		this.containerFsSyncService = containerFsSyncService;
+		this.projectWatchLease = projectWatchLease;
+		this.efsBasePath = efsBasePath;
+		this.enabled = enabled;
+		this.maxDelayMillis = maxDelayMillis;
+		this.fullScanEvery = fullScanEvery;
+		this.executor = Executors.newFixedThreadPool(threads,
+			Thread.ofPlatform().name("container-fs-watch-", 0).daemon().factory());
+		Gauge.builder("tree.watch.projects", watchers, Map::size)
+			.description("Projects whose folder is watched for container file changes")
+			.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${container-fs-watch.poll-interval-millis:2000}")
+	public void pollActiveProjects() {
+		if (!enabled) {
+			return;
+		}
+		Set<Long> activeProjectIds = new HashSet<>(
+			activeInstanceRepository.findProjectIdsByStatus(InstanceStatus.ACTIVE));
+		for (Long projectId : watchers.keySet()) {
+			if (!activeProjectIds.contains(projectId)) {
+				stopWatching(projectId);
+			}
+		}
+
+		for (Long projectId : activeProjectIds) {
+			// 다른 노드가 감시 중이면 이 노드의 비교 기준은 낡았으므로 버리고, 나중에 가져오면 DB 에서 다시 읽습니다.
+			if (!projectWatchLease.tryAcquire(projectId)) {
+				watchers.remove(projectId);
+				continue;
+			}
+			ProjectFsWatcher watcher = watchers.computeIfAbsent(projectId, id ->
+				new ProjectFsWatcher(id, Paths.get(efsBasePath, String.valueOf(id)), maxDelayMillis, fullScanEvery));
+			// 이전 스캔이 아직 끝나지 않은 프로젝트는 이번 주기를 건너뜁니다.
+			if (!watcher.tryBegin()) {
+				continue;
+			}
+			try {
+				executor.execute(() -> poll(watcher));
+			} catch (RejectedExecutionException e) {
+				watcher.end();
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+		watchers.keySet().forEach(projectWatchLease::release); // 다른 노드가 바로 이어서 감시하도록
+	}
+
+	private void stopWatching(Long projectId) {
+		watchers.remove(projectId);
+		projectWatchLease.release(projectId);
+	}
+
+	private void poll(ProjectFsWatcher watcher) {
+		Long projectId = watcher.projectId();
+		try {
+			if (!watcher.isInitialized()) {
+				watcher.initialize(loadStoredTree(projectId));
+			}
+			FsChangeSet changes = watcher.poll(System.currentTimeMillis());
+			if (changes == null) {
+				return;
+			}
+			if (!changes.isEmpty()) {
+				// 스캔이 길어져 임대가 넘어갔으면 반영하지 않습니다. (새 감시자가 DB 기준으로 다시 비교합니다.)
+				if (!projectWatchLease.tryAcquire(projectId)) {
+					return;
+				}
+				containerFsSyncService.apply(projectId, changes);
+			}
+			watcher.acknowledge();
+		} catch (NoSuchFileException e) {
+			log.debug("Project folder not found on EFS, skipping watch. projectId={}", projectId);
+		} catch (Exception e) {
+			// 반영하지 못한 변경은 다음 주기에 다시 비교합니다.
+			log.error("Failed to sync container file changes. projectId={}", projectId, e);
+		} finally {
+			watcher.end();
+		}
+	}
+
+	private Map<String, FsEntry> loadStoredTree(Long projectId) {
+		Map<String, FsEntry> stored = new HashMap<>();
+		for (FileMeta meta : fileMetaRepository.findAllByProjectIdAndDeletedFalse(projectId)) {
+			if (!"/".equals(meta.getPath())) {
+				stored.put(meta.getPath(), new FsEntry("folder".equals(meta.getType()), null));
+			}
+		}
+		return stored;
+	}
+}
@@ -0,0 +1,110 @@
+package com.growlog.webide.domain.files.watch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.growlog.webide.domain.files.watch.ProjectFsScanner.FsEntry;
+
+/**
+ * 두 스캔 결과의 차이
+ *
+ * 지워진 항목과 같은 파일 식별자(inode)로 새로 생긴 항목은 이동으로 봅니다.
+ * 폴더가 이동하면 하위 항목은 이동한 폴더 하나에 포함되므로 따로 담지 않습니다.
+ * @param removed  지워진 경로 (하위 항목 포함, 경로 순)
+ * @param moved    이동 전 경로 → 이동 후 경로 (상위 경로가 먼저)
+ * @param added    새로 생긴 경로 → 폴더 여부 (경로 순이므로 상위 폴더가 먼저)
+ * @param modified 그대로 있는 파일 중 수정 시각이 바뀐 경로 (경로 순, 검색 색인만 다시 만들면 됨)
+ */
+record FsChangeSet(List<String> removed, Map<String, String> moved, Map<String, Boolean> added,
+	List<String> modified) {
+
+	boolean isEmpty() {
+		return removed.isEmpty() && moved.isEmpty() && added.isEmpty() && modified.isEmpty();
+	}
+
+	int size() {
+		return removed.size() + moved.size() + added.size() + modified.size();
+	}
+
+	/**
+	 * 경로와 폴더 여부, (둘 다 알면) 파일 수정 시각이 모두 같으면 같은 트리로 봅니다. (파일 식별자는 비교하지 않습니다.)
+	 */
+	static boolean sameTree(Map<String, FsEntry> before, Map<String, FsEntry> after) {
+		if (before.size() != after.size()) {
+			return false;
+		}
+		for (Map.Entry<String, FsEntry> entry : before.entrySet()) {
+			FsEntry other = after.get(entry.getKey());
+			if (other == null || other.folder() != entry.getValue().folder()
+				|| other.contentChanged(entry.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static FsChangeSet diff(Map<String, FsEntry> before, Map<String, FsEntry> after) {
+		TreeSet<String> removed = new TreeSet<>();
+		TreeMap<String, Boolean> added = new TreeMap<>();
+		TreeSet<String> modified = new TreeSet<>();
+		before.forEach((path, entry) -> {
+			FsEntry current = after.get(path);
+			if (current == null || current.folder() != entry.folder()) {
+				removed.add(path);
+			} else if (current.contentChanged(entry)) {
+				modified.add(path);
+			}
+		});
+		after.forEach((path, entry) -> {
+			FsEntry previous = before.get(path);
+			if (previous == null || previous.folder() != entry.folder()) {
+				added.put(path, entry.folder());
+			}
+		});
+
+		Map<Object, String> removedByKey = new HashMap<>();
+		for (String path : removed) {
+			Object fileKey = before.get(path).fileKey();
+			if (fileKey != null) {
+				removedByKey.put(fileKey, path);
+			}
+		}
+
+		Map<String, String> moved = new LinkedHashMap<>();
+		if (!removedByKey.isEmpty()) {
+			for (String path : new ArrayList<>(added.keySet())) {
+				String movedFrom = movedFrom(path, moved);
+				if (movedFrom != null && removed.contains(movedFrom)) {
+					// 이동한 폴더의 하위 항목
+					removed.remove(movedFrom);
+					added.remove(path);
+					continue;
+				}
+				String from = removedByKey.get(after.get(path).fileKey());
+				if (from != null && removed.contains(from) && before.get(from).folder() == added.get(path)) {
+					moved.put(from, path);
+					removed.remove(from);
+					added.remove(path);
+				}
+			}
+		}
+		return new FsChangeSet(new ArrayList<>(removed), moved, added, new ArrayList<>(modified));
+	}
+
+	/**
+	 * path 가 이미 이동으로 잡힌 폴더의 하위 경로이면 이동 전 경로를 반환합니다.
+	 */
+	static String movedFrom(String path, Map<String, String> moved) {
+		for (Map.Entry<String, String> move : moved.entrySet()) {
+			if (path.startsWith(move.getValue() + "/")) {
+				return move.getKey() + path.substring(move.getValue().length());
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,119 @@
+package com.growlog.webide.domain.files.watch;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 프로젝트 폴더를 주기적으로 다시 읽는 스캐너
+ *
+ * 폴더의 수정 시각은 그 폴더에 항목이 추가/삭제/이름 변경될 때만 바뀌므로,
+ * 수정 시각이 이전 스캔과 같은 폴더는 다시 조회하지 않고 이전 목록을 그대로 씁니다.
+ * 그래서 매 스캔의 비용은 폴더 수만큼의 stat 이고, 파일 목록은 바뀐 폴더만 읽습니다. (EFS/NFS 왕복 최소화)
+ * 파일의 수정 시각은 목록을 읽을 때 함께 얻으므로, 제자리에서 고친 파일(폴더 수정 시각은 그대로)은
+ * 전체 스캔(forgetListings) 때 알 수 있습니다. 임시 파일에 쓴 뒤 이름을 바꾸는 편집기는 폴더가 바뀌므로 바로 알 수 있습니다.
+ */
+final class ProjectFsScanner {
+
+	private static final String ROOT = "/";
+
+	private final Path root;
+	private Map<String, DirListing> listings = new HashMap<>();
+
+	ProjectFsScanner(Path root) {
+		this.root = root;
+	}
+
+	/**
+	 * @return 프로젝트 상대 경로("/src/Main.java") → 항목, 루트는 포함하지 않습니다.
+	 * @throws NoSuchFileException 프로젝트 폴더 자체가 없을 때 (마운트 문제일 수 있으므로 삭제로 처리하면 안 됩니다.)
+	 */
+	Map<String, FsEntry> scan() throws IOException {
+		if (!Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+			throw new NoSuchFileException(root.toString());
+		}
+		Map<String, FsEntry> entries = new HashMap<>();
+		Map<String, DirListing> visited = new HashMap<>();
+		scanDirectory(root, ROOT, entries, visited);
+		// 사라진 폴더의 목록은 버립니다.
+		listings = visited;
+		return entries;
+	}
+
+	/**
+	 * 다음 스캔에서 모든 폴더를 다시 조회하게 합니다. (수정 시각 해상도가 낮은 파일시스템 대비)
+	 */
+	void forgetListings() {
+		listings = new HashMap<>();
+	}
+
+	private void scanDirectory(Path directory, String relativePath, Map<String, FsEntry> entries,
+		Map<String, DirListing> visited) throws IOException {
+		DirListing listing;
+		try {
+			FileTime modified = Files.getLastModifiedTime(directory, LinkOption.NOFOLLOW_LINKS);
+			listing = listings.get(relativePath);
+			if (listing == null || !listing.modified().equals(modified)) {
+				listing = new DirListing(modified, list(directory));
+			}
+		} catch (NoSuchFileException e) {
+			return; // 스캔 도중 지워진 폴더
+		}
+		visited.put(relativePath, listing);
+
+		String prefix = ROOT.equals(relativePath) ? "" : relativePath;
+		for (Map.Entry<String, FsEntry> child : listing.children().entrySet()) {
+			String childPath = prefix + "/" + child.getKey();
+			entries.put(childPath, child.getValue());
+			if (child.getValue().folder()) {
+				scanDirectory(directory.resolve(child.getKey()), childPath, entries, visited);
+			}
+		}
+	}
+
+	private Map<String, FsEntry> list(Path directory) throws IOException {
+		Map<String, FsEntry> children = new HashMap<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (Path child : stream) {
+				try {
+					BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class,
+						LinkOption.NOFOLLOW_LINKS);
+					children.put(child.getFileName().toString(),
+						new FsEntry(attributes.isDirectory(), attributes.fileKey(), attributes.lastModifiedTime()));
+				} catch (NoSuchFileException e) {
+					// 목록을 읽는 사이에 지워진 항목
+				}
+			}
+		}
+		return children;
+	}
+
+	/**
+	 * @param fileKey  파일시스템의 파일 식별자 (Linux 는 device + inode), 이동 감지에만 쓰고 없으면 null
+	 * @param modified 수정 시각, 내용 변경 감지에만 쓰고 모르면(DB 기준) null
+	 */
+	record FsEntry(boolean folder, Object fileKey, FileTime modified) {
+
+		FsEntry(boolean folder, Object fileKey) {
+			this(folder, fileKey, null);
+		}
+
+		/**
+		 * 둘 다 수정 시각을 아는 파일이고, 수정 시각이 다르면 true
+		 */
+		boolean contentChanged(FsEntry other) {
+			return !folder && !other.folder && modified != null && other.modified != null
+				&& !modified.equals(other.modified);
+		}
+	}
+
+	private record DirListing(FileTime modified, Map<String, FsEntry> children) {
+	}
+}
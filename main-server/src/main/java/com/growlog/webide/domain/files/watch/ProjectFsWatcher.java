@@ -0,0 +1,96 @@
+package com.growlog.webide.domain.files.watch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.growlog.webide.domain.files.watch.ProjectFsScanner.FsEntry;
+
+/**
+ * 한 프로젝트의 폴더 변경을 모아서 내보내는 감시자
+ *
+ * 마지막으로 DB 에 반영한 상태(known)와 지금 스캔한 상태를 비교하고,
+ * 변경이 있어도 직전 스캔과 달라졌으면(아직 쓰는 중이면) 다음 스캔까지 기다립니다.
+ * 그래서 빌드처럼 짧은 시간에 많은 파일이 생기면 조용해진 뒤 한 번에 내보냅니다.
+ * 계속 바뀌는 경우에도 maxDelayMillis 가 지나면 그때까지의 변경을 내보냅니다.
+ * 한 번에 한 스레드만 poll 하도록 tryBegin/end 로 감쌉니다.
+ */
+final class ProjectFsWatcher {
+
+	private final Long projectId;
+	private final ProjectFsScanner scanner;
+	private final long maxDelayMillis;
+	private final int fullScanEvery;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private Map<String, FsEntry> known;
+	private Map<String, FsEntry> lastScan;
+	private Map<String, FsEntry> pending;
+	private long pendingSince = -1;
+	private int scans;
+
+	ProjectFsWatcher(Long projectId, Path root, long maxDelayMillis, int fullScanEvery) {
+		this.projectId = projectId;
+		this.scanner = new ProjectFsScanner(root);
+		this.maxDelayMillis = maxDelayMillis;
+		this.fullScanEvery = fullScanEvery;
+	}
+
+	Long projectId() {
+		return projectId;
+	}
+
+	boolean isInitialized() {
+		return known != null;
+	}
+
+	/**
+	 * 비교 기준을 DB 에 저장된 상태로 정합니다. 감시하지 않던 동안의 변경도 첫 비교에서 반영됩니다.
+	 */
+	void initialize(Map<String, FsEntry> stored) {
+		this.known = stored;
+	}
+
+	boolean tryBegin() {
+		return running.compareAndSet(false, true);
+	}
+
+	void end() {
+		running.set(false);
+	}
+
+	/**
+	 * 폴더를 스캔하고, 내보낼 때가 된 변경이 있으면 반환합니다. (없으면 null)
+	 * 반환한 변경을 DB 에 반영한 뒤 acknowledge 를 호출해야 다음 비교의 기준이 바뀝니다.
+	 */
+	FsChangeSet poll(long now) throws IOException {
+		if (fullScanEvery > 0 && ++scans % fullScanEvery == 0) {
+			scanner.forgetListings();
+		}
+		Map<String, FsEntry> current = scanner.scan();
+		boolean settled = lastScan != null && FsChangeSet.sameTree(lastScan, current);
+		lastScan = current;
+
+		if (FsChangeSet.sameTree(known, current)) {
+			// DB 기준에는 파일 식별자와 수정 시각이 없으므로, 같은 트리면 스캔 결과를 기준으로 삼습니다.
+			known = current;
+			pendingSince = -1;
+			return null;
+		}
+		if (pendingSince < 0) {
+			pendingSince = now;
+		}
+		if (!settled && now - pendingSince < maxDelayMillis) {
+			return null;
+		}
+		pending = current;
+		return FsChangeSet.diff(known, current);
+	}
+
+	void acknowledge() {
+		known = pending;
+		pending = null;
+		pendingSince = -1;
+	}
+}
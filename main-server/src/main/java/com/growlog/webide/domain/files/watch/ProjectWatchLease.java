@@ -0,0 +1,71 @@
+package com.growlog.webide.domain.files.watch;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 프로젝트 폴더 감시를 한 노드만 하도록 Redis 에 노드별 임대(lease)를 둡니다.
+ *
+ * 여러 Main-Server 가 같은 프로젝트를 동시에 스캔하면 같은 변경을 각자 INSERT 해서 FileMeta 가 중복됩니다.
+ * (deleted_at 이 NULL 인 행끼리는 유니크 키로 막히지 않습니다.)
+ * 임대는 감시하는 동안 poll 마다 연장하고, 노드가 죽으면 lease-millis 가 지난 뒤 다른 노드가 가져갑니다.
+ * Redis 에 접근할 수 없으면 중복 반영을 막기 위해 감시하지 않습니다.
+ */
+@Slf4j
+@Component
+public class ProjectWatchLease {
+
+	private static final String KEY_PREFIX = "container-fs-watch:lease:";
+
+	// 비어 있으면 가져가고, 내 임대이면 연장합니다.
+	private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+		"local owner = redis.call('get', KEYS[1]) "
+			+ "if not owner then redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end "
+			+ "if owner == ARGV[1] then redis.call('pexpire', KEYS[1], ARGV[2]) return 1 end "
+			+ "return 0", Long.class);
+	// 내 임대일 때만 지웁니다.
+	private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+		"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+		Long.class);
+
+	private final StringRedisTemplate stringRedisTemplate;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final long leaseMillis;
+
+	public ProjectWatchLease(StringRedisTemplate stringRedisTemplate,
+		@Value("${container-fs-watch.lease-millis:15000}") long leaseMillis) {
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.leaseMillis = leaseMillis;
+	}
+
+	/**
+	 * 임대를 가져오거나 연장합니다.
+	 * @return 이 노드가 감시해도 되면 true
+	 */
+	public boolean tryAcquire(Long projectId) {
+		try {
+			Long acquired = stringRedisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + projectId), nodeId,
+				String.valueOf(leaseMillis));
+			return acquired != null && acquired == 1L;
+		} catch (RuntimeException e) {
+			log.warn("Failed to acquire container watch lease. projectId={}", projectId, e);
+			return false;
+		}
+	}
+
+	public void release(Long projectId) {
+		try {
+			stringRedisTemplate.execute(RELEASE, List.of(KEY_PREFIX + projectId), nodeId);
+		} catch (RuntimeException e) {
+			log.debug("Failed to release container watch lease. projectId={}", projectId, e);
+		}
+	}
+}
@@ -51,6 +51,12 @@ public class Image {
 	@Column(name = "template_code", columnDefinition = "TEXT")
 	private String templateCode;
 
+	@Column(name = "output_rate_limit")
+	private Long outputRateLimit; // 초당 출력 바이트 제한, null 이면 Worker 기본값
+
+	@Column(name = "output_byte_budget")
+	private Long outputByteBudget; // 실행/터미널 세션 하나의 총 출력 바이트 제한, null 이면 Worker 기본값
+
 	@CreatedDate
 	@Column(name = "created_at", updatable = false)
 	private LocalDateTime createdAt;
@@ -61,12 +67,14 @@ public class Image {
 
 	@Builder
 	public Image(String imageName, String version, String dockerBaseImage, String buildCommand, String runCommand,
-		String templateCode) {
+		String templateCode, Long outputRateLimit, Long outputByteBudget) {
 		this.imageName = imageName;
 		this.version = version;
 		this.dockerBaseImage = dockerBaseImage;
 		this.buildCommand = buildCommand;
 		this.runCommand = runCommand;
 		this.templateCode = templateCode;
+		this.outputRateLimit = outputRateLimit;
+		this.outputByteBudget = outputByteBudget;
 	}
 }
@@ -1,16 +1,12 @@
 package com.growlog.webide.domain.projects.service;
 
-import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.growlog.webide.domain.files.entity.FileMeta;
-import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.service.FileMetaBulkImporter;
 import com.growlog.webide.domain.projects.entity.Project;
 
 import lombok.extern.slf4j.Slf4j;
@@ -19,30 +15,25 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class ProjectFileMetaService {
 
-	private final FileMetaRepository fileMetaRepository;
+	private final FileMetaBulkImporter fileMetaBulkImporter;
 
-	public ProjectFileMetaService(FileMetaRepository fileMetaRepository) {
-		this.fileMetaRepository = fileMetaRepository;
+	public ProjectFileMetaService(FileMetaBulkImporter fileMetaBulkImporter) {
+		this.fileMetaBulkImporter = fileMetaBulkImporter;
 	}
 
 	/**
 	 * 특정 프로젝트의 모든 파일 및 디렉터리 메타데이터를 추출합니다.
+	 * [개선] 행마다 save 하지 않고 폴더 단위 병렬 스캔 + JDBC 배치로 한 번에 저장합니다.
 	 */
 	@Transactional
 	public void saveFileMetadataForProject(Project project, Path projectPath) {
-		try (Stream<Path> paths = Files.walk(projectPath)) {
-			paths
-				.map(path -> toFileMeta(project, projectPath, path))
-				.forEach(fileMetaRepository::save);
-		} catch (IOException ex) {
+		try {
+			fileMetaBulkImporter.importTree(project.getId(), projectPath, null);
+		} catch (UncheckedIOException ex) {
 			log.error("Failed to read file metadata for project: {}", project.getId(), ex);
-			throw new UncheckedIOException("Error reading project structure for project id: " + project.getId(), ex);
+			throw new UncheckedIOException("Error reading project structure for project id: " + project.getId(),
+				ex.getCause());
 		}
 	}
 
-	private FileMeta toFileMeta(Project project, Path projectPath, Path path) {
-		String type = Files.isDirectory(path) ? "folder" : "file";
-		return FileMeta.absolutePath(project, projectPath.relativize(path).toString(), type);
-	}
-
 }
@@ -16,6 +16,7 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
 import com.growlog.webide.domain.images.entity.Image;
 import com.growlog.webide.domain.images.repository.ImageRepository;
 import com.growlog.webide.domain.projects.config.ProjectManagementProducer;
@@ -58,6 +59,7 @@ public class WorkspaceManagerService {
 	private final String templatesBasePath;
 	private final String serverId;
 	private final ActiveInstanceRepository activeInstanceRepository;
+	private final CodeSearchIndexRegistry codeSearchIndexRegistry;
 
 	public WorkspaceManagerService(ProjectRepository projectRepository,
 		ActiveSessionRepository activeSessionRepository,
@@ -69,7 +71,8 @@ public class WorkspaceManagerService {
 		ProjectManagementProducer projectManagementProducer,
 		@Value("${efs.base-path}") String projectsBasePath,
 		@Value("${efs.templates-path}") String templatesBasePath,
-		@Value("${SERVER_ID}") String serverId, ActiveInstanceRepository activeInstanceRepository) {
+		@Value("${SERVER_ID}") String serverId, ActiveInstanceRepository activeInstanceRepository,
+		CodeSearchIndexRegistry codeSearchIndexRegistry) {
 		this.projectRepository = projectRepository;
 		this.activeSessionRepository = activeSessionRepository;
 		this.imageRepository = imageRepository;
@@ -82,6 +85,7 @@ public class WorkspaceManagerService {
 		this.templatesBasePath = templatesBasePath;
 		this.serverId = serverId;
 		this.activeInstanceRepository = activeInstanceRepository;
+		this.codeSearchIndexRegistry = codeSearchIndexRegistry;
 	}
 
 	/*
@@ -180,6 +184,9 @@ public class WorkspaceManagerService {
 			.serverId(serverId)
 			.build();
 		activeSessionRepository.save(session);
+
+		// [추가] 코드 검색 색인을 백그라운드에서 미리 만듭니다.
+		codeSearchIndexRegistry.open(projectId);
 	}
 
 	/*
@@ -16,4 +16,6 @@ public class CodeExecutionRequestDto {
 	private String dockerImage;
 	private String buildCommand;
 	private String runCommand;
+	private Long outputRateLimit; // 초당 출력 바이트 제한 (null 이면 Worker 기본값)
+	private Long outputByteBudget; // 실행 한 번의 총 출력 바이트 제한 (null 이면 Worker 기본값)
 }
@@ -0,0 +1,43 @@
+package com.growlog.webide.domain.terminal.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * PTY 입력 전달용 바이너리 메시지
+ *
+ * [version(1)][sessionId 길이(1)][sessionId(ASCII)][입력 바이트(UTF-8)] 형식이며,
+ * Jackson 으로 직렬화한 Map 대신 AMQP content-type 으로 구분해 전송합니다.
+ * Worker 의 execution.dto.PtyInputFrame 과 형식이 같아야 합니다.
+ */
+public record PtyInputFrame(String sessionId, byte[] input) {
+
+	public static final String CONTENT_TYPE = "application/vnd.growlog.pty-input";
+	private static final byte VERSION = 1;
+	private static final int HEADER_LENGTH = 2;
+
+	public byte[] encode() {
+		byte[] id = sessionId.getBytes(StandardCharsets.US_ASCII);
+		if (id.length > 0xFF) {
+			throw new IllegalArgumentException("Session id is too long for a PTY input frame: " + sessionId);
+		}
+		byte[] body = new byte[HEADER_LENGTH + id.length + input.length];
+		body[0] = VERSION;
+		body[1] = (byte)id.length;
+		System.arraycopy(id, 0, body, HEADER_LENGTH, id.length);
+		System.arraycopy(input, 0, body, HEADER_LENGTH + id.length, input.length);
+		return body;
+	}
+
+	public static PtyInputFrame decode(byte[] body) {
+		if (body.length < HEADER_LENGTH || body[0] != VERSION) {
+			throw new IllegalArgumentException("Unsupported PTY input frame");
+		}
+		int idLength = body[1] & 0xFF;
+		if (body.length < HEADER_LENGTH + idLength) {
+			throw new IllegalArgumentException("Truncated PTY input frame");
+		}
+		String sessionId = new String(body, HEADER_LENGTH, idLength, StandardCharsets.US_ASCII);
+		return new PtyInputFrame(sessionId, Arrays.copyOfRange(body, HEADER_LENGTH + idLength, body.length));
+	}
+}
@@ -0,0 +1,21 @@
+package com.growlog.webide.domain.terminal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 터미널 재연결 시 클라이언트에 보내는 화면 스냅샷
+ * 클라이언트는 cols x rows 로 터미널 크기를 맞춘 뒤 data 를 그대로 write 합니다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalSnapshot {
+	/** 스냅샷 대상 터미널의 containerId (LogMessage.targetId 와 같음) */
+	private String targetId;
+	private int cols;
+	private int rows;
+	/** 현재 화면과 최근 scrollback 을 재현하는 ANSI 문자열 */
+	private String data;
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.growlog.webide.domain.projects.entity.InstanceStatus;
 import com.growlog.webide.domain.terminal.entity.ActiveInstance;
@@ -23,5 +25,9 @@ public interface ActiveInstanceRepository extends JpaRepository<ActiveInstance,
 	Optional<ActiveInstance> findByContainerIdAndStatus(String containerId, InstanceStatus instanceStatus);
 
 	List<ActiveInstance> findAllByProject_Id(Long projectId);
+
+	// [추가] 컨테이너가 해당 상태인 프로젝트 ID 목록 (컨테이너 파일 변경 감시 대상)
+	@Query("SELECT DISTINCT a.project.id FROM ActiveInstance a WHERE a.status = :status")
+	List<Long> findProjectIdsByStatus(@Param("status") InstanceStatus status);
 }
 
@@ -0,0 +1,59 @@
+package com.growlog.webide.domain.terminal.screen;
+
+/**
+ * 화면 위로 밀려난 줄을 보관하는 고정 크기 링 버퍼
+ * 줄 수 또는 전체 글자 수 한도를 넘으면 가장 오래된 줄부터 버립니다.
+ */
+class ScrollbackRing {
+
+	private final String[] lines;
+	private final long maxChars;
+	private int head; // 가장 오래된 줄의 위치
+	private int size;
+	private long chars;
+
+	ScrollbackRing(int maxLines, long maxChars) {
+		this.lines = new String[Math.max(maxLines, 1)];
+		this.maxChars = maxChars;
+	}
+
+	void add(String line) {
+		if (line.length() > maxChars) {
+			return;
+		}
+		while (size > 0 && (size == lines.length || chars + line.length() > maxChars)) {
+			evictOldest();
+		}
+		lines[(head + size) % lines.length] = line;
+		size++;
+		chars += line.length();
+	}
+
+	void clear() {
+		while (size > 0) {
+			evictOldest();
+		}
+		head = 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * 최근 count 줄을 오래된 순서로 이어 붙입니다. 각 줄 뒤에는 CRLF 를 붙입니다.
+	 */
+	void appendLast(int count, StringBuilder out) {
+		int skip = Math.max(size - count, 0);
+		for (int i = skip; i < size; i++) {
+			out.append(lines[(head + i) % lines.length]).append("\r\n");
+		}
+	}
+
+	private void evictOldest() {
+		chars -= lines[head].length();
+		lines[head] = null;
+		head = (head + 1) % lines.length;
+		size--;
+	}
+}
@@ -0,0 +1,744 @@
+package com.growlog.webide.domain.terminal.screen;
+
+import java.util.Arrays;
+
+/**
+ * PTY 출력으로 갱신되는 서버 측 헤드리스 터미널 화면 (VT100/xterm 부분 집합)
+ *
+ * 커서 이동, 지우기, 스크롤 영역, 줄/문자 삽입·삭제, SGR 색상/속성, 대체 화면(?1049) 등
+ * 쉘과 전체 화면 프로그램이 주로 쓰는 시퀀스를 해석합니다.
+ * 그 밖의 시퀀스는 해석하지 않고 건너뛰며, 화면 위로 밀려난 줄은 ScrollbackRing 에 보관합니다.
+ * 메모리는 (cols x rows) 셀 두 벌과 scrollback 한도로 고정됩니다.
+ */
+public class TerminalScreen {
+
+	private static final int WIDE_TAIL = -1; // 전각 문자의 오른쪽 절반 셀
+
+	// 셀 스타일: bit 0-8 전경색, bit 9-17 배경색 (0 = 기본색, 1-256 = 팔레트 인덱스 + 1), bit 18- 속성
+	private static final int COLOR_BITS = 9;
+	private static final int COLOR_MASK = (1 << COLOR_BITS) - 1;
+	private static final int BG_SHIFT = COLOR_BITS;
+	private static final int BOLD = 1 << 18;
+	private static final int DIM = 1 << 19;
+	private static final int ITALIC = 1 << 20;
+	private static final int UNDERLINE = 1 << 21;
+	private static final int INVERSE = 1 << 22;
+	private static final int HIDDEN = 1 << 23;
+	private static final int STRIKE = 1 << 24;
+
+	private static final int GROUND = 0;
+	private static final int ESCAPE = 1;
+	private static final int CSI = 2;
+	private static final int OSC = 3;
+	private static final int IGNORE_STRING = 4;
+	private static final int CHARSET = 5;
+
+	private static final int MAX_PARAMS = 16;
+	// DEC Special Graphics ('_' ~ '~') -> 선 그리기 문자
+	private static final String LINE_DRAWING = " ◆▒␉␌␍␊°±␤␋"
+		+ "┘┐┌└┼⎺⎻─⎼⎽├┤┴┬│≤≥"
+		+ "π≠£·";
+
+	private final int cols;
+	private final int rows;
+	private final ScrollbackRing scrollback;
+	private final Buffer primary;
+	private final Buffer alternate;
+	private Buffer active;
+
+	private int cursorRow;
+	private int cursorCol;
+	private boolean wrapPending;
+	private int style;
+	private int scrollTop;
+	private int scrollBottom;
+	private boolean autoWrap = true;
+	private boolean cursorVisible = true;
+	private boolean lineDrawing;
+	private int savedRow;
+	private int savedCol;
+	private int savedStyle;
+	private boolean written;
+
+	private int state = GROUND;
+	private final int[] params = new int[MAX_PARAMS];
+	private int paramCount;
+	private boolean paramStarted;
+	private char privateMarker;
+	private boolean charsetG0;
+
+	public TerminalScreen(int cols, int rows, int scrollbackLines, long scrollbackMaxChars) {
+		this.cols = cols;
+		this.rows = rows;
+		this.scrollback = new ScrollbackRing(scrollbackLines, scrollbackMaxChars);
+		this.primary = new Buffer(rows, cols);
+		this.alternate = new Buffer(rows, cols);
+		this.active = primary;
+		this.scrollBottom = rows - 1;
+	}
+
+	public synchronized void write(String output) {
+		output.codePoints().forEach(this::consume);
+		written |= !output.isEmpty();
+	}
+
+	public synchronized boolean isEmpty() {
+		return !written;
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * 빈 xterm 에 그대로 쓰면 현재 화면과 최근 scrollback 을 재현하는 ANSI 문자열을 만듭니다.
+	 * 클라이언트 터미널 크기가 cols x rows 와 같다고 가정합니다.
+	 */
+	public synchronized String snapshot(int scrollbackLines) {
+		StringBuilder out = new StringBuilder(cols * rows * 2);
+		out.append("\u001b[0m\u001b[H\u001b[2J\u001b[3J");
+		scrollback.appendLast(scrollbackLines, out);
+		renderBuffer(primary, out);
+		if (active == alternate) {
+			// 클라이언트가 대체 화면을 빠져나올 때 복원할 커서 위치를 먼저 맞춥니다.
+			out.append("\u001b[").append(savedRow + 1).append(';').append(savedCol + 1).append('H');
+			out.append("\u001b[?1049h\u001b[H\u001b[2J");
+			renderBuffer(alternate, out);
+		}
+		if (scrollTop != 0 || scrollBottom != rows - 1) {
+			out.append("\u001b[").append(scrollTop + 1).append(';').append(scrollBottom + 1).append('r');
+		}
+		out.append("\u001b[").append(cursorRow + 1).append(';').append(cursorCol + 1).append('H');
+		appendSgr(style, out);
+		if (!cursorVisible) {
+			out.append("\u001b[?25l");
+		}
+		if (!autoWrap) {
+			out.append("\u001b[?7l");
+		}
+		return out.toString();
+	}
+
+	private void consume(int codePoint) {
+		switch (state) {
+			case ESCAPE -> escape(codePoint);
+			case CSI -> csi(codePoint);
+			case OSC, IGNORE_STRING -> {
+				if (codePoint == 0x07) {
+					state = GROUND;
+				} else if (codePoint == 0x1b) {
+					state = ESCAPE; // ESC \ (ST) 의 '\' 는 ESCAPE 상태에서 무시됩니다.
+				}
+			}
+			case CHARSET -> {
+				if (charsetG0) {
+					lineDrawing = codePoint == '0';
+				}
+				state = GROUND;
+			}
+			default -> ground(codePoint);
+		}
+	}
+
+	private void ground(int codePoint) {
+		if (codePoint == 0x1b) {
+			state = ESCAPE;
+		} else if (codePoint < 0x20 || codePoint == 0x7f) {
+			control(codePoint);
+		} else if (codePoint >= 0x80 && codePoint < 0xa0) {
+			return; // C1 제어 문자는 UTF-8 출력에서 거의 쓰이지 않으므로 무시합니다.
+		} else {
+			print(codePoint);
+		}
+	}
+
+	private void control(int codePoint) {
+		switch (codePoint) {
+			case 0x08 -> {
+				cursorCol = Math.max(cursorCol - 1, 0);
+				wrapPending = false;
+			}
+			case 0x09 -> {
+				cursorCol = Math.min((cursorCol / 8 + 1) * 8, cols - 1);
+				wrapPending = false;
+			}
+			case 0x0a, 0x0b, 0x0c -> lineFeed();
+			case 0x0d -> {
+				cursorCol = 0;
+				wrapPending = false;
+			}
+			default -> {
+				// BEL 등 화면에 영향이 없는 제어 문자
+			}
+		}
+	}
+
+	private void escape(int codePoint) {
+		state = GROUND;
+		switch (codePoint) {
+			case '[' -> {
+				state = CSI;
+				paramCount = 0;
+				paramStarted = false;
+				privateMarker = 0;
+				params[0] = 0;
+			}
+			case ']' -> state = OSC;
+			case 'P', 'X', '^', '_' -> state = IGNORE_STRING;
+			case '(', ')', '*', '+' -> {
+				charsetG0 = codePoint == '(';
+				state = CHARSET;
+			}
+			case '7' -> saveCursor();
+			case '8' -> restoreCursor();
+			case 'D' -> lineFeed();
+			case 'E' -> {
+				cursorCol = 0;
+				lineFeed();
+			}
+			case 'M' -> reverseIndex();
+			case 'c' -> reset();
+			default -> {
+				// ESC = / ESC > (키패드 모드) 등 화면과 무관한 시퀀스
+			}
+		}
+	}
+
+	private void csi(int codePoint) {
+		if (codePoint >= '0' && codePoint <= '9') {
+			if (!paramStarted) {
+				paramStarted = true;
+				paramCount = 1;
+				params[0] = 0;
+			}
+			int index = paramCount - 1;
+			params[index] = Math.min(params[index] * 10 + (codePoint - '0'), 0xffff);
+		} else if (codePoint == ';' || codePoint == ':') {
+			if (!paramStarted) {
+				paramStarted = true;
+				paramCount = 1;
+				params[0] = 0;
+			}
+			if (paramCount < MAX_PARAMS) {
+				params[paramCount++] = 0;
+			}
+		} else if (codePoint >= '<' && codePoint <= '?') {
+			privateMarker = (char)codePoint;
+		} else if (codePoint >= 0x20 && codePoint <= 0x2f) {
+			return; // 중간 바이트 (예: CSI ! p)
+		} else if (codePoint >= 0x40 && codePoint <= 0x7e) {
+			state = GROUND;
+			dispatchCsi((char)codePoint);
+		} else if (codePoint == 0x1b) {
+			state = ESCAPE;
+		} else if (codePoint < 0x20) {
+			control(codePoint);
+		} else {
+			state = GROUND;
+		}
+	}
+
+	private int param(int index, int defaultValue) {
+		int value = index < paramCount ? params[index] : 0;
+		return value == 0 ? defaultValue : value;
+	}
+
+	private void dispatchCsi(char command) {
+		if (privateMarker == '?') {
+			if (command == 'h' || command == 'l') {
+				for (int i = 0; i < Math.max(paramCount, 1); i++) {
+					privateMode(params[i], command == 'h');
+				}
+			}
+			return;
+		}
+		if (privateMarker != 0) {
+			return;
+		}
+		wrapPending = false;
+		int n = param(0, 1);
+		switch (command) {
+			case '@' -> insertChars(n);
+			case 'A' -> cursorRow = Math.max(cursorRow - n, cursorRow >= scrollTop ? scrollTop : 0);
+			case 'B', 'e' -> cursorRow = Math.min(cursorRow + n, cursorRow <= scrollBottom ? scrollBottom : rows - 1);
+			case 'C', 'a' -> cursorCol = Math.min(cursorCol + n, cols - 1);
+			case 'D' -> cursorCol = Math.max(cursorCol - n, 0);
+			case 'E' -> {
+				cursorRow = Math.min(cursorRow + n, rows - 1);
+				cursorCol = 0;
+			}
+			case 'F' -> {
+				cursorRow = Math.max(cursorRow - n, 0);
+				cursorCol = 0;
+			}
+			case 'G', '`' -> cursorCol = clamp(n - 1, cols);
+			case 'H', 'f' -> {
+				cursorRow = clamp(param(0, 1) - 1, rows);
+				cursorCol = clamp(param(1, 1) - 1, cols);
+			}
+			case 'd' -> cursorRow = clamp(n - 1, rows);
+			case 'J' -> eraseInDisplay(param(0, 0));
+			case 'K' -> eraseInLine(param(0, 0));
+			case 'L' -> insertLines(n);
+			case 'M' -> deleteLines(n);
+			case 'P' -> deleteChars(n);
+			case 'X' -> fill(cursorRow, cursorCol, Math.min(cursorCol + n, cols));
+			case 'S' -> scrollUp(scrollTop, scrollBottom, n);
+			case 'T' -> scrollDown(scrollTop, scrollBottom, n);
+			case 'm' -> selectGraphicRendition();
+			case 'r' -> setScrollRegion(param(0, 1) - 1, param(1, rows) - 1);
+			case 's' -> saveCursor();
+			case 'u' -> restoreCursor();
+			default -> {
+				// DSR(n), DA(c), 창 조작(t) 등은 화면 상태와 무관합니다.
+			}
+		}
+	}
+
+	private void privateMode(int mode, boolean enabled) {
+		switch (mode) {
+			case 7 -> autoWrap = enabled;
+			case 25 -> cursorVisible = enabled;
+			case 47, 1047 -> switchBuffer(enabled, false);
+			case 1049 -> {
+				if (enabled) {
+					saveCursor();
+					switchBuffer(true, true);
+				} else {
+					switchBuffer(false, false);
+					restoreCursor();
+				}
+			}
+			default -> {
+				// 마우스, bracketed paste 등 입력 관련 모드
+			}
+		}
+	}
+
+	private void switchBuffer(boolean toAlternate, boolean clear) {
+		Buffer target = toAlternate ? alternate : primary;
+		if (toAlternate && (clear || active != alternate)) {
+			alternate.clear();
+		}
+		active = target;
+		wrapPending = false;
+	}
+
+	private void print(int codePoint) {
+		int width = charWidth(codePoint);
+		if (width == 0) {
+			return; // 결합 문자는 앞 글자에 붙으므로 별도 셀을 차지하지 않습니다.
+		}
+		if (lineDrawing && codePoint >= '_' && codePoint <= '~') {
+			codePoint = LINE_DRAWING.charAt(codePoint - '_');
+		}
+		if (wrapPending && autoWrap) {
+			cursorCol = 0;
+			lineFeed();
+		}
+		wrapPending = false;
+		if (width == 2 && cursorCol == cols - 1) {
+			if (!autoWrap) {
+				return;
+			}
+			fill(cursorRow, cursorCol, cols);
+			cursorCol = 0;
+			lineFeed();
+		}
+
+		int[] cells = active.cells[cursorRow];
+		int[] styles = active.styles[cursorRow];
+		clearWideFragments(cells, cursorCol, width);
+		cells[cursorCol] = codePoint;
+		styles[cursorCol] = style;
+		if (width == 2) {
+			cells[cursorCol + 1] = WIDE_TAIL;
+			styles[cursorCol + 1] = style;
+		}
+
+		if (cursorCol + width >= cols) {
+			cursorCol = cols - 1;
+			wrapPending = autoWrap;
+		} else {
+			cursorCol += width;
+		}
+	}
+
+	// 전각 문자의 한쪽 절반만 덮어쓰면 나머지 절반을 공백으로 바꿉니다.
+	private void clearWideFragments(int[] cells, int col, int width) {
+		if (cells[col] == WIDE_TAIL && col > 0) {
+			cells[col - 1] = ' ';
+		}
+		int end = col + width;
+		if (end < cols && cells[end] == WIDE_TAIL) {
+			cells[end] = ' ';
+		}
+	}
+
+	private void lineFeed() {
+		wrapPending = false;
+		if (cursorRow == scrollBottom) {
+			scrollUp(scrollTop, scrollBottom, 1);
+		} else if (cursorRow < rows - 1) {
+			cursorRow++;
+		}
+	}
+
+	private void reverseIndex() {
+		wrapPending = false;
+		if (cursorRow == scrollTop) {
+			scrollDown(scrollTop, scrollBottom, 1);
+		} else if (cursorRow > 0) {
+			cursorRow--;
+		}
+	}
+
+	private void scrollUp(int top, int bottom, int count) {
+		int n = Math.min(count, bottom - top + 1);
+		for (int i = 0; i < n; i++) {
+			if (top == 0 && active == primary) {
+				StringBuilder line = new StringBuilder(cols);
+				renderRow(primary.cells[0], primary.styles[0], line);
+				scrollback.add(line.toString());
+			}
+			active.rotateUp(top, bottom);
+			fill(bottom, 0, cols);
+		}
+	}
+
+	private void scrollDown(int top, int bottom, int count) {
+		int n = Math.min(count, bottom - top + 1);
+		for (int i = 0; i < n; i++) {
+			active.rotateDown(top, bottom);
+			fill(top, 0, cols);
+		}
+	}
+
+	private void insertLines(int count) {
+		if (cursorRow >= scrollTop && cursorRow <= scrollBottom) {
+			scrollDown(cursorRow, scrollBottom, count);
+			cursorCol = 0;
+		}
+	}
+
+	private void deleteLines(int count) {
+		if (cursorRow >= scrollTop && cursorRow <= scrollBottom) {
+			// 지워지는 줄은 scrollback 에 넣지 않으므로 active 버퍼에서 직접 회전합니다.
+			int n = Math.min(count, scrollBottom - cursorRow + 1);
+			for (int i = 0; i < n; i++) {
+				active.rotateUp(cursorRow, scrollBottom);
+				fill(scrollBottom, 0, cols);
+			}
+			cursorCol = 0;
+		}
+	}
+
+	private void insertChars(int count) {
+		int[] cells = active.cells[cursorRow];
+		int[] styles = active.styles[cursorRow];
+		int n = Math.min(count, cols - cursorCol);
+		System.arraycopy(cells, cursorCol, cells, cursorCol + n, cols - cursorCol - n);
+		System.arraycopy(styles, cursorCol, styles, cursorCol + n, cols - cursorCol - n);
+		fill(cursorRow, cursorCol, cursorCol + n);
+	}
+
+	private void deleteChars(int count) {
+		int[] cells = active.cells[cursorRow];
+		int[] styles = active.styles[cursorRow];
+		int n = Math.min(count, cols - cursorCol);
+		System.arraycopy(cells, cursorCol + n, cells, cursorCol, cols - cursorCol - n);
+		System.arraycopy(styles, cursorCol + n, styles, cursorCol, cols - cursorCol - n);
+		fill(cursorRow, cols - n, cols);
+	}
+
+	private void eraseInDisplay(int mode) {
+		switch (mode) {
+			case 0 -> {
+				fill(cursorRow, cursorCol, cols);
+				for (int row = cursorRow + 1; row < rows; row++) {
+					fill(row, 0, cols);
+				}
+			}
+			case 1 -> {
+				for (int row = 0; row < cursorRow; row++) {
+					fill(row, 0, cols);
+				}
+				fill(cursorRow, 0, cursorCol + 1);
+			}
+			case 2, 3 -> {
+				for (int row = 0; row < rows; row++) {
+					fill(row, 0, cols);
+				}
+				if (mode == 3) {
+					scrollback.clear();
+				}
+			}
+			default -> {
+			}
+		}
+	}
+
+	private void eraseInLine(int mode) {
+		switch (mode) {
+			case 0 -> fill(cursorRow, cursorCol, cols);
+			case 1 -> fill(cursorRow, 0, cursorCol + 1);
+			case 2 -> fill(cursorRow, 0, cols);
+			default -> {
+			}
+		}
+	}
+
+	// 지운 셀은 현재 배경색을 유지합니다. (xterm 의 back color erase)
+	private void fill(int row, int from, int to) {
+		int blankStyle = style & (COLOR_MASK << BG_SHIFT);
+		int[] cells = active.cells[row];
+		int[] styles = active.styles[row];
+		for (int col = from; col < to; col++) {
+			cells[col] = ' ';
+			styles[col] = blankStyle;
+		}
+	}
+
+	private void setScrollRegion(int top, int bottom) {
+		int newBottom = Math.min(bottom, rows - 1);
+		if (top < newBottom) {
+			scrollTop = Math.max(top, 0);
+			scrollBottom = newBottom;
+			cursorRow = 0;
+			cursorCol = 0;
+		}
+	}
+
+	private void saveCursor() {
+		savedRow = cursorRow;
+		savedCol = cursorCol;
+		savedStyle = style;
+	}
+
+	private void restoreCursor() {
+		cursorRow = Math.min(savedRow, rows - 1);
+		cursorCol = Math.min(savedCol, cols - 1);
+		style = savedStyle;
+		wrapPending = false;
+	}
+
+	private void reset() {
+		primary.clear();
+		alternate.clear();
+		scrollback.clear();
+		active = primary;
+		cursorRow = 0;
+		cursorCol = 0;
+		wrapPending = false;
+		style = 0;
+		scrollTop = 0;
+		scrollBottom = rows - 1;
+		autoWrap = true;
+		cursorVisible = true;
+		lineDrawing = false;
+	}
+
+	private void selectGraphicRendition() {
+		if (paramCount == 0) {
+			style = 0;
+			return;
+		}
+		for (int i = 0; i < paramCount; i++) {
+			int code = params[i];
+			switch (code) {
+				case 0 -> style = 0;
+				case 1 -> style |= BOLD;
+				case 2 -> style |= DIM;
+				case 3 -> style |= ITALIC;
+				case 4 -> style |= UNDERLINE;
+				case 7 -> style |= INVERSE;
+				case 8 -> style |= HIDDEN;
+				case 9 -> style |= STRIKE;
+				case 22 -> style &= ~(BOLD | DIM);
+				case 23 -> style &= ~ITALIC;
+				case 24 -> style &= ~UNDERLINE;
+				case 27 -> style &= ~INVERSE;
+				case 28 -> style &= ~HIDDEN;
+				case 29 -> style &= ~STRIKE;
+				case 39 -> style = withForeground(0);
+				case 49 -> style = withBackground(0);
+				case 38, 48 -> {
+					int mode = i + 1 < paramCount ? params[i + 1] : 0;
+					int color = extendedColor(i);
+					i += mode == 2 ? 4 : 2;
+					if (color >= 0) {
+						style = code == 38 ? withForeground(color + 1) : withBackground(color + 1);
+					}
+				}
+				default -> {
+					if (code >= 30 && code <= 37) {
+						style = withForeground(code - 30 + 1);
+					} else if (code >= 40 && code <= 47) {
+						style = withBackground(code - 40 + 1);
+					} else if (code >= 90 && code <= 97) {
+						style = withForeground(code - 90 + 8 + 1);
+					} else if (code >= 100 && code <= 107) {
+						style = withBackground(code - 100 + 8 + 1);
+					}
+				}
+			}
+		}
+	}
+
+	// 38;5;n 은 팔레트 인덱스, 38;2;r;g;b 는 가장 가까운 256색 큐브 색으로 바꿉니다.
+	private int extendedColor(int index) {
+		if (index + 1 >= paramCount) {
+			return -1;
+		}
+		if (params[index + 1] == 5 && index + 2 < paramCount) {
+			return Math.min(params[index + 2], 255);
+		}
+		if (params[index + 1] == 2 && index + 4 < paramCount) {
+			return 16 + 36 * toCube(params[index + 2]) + 6 * toCube(params[index + 3]) + toCube(params[index + 4]);
+		}
+		return -1;
+	}
+
+	private static int toCube(int component) {
+		return component < 48 ? 0 : component < 115 ? 1 : Math.min((component - 35) / 40, 5);
+	}
+
+	private int withForeground(int color) {
+		return (style & ~COLOR_MASK) | color;
+	}
+
+	private int withBackground(int color) {
+		return (style & ~(COLOR_MASK << BG_SHIFT)) | (color << BG_SHIFT);
+	}
+
+	private void renderBuffer(Buffer buffer, StringBuilder out) {
+		for (int row = 0; row < rows; row++) {
+			if (row > 0) {
+				out.append("\r\n");
+			}
+			renderRow(buffer.cells[row], buffer.styles[row], out);
+		}
+	}
+
+	// 한 줄을 SGR 이 포함된 문자열로 만듭니다. 기본 스타일의 뒤쪽 공백은 생략합니다.
+	private void renderRow(int[] cells, int[] styles, StringBuilder out) {
+		int end = cols;
+		while (end > 0 && (cells[end - 1] == ' ' && styles[end - 1] == 0)) {
+			end--;
+		}
+		int current = 0;
+		for (int col = 0; col < end; col++) {
+			if (cells[col] == WIDE_TAIL) {
+				continue;
+			}
+			if (styles[col] != current) {
+				current = styles[col];
+				appendSgr(current, out);
+			}
+			out.appendCodePoint(cells[col]);
+		}
+		if (current != 0) {
+			out.append("\u001b[0m");
+		}
+	}
+
+	private static void appendSgr(int style, StringBuilder out) {
+		out.append("\u001b[0");
+		if ((style & BOLD) != 0) {
+			out.append(";1");
+		}
+		if ((style & DIM) != 0) {
+			out.append(";2");
+		}
+		if ((style & ITALIC) != 0) {
+			out.append(";3");
+		}
+		if ((style & UNDERLINE) != 0) {
+			out.append(";4");
+		}
+		if ((style & INVERSE) != 0) {
+			out.append(";7");
+		}
+		if ((style & HIDDEN) != 0) {
+			out.append(";8");
+		}
+		if ((style & STRIKE) != 0) {
+			out.append(";9");
+		}
+		int foreground = style & COLOR_MASK;
+		if (foreground != 0) {
+			out.append(";38;5;").append(foreground - 1);
+		}
+		int background = (style >> BG_SHIFT) & COLOR_MASK;
+		if (background != 0) {
+			out.append(";48;5;").append(background - 1);
+		}
+		out.append('m');
+	}
+
+	private static int clamp(int value, int size) {
+		return Math.max(0, Math.min(value, size - 1));
+	}
+
+	/**
+	 * 터미널에서 차지하는 칸 수. 한글/한자/가나와 대부분의 이모지는 2칸, 결합 문자는 0칸입니다.
+	 */
+	static int charWidth(int codePoint) {
+		int type = Character.getType(codePoint);
+		if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || codePoint == 0x200b) {
+			return 0;
+		}
+		boolean wide = (codePoint >= 0x1100 && codePoint <= 0x115f)
+			|| (codePoint >= 0x2e80 && codePoint <= 0xa4cf && codePoint != 0x303f)
+			|| (codePoint >= 0xac00 && codePoint <= 0xd7a3)
+			|| (codePoint >= 0xf900 && codePoint <= 0xfaff)
+			|| (codePoint >= 0xfe30 && codePoint <= 0xfe4f)
+			|| (codePoint >= 0xff00 && codePoint <= 0xff60)
+			|| (codePoint >= 0xffe0 && codePoint <= 0xffe6)
+			|| (codePoint >= 0x1f300 && codePoint <= 0x1f64f)
+			|| (codePoint >= 0x1f900 && codePoint <= 0x1f9ff)
+			|| (codePoint >= 0x20000 && codePoint <= 0x3fffd);
+		return wide ? 2 : 1;
+	}
+
+	private static final class Buffer {
+		private final int[][] cells;
+		private final int[][] styles;
+
+		private Buffer(int rows, int cols) {
+			this.cells = new int[rows][cols];
+			this.styles = new int[rows][cols];
+			clear();
+		}
+
+		private void clear() {
+			for (int row = 0; row < cells.length; row++) {
+				Arrays.fill(cells[row], ' ');
+				Arrays.fill(styles[row], 0);
+			}
+		}
+
+		// top 줄을 bottom 으로 옮기고 나머지를 한 줄씩 올립니다. (줄 배열만 교체하므로 복사 비용이 없습니다)
+		private void rotateUp(int top, int bottom) {
+			int[] cellRow = cells[top];
+			int[] styleRow = styles[top];
+			System.arraycopy(cells, top + 1, cells, top, bottom - top);
+			System.arraycopy(styles, top + 1, styles, top, bottom - top);
+			cells[bottom] = cellRow;
+			styles[bottom] = styleRow;
+		}
+
+		private void rotateDown(int top, int bottom) {
+			int[] cellRow = cells[bottom];
+			int[] styleRow = styles[bottom];
+			System.arraycopy(cells, top, cells, top + 1, bottom - top);
+			System.arraycopy(styles, top, styles, top + 1, bottom - top);
+			cells[top] = cellRow;
+			styles[top] = styleRow;
+		}
+	}
+}
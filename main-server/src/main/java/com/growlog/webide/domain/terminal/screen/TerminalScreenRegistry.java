@@ -0,0 +1,84 @@
+package com.growlog.webide.domain.terminal.screen;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.domain.terminal.dto.LogMessage;
+import com.growlog.webide.domain.terminal.dto.TerminalSnapshot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PTY 터미널(containerId)별 헤드리스 화면을 관리합니다.
+ *
+ * 터미널 세션을 시작할 때 화면을 등록하면, LogBrokerService 가 받는 같은 출력 스트림으로 화면이 갱신됩니다.
+ * 일회성 코드 실행 로그(executionLogId)는 등록되지 않으므로 화면을 만들지 않습니다.
+ */
+@Slf4j
+@Component
+public class TerminalScreenRegistry {
+
+	private final int cols;
+	private final int rows;
+	private final int scrollbackLines;
+	private final long scrollbackMaxChars;
+	private final int snapshotScrollbackLines;
+	private final Map<String, TerminalScreen> screens = new ConcurrentHashMap<>();
+
+	public TerminalScreenRegistry(MeterRegistry meterRegistry,
+		@Value("${pty-screen.cols:80}") int cols,
+		@Value("${pty-screen.rows:24}") int rows,
+		@Value("${pty-screen.scrollback.max-lines:1000}") int scrollbackLines,
+		@Value("${pty-screen.scrollback.max-chars:262144}") long scrollbackMaxChars,
+		@Value("${pty-screen.snapshot.scrollback-lines:200}") int snapshotScrollbackLines) {
+		this.cols = cols;
+		this.rows = rows;
+		this.scrollbackLines = scrollbackLines;
+		this.scrollbackMaxChars = scrollbackMaxChars;
+		this.snapshotScrollbackLines = snapshotScrollbackLines;
+		Gauge.builder("terminal.screen.sessions", screens, Map::size)
+			.description("PTY terminals with a server-side screen model")
+			.register(meterRegistry);
+	}
+
+	public void open(String containerId) {
+		screens.computeIfAbsent(containerId,
+			id -> new TerminalScreen(cols, rows, scrollbackLines, scrollbackMaxChars));
+	}
+
+	public void feed(LogMessage logMessage) {
+		TerminalScreen screen = screens.get(logMessage.getTargetId());
+		if (screen == null || logMessage.getContent() == null) {
+			return;
+		}
+		try {
+			screen.write(logMessage.getContent());
+		} catch (RuntimeException e) {
+			// 화면 모델 오류가 실시간 출력 전달을 막지 않도록 해당 화면만 버립니다.
+			log.warn("Discarding terminal screen for {} after an emulation error", logMessage.getTargetId(), e);
+			screens.remove(logMessage.getTargetId(), screen);
+		}
+	}
+
+	/**
+	 * 아직 출력이 없는 화면은 스냅샷을 만들지 않습니다.
+	 */
+	public Optional<TerminalSnapshot> snapshot(String containerId) {
+		TerminalScreen screen = containerId == null ? null : screens.get(containerId);
+		if (screen == null || screen.isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.of(new TerminalSnapshot(containerId, screen.getCols(), screen.getRows(),
+			screen.snapshot(snapshotScrollbackLines)));
+	}
+
+	public void remove(String containerId) {
+		screens.remove(containerId);
+	}
+}
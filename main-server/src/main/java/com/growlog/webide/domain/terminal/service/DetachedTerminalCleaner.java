@@ -0,0 +1,64 @@
+package com.growlog.webide.domain.terminal.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.growlog.webide.domain.projects.entity.InstanceStatus;
+import com.growlog.webide.domain.terminal.entity.ActiveInstance;
+import com.growlog.webide.domain.terminal.repository.ActiveInstanceRepository;
+import com.growlog.webide.domain.terminal.service.DetachedTerminalRegistry.DetachedTerminal;
+import com.growlog.webide.domain.terminal.service.DetachedTerminalRegistry.ExpiredEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * grace period 안에 재연결되지 않은 터미널의 PTY 를 닫고, 컨테이너가 ACTIVE 이면 삭제를 요청합니다.
+ *
+ * 스케줄러 스레드에서 호출되므로 TerminalService 안에서 자기 메서드를 부르지 않고 별도 빈의 트랜잭션 안에서 정리합니다.
+ * [개선] 보관은 노드 메모리에만 있으므로, 다른 노드에서 다시 연결했거나 같은 컨테이너를 쓰는 세션이 있으면
+ * claim 없이도 컨테이너가 쓰이고 있습니다. 보관한 뒤 ActiveInstance 의 마지막 활동 시각이 바뀌었거나
+ * 이 노드에 그 인스턴스를 쓰는 세션이 남아 있으면 PTY 만 닫고 컨테이너는 남겨 둡니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DetachedTerminalCleaner {
+
+	private final TerminalService terminalService;
+	private final ActiveInstanceRepository activeInstanceRepository;
+
+	@Transactional
+	@EventListener
+	public void cleanUp(ExpiredEvent event) {
+		DetachedTerminal terminal = event.terminal();
+		terminalService.stopPtySession(terminal.ptySessionId());
+		activeInstanceRepository.findById(terminal.instanceId())
+			.filter(found -> found.getStatus() == InstanceStatus.ACTIVE)
+			.filter(found -> !isInUse(found, terminal))
+			.ifPresent(instance -> {
+				log.info("Requesting container deletion for instance ID {} (containerId: {}) after grace period.",
+					instance.getId(), instance.getContainerId());
+				terminalService.requestContainerDeletion(instance.getProject().getId(),
+					instance.getUser().getUserId());
+			});
+	}
+
+	private boolean isInUse(ActiveInstance instance, DetachedTerminal terminal) {
+		LocalDateTime lastActivityAt = instance.getLastActivityAt();
+		if (lastActivityAt != null && lastActivityAt.isAfter(terminal.parkedAt())) {
+			log.info("Keeping container {} after grace period. It was used again at {} (parked at {}).",
+				instance.getContainerId(), lastActivityAt, terminal.parkedAt());
+			return true;
+		}
+		if (terminalService.hasLiveSession(instance.getId())) {
+			log.info("Keeping container {} after grace period. Another session is still using it.",
+				instance.getContainerId());
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,119 @@
+package com.growlog.webide.domain.terminal.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * WebSocket 연결이 끊긴 터미널을 grace period 동안 보관합니다.
+ *
+ * 보관 중에는 ActiveInstance(컨테이너)와 Worker 의 PTY exec 가 그대로 살아 있으며,
+ * 같은 사용자가 같은 프로젝트로 다시 연결하면 claim 으로 꺼내서 기존 PTY 에 다시 붙습니다.
+ * grace period 가 지나면 ExpiredEvent 를 발행하고, DetachedTerminalCleaner 가 트랜잭션 안에서 PTY 와 컨테이너를 정리합니다.
+ */
+@Slf4j
+@Component
+public class DetachedTerminalRegistry {
+
+	private final TaskScheduler taskScheduler;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Duration gracePeriod;
+	private final Map<TerminalKey, Entry> detachedTerminals = new ConcurrentHashMap<>();
+
+	public DetachedTerminalRegistry(@Qualifier("taskScheduler") TaskScheduler taskScheduler,
+		MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher,
+		@Value("${pty-session.reattach.grace-period-seconds:60}") long gracePeriodSeconds) {
+		this.taskScheduler = taskScheduler;
+		this.eventPublisher = eventPublisher;
+		this.gracePeriod = Duration.ofSeconds(gracePeriodSeconds);
+		Gauge.builder("terminal.session.detached", detachedTerminals, Map::size)
+			.description("Disconnected terminals waiting for a reattach")
+			.register(meterRegistry);
+	}
+
+	public boolean isEnabled() {
+		return !gracePeriod.isZero() && !gracePeriod.isNegative();
+	}
+
+	/**
+	 * 끊긴 터미널을 보관합니다. 같은 사용자/프로젝트로 이미 보관 중인 터미널이 있으면 그 터미널을 반환합니다.
+	 * grace period 안에 다시 연결되지 않으면 스케줄러 스레드에서 ExpiredEvent 를 발행합니다.
+	 */
+	public Optional<DetachedTerminal> park(Long userId, Long projectId, DetachedTerminal terminal) {
+		TerminalKey key = new TerminalKey(userId, projectId);
+		Entry entry = new Entry(terminal);
+		// 만료 작업을 먼저 예약한 뒤 등록해야 claim 이 항상 취소할 expiry 를 볼 수 있습니다.
+		entry.expiry = taskScheduler.schedule(() -> {
+			if (detachedTerminals.remove(key, entry)) {
+				log.info("Grace period expired for PTY session {} (user {}, project {})", terminal.ptySessionId(),
+					userId, projectId);
+				try {
+					eventPublisher.publishEvent(new ExpiredEvent(terminal));
+				} catch (RuntimeException e) {
+					log.error("Failed to clean up detached PTY session {}", terminal.ptySessionId(), e);
+				}
+			}
+		}, Instant.now().plus(gracePeriod));
+		Entry previous = detachedTerminals.put(key, entry);
+		log.info("PTY session {} detached. Waiting {}s for a reattach.", terminal.ptySessionId(),
+			gracePeriod.toSeconds());
+
+		if (previous == null) {
+			return Optional.empty();
+		}
+		previous.expiry.cancel(false);
+		return Optional.of(previous.terminal);
+	}
+
+	/**
+	 * 보관 중인 터미널을 꺼냅니다. 꺼낸 터미널은 더 이상 만료되지 않습니다.
+	 */
+	public Optional<DetachedTerminal> claim(Long userId, Long projectId) {
+		Entry entry = detachedTerminals.remove(new TerminalKey(userId, projectId));
+		if (entry == null) {
+			return Optional.empty();
+		}
+		entry.expiry.cancel(false);
+		return Optional.of(entry.terminal);
+	}
+
+	/**
+	 * @param ptySessionId Worker 의 PTY 세션 ID (처음 터미널을 연 WebSocket 세션 ID)
+	 * @param instanceId   PTY 가 실행 중인 ActiveInstance ID
+	 * @param parkedAt     보관한 시각 (이후 ActiveInstance 가 다시 쓰였는지 비교)
+	 */
+	public record DetachedTerminal(String ptySessionId, Long instanceId, LocalDateTime parkedAt) {
+	}
+
+	/**
+	 * grace period 안에 재연결되지 않은 터미널
+	 */
+	public record ExpiredEvent(DetachedTerminal terminal) {
+	}
+
+	private record TerminalKey(Long userId, Long projectId) {
+	}
+
+	private static final class Entry {
+		private final DetachedTerminal terminal;
+		private volatile ScheduledFuture<?> expiry;
+
+		private Entry(DetachedTerminal terminal) {
+			this.terminal = terminal;
+		}
+	}
+}
@@ -1,11 +1,10 @@
 package com.growlog.webide.domain.terminal.service;
 
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import com.growlog.webide.domain.terminal.dto.LogMessage;
-import com.growlog.webide.domain.users.repository.UserRepository;
+import com.growlog.webide.domain.terminal.screen.TerminalScreenRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,15 +14,15 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class LogBrokerService {
 
-	private final SimpMessagingTemplate messagingTemplate;
-	private final UserRepository userRepository; // userId로 username을 찾기 위해 필요
+	private final LogFanoutBuffer logFanoutBuffer;
+	private final TerminalScreenRegistry terminalScreenRegistry;
 
 	/**
 	 * Worker 서버로부터 로그 메시지를 수신하여 해당 사용자에게 WebSocket으로 전달합니다.
+	 * [개선] 사용자/대상별로 잠깐 모아서 청크 배열 하나로 전송합니다. (LogFanoutBuffer)
 	 * @param logMessage Worker에서 보낸 로그 메시지 DTO
 	 */
-	@RabbitListener(queues = "${log-reception.rabbitmq.queue.name}")
-	// 이 부분이 routing.key로 잘못 설정되었을 가능성이 높습니다. queue.name으로 사용해야 합니다.
+	@RabbitListener(queues = "${log-reception.rabbitmq.queue.name}", containerFactory = "logListenerContainerFactory")
 	public void forwardLogToUser(LogMessage logMessage) {
 		Long userId = logMessage.getUserId();
 		if (userId == null) {
@@ -31,8 +30,11 @@ public class LogBrokerService {
 			return;
 		}
 
-		log.debug("Forwarding log for target [{}] to userId [{}]: {}", logMessage.getTargetId(), userId,
-			logMessage.getContent().trim());
-		messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/logs", logMessage);
+		if (log.isTraceEnabled()) {
+			log.trace("Buffering log for target [{}] to userId [{}]: {} chars", logMessage.getTargetId(), userId,
+				logMessage.getContent() == null ? 0 : logMessage.getContent().length());
+		}
+		terminalScreenRegistry.feed(logMessage); // 재연결 시 보낼 서버 측 화면도 같은 출력으로 갱신합니다.
+		logFanoutBuffer.add(logMessage);
 	}
 }
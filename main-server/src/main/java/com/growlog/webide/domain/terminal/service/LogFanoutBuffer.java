@@ -0,0 +1,250 @@
+package com.growlog.webide.domain.terminal.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.domain.terminal.dto.LogMessage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자/대상(targetId)별로 로그 청크를 잠깐 모아서 하나의 STOMP 프레임(청크 배열)으로 전송합니다.
+ *
+ * 새 청크가 idle window 동안 들어오지 않거나, 첫 청크 이후 max delay 가 지나면 전송합니다.
+ * 모인 글자 수나 청크 수가 한도를 넘으면 수신 스레드에서 바로 전송하므로 버퍼 크기는 항상 제한됩니다.
+ * 같은 stream(stdout/stderr)의 연속된 청크는 하나로 합쳐서 보냅니다.
+ */
+@Slf4j
+@Component
+public class LogFanoutBuffer {
+
+	private static final String DESTINATION = "/queue/logs";
+	private static final long STATS_IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+	private final SimpMessagingTemplate messagingTemplate;
+	private final TaskScheduler taskScheduler;
+	private final long idleWindowNanos;
+	private final long maxDelayNanos;
+	private final int maxBatchChars;
+	private final int maxBatchChunks;
+	private final Map<BatchKey, PendingBatch> pendingBatches = new ConcurrentHashMap<>();
+	private final Map<Long, UserThroughput> throughputs = new ConcurrentHashMap<>();
+	private final AtomicInteger pendingChunks = new AtomicInteger();
+	private final Counter receivedChunks;
+	private final Counter sentFrames;
+	private final DistributionSummary chunksPerFrame;
+
+	public LogFanoutBuffer(SimpMessagingTemplate messagingTemplate,
+		@Qualifier("taskScheduler") TaskScheduler taskScheduler,
+		MeterRegistry meterRegistry,
+		@Value("${log-fanout.idle-window-ms:5}") long idleWindowMs,
+		@Value("${log-fanout.max-delay-ms:25}") long maxDelayMs,
+		@Value("${log-fanout.max-batch-chars:16384}") int maxBatchChars,
+		@Value("${log-fanout.max-batch-chunks:256}") int maxBatchChunks) {
+		this.messagingTemplate = messagingTemplate;
+		this.taskScheduler = taskScheduler;
+		this.idleWindowNanos = TimeUnit.MILLISECONDS.toNanos(idleWindowMs);
+		this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxDelayMs, idleWindowMs));
+		this.maxBatchChars = maxBatchChars;
+		this.maxBatchChunks = maxBatchChunks;
+		this.receivedChunks = meterRegistry.counter("terminal.fanout.chunks.received");
+		this.sentFrames = meterRegistry.counter("terminal.fanout.frames.sent");
+		this.chunksPerFrame = DistributionSummary.builder("terminal.fanout.frame.chunks")
+			.description("Log chunks received per STOMP frame sent")
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry);
+		Gauge.builder("terminal.fanout.pending.chunks", pendingChunks, AtomicInteger::get)
+			.description("Log chunks waiting to be sent to WebSocket clients")
+			.register(meterRegistry);
+		Gauge.builder("terminal.fanout.pending.batches", pendingBatches, Map::size)
+			.register(meterRegistry);
+	}
+
+	public void add(LogMessage logMessage) {
+		BatchKey key = new BatchKey(logMessage.getUserId(), logMessage.getTargetId());
+		String content = logMessage.getContent() == null ? "" : logMessage.getContent();
+		receivedChunks.increment();
+		throughputs.computeIfAbsent(key.userId(), id -> new UserThroughput()).received(content.length());
+
+		while (true) {
+			PendingBatch batch = pendingBatches.computeIfAbsent(key, PendingBatch::new);
+			synchronized (batch) {
+				if (batch.retired) {
+					continue; // 방금 전송 후 제거된 배치이므로 새 배치를 다시 가져옵니다.
+				}
+				batch.append(logMessage.getStreamType(), content);
+				pendingChunks.incrementAndGet();
+
+				if (batch.chars >= maxBatchChars || batch.receivedChunks >= maxBatchChunks) {
+					flushLocked(batch);
+				} else if (!batch.flushScheduled) {
+					batch.flushScheduled = true;
+					taskScheduler.schedule(() -> flushIfIdle(batch), Instant.now().plusNanos(idleWindowNanos));
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 최근 활동한 사용자들의 누적 전송량 합계와 현재 대기 중인 청크 수 (actuator logfanout 엔드포인트에서 사용)
+	 * 사용자 ID 는 노출하지 않고, 한 사용자에게 몰리는지 볼 수 있도록 사용자별 최댓값만 함께 보고합니다.
+	 */
+	public Map<String, Object> snapshot() {
+		Map<Long, Integer> pendingByUser = new HashMap<>();
+		pendingBatches.forEach((key, batch) -> pendingByUser.merge(key.userId(), batch.receivedChunks, Integer::sum));
+
+		long chunksReceived = 0;
+		long charsReceived = 0;
+		long framesSent = 0;
+		long maxUserChars = 0;
+		for (UserThroughput throughput : throughputs.values()) {
+			chunksReceived += throughput.chunks.sum();
+			long chars = throughput.chars.sum();
+			charsReceived += chars;
+			maxUserChars = Math.max(maxUserChars, chars);
+			framesSent += throughput.frames.sum();
+		}
+
+		Map<String, Object> snapshot = new LinkedHashMap<>();
+		snapshot.put("pendingChunks", pendingChunks.get());
+		snapshot.put("pendingBatches", pendingBatches.size());
+		snapshot.put("activeUsers", throughputs.size());
+		snapshot.put("chunksReceived", chunksReceived);
+		snapshot.put("charsReceived", charsReceived);
+		snapshot.put("framesSent", framesSent);
+		snapshot.put("maxUserCharsReceived", maxUserChars);
+		snapshot.put("maxUserPendingChunks",
+			pendingByUser.values().stream().mapToInt(Integer::intValue).max().orElse(0));
+		return snapshot;
+	}
+
+	@Scheduled(fixedRate = 5 * 60 * 1000)
+	public void evictIdleThroughputs() {
+		long now = System.nanoTime();
+		throughputs.values().removeIf(throughput -> now - throughput.lastActivityNanos > STATS_IDLE_NANOS);
+	}
+
+	private void flushIfIdle(PendingBatch batch) {
+		synchronized (batch) {
+			batch.flushScheduled = false;
+			if (batch.retired || batch.chunks.isEmpty()) {
+				return;
+			}
+			long now = System.nanoTime();
+			long idleRemaining = batch.lastChunkNanos + idleWindowNanos - now;
+			long delayRemaining = batch.firstChunkNanos + maxDelayNanos - now;
+			if (idleRemaining > 0 && delayRemaining > 0) {
+				// 아직 출력이 이어지고 있으므로 idle window 가 끝날 때(최대 max delay)까지 다시 기다립니다.
+				batch.flushScheduled = true;
+				taskScheduler.schedule(() -> flushIfIdle(batch),
+					Instant.now().plus(Duration.ofNanos(Math.min(idleRemaining, delayRemaining))));
+				return;
+			}
+			flushLocked(batch);
+		}
+	}
+
+	private void flushLocked(PendingBatch batch) {
+		List<LogMessage> frame = new ArrayList<>(batch.chunks.size());
+		for (Chunk chunk : batch.chunks) {
+			frame.add(new LogMessage(batch.key.targetId(), batch.key.userId(), chunk.streamType,
+				chunk.content.toString()));
+		}
+		int chunks = batch.receivedChunks;
+		// 같은 배치 객체는 재사용하지 않습니다. 다음 청크는 새 배치에 쌓이고 새 타이머를 예약합니다.
+		batch.retired = true;
+		pendingBatches.remove(batch.key, batch);
+		pendingChunks.addAndGet(-chunks);
+
+		try {
+			messagingTemplate.convertAndSendToUser(batch.key.userId().toString(), DESTINATION, frame);
+			sentFrames.increment();
+			chunksPerFrame.record(chunks);
+			UserThroughput throughput = throughputs.get(batch.key.userId());
+			if (throughput != null) {
+				throughput.frames.increment();
+			}
+		} catch (Exception e) {
+			log.error("Failed to send {} log chunks to userId [{}]", chunks, batch.key.userId(), e);
+		}
+	}
+
+	private record BatchKey(Long userId, String targetId) {
+	}
+
+	private static final class Chunk {
+		private final String streamType;
+		private final StringBuilder content;
+
+		private Chunk(String streamType, String content) {
+			this.streamType = streamType;
+			this.content = new StringBuilder(content);
+		}
+	}
+
+	private static final class PendingBatch {
+		private final BatchKey key;
+		private final List<Chunk> chunks = new ArrayList<>(4);
+		private int receivedChunks;
+		private int chars;
+		private long firstChunkNanos;
+		private long lastChunkNanos;
+		private boolean flushScheduled;
+		private boolean retired;
+
+		private PendingBatch(BatchKey key) {
+			this.key = key;
+		}
+
+		private void append(String streamType, String content) {
+			long now = System.nanoTime();
+			if (chunks.isEmpty()) {
+				firstChunkNanos = now;
+			}
+			lastChunkNanos = now;
+			Chunk last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+			if (last != null && Objects.equals(last.streamType, streamType)) {
+				last.content.append(content);
+			} else {
+				chunks.add(new Chunk(streamType, content));
+			}
+			receivedChunks++;
+			chars += content.length();
+		}
+	}
+
+	private static final class UserThroughput {
+		private final LongAdder chunks = new LongAdder();
+		private final LongAdder chars = new LongAdder();
+		private final LongAdder frames = new LongAdder();
+		private volatile long lastActivityNanos = System.nanoTime();
+
+		private void received(int length) {
+			chunks.increment();
+			chars.add(length);
+			lastActivityNanos = System.nanoTime();
+		}
+	}
+}
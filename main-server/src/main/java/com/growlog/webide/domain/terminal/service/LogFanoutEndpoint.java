@@ -0,0 +1,27 @@
+package com.growlog.webide.domain.terminal.service;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 로그 전송량과 대기 중인 청크 수를 확인하는 actuator 엔드포인트 (/actuator/logfanout)
+ * 사용자별 최댓값 같은 집계만 보고하며 사용자 ID 는 노출하지 않습니다.
+ * 기본으로는 웹에 노출하지 않으므로 필요할 때 management.endpoints.web.exposure.include 에 추가합니다.
+ */
+@Component
+@Endpoint(id = "logfanout")
+@RequiredArgsConstructor
+public class LogFanoutEndpoint {
+
+	private final LogFanoutBuffer logFanoutBuffer;
+
+	@ReadOperation
+	public Map<String, Object> logFanout() {
+		return logFanoutBuffer.snapshot();
+	}
+}
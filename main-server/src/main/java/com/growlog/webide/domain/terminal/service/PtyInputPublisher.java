@@ -0,0 +1,44 @@
+package com.growlog.webide.domain.terminal.service;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.domain.terminal.dto.PtyInputFrame;
+import com.growlog.webide.domain.terminal.stream.PtyStreamClient;
+
+/**
+ * 모아진 PTY 입력을 바이너리 프레임으로 세션을 맡은 Worker 에 전송합니다.
+ */
+@Component
+public class PtyInputPublisher {
+
+	private final RabbitTemplate rabbitTemplate;
+	private final PtyWorkerRouter ptyWorkerRouter;
+	private final PtyStreamClient ptyStreamClient;
+	private final String ptyCommandExchangeName;
+
+	public PtyInputPublisher(@Qualifier("rabbitTemplate") RabbitTemplate rabbitTemplate,
+		PtyWorkerRouter ptyWorkerRouter, PtyStreamClient ptyStreamClient,
+		@Value("${pty-session.rabbitmq.command.exchange}") String ptyCommandExchangeName) {
+		this.rabbitTemplate = rabbitTemplate;
+		this.ptyWorkerRouter = ptyWorkerRouter;
+		this.ptyStreamClient = ptyStreamClient;
+		this.ptyCommandExchangeName = ptyCommandExchangeName;
+	}
+
+	public void publish(String sessionId, byte[] input) {
+		// direct stream 이 연결된 세션은 RabbitMQ 를 거치지 않습니다.
+		if (ptyStreamClient.sendInput(sessionId, input)) {
+			return;
+		}
+		MessageProperties properties = new MessageProperties();
+		properties.setContentType(PtyInputFrame.CONTENT_TYPE);
+		Message message = new Message(new PtyInputFrame(sessionId, input).encode(), properties);
+		// 세션을 시작한 Worker 의 전용 큐로 보냅니다.
+		rabbitTemplate.send(ptyCommandExchangeName, ptyWorkerRouter.commandRoutingKey(sessionId), message);
+	}
+}
@@ -0,0 +1,64 @@
+package com.growlog.webide.domain.terminal.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PTY 세션별로 세션을 맡은 Worker 의 라우팅 키를 기억합니다.
+ *
+ * PTY 입출력 스트림은 세션을 시작한 Worker 에만 존재하므로, 이후 입력과 종료 요청은 그 Worker 의 전용 큐로 보내야 합니다.
+ * 라우팅 정보가 없는 세션(이전 버전 Worker 등)은 공용 큐로 보냅니다.
+ */
+@Slf4j
+@Component
+public class PtyWorkerRouter {
+
+	private final String defaultCommandRoutingKey;
+	private final String defaultStopRoutingKey;
+	private final Map<String, WorkerRoute> routes = new ConcurrentHashMap<>();
+
+	public PtyWorkerRouter(@Value("${pty-session.rabbitmq.command.routing-key}") String defaultCommandRoutingKey,
+		@Value("${pty-session.rabbitmq.stop.routing-key}") String defaultStopRoutingKey) {
+		this.defaultCommandRoutingKey = defaultCommandRoutingKey;
+		this.defaultStopRoutingKey = defaultStopRoutingKey;
+	}
+
+	/**
+	 * Worker 의 PTY 세션 시작 응답을 등록합니다.
+	 * @return 응답에 라우팅 정보가 있어 등록되었으면 true
+	 */
+	public boolean register(String sessionId, Map<String, String> startReply) {
+		if (startReply == null || !StringUtils.hasText(startReply.get("commandRoutingKey"))) {
+			log.warn("Worker did not return a route for PTY session {}. Falling back to shared queues.", sessionId);
+			return false;
+		}
+		routes.put(sessionId, new WorkerRoute(startReply.get("workerId"), startReply.get("commandRoutingKey"),
+			startReply.get("stopRoutingKey")));
+		log.info("PTY session {} is pinned to worker {}", sessionId, startReply.get("workerId"));
+		return true;
+	}
+
+	public String commandRoutingKey(String sessionId) {
+		WorkerRoute route = routes.get(sessionId);
+		return route != null ? route.commandRoutingKey() : defaultCommandRoutingKey;
+	}
+
+	public String stopRoutingKey(String sessionId) {
+		WorkerRoute route = routes.get(sessionId);
+		return route != null && StringUtils.hasText(route.stopRoutingKey()) ? route.stopRoutingKey()
+			: defaultStopRoutingKey;
+	}
+
+	public void remove(String sessionId) {
+		routes.remove(sessionId);
+	}
+
+	private record WorkerRoute(String workerId, String commandRoutingKey, String stopRoutingKey) {
+	}
+}
@@ -0,0 +1,144 @@
+package com.growlog.webide.domain.terminal.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 세션별 터미널 입력을 짧은 flush window 동안 모아서 한 번에 전송합니다.
+ *
+ * 일반 문자는 window 동안 모으고, Enter/Ctrl-C/Tab/방향키(ESC 시퀀스)처럼 제어 문자가 포함된 입력은
+ * 쉘 반응이 늦어지지 않도록 즉시 전송합니다.
+ * 입력은 open 한 세션만 받으며, close 뒤에 들어온 입력은 버립니다. (닫힌 세션마다 버퍼가 남지 않도록)
+ */
+@Slf4j
+@Component
+public class TerminalInputCoalescer {
+
+	private final PtyInputPublisher ptyInputPublisher;
+	private final TaskScheduler taskScheduler;
+	private final Duration flushWindow;
+	private final int maxBufferBytes;
+	private final Counter keystrokes;
+	private final Counter messages;
+	private final Counter messagesSaved;
+	private final Map<String, PendingInput> pendingInputs = new ConcurrentHashMap<>();
+
+	public TerminalInputCoalescer(PtyInputPublisher ptyInputPublisher,
+		@Qualifier("taskScheduler") TaskScheduler taskScheduler,
+		MeterRegistry meterRegistry,
+		@Value("${pty-session.input.flush-window-ms:5}") long flushWindowMs,
+		@Value("${pty-session.input.max-buffer-bytes:1024}") int maxBufferBytes) {
+		this.ptyInputPublisher = ptyInputPublisher;
+		this.taskScheduler = taskScheduler;
+		this.flushWindow = Duration.ofMillis(flushWindowMs);
+		this.maxBufferBytes = maxBufferBytes;
+		this.keystrokes = meterRegistry.counter("terminal.input.keystrokes");
+		this.messages = meterRegistry.counter("terminal.input.messages");
+		this.messagesSaved = meterRegistry.counter("terminal.input.messages.saved");
+	}
+
+	/**
+	 * 세션의 입력 버퍼를 만듭니다. PTY 세션을 시작하거나 보관 중인 PTY 에 다시 연결할 때 호출합니다.
+	 */
+	public void open(String sessionId) {
+		pendingInputs.putIfAbsent(sessionId, new PendingInput());
+	}
+
+	public void submit(String sessionId, String input) {
+		if (input == null || input.isEmpty()) {
+			return;
+		}
+		PendingInput pending = pendingInputs.get(sessionId);
+		if (pending == null) {
+			log.debug("Dropped terminal input for closed session {}", sessionId);
+			return;
+		}
+		keystrokes.increment();
+		synchronized (pending) {
+			pending.buffer.writeBytes(input.getBytes(StandardCharsets.UTF_8));
+			pending.keystrokes++;
+
+			// close 직전에 꺼낸 PendingInput 이면 예약해도 flush 되지 않으므로 바로 보냅니다.
+			if (pending.closed || containsControlCharacter(input) || pending.buffer.size() >= maxBufferBytes) {
+				flushLocked(sessionId, pending);
+			} else if (pending.scheduledFlush == null) {
+				pending.scheduledFlush = taskScheduler.schedule(() -> flush(sessionId),
+					Instant.now().plus(flushWindow));
+			}
+		}
+	}
+
+	public void flush(String sessionId) {
+		PendingInput pending = pendingInputs.get(sessionId);
+		if (pending != null) {
+			synchronized (pending) {
+				flushLocked(sessionId, pending);
+			}
+		}
+	}
+
+	/**
+	 * 세션 종료 시 남은 입력을 전송하고 버퍼를 제거합니다.
+	 * closed 는 flush 와 같은 잠금 안에서 바꾸므로, close 직전에 버퍼를 꺼낸 입력은 submit 에서 바로 전송됩니다.
+	 */
+	public void close(String sessionId) {
+		PendingInput pending = pendingInputs.remove(sessionId);
+		if (pending != null) {
+			synchronized (pending) {
+				pending.closed = true;
+				flushLocked(sessionId, pending);
+			}
+		}
+	}
+
+	private void flushLocked(String sessionId, PendingInput pending) {
+		if (pending.scheduledFlush != null) {
+			pending.scheduledFlush.cancel(false);
+			pending.scheduledFlush = null;
+		}
+		if (pending.buffer.size() == 0) {
+			return;
+		}
+		try {
+			ptyInputPublisher.publish(sessionId, pending.buffer.toByteArray());
+			messages.increment();
+			messagesSaved.increment(pending.keystrokes - 1);
+		} catch (Exception e) {
+			log.error("Failed to forward terminal input for session {}", sessionId, e);
+		} finally {
+			pending.buffer.reset();
+			pending.keystrokes = 0;
+		}
+	}
+
+	private boolean containsControlCharacter(String input) {
+		for (int i = 0; i < input.length(); i++) {
+			char c = input.charAt(i);
+			if (c < 0x20 || c == 0x7F) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class PendingInput {
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+		private int keystrokes;
+		private ScheduledFuture<?> scheduledFlush;
+		private boolean closed;
+	}
+}
@@ -1,5 +1,7 @@
 package com.growlog.webide.domain.terminal.service;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,10 +12,13 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.growlog.webide.domain.files.service.FileWriteBackBuffer;
 import com.growlog.webide.domain.images.entity.Image;
 import com.growlog.webide.domain.images.repository.ImageRepository;
 import com.growlog.webide.domain.projects.entity.InstanceStatus;
@@ -25,11 +30,15 @@ import com.growlog.webide.domain.terminal.dto.CodeExecutionRequestDto;
 import com.growlog.webide.domain.terminal.dto.ContainerCreationRequest;
 import com.growlog.webide.domain.terminal.entity.ActiveInstance;
 import com.growlog.webide.domain.terminal.repository.ActiveInstanceRepository;
+import com.growlog.webide.domain.terminal.screen.TerminalScreenRegistry;
+import com.growlog.webide.domain.terminal.service.DetachedTerminalRegistry.DetachedTerminal;
+import com.growlog.webide.domain.terminal.stream.PtyStreamClient;
 import com.growlog.webide.domain.users.entity.Users;
 import com.growlog.webide.domain.users.repository.UserRepository;
 import com.growlog.webide.global.common.exception.CustomException;
 import com.growlog.webide.global.common.exception.ErrorCode;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -42,7 +51,17 @@ public class TerminalService {
 	private final ActiveInstanceRepository activeInstanceRepository;
 	private final ProjectRepository projectRepository;
 	private final UserRepository userRepository;
+	private final TerminalInputCoalescer terminalInputCoalescer;
+	private final PtyWorkerRouter ptyWorkerRouter;
+	private final PtyStreamClient ptyStreamClient;
+	private final TerminalScreenRegistry terminalScreenRegistry;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final DetachedTerminalRegistry detachedTerminalRegistry;
+	private final MeterRegistry meterRegistry;
+	private final FileWriteBackBuffer fileWriteBackBuffer;
 	private final Map<String, Long> sessionToInstanceId = new ConcurrentHashMap<>();
+	// [추가] 재연결한 WebSocket 세션 ID -> 기존 PTY 세션 ID (Worker 는 처음 연 세션 ID 로 PTY 를 관리합니다.)
+	private final Map<String, String> sessionToPtySessionId = new ConcurrentHashMap<>();
 
 	private final ActiveSessionRepository activeSessionRepository;
 	@Value("${code-execution.rabbitmq.exchange.name}")
@@ -66,14 +85,8 @@ public class TerminalService {
 	private String ptyStartExchangeName;
 	@Value("${pty-session.rabbitmq.start.routing-key}")
 	private String ptyStartRoutingKey;
-	@Value("${pty-session.rabbitmq.command.exchange}")
-	private String ptyCommandExchangeName;
-	@Value("${pty-session.rabbitmq.command.routing-key}")
-	private String ptyCommandRoutingKey;
 	@Value("${pty-session.rabbitmq.stop.exchange}")
 	private String ptyStopExchangeName;
-	@Value("${pty-session.rabbitmq.stop.routing-key}")
-	private String ptyStopRoutingKey;
 
 	public TerminalService(
 		@Qualifier("rabbitTemplate") RabbitTemplate rabbitTemplate,
@@ -81,7 +94,11 @@ public class TerminalService {
 		ImageRepository imageRepository,
 		ActiveInstanceRepository activeInstanceRepository,
 		ProjectRepository projectRepository,
-		UserRepository userRepository, ActiveSessionRepository activeSessionRepository) {
+		UserRepository userRepository, ActiveSessionRepository activeSessionRepository,
+		TerminalInputCoalescer terminalInputCoalescer, PtyWorkerRouter ptyWorkerRouter,
+		PtyStreamClient ptyStreamClient, TerminalScreenRegistry terminalScreenRegistry,
+		SimpMessagingTemplate messagingTemplate, DetachedTerminalRegistry detachedTerminalRegistry,
+		MeterRegistry meterRegistry, FileWriteBackBuffer fileWriteBackBuffer) {
 		this.rabbitTemplate = rabbitTemplate;
 		this.rpcRabbitTemplate = rpcRabbitTemplate;
 		this.imageRepository = imageRepository;
@@ -89,6 +106,14 @@ public class TerminalService {
 		this.projectRepository = projectRepository;
 		this.userRepository = userRepository;
 		this.activeSessionRepository = activeSessionRepository;
+		this.terminalInputCoalescer = terminalInputCoalescer;
+		this.ptyWorkerRouter = ptyWorkerRouter;
+		this.ptyStreamClient = ptyStreamClient;
+		this.terminalScreenRegistry = terminalScreenRegistry;
+		this.messagingTemplate = messagingTemplate;
+		this.detachedTerminalRegistry = detachedTerminalRegistry;
+		this.meterRegistry = meterRegistry;
+		this.fileWriteBackBuffer = fileWriteBackBuffer;
 	}
 
 	/**
@@ -113,6 +138,11 @@ public class TerminalService {
 		messageDto.setDockerImage(image.getDockerBaseImage()); // 조회한 Docker 이미지 이름을 DTO에 추가
 		messageDto.setBuildCommand(image.getBuildCommand());   // 빌드 명령어 추가
 		messageDto.setRunCommand(image.getRunCommand());       // 실행 명령어 추가
+		messageDto.setOutputRateLimit(image.getOutputRateLimit()); // [추가] 이미지별 출력 제한
+		messageDto.setOutputByteBudget(image.getOutputByteBudget());
+
+		// [추가] 실행 컨테이너가 최신 코드를 보도록, 아직 EFS 에 쓰지 않은 자동 저장 내용을 먼저 씁니다.
+		fileWriteBackBuffer.flushProject(projectId);
 
 		// 3. RabbitMQ로 메시지를 전송합니다.
 		rabbitTemplate.convertAndSend(codeExecutionExchangeName, codeExecutionRoutingKey, messageDto);
@@ -126,32 +156,54 @@ public class TerminalService {
 	 */
 	@Transactional
 	public void startStatefulTerminalSession(String sessionId, Long projectId, Long userId) {
+		// [추가] grace period 안에 다시 연결했다면 컨테이너와 PTY 를 새로 만들지 않고 기존 PTY 에 다시 붙습니다.
+		if (reattachDetachedTerminal(sessionId, projectId, userId)) {
+			return;
+		}
+
 		// 1. 기존 로직을 재사용하여 사용자의 영구 컨테이너를 찾거나 생성합니다.
 		ActiveInstance activeInstance = findOrCreateActiveInstance(projectId, userId);
 		activeInstance.updateActivity();
 		sessionToInstanceId.put(sessionId, activeInstance.getId());
 
+		// [추가] 이미 출력이 있던 터미널이면 빈 화면 대신 서버가 유지한 화면 스냅샷을 먼저 보냅니다.
+		String containerId = activeInstance.getContainerId();
+		sendScreenSnapshot(userId, containerId);
+		terminalScreenRegistry.open(containerId);
+
 		// 2. Worker 서버에 PTY 세션 시작을 요청합니다.
 		//    WebSocket 세션 ID와 컨테이너 ID를 함께 보냅니다.
-		Map<String, String> message = Map.of(
+		Map<String, String> message = new HashMap<>(Map.of(
 			"sessionId", sessionId,
 			"containerId", activeInstance.getContainerId(),
 			"userId", userId.toString() // Worker가 로그 전송 시 사용하도록 userId도 전달
-		);
-		rabbitTemplate.convertAndSend(ptyStartExchangeName, ptyStartRoutingKey, message);
+		));
+		//    [추가] 이미지별 출력 제한이 있으면 함께 보냅니다. (없으면 Worker 기본값)
+		Image image = activeInstance.getProject().getImage();
+		if (image.getOutputRateLimit() != null) {
+			message.put("outputRateLimit", image.getOutputRateLimit().toString());
+		}
+		if (image.getOutputByteBudget() != null) {
+			message.put("outputByteBudget", image.getOutputByteBudget().toString());
+		}
+		//    [개선] 세션을 맡은 Worker 가 자신의 전용 라우팅 키를 응답하면 이후 입력/종료 요청을 그 Worker 로만 보냅니다.
+		Map<String, String> startReply = rpcRabbitTemplate.convertSendAndReceiveAsType(ptyStartExchangeName,
+			ptyStartRoutingKey, message, new ParameterizedTypeReference<>() {
+			});
+		if (ptyWorkerRouter.register(sessionId, startReply)) {
+			ptyStreamClient.attach(sessionId, startReply); // Worker 가 direct stream 을 제공하면 연결합니다.
+		}
+		terminalInputCoalescer.open(sessionId);
 		log.info("PTY session start request sent for session {} and container {}", sessionId,
 			activeInstance.getContainerId());
 	}
 
 	/**
 	 * [신규] 클라이언트로부터 받은 명령어를 Worker 서버로 전달합니다.
+	 * [개선] 키 입력마다 전송하지 않고 세션별로 짧게 모아서 바이너리 프레임으로 전송합니다.
 	 */
 	public void forwardCommandToWorker(String sessionId, String input) {
-		Map<String, String> message = Map.of(
-			"sessionId", sessionId,
-			"input", input
-		);
-		rabbitTemplate.convertAndSend(ptyCommandExchangeName, ptyCommandRoutingKey, message);
+		terminalInputCoalescer.submit(resolvePtySessionId(sessionId), input);
 	}
 
 	/**
@@ -159,39 +211,52 @@ public class TerminalService {
 	 * @param sessionId 종료할 WebSocket 세션 ID
 	 */
 	public void stopPtySession(String sessionId) {
+		terminalInputCoalescer.close(sessionId); // 아직 전송되지 않은 입력을 먼저 보냅니다.
+		ptyStreamClient.detach(sessionId);
 		Map<String, String> message = Map.of("sessionId", sessionId);
-		rabbitTemplate.convertAndSend(ptyStopExchangeName, ptyStopRoutingKey, message);
+		rabbitTemplate.convertAndSend(ptyStopExchangeName, ptyWorkerRouter.stopRoutingKey(sessionId), message);
+		ptyWorkerRouter.remove(sessionId);
 		log.info("PTY session stop request sent for session {}", sessionId);
 	}
 
 	/**
 	 * [신규] WebSocket 연결 종료를 종합적으로 처리합니다.
 	 * PTY 리소스 정리와 컨테이너 삭제를 모두 수행합니다.
+	 * [개선] grace period 가 설정되어 있으면 바로 정리하지 않고, 그 시간 동안 재연결을 기다린 뒤 정리합니다.
 	 * @param sessionId 종료된 WebSocket 세션 ID
 	 */
 	@Transactional
 	public void handleSessionDisconnect(String sessionId) {
-		// 1. Worker에 PTY 세션 리소스 정리를 요청합니다.
-		stopPtySession(sessionId);
+		String ptySessionId = resolvePtySessionId(sessionId);
+		sessionToPtySessionId.remove(sessionId);
 
-		// 2. 세션 ID에 매핑된 ActiveInstance를 찾아 컨테이너 삭제를 요청합니다.
+		// 1. 세션 ID에 매핑된 ActiveInstance를 찾습니다.
 		Long instanceId = sessionToInstanceId.remove(sessionId);
 		if (instanceId == null) {
+			stopPtySession(ptySessionId);
 			log.warn("No ActiveInstance mapping found for disconnected session {}. No container to clean up.",
 				sessionId);
 			return;
 		}
 
 		log.info("Handling disconnect for session {}. Found mapping to ActiveInstance ID {}", sessionId, instanceId);
-		activeInstanceRepository.findById(instanceId).ifPresent(instance -> {
-			// 컨테이너가 ACTIVE 상태일 때만 삭제를 요청하여 중복 처리를 방지합니다.
-			if (instance.getStatus() == InstanceStatus.ACTIVE) {
-				log.info(
-					"Requesting container deletion for instance ID {} (containerId: {}) due to session disconnect.",
-					instance.getId(), instance.getContainerId());
-				requestContainerDeletion(instance.getProject().getId(), instance.getUser().getUserId());
-			}
-		});
+		Optional<ActiveInstance> instance = activeInstanceRepository.findById(instanceId)
+			.filter(found -> found.getStatus() == InstanceStatus.ACTIVE);
+
+		// 2. [추가] 컨테이너와 Worker 의 PTY 는 그대로 두고 재연결을 기다립니다.
+		//    출력은 계속 화면 모델에 반영되므로 재연결 시 스냅샷으로 복원됩니다.
+		if (instance.isPresent() && detachedTerminalRegistry.isEnabled()) {
+			terminalInputCoalescer.close(ptySessionId); // 아직 전송되지 않은 입력을 먼저 보냅니다.
+			ActiveInstance active = instance.get();
+			detachedTerminalRegistry.park(active.getUser().getUserId(), active.getProject().getId(),
+					new DetachedTerminal(ptySessionId, instanceId, LocalDateTime.now()))
+				.ifPresent(replaced -> stopPtySession(replaced.ptySessionId())); // 같은 컨테이너의 이전 탭 PTY
+			return;
+		}
+
+		// 3. Worker에 PTY 세션 리소스 정리를 요청하고, 컨테이너가 ACTIVE 상태일 때만 삭제를 요청합니다.
+		stopPtySession(ptySessionId);
+		instance.ifPresent(this::requestContainerDeletionOnDisconnect);
 	}
 
 	/**
@@ -225,15 +290,75 @@ public class TerminalService {
 		// PENDING 상태인 ActiveInstance를 containerId로 찾아 삭제합니다.
 		activeInstanceRepository.findByContainerIdAndStatus(containerId, InstanceStatus.PENDING)
 			.ifPresent(activeInstanceRepository::delete);
+		terminalScreenRegistry.remove(containerId);
 		log.info("Cleaned up ActiveInstance for container: {}", containerId);
 	}
 
+	/**
+	 * [추가] 같은 사용자/프로젝트로 보관 중인 터미널이 있으면 새 WebSocket 세션을 기존 PTY 에 연결합니다.
+	 * @return 재연결했으면 true, 보관 중인 터미널이 없거나 컨테이너가 이미 정리 중이면 false
+	 */
+	private boolean reattachDetachedTerminal(String sessionId, Long projectId, Long userId) {
+		Optional<DetachedTerminal> detached = detachedTerminalRegistry.claim(userId, projectId);
+		if (detached.isEmpty()) {
+			return false;
+		}
+		DetachedTerminal terminal = detached.get();
+		Optional<ActiveInstance> instance = activeInstanceRepository.findById(terminal.instanceId())
+			.filter(found -> found.getStatus() == InstanceStatus.ACTIVE);
+		if (instance.isEmpty()) {
+			stopPtySession(terminal.ptySessionId());
+			return false;
+		}
+
+		ActiveInstance activeInstance = instance.get();
+		activeInstance.updateActivity();
+		sessionToInstanceId.put(sessionId, activeInstance.getId());
+		sessionToPtySessionId.put(sessionId, terminal.ptySessionId());
+		terminalInputCoalescer.open(terminal.ptySessionId()); // 끊길 때 close 했던 입력 버퍼를 다시 만듭니다.
+		sendScreenSnapshot(userId, activeInstance.getContainerId());
+		countSessionStart("reattach");
+		log.info("Session {} reattached to PTY session {} on container {}", sessionId, terminal.ptySessionId(),
+			activeInstance.getContainerId());
+		return true;
+	}
+
+	private void requestContainerDeletionOnDisconnect(ActiveInstance instance) {
+		log.info("Requesting container deletion for instance ID {} (containerId: {}) due to session disconnect.",
+			instance.getId(), instance.getContainerId());
+		requestContainerDeletion(instance.getProject().getId(), instance.getUser().getUserId());
+	}
+
+	/**
+	 * [추가] 이 노드에 ActiveInstance 를 쓰는 WebSocket 세션이 남아 있는지 확인합니다.
+	 */
+	public boolean hasLiveSession(Long instanceId) {
+		return sessionToInstanceId.containsValue(instanceId);
+	}
+
+	private String resolvePtySessionId(String sessionId) {
+		return sessionToPtySessionId.getOrDefault(sessionId, sessionId);
+	}
+
+	private void sendScreenSnapshot(Long userId, String containerId) {
+		terminalScreenRegistry.snapshot(containerId).ifPresent(snapshot ->
+			messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/terminal-snapshot", snapshot));
+	}
+
+	/**
+	 * @param result reattach(기존 PTY 재사용), new_session(기존 컨테이너에 새 PTY), recreate(컨테이너 새로 생성)
+	 */
+	private void countSessionStart(String result) {
+		meterRegistry.counter("terminal.session.start", "result", result).increment();
+	}
+
 	private ActiveInstance findOrCreateActiveInstance(Long projectId, Long userId) {
 		Optional<ActiveInstance> existingInstance = activeInstanceRepository.findByUser_UserIdAndProject_IdAndStatus(
 			userId, projectId, InstanceStatus.ACTIVE);
 
 		if (existingInstance.isPresent()) {
 			log.info("Found existing active instance for user {} and project {}", userId, projectId);
+			countSessionStart("new_session");
 			return existingInstance.get();
 		}
 
@@ -245,6 +370,7 @@ public class TerminalService {
 
 		ContainerCreationRequest creationRequest = new ContainerCreationRequest(projectId, userId,
 			project.getImage().getDockerBaseImage());
+		countSessionStart("recreate");
 
 		return handleCreateContainer(projectId, project, user, creationRequest);
 	}
@@ -0,0 +1,225 @@
+package com.growlog.webide.domain.terminal.stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.growlog.webide.domain.terminal.dto.LogMessage;
+import com.growlog.webide.domain.terminal.service.LogBrokerService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Worker 와의 PTY direct stream 연결을 관리합니다. (선택 기능)
+ *
+ * Worker 마다 하나의 연결을 맺고 여러 세션의 입출력을 다중화합니다.
+ * 연결이 없거나 끊긴 세션은 기존처럼 RabbitMQ 로 입출력을 주고받습니다.
+ * 연결 직후 공유 비밀(pty-stream.secret)로 HELLO 를 보내고, 세션은 시작 응답의 streamToken 으로 ATTACH 해서
+ * Worker 가 수락(ATTACHED)한 뒤에만 이 연결로 입력을 보냅니다.
+ */
+@Slf4j
+@Component
+public class PtyStreamClient {
+
+	private final Consumer<LogMessage> outputHandler;
+	private final boolean enabled;
+	private final int connectTimeoutMs;
+	private final byte[] secret;
+	private final Map<String, Connection> connections = new ConcurrentHashMap<>(); // host:port -> 연결
+	private final Map<String, Connection> sessions = new ConcurrentHashMap<>(); // PTY 세션 ID -> 연결
+	private final ExecutorService executor =
+		Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pty-stream-client-", 0).factory());
+
+	public PtyStreamClient(LogBrokerService logBrokerService,
+		@Value("${pty-stream.enabled:false}") boolean enabled,
+		@Value("${pty-stream.connect-timeout-ms:2000}") int connectTimeoutMs,
+		@Value("${pty-stream.secret:}") String secret) {
+		this.outputHandler = logBrokerService::forwardLogToUser;
+		this.enabled = enabled;
+		this.connectTimeoutMs = connectTimeoutMs;
+		this.secret = secret.getBytes(StandardCharsets.UTF_8);
+		if (enabled && this.secret.length == 0) {
+			log.warn("pty-stream.secret is not set. Workers will reject PTY direct stream connections.");
+		}
+	}
+
+	/**
+	 * Worker 의 PTY 세션 시작 응답에 stream 접속 정보가 있으면 연결하고, 이 세션의 출력을 연결로 받도록 요청합니다.
+	 */
+	public void attach(String sessionId, Map<String, String> startReply) {
+		if (!enabled || startReply == null || !StringUtils.hasText(startReply.get("streamHost"))
+			|| !StringUtils.hasText(startReply.get("streamToken"))) {
+			return;
+		}
+		String endpoint = startReply.get("streamHost") + ":" + startReply.get("streamPort");
+		try {
+			Connection connection = connectionFor(startReply.get("streamHost"),
+				Integer.parseInt(startReply.get("streamPort")), endpoint);
+			if (connection.attach(sessionId, startReply.get("streamToken").getBytes(StandardCharsets.US_ASCII))) {
+				sessions.put(sessionId, connection);
+				log.info("PTY session {} attached to direct stream {}", sessionId, endpoint);
+			} else {
+				log.warn("Worker rejected direct stream attach for PTY session {} on {}. Using RabbitMQ.",
+					sessionId, endpoint);
+			}
+		} catch (IOException | NumberFormatException e) {
+			log.warn("Failed to attach PTY session {} to direct stream {}. Using RabbitMQ.", sessionId, endpoint, e);
+		}
+	}
+
+	/**
+	 * @return stream 으로 전송했으면 true, 연결이 없거나 실패했으면 false (호출 측이 RabbitMQ 로 보냅니다)
+	 */
+	public boolean sendInput(String sessionId, byte[] input) {
+		Connection connection = sessions.get(sessionId);
+		if (connection == null) {
+			return false;
+		}
+		try {
+			connection.send(new PtyStreamFrame(PtyStreamFrame.INPUT, sessionId, input));
+			return true;
+		} catch (IOException e) {
+			log.warn("Direct stream write failed for PTY session {}. Falling back to RabbitMQ.", sessionId);
+			connection.close();
+			return false;
+		}
+	}
+
+	public void detach(String sessionId) {
+		Connection connection = sessions.remove(sessionId);
+		if (connection != null) {
+			try {
+				connection.send(PtyStreamFrame.control(PtyStreamFrame.DETACH, sessionId));
+			} catch (IOException e) {
+				connection.close();
+			}
+		}
+	}
+
+	private synchronized Connection connectionFor(String host, int port, String endpoint) throws IOException {
+		Connection existing = connections.get(endpoint);
+		if (existing != null && existing.isOpen()) {
+			return existing;
+		}
+		Socket socket = new Socket();
+		socket.setTcpNoDelay(true);
+		socket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+		Connection connection = new Connection(endpoint, socket);
+		connection.send(new PtyStreamFrame(PtyStreamFrame.HELLO, "", secret));
+		connections.put(endpoint, connection);
+		executor.execute(connection::readLoop);
+		return connection;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		connections.values().forEach(Connection::close);
+		executor.shutdownNow();
+	}
+
+	private final class Connection {
+		private final String endpoint;
+		private final Socket socket;
+		private final DataOutputStream out;
+		private final Map<String, CompletableFuture<Boolean>> pendingAttaches = new ConcurrentHashMap<>();
+
+		private Connection(String endpoint, Socket socket) throws IOException {
+			this.endpoint = endpoint;
+			this.socket = socket;
+			this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		}
+
+		private boolean isOpen() {
+			return !socket.isClosed();
+		}
+
+		private synchronized void send(PtyStreamFrame frame) throws IOException {
+			frame.writeTo(out);
+			out.flush();
+		}
+
+		/**
+		 * ATTACH 를 보내고 Worker 의 수락/거절을 connect-timeout-ms 동안 기다립니다.
+		 */
+		private boolean attach(String sessionId, byte[] token) throws IOException {
+			CompletableFuture<Boolean> reply = new CompletableFuture<>();
+			pendingAttaches.put(sessionId, reply);
+			try {
+				send(new PtyStreamFrame(PtyStreamFrame.ATTACH, sessionId, token));
+				return reply.get(connectTimeoutMs, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (ExecutionException | TimeoutException e) {
+				return false;
+			} finally {
+				pendingAttaches.remove(sessionId, reply);
+			}
+		}
+
+		private void completeAttach(String sessionId, boolean accepted) {
+			CompletableFuture<Boolean> reply = pendingAttaches.get(sessionId);
+			if (reply != null) {
+				reply.complete(accepted);
+			}
+		}
+
+		private void readLoop() {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+				while (true) {
+					PtyStreamFrame frame = PtyStreamFrame.readFrom(in);
+					switch (frame.type()) {
+						case PtyStreamFrame.OUTPUT -> outputHandler.accept(frame.toLogMessage());
+						case PtyStreamFrame.ATTACHED -> completeAttach(frame.sessionId(), true);
+						case PtyStreamFrame.DETACH -> {
+							// Worker 가 ATTACH/INPUT 을 거절했습니다. 이 세션은 RabbitMQ 로 돌아갑니다.
+							completeAttach(frame.sessionId(), false);
+							sessions.remove(frame.sessionId(), this);
+						}
+						default -> log.debug("Ignoring PTY stream frame type {} from {}", frame.type(), endpoint);
+					}
+				}
+			} catch (EOFException e) {
+				log.info("PTY direct stream {} closed by worker", endpoint);
+			} catch (Exception e) {
+				if (isOpen()) {
+					log.warn("PTY direct stream {} failed", endpoint, e);
+				}
+			} finally {
+				close();
+			}
+		}
+
+		private void close() {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				log.debug("Error closing PTY direct stream {}", endpoint, e);
+			}
+			connections.remove(endpoint, this);
+			pendingAttaches.values().forEach(reply -> reply.complete(false));
+			// 이 연결을 쓰던 세션은 RabbitMQ 로 돌아갑니다. (Worker 도 연결이 끊기면 출력을 RabbitMQ 로 보냅니다)
+			sessions.values().removeIf(connection -> connection == this);
+		}
+	}
+}
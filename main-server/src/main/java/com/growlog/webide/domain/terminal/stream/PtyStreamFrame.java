@@ -0,0 +1,83 @@
+package com.growlog.webide.domain.terminal.stream;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.growlog.webide.domain.terminal.dto.LogMessage;
+
+/**
+ * Main-Server 와 Worker 사이 PTY direct stream 의 프레임
+ *
+ * [type(1)][sessionId 길이(1)][sessionId(ASCII)][payload 길이(4)][payload] 형식으로 여러 세션을 한 연결에 다중화합니다.
+ * 연결 직후 HELLO 로 공유 비밀을 확인하고, ATTACH payload 는 세션 시작 응답으로 받은 세션별 토큰(streamToken)입니다.
+ * OUTPUT payload 는 [userId(8)][streamType(1)][targetId 길이(2)][targetId(UTF-8)][content(UTF-8)] 입니다.
+ * Worker 의 execution.stream.PtyStreamFrame 과 형식이 같아야 합니다.
+ */
+public record PtyStreamFrame(byte type, String sessionId, byte[] payload) {
+
+	public static final byte INPUT = 1; // Main -> Worker: 터미널 입력
+	public static final byte OUTPUT = 2; // Worker -> Main: 터미널 출력
+	public static final byte ATTACH = 3; // Main -> Worker: 이 세션의 출력을 이 연결로 보내 달라는 요청
+	// Main -> Worker: 이 세션의 출력을 다시 RabbitMQ 로 보내 달라는 요청
+	// Worker -> Main: ATTACH/INPUT 거절 (세션이 없거나 토큰이 다름). 이 세션은 RabbitMQ 로 주고받습니다.
+	public static final byte DETACH = 4;
+	public static final byte HELLO = 5; // Main -> Worker: 연결 직후 첫 프레임, payload 는 공유 비밀 (pty-stream.secret)
+	public static final byte ATTACHED = 6; // Worker -> Main: ATTACH 수락
+
+	private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+	private static final byte[] EMPTY = new byte[0];
+	private static final byte STDOUT = 0;
+	private static final byte STDERR = 1;
+
+	public static PtyStreamFrame control(byte type, String sessionId) {
+		return new PtyStreamFrame(type, sessionId, EMPTY);
+	}
+
+	public static PtyStreamFrame output(String sessionId, LogMessage message) {
+		byte[] targetId = message.getTargetId().getBytes(StandardCharsets.UTF_8);
+		byte[] content = message.getContent().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + 1 + Short.BYTES + targetId.length + content.length);
+		payload.putLong(message.getUserId());
+		payload.put("stderr".equals(message.getStreamType()) ? STDERR : STDOUT);
+		payload.putShort((short)targetId.length);
+		payload.put(targetId);
+		payload.put(content);
+		return new PtyStreamFrame(OUTPUT, sessionId, payload.array());
+	}
+
+	public LogMessage toLogMessage() {
+		ByteBuffer buffer = ByteBuffer.wrap(payload);
+		long userId = buffer.getLong();
+		String streamType = buffer.get() == STDERR ? "stderr" : "stdout";
+		int targetIdLength = Short.toUnsignedInt(buffer.getShort());
+		String targetId = new String(payload, buffer.position(), targetIdLength, StandardCharsets.UTF_8);
+		int contentOffset = buffer.position() + targetIdLength;
+		String content = new String(payload, contentOffset, payload.length - contentOffset, StandardCharsets.UTF_8);
+		return new LogMessage(targetId, userId, streamType, content);
+	}
+
+	public void writeTo(DataOutputStream out) throws IOException {
+		byte[] id = sessionId.getBytes(StandardCharsets.US_ASCII);
+		out.writeByte(type);
+		out.writeByte(id.length);
+		out.write(id);
+		out.writeInt(payload.length);
+		out.write(payload);
+	}
+
+	public static PtyStreamFrame readFrom(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		byte[] id = new byte[in.readUnsignedByte()];
+		in.readFully(id);
+		int length = in.readInt();
+		if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+			throw new IOException("Invalid PTY stream frame length: " + length);
+		}
+		byte[] payload = new byte[length];
+		in.readFully(payload);
+		return new PtyStreamFrame(type, new String(id, StandardCharsets.US_ASCII), payload);
+	}
+}
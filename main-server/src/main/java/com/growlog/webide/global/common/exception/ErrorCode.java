@@ -59,12 +59,15 @@ public enum ErrorCode {
 	IMAGE_NOT_FOUND("IMAGE_NOT_FOUND", "Image not found."),
 	INVALID_FILE_PATH("INVALID_FILE_PATH", "Invalid file path."),
 	CANNOT_MOVE_TO_SUBFOLDER("CANNOT_MOVE_TO_SUBFOLDER", "Unable to move to the folder below"),
+	FILE_VERSION_CONFLICT("FILE_VERSION_CONFLICT", "The file has been changed since the base version."),
 
 	CONTAINER_STILL_RUNNING("CONTAINER_STILL_RUNNING", "Active container still running."),
 
 	MEMBER_ALREADY_EXISTS("MEMBER_ALREADY_EXISTS", "This user is already a member of the project."),
 	MEMBER_NOT_FOUND("MEMBER_NOT_FOUND", "Project member not found."),
 	PATH_NOT_ALLOWED("PATH_NOT_ALLOWED", "Path is not allowed."),
+	INVALID_ARCHIVE("INVALID_ARCHIVE", "The archive is corrupted or not a zip file."),
+	ARCHIVE_TOO_LARGE("ARCHIVE_TOO_LARGE", "The archive exceeds the allowed number of entries or size."),
 
 	// 컨테이너 실행 관련
 	CONTAINER_CREATION_FAILED("CONTAINER_CREATION_FAILED",
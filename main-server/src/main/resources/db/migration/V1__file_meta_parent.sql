@@ -0,0 +1,46 @@
+-- =================================================================
+-- file_meta 부모 경로/부모 ID/깊이 추가 (폴더 단위 자식 조회, 하위 항목 수와 무관한 폴더 이동)
+-- 기존 행은 path 로부터 채웁니다. (FileMeta.parentPathOf / depthOf 와 같은 규칙)
+-- =================================================================
+ALTER TABLE `file_meta`
+    ADD COLUMN `parent_path` VARCHAR(512) NULL COMMENT '부모 폴더 경로 (예: /src), 루트는 NULL' AFTER `path`,
+    ADD COLUMN `parent_id`   BIGINT       NULL COMMENT '부모 폴더 ID, 루트는 NULL' AFTER `parent_path`,
+    ADD COLUMN `depth`       INT          NOT NULL DEFAULT 0 COMMENT '루트로부터의 깊이 (루트 0)' AFTER `parent_id`;
+
+-- 부모 경로: 마지막 '/' 앞까지, 최상위 항목은 '/', 루트는 NULL
+UPDATE `file_meta`
+SET `parent_path` = CASE
+                        WHEN `path` = '/' THEN NULL
+                        WHEN CHAR_LENGTH(`path`) - CHAR_LENGTH(SUBSTRING_INDEX(`path`, '/', -1)) <= 1 THEN '/'
+                        ELSE LEFT(`path`, CHAR_LENGTH(`path`) - CHAR_LENGTH(SUBSTRING_INDEX(`path`, '/', -1)) - 1)
+        END,
+    `depth`       = CASE
+                        WHEN `path` = '/' THEN 0
+                        ELSE CHAR_LENGTH(`path`) - CHAR_LENGTH(REPLACE(`path`, '/', ''))
+        END;
+
+-- 부모 ID: 같은 프로젝트에서 부모 경로에 있는 폴더
+-- 1) 함께 삭제된 폴더 (deleted_at 이 같음, 살아 있는 항목은 살아 있는 폴더)
+UPDATE `file_meta` `child`
+    JOIN `file_meta` `parent`
+    ON `parent`.`project_id` = `child`.`project_id`
+        AND `parent`.`path` = `child`.`parent_path`
+        AND `parent`.`type` = 'folder'
+        AND `parent`.`deleted_at` <=> `child`.`deleted_at`
+SET `child`.`parent_id` = `parent`.`id`
+WHERE `child`.`parent_path` IS NOT NULL;
+
+-- 2) 혼자 삭제된 항목은 아직 살아 있는 폴더
+UPDATE `file_meta` `child`
+    JOIN `file_meta` `parent`
+    ON `parent`.`project_id` = `child`.`project_id`
+        AND `parent`.`path` = `child`.`parent_path`
+        AND `parent`.`type` = 'folder'
+        AND `parent`.`deleted_at` IS NULL
+SET `child`.`parent_id` = `parent`.`id`
+WHERE `child`.`parent_path` IS NOT NULL
+  AND `child`.`parent_id` IS NULL;
+
+-- 인덱싱: 폴더 하나의 직속 자식 조회 (utf8mb4 인덱스 키 길이 제한 때문에 앞 255자만 사용)
+CREATE INDEX `idx_file_meta_parent` ON `file_meta` (`project_id`, `parent_path`(255));
+CREATE INDEX `idx_file_meta_parent_id` ON `file_meta` (`parent_id`);
@@ -0,0 +1,27 @@
+-- =================================================================
+-- 'file_trash' 테이블 생성 (삭제한 파일/폴더 휴지통)
+-- 단일/일괄 삭제가 항상 행을 남기므로 삭제 API 보다 먼저 배포되어야 합니다.
+-- =================================================================
+CREATE TABLE `file_trash`
+(
+    `id`           BIGINT                  NOT NULL AUTO_INCREMENT COMMENT '휴지통 항목 ID (PK)',
+    `project_id`   BIGINT                  NOT NULL COMMENT '프로젝트 ID (FK)',
+    `path`         VARCHAR(512)            NOT NULL COMMENT '삭제 전 경로 (예: /src/main)',
+    `type`         ENUM ('file', 'folder') NOT NULL COMMENT '파일 또는 폴더',
+    `storage_name` VARCHAR(64)             NOT NULL COMMENT '휴지통 안의 이름 (.trash/{project_id}/{storage_name})',
+    `deleted_by`   BIGINT                  NULL COMMENT '삭제한 사용자 ID',
+    `deleted_at`   DATETIME(6)             NOT NULL COMMENT '삭제 일시 (같이 삭제한 file_meta.deleted_at 과 같음)',
+
+    PRIMARY KEY (`id`),
+
+    -- 인덱싱: 프로젝트별 휴지통 목록, 보관 기간이 지난 항목 조회
+    KEY `idx_file_trash_project` (`project_id`, `deleted_at`),
+    KEY `idx_file_trash_deleted_at` (`deleted_at`),
+
+    -- 외래키 연결
+    CONSTRAINT `fk_file_trash_to_projects`
+        FOREIGN KEY (`project_id`) REFERENCES `projects` (`project_id`)
+            ON DELETE CASCADE
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,7 @@
+-- =================================================================
+-- images 이미지별 출력 제한 추가
+-- 기존 이미지는 NULL (Worker 기본값 사용) 으로 둡니다.
+-- =================================================================
+ALTER TABLE `images`
+    ADD COLUMN `output_rate_limit`  BIGINT NULL DEFAULT NULL COMMENT '초당 출력 바이트 제한 (NULL: Worker 기본값)' AFTER `template_code`,
+    ADD COLUMN `output_byte_budget` BIGINT NULL DEFAULT NULL COMMENT '실행/터미널 세션당 총 출력 바이트 제한 (NULL: Worker 기본값)' AFTER `output_rate_limit`;
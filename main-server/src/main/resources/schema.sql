@@ -13,6 +13,7 @@ DROP TABLE IF EXISTS `images`;
 DROP TABLE IF EXISTS `users`;
 DROP TABLE IF EXISTS `chats`;
 DROP TABLE IF EXISTS `file_meta`;
+DROP TABLE IF EXISTS `file_trash`;
 
 -- 제약조건을 다시 활성화합니다.
 SET
@@ -43,15 +44,17 @@ CREATE TABLE `users`
 -- =================================================================
 CREATE TABLE `images`
 (
-    `image_id`          BIGINT       NOT NULL AUTO_INCREMENT COMMENT '이미지 ID (PK)',
-    `image_name`        VARCHAR(50)  NOT NULL COMMENT '언어 이름 (예: Java, Python)',
-    `version`           VARCHAR(30)  NOT NULL COMMENT '언어 버전 (예: 17, 3.11)',
-    `docker_base_image` VARCHAR(100) NOT NULL COMMENT '실행 환경 Docker 이미지명',
-    `build_command`     TEXT         NULL COMMENT '빌드 명령어 템플릿',
-    `run_command`       TEXT         NULL COMMENT '실행 명령어 템플릿',
-    `template_code`     TEXT         NULL COMMENT '초기 생성될 기본 템플릿 코드',
-    `created_at`        DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6) COMMENT '생성 일시',
-    `updated_at`        DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) COMMENT '수정 일시',
+    `image_id`           BIGINT       NOT NULL AUTO_INCREMENT COMMENT '이미지 ID (PK)',
+    `image_name`         VARCHAR(50)  NOT NULL COMMENT '언어 이름 (예: Java, Python)',
+    `version`            VARCHAR(30)  NOT NULL COMMENT '언어 버전 (예: 17, 3.11)',
+    `docker_base_image`  VARCHAR(100) NOT NULL COMMENT '실행 환경 Docker 이미지명',
+    `build_command`      TEXT         NULL COMMENT '빌드 명령어 템플릿',
+    `run_command`        TEXT         NULL COMMENT '실행 명령어 템플릿',
+    `template_code`      TEXT         NULL COMMENT '초기 생성될 기본 템플릿 코드',
+    `output_rate_limit`  BIGINT       NULL COMMENT '초당 출력 바이트 제한 (NULL: Worker 기본값)',
+    `output_byte_budget` BIGINT       NULL COMMENT '실행/터미널 세션당 총 출력 바이트 제한 (NULL: Worker 기본값)',
+    `created_at`         DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6) COMMENT '생성 일시',
+    `updated_at`         DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) COMMENT '수정 일시',
     PRIMARY KEY (`image_id`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4
@@ -156,19 +159,26 @@ CREATE TABLE `chats`
 -- =================================================================
 CREATE TABLE `file_meta`
 (
-    `id`         BIGINT                  NOT NULL AUTO_INCREMENT COMMENT '파일/폴더 메타데이터 ID (PK)',
-    `project_id` BIGINT                  NOT NULL COMMENT '프로젝트 ID (FK)',
-    `name`       VARCHAR(255)            NOT NULL COMMENT '파일/폴더 이름',
-    `path`       VARCHAR(512)            NOT NULL COMMENT '전체 경로 (예: /src/Main.java)',
-    `type`       ENUM ('file', 'folder') NOT NULL COMMENT '파일 또는 폴더',
-    `deleted`    BOOLEAN DEFAULT FALSE COMMENT '삭제 여부',
-    `deleted_at` DATETIME(6)             NULL COMMENT '삭제 일시',
+    `id`          BIGINT                  NOT NULL AUTO_INCREMENT COMMENT '파일/폴더 메타데이터 ID (PK)',
+    `project_id`  BIGINT                  NOT NULL COMMENT '프로젝트 ID (FK)',
+    `name`        VARCHAR(255)            NOT NULL COMMENT '파일/폴더 이름',
+    `path`        VARCHAR(512)            NOT NULL COMMENT '전체 경로 (예: /src/Main.java)',
+    `parent_path` VARCHAR(512)            NULL COMMENT '부모 폴더 경로 (예: /src), 루트는 NULL',
+    `parent_id`   BIGINT                  NULL COMMENT '부모 폴더 ID, 루트는 NULL',
+    `depth`       INT                     NOT NULL DEFAULT 0 COMMENT '루트로부터의 깊이 (루트 0)',
+    `type`        ENUM ('file', 'folder') NOT NULL COMMENT '파일 또는 폴더',
+    `deleted`     BOOLEAN DEFAULT FALSE COMMENT '삭제 여부',
+    `deleted_at`  DATETIME(6)             NULL COMMENT '삭제 일시',
 
     PRIMARY KEY (`id`),
 
     -- 인덱싱: 프로젝트 내 경로 빠른 조회
     UNIQUE KEY `uk_project_path_deleted` (`project_id`, `path`, `deleted_at`),
 
+    -- 인덱싱: 폴더 하나의 직속 자식 조회 (utf8mb4 인덱스 키 길이 제한 때문에 앞 255자만 사용)
+    KEY `idx_file_meta_parent` (`project_id`, `parent_path`(255)),
+    KEY `idx_file_meta_parent_id` (`parent_id`),
+
     -- 외래키 연결
     CONSTRAINT `fk_file_meta_to_projects`
         FOREIGN KEY (`project_id`) REFERENCES `projects` (`project_id`)
@@ -176,3 +186,30 @@ CREATE TABLE `file_meta`
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4
   COLLATE = utf8mb4_unicode_ci;
+
+-- =================================================================
+-- 9. 'file_trash' 테이블 생성 (삭제한 파일/폴더 휴지통)
+-- =================================================================
+CREATE TABLE `file_trash`
+(
+    `id`           BIGINT                  NOT NULL AUTO_INCREMENT COMMENT '휴지통 항목 ID (PK)',
+    `project_id`   BIGINT                  NOT NULL COMMENT '프로젝트 ID (FK)',
+    `path`         VARCHAR(512)            NOT NULL COMMENT '삭제 전 경로 (예: /src/main)',
+    `type`         ENUM ('file', 'folder') NOT NULL COMMENT '파일 또는 폴더',
+    `storage_name` VARCHAR(64)             NOT NULL COMMENT '휴지통 안의 이름 (.trash/{project_id}/{storage_name})',
+    `deleted_by`   BIGINT                  NULL COMMENT '삭제한 사용자 ID',
+    `deleted_at`   DATETIME(6)             NOT NULL COMMENT '삭제 일시 (같이 삭제한 file_meta.deleted_at 과 같음)',
+
+    PRIMARY KEY (`id`),
+
+    -- 인덱싱: 프로젝트별 휴지통 목록, 보관 기간이 지난 항목 조회
+    KEY `idx_file_trash_project` (`project_id`, `deleted_at`),
+    KEY `idx_file_trash_deleted_at` (`deleted_at`),
+
+    -- 외래키 연결
+    CONSTRAINT `fk_file_trash_to_projects`
+        FOREIGN KEY (`project_id`) REFERENCES `projects` (`project_id`)
+            ON DELETE CASCADE
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,87 @@
+package com.growlog.webide.domain.files.search;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.growlog.webide.domain.files.dto.search.CodeSearchFileResultDto;
+import com.growlog.webide.domain.files.dto.search.CodeSearchMatchDto;
+import com.growlog.webide.domain.files.service.FileWriteBackBuffer;
+import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
+import com.growlog.webide.domain.projects.repository.ProjectRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CodeSearchServiceTest {
+
+	private static final Long PROJECT_ID = 1L;
+
+	@TempDir
+	private Path efsBase;
+
+	private final FileWriteBackBuffer fileWriteBackBuffer = mock(FileWriteBackBuffer.class);
+	private CodeSearchIndexRegistry registry;
+	private CodeSearchService codeSearchService;
+	private Path file;
+
+	@BeforeEach
+	void setup() throws Exception {
+		file = efsBase.resolve("1/Main.java");
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, "class Main {\n\tint oldName;\n}\n");
+		registry = new CodeSearchIndexRegistry(new SimpleMeterRegistry(), mock(StringRedisTemplate.class),
+			mock(RedisMessageListenerContainer.class), fileWriteBackBuffer, efsBase.toString(), 1_000_000, 1024,
+			new String[] {".git"}, 30, 1, "code-search-index:changed");
+		codeSearchService = new CodeSearchService(registry, mock(ProjectRepository.class),
+			mock(ProjectPermissionService.class), 500, 20, 240, 5000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		registry.shutdown();
+	}
+
+	@Test
+	@DisplayName("저장한 내용이 아직 EFS 에 써지지 않았어도 저장 직후 검색하면 저장한 내용으로 찾는다")
+	void findsOwnEditBeforeWriteBack() {
+		assertThat(search("oldName")).hasSize(1);
+		String saved = "class Main {\n\tint newName;\n}\n";
+		given(fileWriteBackBuffer.pendingContent(file)).willReturn(saved.getBytes(StandardCharsets.UTF_8));
+
+		registry.updateFile(PROJECT_ID, "/Main.java", saved);
+
+		List<CodeSearchFileResultDto> results = search("newName");
+		assertThat(results).extracting(CodeSearchFileResultDto::getPath).containsExactly("/Main.java");
+		assertThat(results.get(0).getMatches()).extracting(CodeSearchMatchDto::getLine).containsExactly(2);
+		assertThat(search("oldName")).isEmpty();
+	}
+
+	@Test
+	@DisplayName("색인을 새로 만들 때도 아직 EFS 에 쓰지 않은 저장 내용으로 색인한다")
+	void buildsIndexFromPendingContent() {
+		given(fileWriteBackBuffer.pendingContent(file))
+			.willReturn("class Main {\n\tint newName;\n}\n".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(search("newName")).extracting(CodeSearchFileResultDto::getPath).containsExactly("/Main.java");
+		assertThat(search("oldName")).isEmpty();
+	}
+
+	private List<CodeSearchFileResultDto> search(String query) {
+		List<CodeSearchFileResultDto> results = new ArrayList<>();
+		codeSearchService.search(CodeSearchQuery.of(PROJECT_ID, query, false, true), results::add);
+		return results;
+	}
+}
@@ -0,0 +1,68 @@
+package com.growlog.webide.domain.files.search;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TrigramIndexTest {
+
+	@Test
+	@DisplayName("검색어의 trigram 을 모두 포함한 파일과 색인 안 된 파일만 후보로 반환한다")
+	void candidatesContainAllTrigrams() {
+		TrigramIndex index = new TrigramIndex(1_000);
+		index.put("/src/Main.java", "public static void main(String[] args)");
+		index.put("/src/Util.java", "static int parseInt(String value)");
+		index.putUnindexed("/big.log");
+
+		assertThat(index.candidates(List.of("STRING[]"))).containsExactly("/big.log", "/src/Main.java");
+		assertThat(index.candidates(List.of("parse", "value"))).containsExactly("/big.log", "/src/Util.java");
+		assertThat(index.candidates(List.of("ab"))).hasSize(3); // 세 글자 미만이면 전체
+	}
+
+	@Test
+	@DisplayName("파일을 고치거나 폴더를 옮기고 지우면 후보에 바로 반영된다")
+	void updatesAreVisible() {
+		TrigramIndex index = new TrigramIndex(1_000);
+		index.put("/src/A.java", "class Alpha {}");
+		index.put("/src2/B.java", "class Alpha {}");
+
+		index.put("/src/A.java", "class Beta {}");
+		index.move("/src", "/app/src");
+		assertThat(index.candidates(List.of("Alpha"))).containsExactly("/src2/B.java");
+		assertThat(index.candidates(List.of("Beta"))).containsExactly("/app/src/A.java");
+
+		index.removeTree("/app");
+		assertThat(index.candidates(List.of("class"))).containsExactly("/src2/B.java");
+	}
+
+	@Test
+	@DisplayName("정규식에서 반드시 나오는 문자열만 뽑고, 최상위 | 가 있으면 뽑지 않는다")
+	void requiredLiteralsOfRegex() {
+		assertThat(CodeSearchQuery.requiredLiterals("public\\s+static\\s+void")).containsExactly("public", "static",
+			"void");
+		assertThat(CodeSearchQuery.requiredLiterals("fooo?bar[0-9]+\\.java")).containsExactly("foo", "bar", ".java");
+		assertThat(CodeSearchQuery.requiredLiterals("(get|set)Value")).containsExactly("Value");
+		assertThat(CodeSearchQuery.requiredLiterals("import|package")).isEmpty();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"\\x41bcdef", // 16진수 escape
+		"\\u0041bcdef", // 유니코드 escape
+		"\\0101bcdef", // 8진수 escape
+		"(?<word>abc)\\k<word>defg", // 이름 있는 역참조
+		"(?x)foo bar baz", // 공백 무시 모드
+		"(?x)class  # comment", // 주석
+		"[a[b]]cdef", // 중첩된 문자 클래스
+		"[(]abc|def" // 문자 클래스 안의 괄호 뒤 최상위 |
+	})
+	@DisplayName("해석하지 않는 정규식 구문이 있으면 문자열을 뽑지 않고 모든 파일을 검사한다")
+	void requiredLiteralsFallBackToFullScan(String regex) {
+		assertThat(CodeSearchQuery.requiredLiterals(regex)).isEmpty();
+	}
+}
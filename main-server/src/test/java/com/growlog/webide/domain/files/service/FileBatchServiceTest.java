@@ -0,0 +1,182 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.jimfs.Jimfs;
+import com.growlog.webide.domain.files.dto.batch.FileBatchOperationDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchRequestDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchResponseDto;
+import com.growlog.webide.domain.files.dto.batch.FileBatchResultDto;
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.entity.FileTrash;
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.repository.FileTrashRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
+import com.growlog.webide.domain.images.entity.Image;
+import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
+import com.growlog.webide.domain.projects.entity.Project;
+import com.growlog.webide.domain.projects.repository.ProjectRepository;
+import com.growlog.webide.domain.users.entity.Users;
+
+@ExtendWith(MockitoExtension.class)
+class FileBatchServiceTest {
+
+	private static final Long PROJECT_ID = 1L;
+	private static final Long USER_ID = 123L;
+
+	@Mock
+	private SimpMessagingTemplate messagingTemplate;
+
+	@Mock
+	private ProjectRepository projectRepository;
+
+	@Mock
+	private ProjectPermissionService permissionService;
+
+	@Mock
+	private FileMetaRepository fileMetaRepository;
+
+	@Mock
+	private FileMetaBulkImporter fileMetaBulkImporter;
+
+	@Mock
+	private ProjectTreeIndexRegistry projectTreeIndexRegistry;
+
+	@Mock
+	private CodeSearchIndexRegistry codeSearchIndexRegistry;
+
+	@Mock
+	private FileWriteBackBuffer fileWriteBackBuffer;
+
+	@Mock
+	private FileContentCache fileContentCache;
+
+	@Mock
+	private FileTrashRepository fileTrashRepository;
+
+	private FileBatchService fileBatchService;
+	private FileSystem fileSystem;
+
+	@BeforeEach
+	void setup() throws Exception {
+		fileBatchService = new FileBatchService("/app", 100, messagingTemplate, projectRepository,
+			permissionService, fileMetaRepository, fileMetaBulkImporter, projectTreeIndexRegistry,
+			codeSearchIndexRegistry, fileWriteBackBuffer, fileContentCache, new FileTrashStorage("/app"),
+			fileTrashRepository);
+		fileSystem = Jimfs.newFileSystem();
+		ReflectionTestUtils.setField(fileBatchService, "fileSystem", fileSystem);
+		Files.createDirectories(fileSystem.getPath("/app/1"));
+		Files.createFile(fileSystem.getPath("/app/1/README.md"));
+		Files.createFile(fileSystem.getPath("/app/1/old.txt"));
+
+		Project project = Project.builder()
+			.owner(Users.builder().build()).projectName("p").storageVolumeName("v").image(Image.builder().build())
+			.build();
+		ReflectionTestUtils.setField(project, "id", PROJECT_ID);
+		given(projectRepository.findById(PROJECT_ID)).willReturn(Optional.of(project));
+		given(fileMetaRepository.findByProjectIdAndPathInAndDeletedFalse(eq(PROJECT_ID), anyList())).willReturn(
+			List.of(meta(1L, "/", "folder"), meta(2L, "/README.md", "file"), meta(3L, "/old.txt", "file")));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		fileSystem.close();
+	}
+
+	@Test
+	@DisplayName("실패한 작업만 건너뛰고 나머지는 반영한 뒤 트리 이벤트를 tree:batch 하나로 보낸다")
+	void appliesOperationsIndividually() {
+		given(fileMetaBulkImporter.importEntries(eq(PROJECT_ID), anyMap(), anyMap()))
+			.willReturn(Map.of("/src", 10L, "/src/Main.java", 11L))
+			.willReturn(Map.of("/docs", 12L));
+		given(fileMetaRepository.findById(3L)).willReturn(Optional.of(meta(3L, "/old.txt", "file")));
+
+		FileBatchResponseDto response = fileBatchService.applyBatch(PROJECT_ID, new FileBatchRequestDto(false, List.of(
+			new FileBatchOperationDto("create", "/src/Main.java", "file", null),
+			new FileBatchOperationDto("create", "/README.md", "file", null),
+			new FileBatchOperationDto("move", "/old.txt", null, "/docs/old.txt"))), USER_ID);
+
+		assertThat(response.isCommitted()).isTrue();
+		assertThat(response.getResults()).extracting(FileBatchResultDto::getStatus)
+			.containsExactly("ok", "failed", "ok");
+		assertThat(response.getResults().get(1).getErrorCode()).isEqualTo("FILE_ALREADY_EXISTS");
+		assertThat(Files.exists(fileSystem.getPath("/app/1/src/Main.java"))).isTrue();
+		assertThat(Files.exists(fileSystem.getPath("/app/1/docs/old.txt"))).isTrue();
+
+		ArgumentCaptor<WebSocketMessage> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+		then(messagingTemplate).should(times(1)).convertAndSend(eq("/topic/projects/1/tree"), captor.capture());
+		assertThat(captor.getValue().getType()).isEqualTo("tree:batch");
+		TreeBatchEventDto batch = (TreeBatchEventDto)captor.getValue().getPayload();
+		assertThat(batch.getEvents()).extracting(WebSocketMessage::getType)
+			.containsExactly("tree:add", "tree:add", "tree:add", "tree:move");
+	}
+
+	@Test
+	@DisplayName("atomic 요청은 하나라도 실패하면 앞에서 바꾼 EFS 변경도 되돌리고 아무것도 저장하지 않는다")
+	void rollsBackAtomicBatch() {
+		FileBatchResponseDto response = fileBatchService.applyBatch(PROJECT_ID, new FileBatchRequestDto(true, List.of(
+			new FileBatchOperationDto("delete", "/README.md", null, null),
+			new FileBatchOperationDto("create", "/lib/a.txt", "file", null),
+			new FileBatchOperationDto("delete", "/missing.txt", null, null),
+			new FileBatchOperationDto("create", "/b.txt", "file", null))), USER_ID);
+
+		assertThat(response.isCommitted()).isFalse();
+		assertThat(response.getResults()).extracting(FileBatchResultDto::getStatus)
+			.containsExactly("rolledBack", "rolledBack", "failed", "skipped");
+		assertThat(Files.exists(fileSystem.getPath("/app/1/README.md"))).isTrue();
+		assertThat(Files.exists(fileSystem.getPath("/app/1/lib"))).isFalse();
+		assertThat(Files.exists(fileSystem.getPath("/app/1/b.txt"))).isFalse();
+		then(messagingTemplate).shouldHaveNoInteractions();
+		then(codeSearchIndexRegistry).shouldHaveNoInteractions();
+	}
+
+	@Test
+	@DisplayName("삭제는 휴지통으로 옮기고, 메타데이터와 같은 마이크로초 단위 삭제 시각으로 FileTrash 를 남긴다")
+	void movesDeletedItemToTrash() throws Exception {
+		FileBatchResponseDto response = fileBatchService.applyBatch(PROJECT_ID, new FileBatchRequestDto(false, List.of(
+			new FileBatchOperationDto("delete", "/old.txt", null, null))), USER_ID);
+
+		assertThat(response.isCommitted()).isTrue();
+		assertThat(Files.exists(fileSystem.getPath("/app/1/old.txt"))).isFalse();
+		ArgumentCaptor<FileTrash> trash = ArgumentCaptor.forClass(FileTrash.class);
+		then(fileTrashRepository).should().save(trash.capture());
+		assertThat(trash.getValue().getPath()).isEqualTo("/old.txt");
+		assertThat(trash.getValue().getType()).isEqualTo("file");
+		assertThat(trash.getValue().getDeletedBy()).isEqualTo(USER_ID);
+		LocalDateTime deletedAt = trash.getValue().getDeletedAt();
+		assertThat(deletedAt).isEqualTo(deletedAt.truncatedTo(ChronoUnit.MICROS));
+		then(fileMetaRepository).should().markSubtreeDeleted(PROJECT_ID, "/old.txt", "/old.txt/%", deletedAt);
+		try (Stream<Path> trashed = Files.list(fileSystem.getPath("/app/.trash/1"))) {
+			assertThat(trashed).extracting(path -> path.getFileName().toString())
+				.containsExactly(trash.getValue().getStorageName());
+		}
+	}
+
+	private FileMeta meta(Long id, String path, String type) {
+		return new FileMeta(id, null, path.substring(path.lastIndexOf('/') + 1), path, type, false, null);
+	}
+}
@@ -0,0 +1,84 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.google.common.jimfs.Jimfs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FileContentCacheTest {
+
+	private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+	private final FileContentCache cache = new FileContentCache(20, 10, "invalidate", stringRedisTemplate,
+		mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+	private FileSystem fileSystem;
+
+	@BeforeEach
+	void setup() throws Exception {
+		fileSystem = Jimfs.newFileSystem();
+		Files.createDirectories(fileSystem.getPath("/app/1/src"));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		fileSystem.close();
+	}
+
+	@Test
+	@DisplayName("크기나 수정 시각이 바뀐 파일은 캐시에서 꺼내지 않고, 전체 크기를 넘으면 오래 쓰지 않은 파일부터 버린다")
+	void evictsChangedAndLeastRecentlyUsedFiles() throws Exception {
+		Path a = cached("/app/1/src/A.java", "class A {}");
+		Path b = cached("/app/1/src/B.java", "class B{}");
+		assertThat(cache.get(a, attrs(a)).content()).isEqualTo("class A {}");
+
+		cached("/app/1/src/C.java", "class C{}"); // 전체 28 바이트 > 20: 가장 오래 쓰지 않은 B 를 버림
+		assertThat(cache.get(b, attrs(b))).isNull();
+		assertThat(cache.get(a, attrs(a))).isNotNull();
+
+		Files.setLastModifiedTime(a, FileTime.fromMillis(attrs(a).lastModifiedTime().toMillis() + 1000));
+		assertThat(cache.get(a, attrs(a))).isNull();
+	}
+
+	@Test
+	@DisplayName("이동/삭제는 하위 파일까지 버리고 다른 노드에 알리며, 다른 노드의 알림도 반영한다")
+	void invalidatesAcrossNodes() throws Exception {
+		Path a = cached("/app/1/src/A.java", "class A {}");
+		Path b = cached("/app/1/srcB.java", "class B{}");
+
+		cache.invalidateTree(fileSystem.getPath("/app/1/src"));
+
+		assertThat(cache.get(a, attrs(a))).isNull();
+		assertThat(cache.get(b, attrs(b))).isNotNull();
+		then(stringRedisTemplate).should().convertAndSend(eq("invalidate"), endsWith("|tree|/app/1/src"));
+
+		cache.onMessage(new DefaultMessage("invalidate".getBytes(StandardCharsets.UTF_8),
+			"other-node|file|/app/1/srcB.java".getBytes(StandardCharsets.UTF_8)), null);
+		assertThat(cache.get(b, attrs(b))).isNull();
+	}
+
+	private Path cached(String path, String content) throws Exception {
+		Path file = Files.writeString(fileSystem.getPath(path), content);
+		cache.put(file, attrs(file), content, "\"etag\"");
+		return file;
+	}
+
+	private BasicFileAttributes attrs(Path file) throws Exception {
+		return Files.readAttributes(file, BasicFileAttributes.class);
+	}
+}
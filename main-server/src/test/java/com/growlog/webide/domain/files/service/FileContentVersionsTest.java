@@ -0,0 +1,66 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Jimfs;
+
+class FileContentVersionsTest {
+
+	private FileSystem fileSystem;
+	private Path file;
+
+	@BeforeEach
+	void setup() throws Exception {
+		fileSystem = Jimfs.newFileSystem();
+		file = Files.writeString(fileSystem.getPath("/Main.java"), "class Main {}");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		fileSystem.close();
+	}
+
+	@Test
+	@DisplayName("읽을 때 계산한 해시는 파일이 바뀌기 전까지만 다시 읽지 않고 쓸 수 있다")
+	void reusesHashUntilFileChanges() throws Exception {
+		FileContentVersions versions = new FileContentVersions(1024, 10);
+		assertThat(versions.cachedETag(file, attrs())).isNull();
+
+		String etag = versions.etag(file, attrs(), Files.readAllBytes(file));
+		assertThat(versions.cachedETag(file, attrs())).isEqualTo(etag);
+		assertThat(versions.etag(file, attrs())).isEqualTo(etag);
+
+		Files.writeString(file, "class Main { }");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(attrs().lastModifiedTime().toMillis() + 1000));
+		assertThat(versions.cachedETag(file, attrs())).isNull();
+		assertThat(versions.etag(file, attrs())).isNotEqualTo(etag);
+	}
+
+	@Test
+	@DisplayName("큰 파일은 해시 없이 크기와 수정 시각만으로 ETag 를 만든다")
+	void skipsHashForLargeFiles() throws Exception {
+		FileContentVersions versions = new FileContentVersions(4, 10);
+
+		String etag = versions.cachedETag(file, attrs());
+
+		assertThat(etag).isEqualTo(versions.etag(file, attrs(), "class Main {}".getBytes(StandardCharsets.UTF_8)));
+		assertThat(FileContentVersions.matches("\"other\", W/" + etag, etag)).isTrue();
+		assertThat(FileContentVersions.matches("\"other\"", etag)).isFalse();
+	}
+
+	private BasicFileAttributes attrs() throws Exception {
+		return Files.readAttributes(file, BasicFileAttributes.class);
+	}
+}
@@ -0,0 +1,53 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FileFinderTest {
+
+	@Test
+	@DisplayName("파일 이름의 단어 첫 글자로 일치하는 파일이 경로 중간에 흩어져 일치하는 파일보다 먼저 나온다")
+	void ranksNameBoundaryMatchesFirst() {
+		FileFinder finder = finderOf("/src/main/FileService.java", "/src/fixtures/large/service/Data.java",
+			"/src/main/FileServiceTest.java", "/docs/guide/file-system.md");
+
+		List<FileFinder.Match> matches = finder.find("FS", 10);
+
+		assertThat(matches).extracting(FileFinder.Match::path).startsWith("/src/main/FileService.java",
+			"/src/main/FileServiceTest.java");
+		assertThat(matches.get(0).positions()).containsExactly(10, 14); // F, S
+	}
+
+	@Test
+	@DisplayName("검색어를 이어서 입력해도 처음부터 검색한 것과 같은 결과를 반환한다")
+	void narrowingMatchesFreshSearch() {
+		List<String> paths = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			paths.add("/pkg" + i % 7 + "/Module" + i + (i % 3 == 0 ? "Controller" : "Repository") + ".java");
+		}
+		FileFinder typed = finderOf(paths.toArray(String[]::new));
+		typed.find("m", 20);
+		typed.find("mod", 20);
+		List<FileFinder.Match> narrowed = typed.find("mod1ctl", 20);
+
+		List<FileFinder.Match> fresh = finderOf(paths.toArray(String[]::new)).find("mod1ctl", 20);
+
+		assertThat(narrowed).isNotEmpty();
+		assertThat(narrowed).extracting(FileFinder.Match::path)
+			.containsExactlyElementsOf(fresh.stream().map(FileFinder.Match::path).toList());
+		assertThat(typed.find("zzz", 20)).isEmpty();
+	}
+
+	private FileFinder finderOf(String... paths) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < paths.length; i++) {
+			ids.add((long)i + 1);
+		}
+		return new FileFinder(ids, List.of(paths));
+	}
+}
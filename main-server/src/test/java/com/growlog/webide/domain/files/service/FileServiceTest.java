@@ -7,10 +7,11 @@ import static org.mockito.BDDMockito.*;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,15 +21,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.google.common.jimfs.Jimfs;
 import com.growlog.webide.domain.files.dto.CreateFileRequest;
+import com.growlog.webide.domain.files.dto.FileEditDto;
+import com.growlog.webide.domain.files.dto.FilePatchRequestDto;
+import com.growlog.webide.domain.files.dto.FilePatchResponseDto;
 import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
 import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.entity.FileTrash;
 import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.repository.FileTrashRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
 import com.growlog.webide.domain.images.entity.Image;
 import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
 import com.growlog.webide.domain.projects.entity.Project;
@@ -37,6 +45,8 @@ import com.growlog.webide.domain.users.entity.Users;
 import com.growlog.webide.global.common.exception.CustomException;
 import com.growlog.webide.global.common.exception.ErrorCode;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -56,6 +66,33 @@ class FileServiceTest {
 	@Mock
 	private FileMetaRepository fileMetaRepository;
 
+	@Mock
+	private ProjectTreeIndexRegistry projectTreeIndexRegistry;
+
+	@Mock
+	private CodeSearchIndexRegistry codeSearchIndexRegistry;
+
+	@Spy
+	private FileContentVersions fileContentVersions = new FileContentVersions(1024 * 1024, 100);
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// 버퍼를 끈 상태: 저장하면 바로 EFS 에 씁니다.
+	@Spy
+	private FileWriteBackBuffer fileWriteBackBuffer = new FileWriteBackBuffer(false, 0, 0, 0, fileContentVersions,
+		mock(FileContentCache.class), mock(ProjectNodePresence.class), meterRegistry);
+
+	@Mock
+	private FileContentCache fileContentCache;
+
+	// 휴지통은 옮기는 파일과 같은 (메모리) 파일시스템의 /app/.trash 를 사용합니다.
+	@Spy
+	private FileTrashStorage fileTrashStorage = new FileTrashStorage(ROOT_PATH);
+
+	@Mock
+	private FileTrashRepository fileTrashRepository;
+
 	@InjectMocks
 	private FileService fileService;
 
@@ -173,8 +210,14 @@ class FileServiceTest {
 		// then
 		assertFalse(Files.exists(targetPath), "파일이 성공적으로 삭제되어야 합니다.");
 		then(permissionService).should(times(1)).checkWriteAccess(eq(userId), eq(fakeProject.getId()));
-		then(fileMetaRepository).should(times(1)).save(eq(fakeFileMeta));
-		assertTrue(fakeFileMeta.isDeleted(), "FileMeta의 isDeleted 플래그가 true여야 합니다.");
+		then(fileMetaRepository).should(times(1))
+			.markSubtreeDeleted(eq(projectId), eq(filePath), eq("/src/main.java/%"), any(LocalDateTime.class));
+
+		// 파일은 휴지통으로 옮겨지고, 되살릴 수 있도록 휴지통 항목이 저장되어야 합니다.
+		ArgumentCaptor<FileTrash> trash = ArgumentCaptor.forClass(FileTrash.class);
+		then(fileTrashRepository).should(times(1)).save(trash.capture());
+		assertThat(trash.getValue().getPath()).isEqualTo(filePath);
+		assertTrue(Files.exists(fileSystem.getPath("/app/.trash/1", trash.getValue().getStorageName())));
 
 		then(messagingTemplate).should(times(1))
 			.convertAndSend(eq("/topic/projects/" + projectId + "/tree"), any(Object.class));
@@ -210,7 +253,50 @@ class FileServiceTest {
 		// then
 		assertFalse(Files.exists(targetDir), "디렉터리가 삭제되어야 합니다.");
 		assertFalse(Files.exists(innerFile), "디렉터리 내부 파일도 함께 삭제되어야 합니다.");
-		then(fileMetaRepository).should(times(1)).save(fakeDirMeta);
+		// 하위 항목의 메타데이터도 한 번의 UPDATE 로 삭제 처리되어야 합니다.
+		then(fileMetaRepository).should(times(1))
+			.markSubtreeDeleted(eq(projectId), eq(dirPath), eq("/src/%"), any(LocalDateTime.class));
+		then(fileMetaRepository).should(never()).save(any(FileMeta.class));
+		then(messagingTemplate).should(times(1)).convertAndSend(anyString(), any(WebSocketMessage.class));
+	}
+
+	@Test
+	@DisplayName("삭제 취소 - 성공 (휴지통의 폴더를 하위 파일과 함께 되살림)")
+	void restoreDirectory_success() throws Exception {
+		// given
+		Long projectId = 1L;
+		Long userId = 123L;
+		String dirPath = "/src";
+
+		Project fakeProject = Project.builder().build();
+		ReflectionTestUtils.setField(fakeProject, "id", projectId);
+		FileMeta fakeDirMeta = FileMeta.relativePath(fakeProject, dirPath, "folder");
+		FileMeta fakeInnerMeta = FileMeta.relativePath(fakeProject, dirPath + "/main.java", "file");
+
+		Path targetDir = fileSystem.getPath("/app", String.valueOf(projectId), dirPath);
+		Files.createDirectories(targetDir);
+		Files.writeString(targetDir.resolve("main.java"), "class Main {}");
+		String storageName = fileTrashStorage.moveToTrash(projectId, targetDir);
+		LocalDateTime deletedAt = LocalDateTime.now();
+		FileTrash trash = FileTrash.builder()
+			.project(fakeProject).path(dirPath).type("folder").storageName(storageName).deletedAt(deletedAt)
+			.build();
+
+		given(projectRepository.findById(projectId)).willReturn(Optional.of(fakeProject));
+		given(fileTrashRepository.findByIdAndProjectId(7L, projectId)).willReturn(Optional.of(trash));
+		given(fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, dirPath))
+			.willReturn(Optional.empty(), Optional.of(fakeDirMeta));
+		given(fileMetaRepository.findSubtree(projectId, dirPath, "/src/%"))
+			.willReturn(List.of(fakeDirMeta, fakeInnerMeta));
+
+		// when
+		fileService.restoreFromTrash(projectId, 7L, userId);
+
+		// then
+		assertThat(Files.readString(targetDir.resolve("main.java"))).isEqualTo("class Main {}");
+		then(fileMetaRepository).should().restoreSubtree(projectId, dirPath, "/src/%", deletedAt);
+		then(fileTrashRepository).should().delete(trash);
+		then(codeSearchIndexRegistry).should().invalidate(projectId);
 		then(messagingTemplate).should(times(1)).convertAndSend(anyString(), any(WebSocketMessage.class));
 	}
 
@@ -255,10 +341,8 @@ class FileServiceTest {
 		Project fakeProject = Project.builder().build();
 		ReflectionTestUtils.setField(fakeProject, "id", projectId);
 
-		// 이동할 폴더와 그 안의 파일에 대한 FileMeta를 미리 준비
+		// 이동할 폴더의 FileMeta를 미리 준비 (하위 항목은 UPDATE 한 번으로 옮기므로 조회하지 않음)
 		FileMeta dirMeta = FileMeta.relativePath(fakeProject, fromPath, "folder");
-		FileMeta fileMeta = FileMeta.relativePath(fakeProject, fromPath + "/main.java", "file");
-		List<FileMeta> metasToMove = Arrays.asList(dirMeta, fileMeta);
 
 		// 가상 파일 시스템에 실제 폴더와 파일을 생성
 		Path sourceDir = fileSystem.getPath("/app", String.valueOf(projectId), fromPath);
@@ -269,7 +353,8 @@ class FileServiceTest {
 		// Mock 객체 행동 정의
 		given(projectRepository.findById(projectId)).willReturn(Optional.of(fakeProject));
 		willDoNothing().given(permissionService).checkWriteAccess(userId, fakeProject.getId());
-		given(fileMetaRepository.findByProjectIdAndPathStartingWith(projectId, fromPath)).willReturn(metasToMove);
+		given(fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, fromPath))
+			.willReturn(Optional.of(dirMeta));
 
 		// when
 		fileService.moveFileOrDirectory(projectId, fromPath, toPath, userId);
@@ -283,20 +368,47 @@ class FileServiceTest {
 		assertTrue(Files.exists(targetDir), "대상 폴더가 생성되어야 합니다.");
 		assertTrue(Files.exists(targetFile), "내부 파일도 함께 이동해야 합니다.");
 
-		// 2. DB 저장 로직 검증 (ArgumentCaptor 사용)
+		// 2. DB 저장 로직 검증
+		// 이동한 폴더는 새 경로와 새 부모("/new")로, 하위 항목은 "/src/" prefix 를 바꾸는 UPDATE 한 번으로 이동
 		ArgumentCaptor<List<FileMeta>> captor = ArgumentCaptor.forClass(List.class);
-		then(fileMetaRepository).should(times(2)).saveAll(captor.capture());
+		then(fileMetaRepository).should(times(1)).saveAll(captor.capture());
+		assertThat(captor.getValue()).extracting(FileMeta::getPath).containsExactly("/", "/new");
 
-		List<FileMeta> savedMetas = captor.getValue();
-		assertThat(savedMetas).hasSize(2); // 2개의 객체가 저장되었는지 확인
-		// 각 객체의 경로가 올바르게 변경되었는지 확인
-		assertThat(savedMetas).anyMatch(meta -> meta.getPath().equals(toPath)); // "source"
-		assertThat(savedMetas).anyMatch(meta -> meta.getPath().equals(toPath + "/main.java")); // "source/main.java"
+		then(fileMetaRepository).should(times(1)).save(dirMeta);
+		assertThat(dirMeta.getPath()).isEqualTo(toPath);
+		assertThat(dirMeta.getDepth()).isEqualTo(2);
+		assertThat(dirMeta.getParent().getPath()).isEqualTo("/new");
+		then(fileMetaRepository).should(times(1)).moveDescendants(projectId, "/src/%", toPath, fromPath.length(), 1);
 
 		// 3. WebSocket 메시지 전송 검증
 		then(messagingTemplate).should(times(1)).convertAndSend(anyString(), any(Object.class));
 	}
 
+	@Test
+	@DisplayName("폴더 이동 - 이모지 이름은 DB 와 같은 글자 단위 길이로 하위 경로를 바꾼다")
+	void moveDirectory_usesCodePointLength() throws Exception {
+		// given: "\uD83D\uDCC1" 은 UTF-16 으로 2, 글자(code point)로 1
+		Long projectId = 1L;
+		Long userId = 123L;
+		String fromPath = "/\uD83D\uDCC1src";
+		String toPath = "/dst";
+
+		Project fakeProject = Project.builder().build();
+		ReflectionTestUtils.setField(fakeProject, "id", projectId);
+		FileMeta dirMeta = FileMeta.relativePath(fakeProject, fromPath, "folder");
+		Files.createDirectories(fileSystem.getPath("/app", String.valueOf(projectId), fromPath));
+
+		given(projectRepository.findById(projectId)).willReturn(Optional.of(fakeProject));
+		given(fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, fromPath))
+			.willReturn(Optional.of(dirMeta));
+
+		// when
+		fileService.moveFileOrDirectory(projectId, fromPath, toPath, userId);
+
+		// then
+		then(fileMetaRepository).should().moveDescendants(projectId, fromPath + "/%", toPath, 5, 0);
+	}
+
 	@Test
 	@DisplayName("폴더 이동 - 실패 (자신의 하위 폴더로 이동)")
 	void moveDirectory_fail_CannotMoveToSubfolder() throws Exception {
@@ -323,12 +435,72 @@ class FileServiceTest {
 		assertEquals(ErrorCode.CANNOT_MOVE_TO_SUBFOLDER, exception.getErrorCode());
 
 		// 실패했으므로 파일 시스템이나 DB에 어떤 변경도 일어나면 안 됨
-		then(fileMetaRepository).should(never()).findByProjectIdAndPathStartingWith(anyLong(), anyString());
+		then(fileMetaRepository).should(never())
+			.moveDescendants(anyLong(), anyString(), anyString(), anyInt(), anyInt());
 		then(fileMetaRepository).should(never()).saveAll(any());
 		then(messagingTemplate).should(never()).convertAndSend(anyString(), any(Objects.class));
 	}
 
 
+	/*patch*/
+
+	@Test
+	@DisplayName("변경분 저장 - 기준 버전이 같으면 편집을 적용하고 새 버전을 반환")
+	void patchFile_success() throws Exception {
+		// given
+		Long projectId = 1L;
+		Long userId = 123L;
+		String filePath = "/src/Main.java";
+		Path targetPath = givenSavedFile(projectId, filePath, "class Main {}");
+		String baseVersion = fileService.openFile(projectId, filePath, userId).getEtag();
+
+		// when
+		FilePatchResponseDto response = fileService.patchFile(projectId, new FilePatchRequestDto(filePath,
+			baseVersion, List.of(new FileEditDto(12, 12, "int a; "), new FileEditDto(0, 5, "final class"))), userId);
+
+		// then
+		assertThat(Files.readString(targetPath)).isEqualTo("final class Main {int a; }");
+		assertThat(response.getEtag()).isNotEqualTo(baseVersion);
+		assertThat(response.getSize()).isEqualTo(Files.size(targetPath));
+		then(codeSearchIndexRegistry).should().updateFile(projectId, filePath, "final class Main {int a; }");
+		try (Stream<Path> files = Files.list(targetPath.getParent())) {
+			assertThat(files).containsExactly(targetPath); // 임시 파일이 남지 않음
+		}
+	}
+
+	@Test
+	@DisplayName("변경분 저장 - 그 사이에 파일이 바뀌었으면 FILE_VERSION_CONFLICT")
+	void patchFile_fail_Conflict() throws Exception {
+		// given
+		Long projectId = 1L;
+		Long userId = 123L;
+		String filePath = "/src/Main.java";
+		Path targetPath = givenSavedFile(projectId, filePath, "class Main {}");
+		String baseVersion = fileService.openFile(projectId, filePath, userId).getEtag();
+		fileService.saveFileToStorage(projectId, filePath, "class Other {}", userId);
+
+		// when
+		CustomException exception = assertThrows(CustomException.class, () -> fileService.patchFile(projectId,
+			new FilePatchRequestDto(filePath, baseVersion, List.of(new FileEditDto(0, 0, "// "))), userId));
+
+		// then
+		assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.FILE_VERSION_CONFLICT);
+		assertThat(Files.readString(targetPath)).isEqualTo("class Other {}");
+	}
+
+	private Path givenSavedFile(Long projectId, String filePath, String content) throws Exception {
+		Project fakeProject = Project.builder().build();
+		ReflectionTestUtils.setField(fakeProject, "id", projectId);
+		Path targetPath = fileSystem.getPath("/app", String.valueOf(projectId), filePath);
+		Files.createDirectories(targetPath.getParent());
+		Files.writeString(targetPath, content);
+
+		given(projectRepository.findById(projectId)).willReturn(Optional.of(fakeProject));
+		given(fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(projectId, filePath))
+			.willReturn(Optional.of(FileMeta.relativePath(fakeProject, filePath, "file")));
+		return targetPath;
+	}
+
 	/*@Test
 	void openFile_ok() {
 		// given
@@ -0,0 +1,106 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.jimfs.Jimfs;
+import com.growlog.webide.domain.files.entity.FileTrash;
+import com.growlog.webide.domain.files.repository.FileTrashRepository;
+import com.growlog.webide.domain.projects.entity.Project;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FileTrashPurgerTest {
+
+	private static final Long PROJECT_ID = 1L;
+
+	private final FileTrashRepository fileTrashRepository = mock(FileTrashRepository.class);
+	private final FileTrashStorage fileTrashStorage = spy(new FileTrashStorage("/app"));
+	private final FileTrashPurgeLease fileTrashPurgeLease = mock(FileTrashPurgeLease.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final FileTrashPurger purger = new FileTrashPurger(24, 100, 2, fileTrashRepository, fileTrashStorage,
+		fileTrashPurgeLease, meterRegistry);
+	private FileSystem fileSystem;
+	private Project project;
+
+	@BeforeEach
+	void setup() throws Exception {
+		fileSystem = Jimfs.newFileSystem();
+		ReflectionTestUtils.setField(fileTrashStorage, "fileSystem", fileSystem);
+		project = Project.builder().build();
+		ReflectionTestUtils.setField(project, "id", PROJECT_ID);
+		given(fileTrashPurgeLease.tryAcquire()).willReturn(true);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		purger.shutdown();
+		fileSystem.close();
+	}
+
+	@Test
+	@DisplayName("보관 기간이 지난 휴지통 항목은 하위 항목까지 지우고 행도 지운다")
+	void purgesExpiredTrash() throws Exception {
+		Path folder = Files.createDirectories(fileSystem.getPath("/app/1/node_modules/a/b"));
+		Files.writeString(folder.resolve("index.js"), "module.exports = {}");
+		String storageName = fileTrashStorage.moveToTrash(PROJECT_ID, fileSystem.getPath("/app/1/node_modules"));
+		FileTrash trash = trash(1L, storageName);
+		given(fileTrashRepository.findByDeletedAtBeforeOrderByDeletedAtAsc(any(LocalDateTime.class),
+			any(Pageable.class))).willReturn(List.of(trash, trash(2L, "already-purged")));
+
+		purger.purgeExpired();
+
+		assertThat(Files.exists(fileSystem.getPath("/app/.trash/1", storageName))).isFalse();
+		then(fileTrashRepository).should().deleteById(1L);
+		then(fileTrashRepository).should().deleteById(2L);
+		assertThat(meterRegistry.counter("file.trash.purged").count()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("지우지 못한 항목은 행을 남겨 두고 다음 주기에 다시 시도한다")
+	void keepsTrashThatFailedToPurge() throws Exception {
+		willThrow(new IOException("busy")).given(fileTrashStorage).purge(PROJECT_ID, "busy");
+		given(fileTrashRepository.findByDeletedAtBeforeOrderByDeletedAtAsc(any(LocalDateTime.class),
+			any(Pageable.class))).willReturn(List.of(trash(1L, "busy")));
+
+		purger.purgeExpired();
+
+		then(fileTrashRepository).should(never()).deleteById(anyLong());
+		assertThat(meterRegistry.counter("file.trash.purge.failures").count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("다른 노드가 임대를 가지고 있으면 휴지통을 비우지 않는다")
+	void skipsWithoutLease() {
+		given(fileTrashPurgeLease.tryAcquire()).willReturn(false);
+
+		purger.purgeExpired();
+
+		then(fileTrashRepository).shouldHaveNoInteractions();
+		then(fileTrashPurgeLease).should(never()).release();
+	}
+
+	private FileTrash trash(Long id, String storageName) {
+		FileTrash trash = FileTrash.builder()
+			.project(project).path("/node_modules").type("folder").storageName(storageName)
+			.deletedAt(LocalDateTime.now().minusDays(2))
+			.build();
+		ReflectionTestUtils.setField(trash, "id", id);
+		return trash;
+	}
+}
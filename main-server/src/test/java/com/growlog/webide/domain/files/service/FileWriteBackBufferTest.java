@@ -0,0 +1,127 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.jimfs.Jimfs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FileWriteBackBufferTest {
+
+	private static final Long PROJECT_ID = 1L;
+
+	private final FileContentVersions versions = new FileContentVersions(1024, 10);
+	private final FileContentCache fileContentCache = mock(FileContentCache.class);
+	private final ProjectNodePresence projectNodePresence = mock(ProjectNodePresence.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private FileSystem fileSystem;
+	private Path file;
+
+	@BeforeEach
+	void setup() throws Exception {
+		fileSystem = Jimfs.newFileSystem();
+		Files.createDirectories(fileSystem.getPath("/app/1/src"));
+		file = Files.writeString(fileSystem.getPath("/app/1/src/Main.java"), "class Main {}");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		fileSystem.close();
+	}
+
+	@Test
+	@DisplayName("연속 저장은 마지막 내용만 모아 두고, flush 한 뒤의 ETag 는 저장할 때 받은 ETag 와 같다")
+	void coalescesSavesUntilFlushed() throws Exception {
+		FileWriteBackBuffer buffer = new FileWriteBackBuffer(true, 60_000, 60_000, 1024 * 1024, versions,
+			fileContentCache, projectNodePresence, meterRegistry);
+
+		buffer.write(PROJECT_ID, file, bytes("class Main { int a; }"));
+		String etag = buffer.write(PROJECT_ID, file, bytes("class Main { int b; }"));
+		buffer.flushDue();
+
+		assertThat(Files.readString(file)).isEqualTo("class Main {}");
+		assertThat(new String(buffer.get(PROJECT_ID, file).content(), StandardCharsets.UTF_8))
+			.isEqualTo("class Main { int b; }");
+		assertThat(meterRegistry.counter("file.write-back.coalesced").count()).isEqualTo(1);
+
+		buffer.flushProject(PROJECT_ID);
+
+		assertThat(buffer.contains(file)).isFalse();
+		assertThat(Files.readString(file)).isEqualTo("class Main { int b; }");
+		assertThat(versions.etag(file, Files.readAttributes(file, BasicFileAttributes.class))).isEqualTo(etag);
+	}
+
+	@Test
+	@DisplayName("debounce 가 지난 파일은 주기 flush 로 쓰고, 모아 둔 내용이 한도를 넘으면 오래된 것부터 바로 쓴다")
+	void flushesOnDebounceAndMemoryPressure() throws Exception {
+		FileWriteBackBuffer debounced = new FileWriteBackBuffer(true, 0, 60_000, 1024 * 1024, versions,
+			fileContentCache, projectNodePresence, meterRegistry);
+		debounced.write(PROJECT_ID, file, bytes("class A {}"));
+		debounced.flushDue();
+		assertThat(Files.readString(file)).isEqualTo("class A {}");
+
+		Path other = Files.writeString(fileSystem.getPath("/app/1/src/Other.java"), "");
+		FileWriteBackBuffer small = new FileWriteBackBuffer(true, 60_000, 60_000, 16, versions, fileContentCache,
+			projectNodePresence, meterRegistry);
+		small.write(PROJECT_ID, file, bytes("class B {}"));
+		small.write(PROJECT_ID, other, bytes("class Other {}"));
+
+		assertThat(Files.readString(file)).isEqualTo("class B {}");
+		assertThat(small.contains(file)).isFalse();
+	}
+
+	@Test
+	@DisplayName("삭제 전에 버린 내용은 나중에 다시 써지지 않는다")
+	void discardsBeforeDelete() throws Exception {
+		FileWriteBackBuffer buffer = new FileWriteBackBuffer(true, 0, 0, 1024 * 1024, versions, fileContentCache,
+			projectNodePresence, meterRegistry);
+		buffer.write(PROJECT_ID, file, bytes("class Main { int a; }"));
+
+		buffer.discardUnder(fileSystem.getPath("/app/1/src"));
+		Files.delete(file);
+		buffer.flushDue();
+
+		assertThat(Files.exists(file)).isFalse();
+	}
+
+	@Test
+	@DisplayName("다른 노드도 같은 프로젝트를 다루는 중이면 모으지 않고 바로 쓰고, 공유가 시작되면 모아 둔 내용을 쓴다")
+	void writesThroughWhileProjectIsShared() throws Exception {
+		FileWriteBackBuffer buffer = new FileWriteBackBuffer(true, 60_000, 60_000, 1024 * 1024, versions,
+			fileContentCache, projectNodePresence, meterRegistry);
+		ArgumentCaptor<Consumer<Long>> sharedListener = ArgumentCaptor.forClass(Consumer.class);
+		verify(projectNodePresence).addSharedListener(sharedListener.capture());
+
+		buffer.write(PROJECT_ID, file, bytes("class Main { int a; }"));
+		assertThat(Files.readString(file)).isEqualTo("class Main {}");
+
+		sharedListener.getValue().accept(PROJECT_ID);
+		assertThat(Files.readString(file)).isEqualTo("class Main { int a; }");
+		assertThat(buffer.contains(file)).isFalse();
+
+		when(projectNodePresence.touch(PROJECT_ID)).thenReturn(true);
+		buffer.write(PROJECT_ID, file, bytes("class Main { int b; }"));
+
+		assertThat(buffer.contains(file)).isFalse();
+		assertThat(Files.readString(file)).isEqualTo("class Main { int b; }");
+	}
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+}
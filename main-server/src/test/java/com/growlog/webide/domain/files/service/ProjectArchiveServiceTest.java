@@ -0,0 +1,201 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.jimfs.Jimfs;
+import com.growlog.webide.domain.files.dto.archive.ProjectArchiveImportResponseDto;
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
+import com.growlog.webide.domain.permissions.service.ProjectPermissionService;
+import com.growlog.webide.domain.projects.entity.Project;
+import com.growlog.webide.domain.projects.repository.ProjectRepository;
+import com.growlog.webide.global.common.exception.CustomException;
+import com.growlog.webide.global.common.exception.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectArchiveServiceTest {
+
+	private static final Long PROJECT_ID = 1L;
+	private static final Long USER_ID = 123L;
+
+	@Mock
+	private SimpMessagingTemplate messagingTemplate;
+
+	@Mock
+	private ProjectRepository projectRepository;
+
+	@Mock
+	private ProjectPermissionService permissionService;
+
+	@Mock
+	private FileMetaRepository fileMetaRepository;
+
+	@Mock
+	private FileMetaBulkImporter fileMetaBulkImporter;
+
+	@Mock
+	private ProjectTreeIndexRegistry projectTreeIndexRegistry;
+
+	@Mock
+	private CodeSearchIndexRegistry codeSearchIndexRegistry;
+
+	@Mock
+	private TreeService treeService;
+
+	@Mock
+	private FileWriteBackBuffer fileWriteBackBuffer;
+
+	@Mock
+	private FileContentCache fileContentCache;
+
+	private ProjectArchiveService projectArchiveService;
+	private FileSystem fileSystem;
+
+	@BeforeEach
+	void setup() throws Exception {
+		projectArchiveService = new ProjectArchiveService("/app", 1, 100, 1024, 1000, 5000, 500, messagingTemplate,
+			projectRepository, permissionService, fileMetaRepository, fileMetaBulkImporter, projectTreeIndexRegistry,
+			codeSearchIndexRegistry, treeService, fileWriteBackBuffer, fileContentCache,
+			new SimpleMeterRegistry());
+		fileSystem = Jimfs.newFileSystem();
+		ReflectionTestUtils.setField(projectArchiveService, "fileSystem", fileSystem);
+		Files.createDirectories(fileSystem.getPath("/app/1"));
+		Files.writeString(fileSystem.getPath("/app/1/README.md"), "old");
+
+		given(projectRepository.findById(PROJECT_ID)).willReturn(Optional.of(mock(Project.class)));
+		given(fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(PROJECT_ID, "/"))
+			.willReturn(Optional.of(meta(1L, "/", "folder")));
+		given(fileMetaRepository.findByProjectIdAndParentPathAndDeletedFalse(PROJECT_ID, "/"))
+			.willReturn(List.of(meta(2L, "/README.md", "file")));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		fileSystem.close();
+	}
+
+	@Test
+	@DisplayName("zip 을 풀어 쓰고 새 항목만 메타데이터로 저장한 뒤 tree:batch 로 알린다")
+	void importsArchive() throws Exception {
+		given(fileMetaBulkImporter.importEntries(eq(PROJECT_ID), anyMap(), anyMap()))
+			.willReturn(Map.of("/src", 10L, "/src/Main.java", 11L));
+
+		ProjectArchiveImportResponseDto response = projectArchiveService.importArchive(PROJECT_ID,
+			zip("README.md", "new", "src/Main.java", "class Main {}"), USER_ID);
+
+		assertThat(response.getFiles()).isEqualTo(1);
+		assertThat(response.getFolders()).isEqualTo(1);
+		assertThat(response.getOverwrittenFiles()).isEqualTo(1);
+		assertThat(Files.readString(fileSystem.getPath("/app/1/README.md"))).isEqualTo("new");
+		assertThat(Files.readString(fileSystem.getPath("/app/1/src/Main.java"))).isEqualTo("class Main {}");
+		then(codeSearchIndexRegistry).should().indexFromDisk(PROJECT_ID, "/README.md");
+		then(codeSearchIndexRegistry).should().indexFromDisk(PROJECT_ID, "/src/Main.java");
+
+		ArgumentCaptor<WebSocketMessage> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+		then(messagingTemplate).should().convertAndSend(eq("/topic/projects/1/tree"), captor.capture());
+		TreeBatchEventDto batch = (TreeBatchEventDto)captor.getValue().getPayload();
+		assertThat(batch.getEvents()).extracting(WebSocketMessage::getType).containsExactly("tree:add", "tree:add");
+	}
+
+	@Test
+	@DisplayName("프로젝트 전체 메타데이터를 읽지 않고 zip 이 건드린 폴더의 자식만 폴더별로 조회한다")
+	void looksUpExistingPathsPerDirectory() throws Exception {
+		Files.createDirectories(fileSystem.getPath("/app/1/src"));
+		given(fileMetaRepository.findByProjectIdAndParentPathAndDeletedFalse(PROJECT_ID, "/"))
+			.willReturn(List.of(meta(2L, "/README.md", "file"), meta(5L, "/src", "folder")));
+		given(fileMetaRepository.findByProjectIdAndParentPathAndDeletedFalse(PROJECT_ID, "/src"))
+			.willReturn(List.of(meta(6L, "/src/Main.java", "file")));
+		Map<String, Boolean> imported = new HashMap<>();
+		Map<String, Long> parentIds = new HashMap<>();
+		given(fileMetaBulkImporter.importEntries(eq(PROJECT_ID), anyMap(), anyMap())).willAnswer(invocation -> {
+			// 저장한 뒤 비워지는 맵이므로 호출할 때 복사해 둡니다.
+			imported.putAll(invocation.getArgument(1));
+			parentIds.putAll(invocation.getArgument(2));
+			return Map.of("/src/Util.java", 12L);
+		});
+
+		ProjectArchiveImportResponseDto response = projectArchiveService.importArchive(PROJECT_ID,
+			zip("src/Main.java", "class Main {}", "src/Util.java", "class Util {}"), USER_ID);
+
+		assertThat(response.getFiles()).isEqualTo(1);
+		assertThat(response.getOverwrittenFiles()).isEqualTo(1);
+		assertThat(imported).containsOnlyKeys("/src/Util.java");
+		assertThat(parentIds).containsEntry("/", 1L).containsEntry("/src", 5L);
+		then(fileMetaRepository).should(never()).findAllByProjectIdAndDeletedFalse(any());
+	}
+
+	@Test
+	@DisplayName("프로젝트 밖을 가리키는 항목이나 제한보다 큰 zip 은 거부한다")
+	void rejectsUnsafeArchives() throws Exception {
+		assertThatThrownBy(() -> projectArchiveService.importArchive(PROJECT_ID, zip("../escape.txt", "x"), USER_ID))
+			.isInstanceOf(CustomException.class)
+			.extracting("errorCode").isEqualTo(ErrorCode.INVALID_FILE_PATH);
+		assertThatThrownBy(() -> projectArchiveService.importArchive(PROJECT_ID, zip("big.bin", "x".repeat(2048)),
+			USER_ID))
+			.isInstanceOf(CustomException.class)
+			.extracting("errorCode").isEqualTo(ErrorCode.ARCHIVE_TOO_LARGE);
+		assertThat(Files.exists(fileSystem.getPath("/app/escape.txt"))).isFalse();
+		then(fileMetaBulkImporter).shouldHaveNoInteractions();
+	}
+
+	@Test
+	@DisplayName("내보낸 zip 에는 빈 폴더를 포함한 프로젝트의 모든 항목이 들어 있다")
+	void exportsProject() throws Exception {
+		Files.createDirectories(fileSystem.getPath("/app/1/empty"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		projectArchiveService.export(PROJECT_ID, out);
+		Files.delete(fileSystem.getPath("/app/1/README.md"));
+		Files.delete(fileSystem.getPath("/app/1/empty"));
+
+		projectArchiveService.importArchive(PROJECT_ID, new ByteArrayInputStream(out.toByteArray()), USER_ID);
+		assertThat(Files.readString(fileSystem.getPath("/app/1/README.md"))).isEqualTo("old");
+		assertThat(Files.isDirectory(fileSystem.getPath("/app/1/empty"))).isTrue();
+	}
+
+	private ByteArrayInputStream zip(String... namesAndContents) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			for (int i = 0; i < namesAndContents.length; i += 2) {
+				zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+				zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+				zip.closeEntry();
+			}
+		}
+		return new ByteArrayInputStream(bytes.toByteArray());
+	}
+
+	private FileMeta meta(Long id, String path, String type) {
+		return new FileMeta(id, null, path.substring(path.lastIndexOf('/') + 1), path, type, false, null);
+	}
+}
@@ -0,0 +1,129 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.growlog.webide.domain.files.dto.tree.TreeAddEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeDeltaDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProjectTreeIndexRegistryTest {
+
+	private static final String CHANNEL = "tree-index:changed";
+
+	private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+	private final List<FileMeta> metas = new ArrayList<>();
+	private ProjectTreeIndexRegistry registry;
+
+	@BeforeEach
+	void setup() {
+		given(stringRedisTemplate.opsForValue()).willReturn(valueOperations);
+		given(valueOperations.increment("tree-index:epoch")).willReturn(1L, 2L, 3L);
+		registry = newRegistry();
+		metas.add(meta(1L, "/"));
+		metas.add(meta(2L, "/Main.java"));
+	}
+
+	@Test
+	@DisplayName("변경을 반영하면 다른 노드에 알린다")
+	void applyPublishesChange() {
+		registry.snapshot(1L, loader());
+
+		Long version = registry.apply(1L, add(3L, "/Util.java"));
+
+		assertThat(version).isNotNull();
+		then(stringRedisTemplate).should().convertAndSend(eq(CHANNEL), endsWith("|1"));
+	}
+
+	@Test
+	@DisplayName("다른 노드의 변경 메시지를 받으면 인덱스를 버리고, 이전 버전으로 요청하면 전체 트리를 요구한다")
+	void remoteChangeInvalidatesIndex() {
+		long before = registry.snapshot(1L, loader()).version();
+		metas.add(meta(3L, "/Util.java"));
+
+		registry.onMessage(message("other-node|1"), null);
+
+		assertThat(registry.deltasSince(1L, before, loader())).isNull();
+		assertThat(registry.snapshot(1L, loader()).root().getChildren()).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("다른 노드에서 파일이 생기면 pub/sub 메시지로 인덱스를 버리고 파일 찾기에 새 파일이 보인다")
+	void findFilesSeesRemoteChangeAfterInvalidation() {
+		assertThat(registry.findFiles(1L, "util", 10, loader())).isEmpty();
+		metas.add(meta(3L, "/Util.java"));
+
+		// 다른 노드에서 커밋한 변경은 이 노드의 인덱스에 반영되지 않습니다.
+		assertThat(registry.findFiles(1L, "util", 10, loader())).isEmpty();
+		registry.onMessage(message("other-node|1"), null);
+
+		assertThat(registry.findFiles(1L, "util", 10, loader())).extracting(FileFinder.Match::path)
+			.containsExactly("/Util.java");
+	}
+
+	@Test
+	@DisplayName("다른 노드가 발급한 버전으로 요청하면 delta 대신 전체 트리를 요구한다")
+	void rejectsVersionIssuedByOtherNode() {
+		ProjectTreeIndexRegistry other = newRegistry();
+		other.snapshot(1L, loader());
+		Long otherVersion = other.apply(1L, add(3L, "/Util.java"));
+		metas.add(meta(3L, "/Util.java"));
+
+		List<TreeDeltaDto> deltas = registry.deltasSince(1L, otherVersion, loader());
+
+		assertThat(deltas).isNull();
+	}
+
+	@Test
+	@DisplayName("자기가 보낸 메시지는 무시한다")
+	void ignoresOwnMessage() {
+		registry.snapshot(1L, loader());
+		registry.apply(1L, add(3L, "/Util.java"));
+		ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+		then(stringRedisTemplate).should().convertAndSend(eq(CHANNEL), sent.capture());
+
+		registry.onMessage(message(sent.getValue()), null);
+
+		assertThat(registry.size(1L)).isEqualTo(3);
+	}
+
+	private ProjectTreeIndexRegistry newRegistry() {
+		return new ProjectTreeIndexRegistry(new SimpleMeterRegistry(), stringRedisTemplate,
+			mock(RedisMessageListenerContainer.class), 500, 30, CHANNEL);
+	}
+
+	private Supplier<List<FileMeta>> loader() {
+		return () -> List.copyOf(metas);
+	}
+
+	private WebSocketMessage add(Long id, String path) {
+		return new WebSocketMessage("tree:add", new TreeAddEventDto(id, path, "file"));
+	}
+
+	private DefaultMessage message(String body) {
+		return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private FileMeta meta(Long id, String path) {
+		return new FileMeta(id, null, null, path, path.contains(".") ? "file" : "folder", false, null);
+	}
+}
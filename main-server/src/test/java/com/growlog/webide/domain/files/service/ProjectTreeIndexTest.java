@@ -0,0 +1,79 @@
+package com.growlog.webide.domain.files.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.growlog.webide.domain.files.dto.tree.TreeAddEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeDeltaDto;
+import com.growlog.webide.domain.files.dto.tree.TreeMoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeNodeDto;
+import com.growlog.webide.domain.files.dto.tree.TreeRemoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+
+class ProjectTreeIndexTest {
+
+	@Test
+	@DisplayName("폴더 이동 시 하위 경로만 옮기고 이름이 비슷한 형제 폴더는 그대로 둔다")
+	void moveKeepsSiblingsWithSamePrefix() {
+		ProjectTreeIndex index = loadedIndex(10, "/", "/src", "/src/Main.java", "/src2", "/src2/Other.java");
+
+		index.apply(new WebSocketMessage("tree:move", new TreeMoveEventDto(2L, "/src", "/app/src")));
+
+		TreeNodeDto root = index.tree();
+		assertThat(root.getChildren()).extracting(TreeNodeDto::getPath).containsExactly("/app", "/src2");
+		TreeNodeDto moved = root.getChildren().get(0).getChildren().get(0);
+		assertThat(moved.getPath()).isEqualTo("/app/src");
+		assertThat(moved.getChildren()).extracting(TreeNodeDto::getPath).containsExactly("/app/src/Main.java");
+		assertThat(root.getChildren().get(1).getChildren()).extracting(TreeNodeDto::getPath)
+			.containsExactly("/src2/Other.java");
+	}
+
+	@Test
+	@DisplayName("보관 중인 이력 이후의 버전이면 delta 를, 이력이 잘렸으면 null 을 반환한다")
+	void deltasSinceFallsBackWhenLogTruncated() {
+		ProjectTreeIndex index = loadedIndex(2, "/", "/a");
+		long initial = index.snapshot().version();
+
+		index.apply(new WebSocketMessage("tree:add", new TreeAddEventDto(3L, "/b", "file")));
+		index.apply(new WebSocketMessage("tree:remove", new TreeRemoveEventDto(2L, "/a")));
+		List<TreeDeltaDto> recent = index.deltasSince(initial + 1);
+		index.apply(new WebSocketMessage("tree:add", new TreeAddEventDto(4L, "/c", "file")));
+
+		assertThat(recent).extracting(TreeDeltaDto::getType).containsExactly("tree:remove");
+		assertThat(index.deltasSince(initial)).isNull(); // 이력은 최근 2건만 보관
+		assertThat(index.deltasSince(initial + 3)).isEmpty();
+		assertThat(index.tree().getChildren()).extracting(TreeNodeDto::getPath).containsExactly("/b", "/c");
+	}
+
+	@Test
+	@DisplayName("이 인덱스가 발급하지 않은 버전이면 delta 대신 null 을 반환한다")
+	void deltasSinceRejectsVersionFromOtherIndex() {
+		ProjectTreeIndex other = new ProjectTreeIndex(10, () -> 1000L);
+		other.ensureLoaded(List::of);
+		other.apply(new WebSocketMessage("tree:add", new TreeAddEventDto(1L, "/a", "file")));
+		ProjectTreeIndex index = new ProjectTreeIndex(10, () -> 2000L);
+		index.ensureLoaded(List::of);
+		index.apply(new WebSocketMessage("tree:add", new TreeAddEventDto(1L, "/a", "file")));
+
+		assertThat(index.deltasSince(other.snapshot().version())).isNull();
+		assertThat(index.deltasSince(2000L)).extracting(TreeDeltaDto::getType).containsExactly("tree:add");
+	}
+
+	private ProjectTreeIndex loadedIndex(int maxDeltas, String... paths) {
+		ProjectTreeIndex index = new ProjectTreeIndex(maxDeltas);
+		List<FileMeta> metas = new ArrayList<>();
+		long id = 1;
+		for (String path : paths) {
+			String type = path.contains(".") ? "file" : "folder";
+			metas.add(new FileMeta(id++, null, null, path, type, false, null));
+		}
+		index.ensureLoaded(() -> metas);
+		return index;
+	}
+}
@@ -0,0 +1,182 @@
+package com.growlog.webide.domain.files.watch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.growlog.webide.domain.files.dto.tree.TreeBatchEventDto;
+import com.growlog.webide.domain.files.dto.tree.TreeRemoveEventDto;
+import com.growlog.webide.domain.files.dto.tree.WebSocketMessage;
+import com.growlog.webide.domain.files.entity.FileMeta;
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.files.search.CodeSearchIndexRegistry;
+import com.growlog.webide.domain.files.service.FileMetaBulkImporter;
+import com.growlog.webide.domain.files.service.ProjectTreeIndexRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ContainerFsSyncServiceTest {
+
+	private static final Long PROJECT_ID = 1L;
+	private static final String TOPIC = "/topic/projects/1/tree";
+
+	@Mock
+	private FileMetaRepository fileMetaRepository;
+	@Mock
+	private FileMetaBulkImporter fileMetaBulkImporter;
+	@Mock
+	private ProjectTreeIndexRegistry projectTreeIndexRegistry;
+	@Mock
+	private CodeSearchIndexRegistry codeSearchIndexRegistry;
+	@Mock
+	private SimpMessagingTemplate messagingTemplate;
+
+	private ContainerFsSyncService containerFsSyncService;
+
+	@BeforeEach
+	void setup() {
+		containerFsSyncService = new ContainerFsSyncService(fileMetaRepository, fileMetaBulkImporter,
+			projectTreeIndexRegistry, codeSearchIndexRegistry, messagingTemplate, new SimpleMeterRegistry(), 500);
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	@DisplayName("FileService 로 이미 반영된 항목은 건너뛰고, 새 항목만 추가해서 커밋 후 tree:batch 로 보낸다")
+	void addsOnlyNewEntriesAndPublishesAfterCommit() {
+		given(fileMetaRepository.findAllByProjectIdAndDeletedFalse(PROJECT_ID)).willReturn(List.of(
+			meta(1L, "/", "folder"), meta(2L, "/src", "folder"), meta(3L, "/src/A.java", "file")));
+		given(fileMetaBulkImporter.importEntries(eq(PROJECT_ID), anyMap(), anyMap()))
+			.willReturn(Map.of("/lib", 10L, "/src/B.java", 11L));
+		given(projectTreeIndexRegistry.apply(eq(PROJECT_ID), any())).willReturn(7L);
+		Map<String, Boolean> added = new LinkedHashMap<>();
+		added.put("/lib", true);
+		added.put("/src/A.java", false);
+		added.put("/src/B.java", false);
+
+		containerFsSyncService.apply(PROJECT_ID, new FsChangeSet(List.of(), Map.of(), added, List.of()));
+
+		ArgumentCaptor<Map<String, Boolean>> imported = ArgumentCaptor.forClass(Map.class);
+		then(fileMetaBulkImporter).should().importEntries(eq(PROJECT_ID), imported.capture(), anyMap());
+		assertThat(imported.getValue()).containsOnlyKeys("/lib", "/src/B.java");
+		then(codeSearchIndexRegistry).should().indexFromDisk(PROJECT_ID, "/src/B.java");
+		then(codeSearchIndexRegistry).should(never()).indexFromDisk(PROJECT_ID, "/lib");
+		then(messagingTemplate).shouldHaveNoInteractions(); // 커밋 전에는 보내지 않음
+
+		commit();
+
+		ArgumentCaptor<WebSocketMessage> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+		then(messagingTemplate).should().convertAndSend(eq(TOPIC), sent.capture());
+		assertThat(sent.getValue().getType()).isEqualTo("tree:batch");
+		assertThat(sent.getValue().getVersion()).isEqualTo(7L);
+		assertThat(((TreeBatchEventDto)sent.getValue().getPayload()).getEvents())
+			.extracting(WebSocketMessage::getType).containsExactly("tree:add", "tree:add");
+	}
+
+	@Test
+	@DisplayName("지워진 폴더는 하위 항목까지 삭제 처리하고 이벤트는 가장 위의 경로만 보낸다")
+	void removesFolderWithDescendants() {
+		given(fileMetaRepository.findAllByProjectIdAndDeletedFalse(PROJECT_ID)).willReturn(List.of(
+			meta(1L, "/", "folder"), meta(5L, "/build", "folder"), meta(6L, "/build/Main.class", "file")));
+
+		containerFsSyncService.apply(PROJECT_ID,
+			new FsChangeSet(List.of("/build", "/build/Main.class"), Map.of(), Map.of(), List.of()));
+		commit();
+
+		then(fileMetaRepository).should().markDeletedByIds(eq(List.of(5L, 6L)), any(LocalDateTime.class));
+		then(codeSearchIndexRegistry).should().remove(PROJECT_ID, "/build");
+		then(codeSearchIndexRegistry).should(never()).remove(PROJECT_ID, "/build/Main.class");
+		ArgumentCaptor<WebSocketMessage> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+		then(messagingTemplate).should().convertAndSend(eq(TOPIC), sent.capture());
+		assertThat(sent.getValue().getType()).isEqualTo("tree:remove");
+		assertThat(((TreeRemoveEventDto)sent.getValue().getPayload()).getPath()).isEqualTo("/build");
+	}
+
+	@Test
+	@DisplayName("폴더 이동은 새 부모 폴더를 먼저 추가한 뒤 폴더 자신과 하위 경로를 옮긴다")
+	void movesFolderAfterAddingNewParent() {
+		FileMeta src = meta(2L, "/src", "folder");
+		FileMeta app = meta(20L, "/app", "folder");
+		given(fileMetaRepository.findAllByProjectIdAndDeletedFalse(PROJECT_ID)).willReturn(List.of(
+			meta(1L, "/", "folder"), src));
+		given(fileMetaBulkImporter.importEntries(eq(PROJECT_ID), anyMap(), anyMap()))
+			.willReturn(Map.of("/app", 20L));
+		given(fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(PROJECT_ID, "/src"))
+			.willReturn(Optional.of(src));
+		given(fileMetaRepository.findByProjectIdAndPathAndDeletedFalse(PROJECT_ID, "/app"))
+			.willReturn(Optional.of(app));
+
+		containerFsSyncService.apply(PROJECT_ID,
+			new FsChangeSet(List.of(), Map.of("/src", "/app/src"), Map.of("/app", true), List.of()));
+		commit();
+
+		assertThat(src.getPath()).isEqualTo("/app/src");
+		assertThat(src.getParent()).isSameAs(app);
+		then(fileMetaRepository).should().moveDescendants(PROJECT_ID, "/src/%", "/app/src", 4, 1);
+		then(codeSearchIndexRegistry).should().move(PROJECT_ID, "/src", "/app/src");
+		ArgumentCaptor<WebSocketMessage> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+		then(messagingTemplate).should().convertAndSend(eq(TOPIC), sent.capture());
+		assertThat(((TreeBatchEventDto)sent.getValue().getPayload()).getEvents())
+			.extracting(WebSocketMessage::getType).containsExactly("tree:add", "tree:move");
+	}
+
+	@Test
+	@DisplayName("모든 변경이 이미 DB 에 있으면 아무것도 쓰거나 보내지 않는다")
+	void skipsChangesAlreadyApplied() {
+		given(fileMetaRepository.findAllByProjectIdAndDeletedFalse(PROJECT_ID)).willReturn(List.of(
+			meta(1L, "/", "folder"), meta(3L, "/A.java", "file")));
+
+		containerFsSyncService.apply(PROJECT_ID,
+			new FsChangeSet(List.of("/gone.txt"), Map.of(), Map.of("/A.java", false), List.of()));
+
+		then(fileMetaBulkImporter).shouldHaveNoInteractions();
+		assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("내용만 바뀐 파일은 DB 에 쓰지 않고 검색 색인만 다시 만든다")
+	void reindexesModifiedFilesOnly() {
+		given(fileMetaRepository.findAllByProjectIdAndDeletedFalse(PROJECT_ID)).willReturn(List.of(
+			meta(1L, "/", "folder"), meta(3L, "/A.java", "file")));
+
+		containerFsSyncService.apply(PROJECT_ID, new FsChangeSet(List.of(), Map.of(), Map.of(), List.of("/A.java")));
+
+		then(codeSearchIndexRegistry).should().indexFromDisk(PROJECT_ID, "/A.java");
+		then(fileMetaBulkImporter).shouldHaveNoInteractions();
+		assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+	}
+
+	private static FileMeta meta(Long id, String path, String type) {
+		return new FileMeta(id, null, null, path, type, false, null);
+	}
+
+	private static void commit() {
+		for (TransactionSynchronization synchronization : new ArrayList<>(
+			TransactionSynchronizationManager.getSynchronizations())) {
+			synchronization.afterCommit();
+		}
+	}
+}
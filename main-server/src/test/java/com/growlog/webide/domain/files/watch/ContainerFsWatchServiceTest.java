@@ -0,0 +1,77 @@
+package com.growlog.webide.domain.files.watch;
+
+import static org.mockito.BDDMockito.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.growlog.webide.domain.files.repository.FileMetaRepository;
+import com.growlog.webide.domain.projects.entity.InstanceStatus;
+import com.growlog.webide.domain.terminal.repository.ActiveInstanceRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ContainerFsWatchServiceTest {
+
+	private static final Long PROJECT_ID = 1L;
+
+	@Mock
+	private ActiveInstanceRepository activeInstanceRepository;
+	@Mock
+	private FileMetaRepository fileMetaRepository;
+	@Mock
+	private ContainerFsSyncService containerFsSyncService;
+	@Mock
+	private ProjectWatchLease projectWatchLease;
+	@TempDir
+	Path efsBasePath;
+
+	private ContainerFsWatchService containerFsWatchService;
+
+	@BeforeEach
+	void setup() {
+		containerFsWatchService = new ContainerFsWatchService(activeInstanceRepository, fileMetaRepository,
+			containerFsSyncService, projectWatchLease, new SimpleMeterRegistry(), efsBasePath.toString(), true, 1,
+			10_000, 30);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		containerFsWatchService.shutdown();
+	}
+
+	@Test
+	@DisplayName("다른 노드가 임대를 가진 프로젝트는 스캔하지 않는다")
+	void skipsProjectLeasedByAnotherNode() {
+		given(activeInstanceRepository.findProjectIdsByStatus(InstanceStatus.ACTIVE)).willReturn(List.of(PROJECT_ID));
+		given(projectWatchLease.tryAcquire(PROJECT_ID)).willReturn(false);
+
+		containerFsWatchService.pollActiveProjects();
+
+		then(fileMetaRepository).shouldHaveNoInteractions();
+		then(containerFsSyncService).shouldHaveNoInteractions();
+	}
+
+	@Test
+	@DisplayName("컨테이너가 없어진 프로젝트는 감시를 멈추고 임대를 돌려준다")
+	void releasesLeaseWhenProjectBecomesInactive() {
+		given(activeInstanceRepository.findProjectIdsByStatus(InstanceStatus.ACTIVE))
+			.willReturn(List.of(PROJECT_ID), List.of());
+		given(projectWatchLease.tryAcquire(PROJECT_ID)).willReturn(true);
+
+		containerFsWatchService.pollActiveProjects();
+		containerFsWatchService.pollActiveProjects();
+
+		then(projectWatchLease).should().release(PROJECT_ID);
+	}
+}
@@ -0,0 +1,75 @@
+package com.growlog.webide.domain.files.watch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.growlog.webide.domain.files.watch.ProjectFsScanner.FsEntry;
+
+class FsChangeSetTest {
+
+	@Test
+	@DisplayName("같은 inode 로 다시 나타난 폴더는 하위 항목까지 포함해서 이동 한 건으로 본다")
+	void detectsFolderMoveWithDescendants() {
+		Map<String, FsEntry> before = new HashMap<>();
+		before.put("/src", new FsEntry(true, 1L));
+		before.put("/src/Main.java", new FsEntry(false, 2L));
+		before.put("/src2", new FsEntry(true, 3L));
+		Map<String, FsEntry> after = new HashMap<>();
+		after.put("/app", new FsEntry(true, 4L));
+		after.put("/app/src", new FsEntry(true, 1L));
+		after.put("/app/src/Main.java", new FsEntry(false, 2L));
+		after.put("/app/src/Main.class", new FsEntry(false, 5L));
+		after.put("/src2", new FsEntry(true, 3L));
+
+		FsChangeSet changes = FsChangeSet.diff(before, after);
+
+		assertThat(changes.removed()).isEmpty();
+		assertThat(changes.moved()).containsExactly(entry("/src", "/app/src"));
+		assertThat(changes.added()).containsExactly(entry("/app", true), entry("/app/src/Main.class", false));
+	}
+
+	@Test
+	@DisplayName("DB 기준(inode 없음)과 비교하면 추가/삭제로만 나오고 폴더 여부가 바뀐 경로는 둘 다에 포함된다")
+	void diffAgainstStoredTree() {
+		Map<String, FsEntry> stored = new HashMap<>();
+		stored.put("/build", new FsEntry(false, null));
+		stored.put("/old", new FsEntry(true, null));
+		stored.put("/old/A.java", new FsEntry(false, null));
+		Map<String, FsEntry> scanned = new HashMap<>();
+		scanned.put("/build", new FsEntry(true, 7L));
+		scanned.put("/build/A.class", new FsEntry(false, 8L));
+
+		FsChangeSet changes = FsChangeSet.diff(stored, scanned);
+
+		assertThat(FsChangeSet.sameTree(stored, scanned)).isFalse();
+		assertThat(changes.removed()).containsExactly("/build", "/old", "/old/A.java");
+		assertThat(changes.moved()).isEmpty();
+		assertThat(changes.added()).containsExactly(entry("/build", true), entry("/build/A.class", false));
+	}
+
+	@Test
+	@DisplayName("그대로 있는 파일의 수정 시각이 바뀌면 내용 변경으로 보고, DB 기준(수정 시각 없음)과는 비교하지 않는다")
+	void detectsContentChange() {
+		Map<String, FsEntry> before = new HashMap<>();
+		before.put("/A.java", new FsEntry(false, 1L, FileTime.fromMillis(1_000)));
+		before.put("/B.java", new FsEntry(false, 2L, FileTime.fromMillis(1_000)));
+		before.put("/C.java", new FsEntry(false, null));
+		Map<String, FsEntry> after = new HashMap<>();
+		after.put("/A.java", new FsEntry(false, 1L, FileTime.fromMillis(2_000)));
+		after.put("/B.java", new FsEntry(false, 2L, FileTime.fromMillis(1_000)));
+		after.put("/C.java", new FsEntry(false, 3L, FileTime.fromMillis(2_000)));
+
+		FsChangeSet changes = FsChangeSet.diff(before, after);
+
+		assertThat(FsChangeSet.sameTree(before, after)).isFalse();
+		assertThat(changes.modified()).containsExactly("/A.java");
+		assertThat(changes.removed()).isEmpty();
+		assertThat(changes.added()).isEmpty();
+	}
+}
@@ -0,0 +1,110 @@
+package com.growlog.webide.domain.files.watch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.growlog.webide.domain.files.watch.ProjectFsScanner.FsEntry;
+
+class ProjectFsWatcherTest {
+
+	private static final long MAX_DELAY_MILLIS = 1_000;
+
+	@TempDir
+	Path root;
+
+	private ProjectFsWatcher watcher;
+
+	@BeforeEach
+	void setup() {
+		// 매 스캔마다 모든 폴더를 다시 읽어서 파일시스템의 수정 시각 해상도와 무관하게 만듭니다.
+		watcher = new ProjectFsWatcher(1L, root, MAX_DELAY_MILLIS, 1);
+		watcher.initialize(new HashMap<>());
+	}
+
+	@Test
+	@DisplayName("두 번 연속 같은 스캔이 나와야(쓰기가 끝나야) 변경을 내보낸다")
+	void emitsAfterTwoMatchingScans() throws Exception {
+		Files.createDirectories(root.resolve("src"));
+		Files.createFile(root.resolve("src/Main.java"));
+
+		assertThat(watcher.poll(0)).isNull(); // 처음 본 변경은 다음 스캔까지 기다림
+		FsChangeSet changes = watcher.poll(100);
+
+		assertThat(changes).isNotNull();
+		assertThat(changes.added()).containsExactly(entry("/src", true), entry("/src/Main.java", false));
+		watcher.acknowledge();
+		assertThat(watcher.poll(200)).isNull(); // 반영한 뒤에는 같은 변경을 다시 내보내지 않음
+	}
+
+	@Test
+	@DisplayName("계속 바뀌어도 max delay 가 지나면 그때까지의 변경을 내보낸다")
+	void emitsAfterMaxDelayWhileChanging() throws Exception {
+		Files.createFile(root.resolve("a.txt"));
+		assertThat(watcher.poll(0)).isNull();
+
+		Files.createFile(root.resolve("b.txt"));
+		assertThat(watcher.poll(500)).isNull(); // 직전 스캔과 달라서 아직 쓰는 중으로 봄
+
+		Files.createFile(root.resolve("c.txt"));
+		FsChangeSet changes = watcher.poll(MAX_DELAY_MILLIS);
+
+		assertThat(changes).isNotNull();
+		assertThat(changes.added()).containsOnlyKeys("/a.txt", "/b.txt", "/c.txt");
+	}
+
+	@Test
+	@DisplayName("반영(acknowledge)하지 못한 변경은 다음 poll 에서 다시 내보낸다")
+	void reEmitsUnacknowledgedChanges() throws Exception {
+		Files.createFile(root.resolve("a.txt"));
+		watcher.poll(0);
+		assertThat(watcher.poll(100)).isNotNull();
+
+		FsChangeSet retried = watcher.poll(200);
+
+		assertThat(retried).isNotNull();
+		assertThat(retried.added()).containsOnlyKeys("/a.txt");
+	}
+
+	@Test
+	@DisplayName("DB 기준과 같아지면 대기 중이던 변경을 버린다")
+	void dropsPendingChangeWhenTreeMatchesStoredState() throws Exception {
+		Map<String, FsEntry> stored = new HashMap<>();
+		stored.put("/a.txt", new FsEntry(false, null));
+		watcher.initialize(stored);
+		Files.createFile(root.resolve("a.txt"));
+		Files.createFile(root.resolve("tmp.txt"));
+		assertThat(watcher.poll(0)).isNull();
+
+		Files.delete(root.resolve("tmp.txt")); // 임시 파일이 곧바로 지워짐
+		assertThat(watcher.poll(100)).isNull();
+		assertThat(watcher.poll(MAX_DELAY_MILLIS * 2)).isNull();
+	}
+
+	@Test
+	@DisplayName("제자리에서 고친 파일은 수정 시각이 바뀐 것으로 내용 변경을 내보낸다")
+	void emitsContentChange() throws Exception {
+		Path file = Files.createFile(root.resolve("a.txt"));
+		watcher.poll(0);
+		watcher.poll(100);
+		watcher.acknowledge();
+
+		Files.writeString(file, "changed");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60_000));
+		assertThat(watcher.poll(200)).isNull();
+		FsChangeSet changes = watcher.poll(300);
+
+		assertThat(changes).isNotNull();
+		assertThat(changes.modified()).containsExactly("/a.txt");
+		assertThat(changes.added()).isEmpty();
+	}
+}
@@ -0,0 +1,35 @@
+package com.growlog.webide.domain.terminal.dto;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PtyInputFrameTest {
+
+	@Test
+	@DisplayName("encode 한 프레임을 decode 하면 세션 ID 와 입력 바이트가 그대로 나온다")
+	void roundTrip() {
+		byte[] input = "ls -al\r한글".getBytes(StandardCharsets.UTF_8);
+
+		PtyInputFrame decoded = PtyInputFrame.decode(new PtyInputFrame("session-1", input).encode());
+
+		assertThat(decoded.sessionId()).isEqualTo("session-1");
+		assertThat(decoded.input()).isEqualTo(input);
+	}
+
+	@Test
+	@DisplayName("버전이 다르거나 잘린 프레임은 거부한다")
+	void rejectsUnsupportedOrTruncatedFrames() {
+		byte[] encoded = new PtyInputFrame("session-1", new byte[] {'a'}).encode();
+
+		byte[] otherVersion = encoded.clone();
+		otherVersion[0] = 2;
+		assertThatThrownBy(() -> PtyInputFrame.decode(otherVersion)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> PtyInputFrame.decode(Arrays.copyOf(encoded, 5)))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
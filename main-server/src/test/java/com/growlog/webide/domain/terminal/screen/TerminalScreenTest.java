@@ -0,0 +1,45 @@
+package com.growlog.webide.domain.terminal.screen;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TerminalScreenTest {
+
+	@Test
+	@DisplayName("화면 밖으로 밀려난 줄은 scrollback 으로, 나머지는 현재 화면과 커서 위치로 재현")
+	void snapshotContainsScrollbackScreenAndCursor() {
+		TerminalScreen screen = new TerminalScreen(10, 3, 100, 10_000);
+
+		screen.write("line1\r\nline2\r\n\u001b[31mred\u001b[0m\r\nline4\r\n한글ab");
+
+		assertThat(screen.snapshot(10)).isEqualTo("\u001b[0m\u001b[H\u001b[2J\u001b[3J"
+			+ "line1\r\nline2\r\n"
+			+ "\u001b[0;38;5;1mred\u001b[0m\r\nline4\r\n한글ab"
+			+ "\u001b[3;7H\u001b[0m");
+	}
+
+	@Test
+	@DisplayName("대체 화면(vim 등)은 기본 화면 뒤에 ?1049h 로 재현하고, 빠져나오면 기본 화면으로 돌아감")
+	void alternateScreenIsRestoredSeparately() {
+		TerminalScreen screen = new TerminalScreen(10, 2, 100, 10_000);
+		screen.write("$ vim");
+
+		screen.write("\u001b[?1049h\u001b[Hfile");
+		assertThat(screen.snapshot(0)).contains("$ vim\r\n\u001b[1;6H\u001b[?1049h\u001b[H\u001b[2Jfile\r\n");
+
+		screen.write("\u001b[?1049l");
+		assertThat(screen.snapshot(0)).doesNotContain("file").contains("$ vim");
+	}
+
+	@Test
+	@DisplayName("scrollback 은 최대 줄 수를 넘으면 오래된 줄부터 버림")
+	void scrollbackIsBounded() {
+		TerminalScreen screen = new TerminalScreen(10, 1, 2, 10_000);
+
+		screen.write("a\r\nb\r\nc\r\nd");
+
+		assertThat(screen.snapshot(10)).startsWith("\u001b[0m\u001b[H\u001b[2J\u001b[3Jb\r\nc\r\nd");
+	}
+}
@@ -0,0 +1,192 @@
+package com.growlog.webide.domain.terminal.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.growlog.webide.domain.projects.entity.InstanceStatus;
+import com.growlog.webide.domain.projects.entity.Project;
+import com.growlog.webide.domain.terminal.entity.ActiveInstance;
+import com.growlog.webide.domain.terminal.repository.ActiveInstanceRepository;
+import com.growlog.webide.domain.terminal.service.DetachedTerminalRegistry.DetachedTerminal;
+import com.growlog.webide.domain.users.entity.Users;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * grace period 가 지난 터미널이 스케줄러 스레드에서 트랜잭션 프록시를 거쳐 실제로 정리되는지 확인합니다.
+ */
+@SpringJUnitConfig(DetachedTerminalCleanerTest.Config.class)
+class DetachedTerminalCleanerTest {
+
+	private static final Long USER_ID = 1L;
+	private static final Long PROJECT_ID = 10L;
+	private static final Long INSTANCE_ID = 100L;
+	private static final LocalDateTime PARKED_AT = LocalDateTime.now();
+
+	private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+	private final ArgumentCaptor<Runnable> expiry = ArgumentCaptor.forClass(Runnable.class);
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	@Autowired
+	private TerminalService terminalService;
+	@Autowired
+	private ActiveInstanceRepository activeInstanceRepository;
+
+	private DetachedTerminalRegistry registry;
+
+	@BeforeEach
+	void setup() {
+		reset(terminalService, activeInstanceRepository);
+		willReturn(mock(ScheduledFuture.class)).given(taskScheduler).schedule(expiry.capture(), any(Instant.class));
+		registry = new DetachedTerminalRegistry(taskScheduler, new SimpleMeterRegistry(), eventPublisher, 60);
+	}
+
+	@Test
+	@DisplayName("grace period 가 지나면 트랜잭션 안에서 PTY 를 닫고 컨테이너 삭제를 요청한다")
+	void cleansUpExpiredTerminalInTransaction() {
+		ActiveInstance instance = activeInstance(InstanceStatus.ACTIVE, PARKED_AT.minusMinutes(1));
+		given(activeInstanceRepository.findById(INSTANCE_ID)).willReturn(Optional.of(instance));
+		AtomicBoolean inTransaction = new AtomicBoolean();
+		willAnswer(invocation -> {
+			inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+			return null;
+		}).given(terminalService).requestContainerDeletion(PROJECT_ID, USER_ID);
+
+		registry.park(USER_ID, PROJECT_ID, new DetachedTerminal("pty-1", INSTANCE_ID, PARKED_AT));
+		expiry.getValue().run();
+
+		then(terminalService).should().stopPtySession("pty-1");
+		then(terminalService).should().requestContainerDeletion(PROJECT_ID, USER_ID);
+		assertThat(inTransaction).isTrue();
+		assertThat(registry.claim(USER_ID, PROJECT_ID)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("컨테이너가 이미 정리 중이면 PTY 만 닫는다")
+	void onlyStopsPtyWhenContainerIsNotActive() {
+		ActiveInstance instance = activeInstance(InstanceStatus.PENDING, PARKED_AT.minusMinutes(1));
+		given(activeInstanceRepository.findById(INSTANCE_ID)).willReturn(Optional.of(instance));
+
+		registry.park(USER_ID, PROJECT_ID, new DetachedTerminal("pty-1", INSTANCE_ID, PARKED_AT));
+		expiry.getValue().run();
+
+		then(terminalService).should().stopPtySession("pty-1");
+		then(terminalService).should(never()).requestContainerDeletion(any(), any());
+	}
+
+	@Test
+	@DisplayName("보관한 뒤 다른 노드/세션이 같은 컨테이너를 다시 쓰면 만료되어도 PTY 만 닫고 컨테이너는 남긴다")
+	void keepsContainerReusedAfterParking() {
+		ActiveInstance instance = activeInstance(InstanceStatus.ACTIVE, PARKED_AT.plusSeconds(10));
+		given(activeInstanceRepository.findById(INSTANCE_ID)).willReturn(Optional.of(instance));
+
+		registry.park(USER_ID, PROJECT_ID, new DetachedTerminal("pty-1", INSTANCE_ID, PARKED_AT));
+		expiry.getValue().run();
+
+		then(terminalService).should().stopPtySession("pty-1");
+		then(terminalService).should(never()).requestContainerDeletion(any(), any());
+	}
+
+	@Test
+	@DisplayName("이 노드에 같은 컨테이너를 쓰는 세션이 남아 있으면 만료되어도 컨테이너는 남긴다")
+	void keepsContainerWithLiveSession() {
+		ActiveInstance instance = activeInstance(InstanceStatus.ACTIVE, PARKED_AT.minusMinutes(1));
+		given(activeInstanceRepository.findById(INSTANCE_ID)).willReturn(Optional.of(instance));
+		given(terminalService.hasLiveSession(INSTANCE_ID)).willReturn(true);
+
+		registry.park(USER_ID, PROJECT_ID, new DetachedTerminal("pty-1", INSTANCE_ID, PARKED_AT));
+		expiry.getValue().run();
+
+		then(terminalService).should().stopPtySession("pty-1");
+		then(terminalService).should(never()).requestContainerDeletion(any(), any());
+	}
+
+	@Test
+	@DisplayName("grace period 안에 다시 연결하면 정리하지 않는다")
+	void doesNotCleanUpReattachedTerminal() {
+		registry.park(USER_ID, PROJECT_ID, new DetachedTerminal("pty-1", INSTANCE_ID, PARKED_AT));
+
+		assertThat(registry.claim(USER_ID, PROJECT_ID)).isPresent();
+		expiry.getValue().run();
+
+		then(terminalService).shouldHaveNoInteractions();
+		then(activeInstanceRepository).shouldHaveNoInteractions();
+	}
+
+	private static ActiveInstance activeInstance(InstanceStatus status, LocalDateTime lastActivityAt) {
+		Project project = mock(Project.class);
+		given(project.getId()).willReturn(PROJECT_ID);
+		Users user = mock(Users.class);
+		given(user.getUserId()).willReturn(USER_ID);
+		ActiveInstance instance = mock(ActiveInstance.class);
+		given(instance.getId()).willReturn(INSTANCE_ID);
+		given(instance.getStatus()).willReturn(status);
+		given(instance.getLastActivityAt()).willReturn(lastActivityAt);
+		given(instance.getProject()).willReturn(project);
+		given(instance.getUser()).willReturn(user);
+		return instance;
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	@Import(DetachedTerminalCleaner.class)
+	static class Config {
+
+		@Bean
+		TerminalService terminalService() {
+			return mock(TerminalService.class);
+		}
+
+		@Bean
+		ActiveInstanceRepository activeInstanceRepository() {
+			return mock(ActiveInstanceRepository.class);
+		}
+
+		@Bean
+		PlatformTransactionManager transactionManager() {
+			return new AbstractPlatformTransactionManager() {
+				@Override
+				protected Object doGetTransaction() {
+					return new Object();
+				}
+
+				@Override
+				protected void doBegin(Object transaction, TransactionDefinition definition) {
+				}
+
+				@Override
+				protected void doCommit(DefaultTransactionStatus status) {
+				}
+
+				@Override
+				protected void doRollback(DefaultTransactionStatus status) {
+				}
+			};
+		}
+	}
+}
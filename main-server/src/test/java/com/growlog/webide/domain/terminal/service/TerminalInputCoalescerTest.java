@@ -0,0 +1,128 @@
+package com.growlog.webide.domain.terminal.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TerminalInputCoalescerTest {
+
+	private static final String SESSION_ID = "session-1";
+
+	private final PtyInputPublisher publisher = mock(PtyInputPublisher.class);
+	private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final TerminalInputCoalescer coalescer = new TerminalInputCoalescer(publisher, taskScheduler,
+		meterRegistry, 5, 8);
+
+	@BeforeEach
+	void setup() {
+		coalescer.open(SESSION_ID);
+	}
+
+	@Test
+	@DisplayName("일반 문자는 flush window 가 지나면 한 번에 보낸다")
+	void flushesAfterWindow() {
+		ArgumentCaptor<Runnable> scheduled = ArgumentCaptor.forClass(Runnable.class);
+		willReturn(mock(ScheduledFuture.class)).given(taskScheduler).schedule(scheduled.capture(), any(Instant.class));
+
+		coalescer.submit(SESSION_ID, "l");
+		coalescer.submit(SESSION_ID, "s");
+		then(publisher).shouldHaveNoInteractions();
+
+		scheduled.getValue().run();
+
+		then(publisher).should().publish(SESSION_ID, bytes("ls"));
+		then(taskScheduler).should(times(1)).schedule(any(Runnable.class), any(Instant.class));
+		assertThat(meterRegistry.counter("terminal.input.messages.saved").count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("버퍼가 max-buffer-bytes 에 닿거나 제어 문자가 들어오면 바로 보낸다")
+	void flushesOnSizeAndControlCharacter() {
+		willReturn(mock(ScheduledFuture.class)).given(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+		coalescer.submit(SESSION_ID, "abcd");
+		coalescer.submit(SESSION_ID, "efgh");
+		then(publisher).should().publish(SESSION_ID, bytes("abcdefgh"));
+
+		coalescer.submit(SESSION_ID, "x");
+		coalescer.submit(SESSION_ID, "\r");
+		then(publisher).should().publish(SESSION_ID, bytes("x\r"));
+	}
+
+	@Test
+	@DisplayName("close 는 남은 입력을 보내고, close 뒤에 들어온 입력은 버리며 버퍼를 남기지 않는다")
+	void flushesOnCloseAndDropsInputAfterClose() {
+		willReturn(mock(ScheduledFuture.class)).given(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+		coalescer.submit(SESSION_ID, "ab");
+		coalescer.close(SESSION_ID);
+		then(publisher).should().publish(SESSION_ID, bytes("ab"));
+
+		coalescer.submit(SESSION_ID, "c");
+		coalescer.flush(SESSION_ID);
+		then(publisher).shouldHaveNoMoreInteractions();
+
+		// 다시 연결하면 close 뒤의 입력 없이 새로 모읍니다.
+		coalescer.open(SESSION_ID);
+		coalescer.submit(SESSION_ID, "\r");
+		then(publisher).should().publish(SESSION_ID, bytes("\r"));
+		then(taskScheduler).should(times(1)).schedule(any(Runnable.class), any(Instant.class));
+	}
+
+	@Test
+	@DisplayName("close 직전에 들어온 입력은 close 와 순서가 엇갈려도 잃지 않고 보낸다")
+	void doesNotLoseInputRacingWithClose() throws Exception {
+		ArgumentCaptor<Runnable> scheduled = ArgumentCaptor.forClass(Runnable.class);
+		willReturn(mock(ScheduledFuture.class)).given(taskScheduler).schedule(scheduled.capture(), any(Instant.class));
+		CountDownLatch publishing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		willAnswer(invocation -> {
+			publishing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return null;
+		}).given(publisher).publish(SESSION_ID, bytes("ab"));
+
+		coalescer.submit(SESSION_ID, "ab");
+		// 예약된 flush 가 "ab" 를 보내는 동안 버퍼 잠금을 잡고 있습니다.
+		Thread flushing = Thread.ofPlatform().start(scheduled.getValue());
+		assertThat(publishing.await(5, TimeUnit.SECONDS)).isTrue();
+		// submit 이 버퍼를 꺼낸 뒤 잠금을 기다리고, 그 사이 close 가 버퍼를 지우고 잠금을 기다립니다.
+		Thread submitting = Thread.ofPlatform().start(() -> coalescer.submit(SESSION_ID, "c"));
+		awaitBlocked(submitting);
+		Thread closing = Thread.ofPlatform().start(() -> coalescer.close(SESSION_ID));
+		awaitBlocked(closing);
+
+		release.countDown();
+		for (Thread thread : new Thread[] {flushing, submitting, closing}) {
+			thread.join(5000);
+		}
+
+		then(publisher).should().publish(SESSION_ID, bytes("c"));
+	}
+
+	private static void awaitBlocked(Thread thread) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (thread.getState() != Thread.State.BLOCKED && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertThat(thread.getState()).isEqualTo(Thread.State.BLOCKED);
+	}
+
+	private static byte[] bytes(String input) {
+		return input.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,79 @@
+package com.growlog.webide.workers.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import com.growlog.webide.workers.execution.dto.LogMessage;
+
+/**
+ * 로그 교환기의 기존 JSON 경로(Jackson2JsonMessageConverter)와 LogMessageConverter 의 직렬화/역직렬화 비용 비교
+ *
+ * size 는 한 배치의 content 길이(char)이며, 8192 는 log.output.max-batch-bytes 기본값입니다.
+ * charset 이 ansi 이면 이스케이프가 많은 컬러 출력, korean 이면 멀티바이트 출력을 흉내 냅니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogMessageCodecBenchmark {
+
+	@Param({"64", "8192"})
+	private int size;
+
+	@Param({"ascii", "ansi", "korean"})
+	private String charset;
+
+	private final Jackson2JsonMessageConverter jackson = new Jackson2JsonMessageConverter();
+	private final LogMessageConverter binary = new LogMessageConverter();
+	private LogMessage logMessage;
+	private Message jacksonMessage;
+	private Message binaryMessage;
+
+	@Setup
+	public void setUp() {
+		String unit = switch (charset) {
+			case "ansi" -> "\u001B[32mok\u001B[0m\t\"path\"\r\n";
+			case "korean" -> "컴파일 완료 ";
+			default -> "Hello, world! ";
+		};
+		StringBuilder content = new StringBuilder(size + unit.length());
+		while (content.length() < size) {
+			content.append(unit);
+		}
+		content.setLength(size);
+		logMessage = new LogMessage("3f4e2a9c1b7d5e6f8a0b1c2d3e4f5a6b7c8d9e0f1a2b3c4d5e6f7a8b9c0d1e2f", 42L, "stdout",
+			content.toString());
+		jacksonMessage = jackson.toMessage(logMessage, new MessageProperties());
+		binaryMessage = binary.toMessage(logMessage, new MessageProperties());
+	}
+
+	@Benchmark
+	public Message jacksonEncode() {
+		return jackson.toMessage(logMessage, new MessageProperties());
+	}
+
+	@Benchmark
+	public Message binaryEncode() {
+		return binary.toMessage(logMessage, new MessageProperties());
+	}
+
+	@Benchmark
+	public Object jacksonDecode() {
+		return jackson.fromMessage(jacksonMessage);
+	}
+
+	@Benchmark
+	public Object binaryDecode() {
+		return binary.fromMessage(binaryMessage);
+	}
+}
@@ -0,0 +1,32 @@
+package com.growlog.webide.workers.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 일회성 코드 실행용 컨테이너 풀 설정
+ * 이미지별로 미리 띄워둘 개수(min)와 풀이 소유할 수 있는 최대 개수(max)를 지정합니다.
+ * 기본값은 꺼져 있으며, 켜면 풀 컨테이너에서 실행한 코드가 만든 파일은 프로젝트에 남지 않습니다. (복사본에서 실행)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "execution-pool")
+public class ExecutionPoolProperties {
+	private boolean enabled = false;
+	private List<Image> images = new ArrayList<>();
+
+	@Getter
+	@Setter
+	public static class Image {
+		private String name; // Docker 이미지 이름 (예: openjdk:17-jdk-slim)
+		private int min = 1; // 항상 대기시켜 둘 컨테이너 수
+		private int max = 4; // 대기 + 임대 중인 컨테이너의 최대 수
+	}
+}
@@ -14,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 @EnableRabbit
@@ -213,6 +214,32 @@ public class RabbitmqConfig {
 		return BindingBuilder.bind(ptyStopQueue()).to(ptyStopExchange()).with(ptyStopRoutingKey);
 	}
 
+	// [추가] 이 Worker 전용 PTY 명령어/종료 큐 (exclusive, auto-delete)
+	//       세션을 시작한 Worker 에게만 이후 입력과 종료 요청이 전달되도록 Main-Server 가 이 라우팅 키로 보냅니다.
+	@Bean
+	public Queue ptyWorkerCommandQueue(WorkerIdentity workerIdentity) {
+		return new Queue(workerIdentity.getCommandRoutingKey(), false, true, true);
+	}
+
+	@Bean
+	public Binding ptyWorkerCommandBinding(Queue ptyWorkerCommandQueue, WorkerIdentity workerIdentity) {
+		return BindingBuilder.bind(ptyWorkerCommandQueue)
+			.to(ptyCommandExchange())
+			.with(workerIdentity.getCommandRoutingKey());
+	}
+
+	@Bean
+	public Queue ptyWorkerStopQueue(WorkerIdentity workerIdentity) {
+		return new Queue(workerIdentity.getStopRoutingKey(), false, true, true);
+	}
+
+	@Bean
+	public Binding ptyWorkerStopBinding(Queue ptyWorkerStopQueue, WorkerIdentity workerIdentity) {
+		return BindingBuilder.bind(ptyWorkerStopQueue)
+			.to(ptyStopExchange())
+			.with(workerIdentity.getStopRoutingKey());
+	}
+
 	// 컨테이너 할당 큐, 교환기, 바인딩
 	@Bean
 	public Queue containerAcquireQueue() {
@@ -336,6 +363,7 @@ public class RabbitmqConfig {
 	}
 
 	@Bean
+	@Primary // 로그 전용 RabbitTemplate 이 추가되었으므로 기본으로 사용될 Bean을 지정합니다.
 	public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
 		// Spring AMQP가 DTO를 JSON으로 자동 변환하여 메시지를 보낼 수 있도록
 		// 우리가 정의한 MessageConverter를 사용하는 RabbitTemplate을 생성합니다.
@@ -344,6 +372,20 @@ public class RabbitmqConfig {
 		return rabbitTemplate;
 	}
 
+	/**
+	 * [추가] 로그(터미널/실행 출력) 발행 전용 RabbitTemplate
+	 * codec 이 binary 이면 LogMessageConverter 로, json 이면 기존 JSON 형식으로 발행합니다.
+	 * Main-Server 는 content-type 으로 두 형식을 모두 받으므로, Main-Server 를 먼저 배포한 뒤 binary 로 전환합니다.
+	 */
+	@Bean
+	public RabbitTemplate logRabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter,
+		@Value("${log.rabbitmq.codec:json}") String codec) {
+		RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+		rabbitTemplate.setMessageConverter(
+			"binary".equalsIgnoreCase(codec) ? new LogMessageConverter() : messageConverter);
+		return rabbitTemplate;
+	}
+
 	@Bean
 	public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
 		ConnectionFactory connectionFactory,
@@ -0,0 +1,22 @@
+package com.growlog.webide.workers.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulerConfig {
+
+	@Bean
+	public ThreadPoolTaskScheduler taskScheduler() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+		scheduler.setPoolSize(4); // 주기 작업은 짧게 끝나고, 무거운 Docker 호출은 별도 실행기로 넘깁니다.
+		scheduler.setThreadNamePrefix("worker-scheduler-");
+		scheduler.initialize();
+
+		return scheduler;
+	}
+}
@@ -0,0 +1,45 @@
+package com.growlog.webide.workers.config;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이 Worker 프로세스를 식별하는 ID와, 이 Worker 에만 전달되는 PTY 라우팅 키
+ *
+ * 재시작한 Worker 가 이전 프로세스의 세션 메시지를 받지 않도록 프로세스마다 접미사를 붙입니다.
+ */
+@Slf4j
+@Getter
+@Component
+public class WorkerIdentity {
+
+	private final String workerId;
+	private final String commandRoutingKey;
+	private final String stopRoutingKey;
+
+	public WorkerIdentity(@Value("${pty-session.worker-id:}") String configuredWorkerId,
+		@Value("${pty-session.rabbitmq.command.routing-key}") String ptyCommandRoutingKey,
+		@Value("${pty-session.rabbitmq.stop.routing-key}") String ptyStopRoutingKey) {
+		String base = StringUtils.hasText(configuredWorkerId) ? configuredWorkerId : hostName();
+		this.workerId = base + "-" + UUID.randomUUID().toString().substring(0, 8);
+		this.commandRoutingKey = ptyCommandRoutingKey + "." + workerId;
+		this.stopRoutingKey = ptyStopRoutingKey + "." + workerId;
+		log.info("Worker identity: {}", workerId);
+	}
+
+	private static String hostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			return "worker";
+		}
+	}
+}
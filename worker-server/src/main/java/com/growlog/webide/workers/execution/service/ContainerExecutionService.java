@@ -1,20 +1,25 @@
 package com.growlog.webide.workers.execution.service;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.CreateContainerResponse;
@@ -27,10 +32,14 @@ import com.github.dockerjava.api.model.HostConfig;
 import com.github.dockerjava.api.model.PullResponseItem;
 import com.github.dockerjava.api.model.StreamType;
 import com.github.dockerjava.api.model.Volume;
+import com.growlog.webide.workers.config.WorkerIdentity;
 import com.growlog.webide.workers.execution.dto.CodeExecutionRequestDto;
 import com.growlog.webide.workers.execution.dto.ContainerCreationRequest;
-import com.growlog.webide.workers.execution.dto.LogMessage;
+import com.growlog.webide.workers.execution.dto.PtyInputFrame;
+import com.growlog.webide.workers.execution.stream.PtyStreamServer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,7 +50,14 @@ public class ContainerExecutionService {
 
 	private final DockerClient dockerClient;
 	private final RabbitTemplate rabbitTemplate;
-	private final Map<String, OutputStream> ptySessions = new ConcurrentHashMap<>();
+	private final ExecutionContainerPool executionContainerPool;
+	private final OutputAggregatorFactory outputAggregatorFactory;
+	private final OutputLimiterFactory outputLimiterFactory;
+	private final ObjectMapper objectMapper;
+	private final WorkerIdentity workerIdentity;
+	private final MeterRegistry meterRegistry;
+	private final PtySessionRegistry ptySessionRegistry;
+	private final PtyStreamServer ptyStreamServer;
 
 	@Value("${docker.host.workspace-base-path}")
 	private String hostWorkspaceBasePath;
@@ -49,12 +65,6 @@ public class ContainerExecutionService {
 	@Value("${docker.container.workspace-path}")
 	private String containerWorkspacePath;
 
-	// [개선] 로그 전송을 위한 RabbitMQ 설정을 외부에서 주입받습니다.
-	@Value("${log.rabbitmq.exchange.name}")
-	private String logExchangeName;
-	@Value("${log.rabbitmq.routing.key}")
-	private String logRoutingKey;
-
 	// [추가] 컨테이너 삭제 완료 알림을 위한 RabbitMQ 설정
 	@Value("${container-lifecycle.rabbitmq.exchange.name}")
 	private String containerLifecycleExchangeName;
@@ -64,18 +74,25 @@ public class ContainerExecutionService {
 	/**
 	 * [Stateless] 일회성 코드 실행 요청을 처리합니다.
 	 * 임시 컨테이너를 생성하고, 내부에 명령어를 실행한 뒤, 컨테이너를 정리합니다.
+	 * [개선] 이미지별로 미리 띄워둔 풀 컨테이너가 있으면 생성/시작 과정 없이 바로 실행합니다.
 	 */
 	@RabbitListener(queues = "${code-execution.rabbitmq.queue.name}")
 	public void executeCode(CodeExecutionRequestDto request) {
 		String containerId = null;
+		ExecutionContainerPool.Lease lease = null;
 		String executionLogId = request.getExecutionLogId();
+		Timer.Sample sample = Timer.start(meterRegistry);
 		try {
-			// 0. 컨테이너 실행에 필요한 이미지가 로컬에 없으면 pull 합니다.
-			pullImageIfNotExists(request.getDockerImage());
-
-			// 1. 컨테이너 생성 및 시작
-			containerId = createAndStartExecutionContainer(request);
-			log.info("Container created and started for code execution: {}", containerId);
+			// 0~1. 풀에서 컨테이너를 임대하고, 없으면 이미지 확인 후 새 컨테이너를 생성 및 시작합니다.
+			lease = executionContainerPool.lease(request.getDockerImage(), request.getProjectId()).orElse(null);
+			if (lease != null) {
+				containerId = lease.containerId();
+				log.info("Leased pre-warmed container for code execution: {}", containerId);
+			} else {
+				pullImageIfNotExists(request.getDockerImage());
+				containerId = createAndStartExecutionContainer(request);
+				log.info("Container created and started for code execution: {}", containerId);
+			}
 
 			// 2. 실행할 최종 명령어 생성
 			String finalCommand = buildFinalCommand(request);
@@ -83,16 +100,22 @@ public class ContainerExecutionService {
 
 			// 3. 임시 컨테이너 내부에서 명령어 실행 및 결과 로깅
 			log.info("Using execution log ID from main-server: {}", executionLogId);
+			//    [추가] 이미지별 출력 제한(초당 바이트, 총 바이트)을 적용합니다.
+			OutputLimiter limiter = outputLimiterFactory.create("execution", request.getOutputRateLimit(),
+				request.getOutputByteBudget());
 			executeCommandInContainer(containerId, finalCommand, true, executionLogId,
-				request.getUserId()); // isTemporary = true
+				request.getUserId(), limiter); // isTemporary = true
 
 		} catch (Exception e) {
 			log.error("An error occurred during code execution for projectId {}", request.getProjectId(), e);
 		} finally {
-			// 4. 작업이 끝나면 컨테이너를 정리합니다.
-			if (containerId != null) {
+			// 4. 작업이 끝나면 컨테이너를 정리합니다. 풀 컨테이너는 백그라운드에서 폐기 후 다시 채워집니다.
+			if (lease != null) {
+				executionContainerPool.release(lease);
+			} else if (containerId != null) {
 				cleanupContainer(containerId);
 			}
+			sample.stop(meterRegistry.timer("execution.run", "pooled", String.valueOf(lease != null)));
 		}
 	}
 
@@ -117,11 +140,13 @@ public class ContainerExecutionService {
 	}
 
 	/**
-	 * [신규] PTY 세션 시작 요청을 처리합니다.
+	 * [신규] PTY 세션 시작 요청을 처리합니다. (RPC)
 	 * 컨테이너 내부에 bash 쉘을 실행하고, 입출력 스트림을 연결합니다.
+	 * [추가] 세션을 맡은 Worker 의 ID와 전용 라우팅 키를 응답하여, 이후 입력과 종료 요청이 이 Worker 로만 오게 합니다.
+	 * 세션 시작에 실패하면 빈 Map 을 응답합니다.
 	 */
 	@RabbitListener(queues = "${pty-session.rabbitmq.start.queue}")
-	public void startPtySession(Map<String, String> message) {
+	public Map<String, String> startPtySession(Map<String, String> message) {
 		String sessionId = message.get("sessionId");
 		String containerId = message.get("containerId");
 		Long userId = Long.parseLong(message.get("userId"));
@@ -137,15 +162,27 @@ public class ContainerExecutionService {
 			.exec();
 
 		// 2. 쉘의 출력을 지속적으로 읽어서 Main-Server로 보내는 콜백 준비
-		PtyLogCallback callback = new PtyLogCallback(rabbitTemplate, containerId, userId, logExchangeName,
-			logRoutingKey);
-
+		//    [개선] 프레임마다 발행하지 않고 세션별 집계기로 묶어서 보냅니다.
+		//    direct stream 이 붙어 있으면 그쪽으로, 아니면 RabbitMQ 로 보냅니다.
+		//    [추가] 출력 폭주(yes, 무한 출력 루프)로부터 보호하기 위해 이미지별 출력 제한을 적용합니다.
+		PtyLogCallback callback = new PtyLogCallback(containerId,
+			outputAggregatorFactory.create("pty", containerId, userId, logMessage -> {
+				PtySession session = ptySessionRegistry.get(sessionId);
+				if (session == null || !session.publishDirect(logMessage)) {
+					outputAggregatorFactory.publishToBroker(logMessage);
+				}
+			}),
+			outputLimiterFactory.create("pty", parseLong(message.get("outputRateLimit")),
+				parseLong(message.get("outputByteBudget"))));
+
+		PtySession ptySession;
 		try {
 			// 3. 입력 스트림을 준비하고 세션 맵에 저장
 			//    이 스트림에 데이터를 쓰면 컨테이너 내부 쉘에 명령어가 입력됩니다.
 			PipedInputStream stdin = new PipedInputStream();
 			OutputStream ptyInput = new PipedOutputStream(stdin);
-			ptySessions.put(sessionId, ptyInput);
+			ptySession = new PtySession(sessionId, ptyInput);
+			ptySessionRegistry.register(ptySession);
 
 			// 4. exec 명령어 실행
 			dockerClient.execStartCmd(execCreateCmdResponse.getId())
@@ -153,55 +190,49 @@ public class ContainerExecutionService {
 				.withStdIn(stdin)
 				.exec(callback);
 
-			log.info("PTY session for {} is now active.", sessionId);
+			log.info("PTY session for {} is now active on worker {}.", sessionId, workerIdentity.getWorkerId());
 		} catch (Exception e) {
 			log.error("Failed to create PipedStream for PTY session {}", sessionId, e);
+			return new HashMap<>();
 		}
+
+		Map<String, String> route = new HashMap<>();
+		route.put("workerId", workerIdentity.getWorkerId());
+		route.put("commandRoutingKey", workerIdentity.getCommandRoutingKey());
+		route.put("stopRoutingKey", workerIdentity.getStopRoutingKey());
+		// direct stream 접속 정보와 세션별 토큰 (선택). 토큰은 이 응답으로만 Main-Server 에 전달됩니다.
+		ptyStreamServer.advertisedEndpoint().ifPresent(endpoint -> {
+			route.putAll(endpoint);
+			route.put("streamToken", ptySession.getStreamToken());
+		});
+		return route;
 	}
 
 	/**
 	 * [신규] PTY 세션에 터미널 입력을 전달합니다.
 	 */
-	@RabbitListener(queues = "${pty-session.rabbitmq.command.queue}")
-	public void receiveCommand(Map<String, String> message) {
-		String sessionId = message.get("sessionId");
-		String input = message.get("input");
-
-		OutputStream ptyInput = ptySessions.get(sessionId);
-		if (ptyInput != null) {
-			try {
-				ptyInput.write(input.getBytes(StandardCharsets.UTF_8));
-				ptyInput.flush();
-			} catch (Exception e) {
-				// 클라이언트 연결이 끊어지면 PipedInputStream이 닫혀서 IOException 발생
-				log.warn("Failed to write to PTY for session {}. It might be closed. Removing session.", sessionId);
-				cleanupPtySession(sessionId);
-			}
-		} else {
-			log.warn("Received command for a non-existent or closed session: {}", sessionId);
+	@RabbitListener(queues = {"${pty-session.rabbitmq.command.queue}", "#{ptyWorkerCommandQueue.name}"})
+	public void receiveCommand(Message message) throws IOException {
+		// [개선] Main-Server가 보낸 바이너리 프레임을 우선 처리하고, 이전 버전의 JSON Map 형식도 계속 받습니다.
+		if (PtyInputFrame.CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+			PtyInputFrame frame = PtyInputFrame.decode(message.getBody());
+			ptySessionRegistry.write(frame.sessionId(), frame.input());
+			return;
 		}
+		Map<String, String> legacy = objectMapper.readValue(message.getBody(), new TypeReference<>() {
+		});
+		ptySessionRegistry.write(legacy.get("sessionId"), legacy.get("input").getBytes(StandardCharsets.UTF_8));
 	}
 
 	/**
 	 * [신규] PTY 세션 종료 요청을 처리합니다.
 	 * Main-Server에서 WebSocket 연결이 끊어졌을 때 호출됩니다.
 	 */
-	@RabbitListener(queues = "${pty-session.rabbitmq.stop.queue}")
+	@RabbitListener(queues = {"${pty-session.rabbitmq.stop.queue}", "#{ptyWorkerStopQueue.name}"})
 	public void stopPtySession(Map<String, String> message) {
 		String sessionId = message.get("sessionId");
 		log.info("Received request to stop PTY session {}", sessionId);
-		cleanupPtySession(sessionId);
-	}
-
-	private void cleanupPtySession(String sessionId) {
-		OutputStream ptyInput = ptySessions.remove(sessionId);
-		if (ptyInput != null) {
-			try {
-				ptyInput.close();
-			} catch (Exception e) {
-				log.error("Error closing PTY input stream for session {}", sessionId, e);
-			}
-		}
+		ptySessionRegistry.close(sessionId);
 	}
 
 	/**
@@ -272,7 +303,7 @@ public class ContainerExecutionService {
 	}
 
 	private void executeCommandInContainer(String containerId, String finalCommand, boolean isTemporary,
-		String logTargetId, Long userId) throws InterruptedException {
+		String logTargetId, Long userId, OutputLimiter limiter) throws InterruptedException {
 		String[] command = {"/bin/sh", "-c", finalCommand};
 		ExecCreateCmdResponse execCreateCmdResponse = dockerClient.execCreateCmd(containerId)
 			.withAttachStdout(true)
@@ -281,8 +312,8 @@ public class ContainerExecutionService {
 			.withWorkingDir(containerWorkspacePath) // <-- 이 줄을 추가하여 명령어 실행 위치를 지정합니다.
 			.exec();
 
-		LogContainerCallback callback = new LogContainerCallback(containerId, rabbitTemplate, logTargetId, userId,
-			logExchangeName, logRoutingKey);
+		LogContainerCallback callback = new LogContainerCallback(containerId,
+			outputAggregatorFactory.create("execution", logTargetId, userId), limiter);
 		try (LogContainerCallback a = callback) {
 			dockerClient.execStartCmd(execCreateCmdResponse.getId()).exec(callback);
 			// 명령어 실행이 완료될 때까지 대기합니다. 최대 대기 시간을 10초로 줄여 불필요한 지연을 방지합니다.
@@ -303,6 +334,40 @@ public class ContainerExecutionService {
 		dockerClient.removeContainerCmd(containerId).exec();
 	}
 
+	private static Long parseLong(String value) {
+		return value == null || value.isBlank() ? null : Long.valueOf(value);
+	}
+
+	/**
+	 * 출력 제한을 통과한 부분만 집계기로 넘깁니다. 제한에 걸리면 호출한 Docker 콜백 스레드가 멈춥니다.
+	 */
+	static void forwardLimited(OutputLimiter limiter, OutputAggregator aggregator, String streamType,
+		byte[] payload) {
+		try {
+			int allowed = limiter.admit(payload.length);
+			if (allowed > 0) {
+				aggregator.append(streamType, allowed == payload.length ? payload : Arrays.copyOf(payload, allowed));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		appendSuppressedMarker(limiter, aggregator, streamType, false);
+	}
+
+	static void closeLimited(OutputLimiter limiter, OutputAggregator aggregator, String markerStreamType) {
+		limiter.close();
+		appendSuppressedMarker(limiter, aggregator, markerStreamType, true);
+		aggregator.close();
+	}
+
+	private static void appendSuppressedMarker(OutputLimiter limiter, OutputAggregator aggregator, String streamType,
+		boolean force) {
+		String marker = limiter.pollSuppressedMarker(force);
+		if (marker != null) {
+			aggregator.append(streamType, marker.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
 	/**
 	 * 지정된 Docker 이미지가 로컬에 존재하지 않으면 Docker Hub(또는 원격 레지스트리)에서 pull 합니다.
 	 *
@@ -335,75 +400,75 @@ public class ContainerExecutionService {
 	 * 컨테이너의 출력을 로깅하고, 리소스를 안전하게 닫기 위한 ResultCallback 구현체
 	 */
 	static class PtyLogCallback extends ResultCallback.Adapter<Frame> {
-		private final RabbitTemplate rabbitTemplate;
 		private final String containerId;
-		private final Long userId;
-		private final String exchangeName;
-		private final String routingKey;
+		// targetId를 containerId로 사용하여 클라이언트가 구분할 수 있게 합니다.
+		private final OutputAggregator aggregator;
+		private final OutputLimiter limiter;
 
-		public PtyLogCallback(RabbitTemplate rabbitTemplate, String containerId, Long userId, String exchangeName,
-			String routingKey) {
-			this.rabbitTemplate = rabbitTemplate;
+		public PtyLogCallback(String containerId, OutputAggregator aggregator, OutputLimiter limiter) {
 			this.containerId = containerId;
-			this.userId = userId;
-			this.exchangeName = exchangeName;
-			this.routingKey = routingKey;
+			this.aggregator = aggregator;
+			this.limiter = limiter;
 		}
 
 		@Override
 		public void onNext(Frame frame) {
-			String output = new String(frame.getPayload(), StandardCharsets.UTF_8);
-			// targetId를 containerId로 사용하여 클라이언트가 구분할 수 있게 합니다.
-			LogMessage logMessage = new LogMessage(containerId, userId, "stdout", output);
-			rabbitTemplate.convertAndSend(exchangeName, routingKey, logMessage);
+			forwardLimited(limiter, aggregator, "stdout", frame.getPayload());
 		}
 
 		@Override
 		public void onError(Throwable throwable) {
 			log.error("Error in PtyLogCallback for container {}", containerId, throwable);
+			closeLimited(limiter, aggregator, "stdout");
 			super.onError(throwable);
 		}
+
+		@Override
+		public void onComplete() {
+			closeLimited(limiter, aggregator, "stdout");
+			super.onComplete();
+		}
 	}
 
 	static class LogContainerCallback extends ResultCallback.Adapter<Frame> implements Closeable {
 		private final String containerId;
-		private final RabbitTemplate rabbitTemplate;
-		private final String logTargetId; // 로그를 보낼 ID (터미널은 containerId, 일회성 실행은 임시 ID)
-		private final Long userId; // 로그를 수신할 사용자의 ID
-		private final String exchangeName;
-		private final String routingKey;
-
-		public LogContainerCallback(String containerId, RabbitTemplate rabbitTemplate, String logTargetId, Long userId,
-			String exchangeName, String routingKey) {
+		// 로그를 보낼 ID (터미널은 containerId, 일회성 실행은 임시 ID)와 수신 사용자는 집계기가 가지고 있습니다.
+		private final OutputAggregator aggregator;
+		private final OutputLimiter limiter;
+
+		public LogContainerCallback(String containerId, OutputAggregator aggregator, OutputLimiter limiter) {
 			this.containerId = containerId;
-			this.rabbitTemplate = rabbitTemplate;
-			this.logTargetId = logTargetId;
-			this.userId = userId;
-			this.exchangeName = exchangeName;
-			this.routingKey = routingKey;
+			this.aggregator = aggregator;
+			this.limiter = limiter;
 		}
 
 		@Override
 		public void onNext(Frame frame) {
 			String streamType = frame.getStreamType() == StreamType.STDERR ? "stderr" : "stdout";
-			// [수정] 컨테이너 출력(byte[])을 문자열로 변환할 때 UTF-8 인코딩을 명시적으로 지정합니다.
-			String content = new String(frame.getPayload(), StandardCharsets.UTF_8);
-			LogMessage logMessage = new LogMessage(logTargetId, userId, streamType, content);
-
-			log.trace("Sending log for [{}]: {}", logTargetId, content.trim());
-			// [개선] 하드코딩된 값을 제거하고 주입받은 설정 값을 사용합니다.
-			rabbitTemplate.convertAndSend(exchangeName, routingKey, logMessage);
+			log.trace("Buffering {} bytes of {} for container {}", frame.getPayload().length, streamType,
+				containerId);
+			forwardLimited(limiter, aggregator, streamType, frame.getPayload());
 		}
 
 		@Override
 		public void onError(Throwable throwable) {
 			log.error("Error in LogContainerCallback for container {}", containerId, throwable);
+			closeLimited(limiter, aggregator, "stderr");
 			super.onError(throwable);
 		}
 
+		@Override
+		public void onComplete() {
+			// awaitCompletion 이 반환되기 전에 남은 출력을 모두 발행합니다.
+			closeLimited(limiter, aggregator, "stderr");
+			super.onComplete();
+		}
+
 		@Override
 		public void close() {
-			// try-with-resources 구문에 의해 이 메서드가 호출되어 리소스가 정리됩니다.
+			// try-with-resources 구문에 의해 호출됩니다. 타임아웃으로 끝난 경우에도 남은 출력을 발행합니다.
+			// 출력 제한으로 멈춰 있던 콜백 스레드도 함께 깨웁니다.
+			closeLimited(limiter, aggregator, "stderr");
 		}
 	}
 }
@@ -0,0 +1,272 @@
+package com.growlog.webide.workers.execution.service;
+
+import java.nio.file.Path;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Container;
+import com.growlog.webide.workers.config.ExecutionPoolProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 일회성 코드 실행을 위해 이미지별로 미리 생성/시작해 둔 컨테이너 풀
+ *
+ * 풀 컨테이너는 아무것도 마운트하지 않은 채 대기하고, 임대할 때 해당 프로젝트 디렉터리만 작업 경로로 복사합니다.
+ * (실행 중인 컨테이너에는 bind 를 추가할 수 없고, 컨테이너 안에서 mount 하려면 CAP_SYS_ADMIN 이 필요합니다.)
+ * 그래서 다른 프로젝트는 보이지 않지만, 실행 중 만든 파일도 프로젝트에 남지 않습니다.
+ * 복사에 실패하면 비어 있는 Optional 을 반환하고, 호출 측은 기존 방식(프로젝트 bind)으로 컨테이너를 생성합니다.
+ * 한 번 사용한 컨테이너는 재사용하지 않고 백그라운드에서 폐기한 뒤 새 컨테이너로 채웁니다.
+ */
+@Slf4j
+@Component
+public class ExecutionContainerPool {
+
+	private static final String POOL_LABEL = "growlog.execution-pool";
+
+	private final DockerClient dockerClient;
+	private final ExecutionPoolProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final String hostWorkspaceBasePath;
+	private final String containerWorkspacePath;
+	private final Map<String, ImagePool> pools = new ConcurrentHashMap<>();
+	// 컨테이너 생성/삭제는 블로킹 Docker 호출이므로 스케줄러 스레드가 아닌 별도 실행기에서 처리합니다.
+	private final Executor maintenanceExecutor;
+
+	@Autowired
+	public ExecutionContainerPool(DockerClient dockerClient, ExecutionPoolProperties properties,
+		MeterRegistry meterRegistry,
+		@Value("${docker.host.workspace-base-path}") String hostWorkspaceBasePath,
+		@Value("${docker.container.workspace-path}") String containerWorkspacePath) {
+		this(dockerClient, properties, meterRegistry, hostWorkspaceBasePath, containerWorkspacePath,
+			Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("execution-pool-", 0).factory()));
+	}
+
+	ExecutionContainerPool(DockerClient dockerClient, ExecutionPoolProperties properties,
+		MeterRegistry meterRegistry, String hostWorkspaceBasePath, String containerWorkspacePath,
+		Executor maintenanceExecutor) {
+		this.dockerClient = dockerClient;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.hostWorkspaceBasePath = hostWorkspaceBasePath;
+		this.containerWorkspacePath = containerWorkspacePath;
+		this.maintenanceExecutor = maintenanceExecutor;
+
+		for (ExecutionPoolProperties.Image image : properties.getImages()) {
+			ImagePool pool = new ImagePool(image);
+			pools.put(image.getName(), pool);
+			Gauge.builder("execution.pool.idle", pool.idle, Deque::size)
+				.tag("image", image.getName())
+				.description("Pre-warmed execution containers waiting for a lease")
+				.register(meterRegistry);
+		}
+	}
+
+	/**
+	 * 워커가 뜨면 이전 프로세스가 남긴 풀 컨테이너를 정리하고 최소 개수만큼 미리 채웁니다.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		maintenanceExecutor.execute(() -> {
+			removeOrphanedContainers();
+			pools.values().forEach(this::replenish);
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${execution-pool.maintenance-interval-ms:5000}")
+	public void maintain() {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		pools.values().forEach(this::replenish);
+	}
+
+	/**
+	 * 이미지에 맞는 대기 컨테이너를 임대하고 프로젝트 파일을 작업 경로로 복사합니다.
+	 * 대기 컨테이너가 없거나 복사에 실패하면 비어 있는 Optional을 반환하며, 호출 측은 기존 방식으로 컨테이너를 생성합니다.
+	 */
+	public Optional<Lease> lease(String image, Long projectId) {
+		ImagePool pool = properties.isEnabled() ? pools.get(image) : null;
+		if (pool == null) {
+			return Optional.empty();
+		}
+
+		String containerId = pool.idle.pollFirst();
+		replenish(pool);
+		if (containerId == null) {
+			pool.misses.increment();
+			return Optional.empty();
+		}
+
+		if (!copyProject(containerId, projectId)) {
+			discard(pool, containerId);
+			pool.misses.increment();
+			return Optional.empty();
+		}
+		pool.hits.increment();
+		return Optional.of(new Lease(image, containerId));
+	}
+
+	/**
+	 * 실행이 끝난 컨테이너를 백그라운드에서 폐기하고 풀을 다시 채웁니다.
+	 */
+	public void release(Lease lease) {
+		ImagePool pool = pools.get(lease.image());
+		if (pool == null) {
+			maintenanceExecutor.execute(() -> forceRemove(lease.containerId()));
+			return;
+		}
+		discard(pool, lease.containerId());
+	}
+
+	private void discard(ImagePool pool, String containerId) {
+		maintenanceExecutor.execute(() -> {
+			forceRemove(containerId);
+			pool.total.decrementAndGet();
+			replenish(pool);
+		});
+	}
+
+	private void replenish(ImagePool pool) {
+		if (!pool.replenishing.compareAndSet(false, true)) {
+			return;
+		}
+		maintenanceExecutor.execute(() -> {
+			try {
+				while (pool.idle.size() < pool.min && pool.total.get() < pool.max) {
+					pool.total.incrementAndGet();
+					try {
+						pool.idle.addLast(createPooledContainer(pool.image));
+					} catch (Exception e) {
+						pool.total.decrementAndGet();
+						// 이미지가 아직 pull 되지 않은 경우 등은 다음 주기에 다시 시도합니다.
+						log.warn("Failed to pre-warm execution container for image '{}': {}", pool.image,
+							e.getMessage());
+						break;
+					}
+				}
+			} finally {
+				pool.replenishing.set(false);
+			}
+		});
+	}
+
+	private String createPooledContainer(String image) {
+		CreateContainerResponse container = dockerClient.createContainerCmd(image)
+			.withLabels(Map.of(POOL_LABEL, image))
+			.withWorkingDir(containerWorkspacePath)
+			.withCmd("tail", "-f", "/dev/null")
+			.exec();
+		dockerClient.startContainerCmd(container.getId()).exec();
+		log.debug("Pre-warmed execution container {} for image '{}'", container.getId(), image);
+		return container.getId();
+	}
+
+	private boolean copyProject(String containerId, Long projectId) {
+		String hostProjectPath = Path.of(hostWorkspaceBasePath, String.valueOf(projectId)).toString();
+		try {
+			dockerClient.copyArchiveToContainerCmd(containerId)
+				.withHostResource(hostProjectPath)
+				.withDirChildrenOnly(true)
+				.withRemotePath(containerWorkspacePath)
+				.exec();
+			return true;
+		} catch (Exception e) {
+			log.warn("Failed to copy project {} to pooled container {}", projectId, containerId, e);
+			return false;
+		}
+	}
+
+	private void forceRemove(String containerId) {
+		try {
+			// tail -f 는 SIGTERM 을 무시하므로 stop 대기 없이 바로 강제 삭제합니다.
+			dockerClient.removeContainerCmd(containerId).withForce(true).exec();
+		} catch (NotFoundException e) {
+			log.debug("Pooled container {} was already removed.", containerId);
+		} catch (Exception e) {
+			log.error("Failed to remove pooled container {}", containerId, e);
+		}
+	}
+
+	private void removeOrphanedContainers() {
+		try {
+			List<Container> orphans = dockerClient.listContainersCmd()
+				.withShowAll(true)
+				.withLabelFilter(List.of(POOL_LABEL))
+				.exec();
+			orphans.forEach(container -> forceRemove(container.getId()));
+			if (!orphans.isEmpty()) {
+				log.info("Removed {} orphaned execution pool containers.", orphans.size());
+			}
+		} catch (Exception e) {
+			log.warn("Failed to look up orphaned execution pool containers", e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pools.values().forEach(pool -> {
+			String containerId;
+			while ((containerId = pool.idle.pollFirst()) != null) {
+				forceRemove(containerId);
+			}
+		});
+		if (maintenanceExecutor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	public record Lease(String image, String containerId) {
+	}
+
+	private final class ImagePool {
+		private final String image;
+		private final int min;
+		private final int max;
+		private final Deque<String> idle = new ConcurrentLinkedDeque<>();
+		private final AtomicInteger total = new AtomicInteger(); // 대기 + 임대 + 생성 중
+		private final AtomicBoolean replenishing = new AtomicBoolean();
+		private final Counter hits;
+		private final Counter misses;
+
+		private ImagePool(ExecutionPoolProperties.Image config) {
+			this.image = config.getName();
+			this.min = config.getMin();
+			this.max = Math.max(config.getMax(), config.getMin());
+			this.hits = Counter.builder("execution.pool.lease")
+				.tag("image", image)
+				.tag("result", "hit")
+				.register(meterRegistry);
+			this.misses = Counter.builder("execution.pool.lease")
+				.tag("image", image)
+				.tag("result", "miss")
+				.register(meterRegistry);
+		}
+	}
+}
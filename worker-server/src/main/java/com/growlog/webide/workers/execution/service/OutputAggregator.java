@@ -0,0 +1,171 @@
+package com.growlog.webide.workers.execution.service;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.scheduling.TaskScheduler;
+
+import com.growlog.webide.workers.execution.dto.LogMessage;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 세션(컨테이너/실행) 하나의 출력 프레임을 모아서 한 번에 발행하는 집계기
+ *
+ * 첫 프레임이 들어온 뒤 flush window 가 지나거나, 모인 바이트가 max batch 를 넘으면 하나의 LogMessage 로 발행합니다.
+ * stdout/stderr 가 바뀌면 순서를 지키기 위해 즉시 발행합니다.
+ * UTF-8 은 스트림별로 점진적으로 디코딩하므로 프레임 경계에서 잘린 멀티바이트 문자도 깨지지 않습니다.
+ */
+public class OutputAggregator implements Closeable {
+
+	private final String targetId;
+	private final Long userId;
+	private final Consumer<LogMessage> publisher;
+	private final TaskScheduler scheduler;
+	private final Duration flushWindow;
+	private final int maxBatchBytes;
+	private final Meters meters;
+
+	private final Map<String, Utf8StreamDecoder> decoders = new LinkedHashMap<>(2);
+	private final StringBuilder buffer = new StringBuilder();
+	private String bufferedStreamType;
+	private int pendingBytes;
+	private int pendingFrames;
+	private long firstFrameNanos;
+	private ScheduledFuture<?> scheduledFlush;
+	private boolean closed;
+
+	OutputAggregator(String targetId, Long userId, Consumer<LogMessage> publisher, TaskScheduler scheduler,
+		Duration flushWindow, int maxBatchBytes, Meters meters) {
+		this.targetId = targetId;
+		this.userId = userId;
+		this.publisher = publisher;
+		this.scheduler = scheduler;
+		this.flushWindow = flushWindow;
+		this.maxBatchBytes = maxBatchBytes;
+		this.meters = meters;
+	}
+
+	public synchronized void append(String streamType, byte[] payload) {
+		if (closed || payload == null || payload.length == 0) {
+			return;
+		}
+		if (bufferedStreamType != null && !bufferedStreamType.equals(streamType)) {
+			flush();
+		}
+		if (pendingFrames == 0) {
+			firstFrameNanos = System.nanoTime();
+		}
+		bufferedStreamType = streamType;
+		decoders.computeIfAbsent(streamType, type -> new Utf8StreamDecoder()).decode(payload, buffer);
+		pendingBytes += payload.length;
+		pendingFrames++;
+
+		if (pendingBytes >= maxBatchBytes) {
+			flush();
+		} else if (scheduledFlush == null) {
+			scheduledFlush = scheduler.schedule(this::flush, Instant.now().plus(flushWindow));
+		}
+	}
+
+	public synchronized void flush() {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+		if (pendingFrames == 0) {
+			return;
+		}
+		if (!buffer.isEmpty()) {
+			publisher.accept(new LogMessage(targetId, userId, bufferedStreamType, buffer.toString()));
+			meters.batchBytes().record(pendingBytes);
+			meters.batchFrames().record(pendingFrames);
+			meters.flushLatency().record(System.nanoTime() - firstFrameNanos, TimeUnit.NANOSECONDS);
+			buffer.setLength(0);
+		}
+		pendingBytes = 0;
+		pendingFrames = 0;
+	}
+
+	/**
+	 * 남은 출력을 모두 발행합니다. 스트림 끝에서 완성되지 못한 바이트는 대체 문자로 내보냅니다.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		flush();
+		for (Map.Entry<String, Utf8StreamDecoder> entry : decoders.entrySet()) {
+			if (entry.getValue().finish(buffer)) {
+				publisher.accept(new LogMessage(targetId, userId, entry.getKey(), buffer.toString()));
+				buffer.setLength(0);
+			}
+		}
+		closed = true;
+	}
+
+	record Meters(DistributionSummary batchBytes, DistributionSummary batchFrames, Timer flushLatency) {
+	}
+
+	private static final class Utf8StreamDecoder {
+		private static final byte[] EMPTY = new byte[0];
+
+		private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		private byte[] carry = EMPTY; // 이전 프레임 끝에서 잘린 멀티바이트 문자의 앞부분 (최대 3바이트)
+		private CharBuffer chars = CharBuffer.allocate(1024);
+
+		void decode(byte[] payload, StringBuilder out) {
+			ByteBuffer in;
+			if (carry.length == 0) {
+				in = ByteBuffer.wrap(payload);
+			} else {
+				in = ByteBuffer.allocate(carry.length + payload.length);
+				in.put(carry).put(payload).flip();
+			}
+			// UTF-8 은 바이트 수보다 많은 char 를 만들지 않으므로 입력 크기만큼이면 충분합니다.
+			if (chars.capacity() < in.remaining()) {
+				chars = CharBuffer.allocate(in.remaining());
+			}
+			chars.clear();
+			decoder.decode(in, chars, false);
+			chars.flip();
+			out.append(chars);
+
+			if (in.hasRemaining()) {
+				carry = new byte[in.remaining()];
+				in.get(carry);
+			} else {
+				carry = EMPTY;
+			}
+		}
+
+		boolean finish(StringBuilder out) {
+			if (carry.length == 0) {
+				return false;
+			}
+			chars.clear();
+			decoder.decode(ByteBuffer.wrap(carry), chars, true);
+			decoder.flush(chars);
+			decoder.reset();
+			chars.flip();
+			out.append(chars);
+			carry = EMPTY;
+			return !out.isEmpty();
+		}
+	}
+}
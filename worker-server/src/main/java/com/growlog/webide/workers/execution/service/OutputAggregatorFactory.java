@@ -0,0 +1,90 @@
+package com.growlog.webide.workers.execution.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.growlog.webide.workers.execution.dto.LogMessage;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 세션별 OutputAggregator 를 생성합니다.
+ * 배치 크기와 flush 지연 시간은 source(pty, execution) 태그로 구분해 기록합니다.
+ */
+@Component
+public class OutputAggregatorFactory {
+
+	private final RabbitTemplate rabbitTemplate;
+	private final TaskScheduler taskScheduler;
+	private final MeterRegistry meterRegistry;
+	private final String logExchangeName;
+	private final String logRoutingKey;
+	private final Duration flushWindow;
+	private final int maxBatchBytes;
+	private final Map<String, OutputAggregator.Meters> metersBySource = new ConcurrentHashMap<>();
+
+	public OutputAggregatorFactory(@Qualifier("logRabbitTemplate") RabbitTemplate rabbitTemplate,
+		TaskScheduler taskScheduler,
+		MeterRegistry meterRegistry,
+		@Value("${log.rabbitmq.exchange.name}") String logExchangeName,
+		@Value("${log.rabbitmq.routing.key}") String logRoutingKey,
+		@Value("${log.output.flush-window-ms:8}") long flushWindowMs,
+		@Value("${log.output.max-batch-bytes:8192}") int maxBatchBytes) {
+		this.rabbitTemplate = rabbitTemplate;
+		this.taskScheduler = taskScheduler;
+		this.meterRegistry = meterRegistry;
+		this.logExchangeName = logExchangeName;
+		this.logRoutingKey = logRoutingKey;
+		this.flushWindow = Duration.ofMillis(flushWindowMs);
+		this.maxBatchBytes = maxBatchBytes;
+	}
+
+	/**
+	 * @param source   출력 출처 (pty: 대화형 터미널, execution: 일회성 코드 실행)
+	 * @param targetId 클라이언트가 로그를 구분하는 ID (터미널은 containerId, 일회성 실행은 executionLogId)
+	 * @param userId   로그를 수신할 사용자의 ID
+	 */
+	public OutputAggregator create(String source, String targetId, Long userId) {
+		return create(source, targetId, userId, this::publishToBroker);
+	}
+
+	/**
+	 * 묶인 출력을 RabbitMQ 대신 다른 경로(예: PTY direct stream)로 보낼 때 사용합니다.
+	 */
+	public OutputAggregator create(String source, String targetId, Long userId, Consumer<LogMessage> publisher) {
+		return new OutputAggregator(targetId, userId, publisher, taskScheduler, flushWindow, maxBatchBytes,
+			metersBySource.computeIfAbsent(source, this::createMeters));
+	}
+
+	public void publishToBroker(LogMessage message) {
+		rabbitTemplate.convertAndSend(logExchangeName, logRoutingKey, message);
+	}
+
+	private OutputAggregator.Meters createMeters(String source) {
+		return new OutputAggregator.Meters(
+			DistributionSummary.builder("terminal.output.batch.bytes")
+				.baseUnit("bytes")
+				.tag("source", source)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry),
+			DistributionSummary.builder("terminal.output.batch.frames")
+				.tag("source", source)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry),
+			Timer.builder("terminal.output.flush.latency")
+				.description("Time from the first buffered frame to publishing the batch")
+				.tag("source", source)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry));
+	}
+}
@@ -0,0 +1,115 @@
+package com.growlog.webide.workers.execution.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 컨테이너 출력 스트림 하나의 속도와 총량을 제한합니다.
+ *
+ * 읽은 바이트만큼 토큰 버킷에서 차감하고, 부족하면 Docker attach 콜백 스레드를 멈춥니다.
+ * 콜백이 멈추면 Docker 가 스트림을 더 읽지 않으므로 컨테이너 안의 프로세스는 파이프 쓰기에서 블록됩니다.
+ * 총량(maxBytes)을 넘은 출력은 전달하지 않고, 버린 바이트 수를 "[N bytes suppressed]" 표시로 주기적으로 알립니다.
+ */
+public class OutputLimiter {
+
+	private static final long MARKER_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final OutputLimits limits;
+	private final LongSupplier nanoClock;
+	private final Counter suppressedBytes;
+	private final Timer pauses;
+
+	private double tokens;
+	private long lastRefillNanos;
+	private long admittedBytes;
+	private long suppressed;
+	private long reportedSuppressed;
+	private long lastMarkerNanos;
+	private boolean closed;
+
+	OutputLimiter(OutputLimits limits, LongSupplier nanoClock, Counter suppressedBytes, Timer pauses) {
+		this.limits = limits;
+		this.nanoClock = nanoClock;
+		this.suppressedBytes = suppressedBytes;
+		this.pauses = pauses;
+		this.tokens = Math.max(limits.burstBytes(), 0);
+		this.lastRefillNanos = nanoClock.getAsLong();
+		this.lastMarkerNanos = lastRefillNanos;
+	}
+
+	/**
+	 * 프레임 하나를 읽을 수 있을 때까지 기다린 뒤, 그중 전달할 앞부분의 바이트 수를 반환합니다.
+	 * 총량을 넘은 부분은 버린 것으로 기록합니다.
+	 */
+	public synchronized int admit(int length) throws InterruptedException {
+		if (closed) {
+			return 0;
+		}
+		throttle(length);
+
+		int allowed = length;
+		if (limits.maxBytes() > 0) {
+			allowed = (int)Math.max(Math.min(length, limits.maxBytes() - admittedBytes), 0);
+		}
+		admittedBytes += allowed;
+		if (allowed < length) {
+			suppressed += length - allowed;
+			suppressedBytes.increment(length - allowed);
+		}
+		return allowed;
+	}
+
+	/**
+	 * 아직 알리지 않은 버린 바이트가 있으면 요약 표시를 반환합니다.
+	 * @param force true 이면 표시 간격과 관계없이 반환합니다. (스트림 종료 시)
+	 */
+	public synchronized String pollSuppressedMarker(boolean force) {
+		long now = nanoClock.getAsLong();
+		if (suppressed == reportedSuppressed || (!force && now - lastMarkerNanos < MARKER_INTERVAL_NANOS)) {
+			return null;
+		}
+		long count = suppressed - reportedSuppressed;
+		reportedSuppressed = suppressed;
+		lastMarkerNanos = now;
+		return "\r\n[" + count + " bytes suppressed]\r\n";
+	}
+
+	/**
+	 * 멈춰 있는 콜백 스레드를 깨우고, 이후 출력은 모두 버립니다.
+	 */
+	public synchronized void close() {
+		closed = true;
+		notifyAll();
+	}
+
+	private void throttle(int length) throws InterruptedException {
+		if (limits.bytesPerSecond() <= 0) {
+			return;
+		}
+		refill();
+		tokens -= length; // 버킷보다 큰 프레임도 한 번에 받고, 모자란 만큼 기다립니다.
+		if (tokens >= 0) {
+			return;
+		}
+		long started = nanoClock.getAsLong();
+		long waitNanos = (long)(-tokens * TimeUnit.SECONDS.toNanos(1) / limits.bytesPerSecond());
+		long deadline = started + waitNanos;
+		long remaining = waitNanos;
+		while (!closed && remaining > 0) {
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			remaining = deadline - nanoClock.getAsLong();
+		}
+		pauses.record(nanoClock.getAsLong() - started, TimeUnit.NANOSECONDS);
+		refill();
+	}
+
+	private void refill() {
+		long now = nanoClock.getAsLong();
+		double refilled = (now - lastRefillNanos) * (double)limits.bytesPerSecond() / TimeUnit.SECONDS.toNanos(1);
+		tokens = Math.min(tokens + refilled, Math.max(limits.burstBytes(), 0));
+		lastRefillNanos = now;
+	}
+}
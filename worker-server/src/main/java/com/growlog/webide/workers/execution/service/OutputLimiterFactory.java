@@ -0,0 +1,51 @@
+package com.growlog.webide.workers.execution.service;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 출력 출처(pty, execution)별 기본 제한에 이미지별 설정을 덮어써서 OutputLimiter 를 생성합니다.
+ */
+@Component
+public class OutputLimiterFactory {
+
+	private final MeterRegistry meterRegistry;
+	private final Map<String, OutputLimits> defaults;
+
+	public OutputLimiterFactory(MeterRegistry meterRegistry,
+		@Value("${log.output.limits.execution.bytes-per-second:1048576}") long executionBytesPerSecond,
+		@Value("${log.output.limits.execution.burst-bytes:262144}") long executionBurstBytes,
+		@Value("${log.output.limits.execution.max-bytes:5242880}") long executionMaxBytes,
+		@Value("${log.output.limits.pty.bytes-per-second:524288}") long ptyBytesPerSecond,
+		@Value("${log.output.limits.pty.burst-bytes:262144}") long ptyBurstBytes,
+		@Value("${log.output.limits.pty.max-bytes:0}") long ptyMaxBytes) {
+		this.meterRegistry = meterRegistry;
+		this.defaults = Map.of(
+			"execution", new OutputLimits(executionBytesPerSecond, executionBurstBytes, executionMaxBytes),
+			"pty", new OutputLimits(ptyBytesPerSecond, ptyBurstBytes, ptyMaxBytes));
+	}
+
+	/**
+	 * @param bytesPerSecond 이미지에 설정된 초당 출력 제한 (null 이면 기본값)
+	 * @param maxBytes       이미지에 설정된 총 출력 제한 (null 이면 기본값)
+	 */
+	public OutputLimiter create(String source, Long bytesPerSecond, Long maxBytes) {
+		OutputLimits limits = defaults.getOrDefault(source, new OutputLimits(0, 0, 0))
+			.override(bytesPerSecond, maxBytes);
+		Counter suppressed = Counter.builder("terminal.output.suppressed")
+			.baseUnit("bytes")
+			.tag("source", source)
+			.register(meterRegistry);
+		Timer pauses = Timer.builder("terminal.output.paused")
+			.description("Time the container output stream was paused by the rate limit")
+			.tag("source", source)
+			.register(meterRegistry);
+		return new OutputLimiter(limits, System::nanoTime, suppressed, pauses);
+	}
+}
@@ -0,0 +1,19 @@
+package com.growlog.webide.workers.execution.service;
+
+/**
+ * 실행/PTY 세션 하나의 출력 제한
+ *
+ * @param bytesPerSecond 초당 읽을 수 있는 출력 바이트 (0 이하면 제한 없음)
+ * @param burstBytes     순간적으로 허용하는 바이트 (토큰 버킷 크기)
+ * @param maxBytes       세션 전체에서 전달할 최대 바이트, 넘으면 버리고 요약 표시만 보냄 (0 이하면 제한 없음)
+ */
+public record OutputLimits(long bytesPerSecond, long burstBytes, long maxBytes) {
+
+	/**
+	 * 이미지별 설정값이 있으면 그 값을, 없으면(null) 기본값을 사용합니다.
+	 */
+	public OutputLimits override(Long bytesPerSecond, Long maxBytes) {
+		return new OutputLimits(bytesPerSecond != null ? bytesPerSecond : this.bytesPerSecond, burstBytes,
+			maxBytes != null ? maxBytes : this.maxBytes);
+	}
+}
@@ -0,0 +1,146 @@
+package com.growlog.webide.workers.execution.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.growlog.webide.workers.execution.dto.LogMessage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Worker 에서 실행 중인 PTY 세션 하나
+ *
+ * 입력은 exec 의 stdin 으로 연결된 스트림에 쓰고, 출력은 direct stream 이 붙어 있으면 그쪽으로,
+ * 없으면 RabbitMQ 로그 큐로 보냅니다.
+ * direct stream 은 세션 시작 응답(RabbitMQ)으로만 전달되는 세션별 토큰을 아는 쪽만 붙을 수 있습니다.
+ *
+ * [개선] 입력은 큐에 넣고 세션마다 하나인 writer 스레드가 스트림에 씁니다.
+ * PipedInputStream 은 마지막으로 쓴 스레드가 끝나면 빈 버퍼를 읽을 때 "Write end dead" 로 실패하므로,
+ * direct stream 연결 스레드처럼 먼저 끝나는 스레드가 직접 쓰면 재연결 뒤에 쉘의 stdin 이 끊깁니다.
+ */
+@Slf4j
+public class PtySession {
+
+	/**
+	 * Main-Server 와 직접 연결된 출력 경로
+	 */
+	public interface DirectSink {
+		boolean send(String sessionId, LogMessage message);
+	}
+
+	private static final SecureRandom TOKEN_RANDOM = new SecureRandom();
+	private static final int TOKEN_BYTES = 32;
+	private static final int INPUT_QUEUE_CAPACITY = 1024;
+	private static final byte[] END_OF_INPUT = new byte[0];
+
+	@Getter
+	private final String sessionId;
+	private final OutputStream input;
+	@Getter
+	private final String streamToken = newStreamToken();
+	private final BlockingQueue<byte[]> pendingInput = new LinkedBlockingQueue<>(INPUT_QUEUE_CAPACITY);
+	private final Thread inputWriter;
+	private volatile DirectSink directSink;
+	private volatile boolean inputClosed;
+
+	public PtySession(String sessionId, OutputStream input) {
+		this.sessionId = sessionId;
+		this.input = input;
+		this.inputWriter = Thread.ofVirtual().name("pty-input-" + sessionId).start(this::writeInput);
+	}
+
+	/**
+	 * direct stream ATTACH 에 실려 온 토큰이 이 세션의 토큰인지 상수 시간으로 비교합니다.
+	 */
+	public boolean matchesStreamToken(byte[] token) {
+		return MessageDigest.isEqual(streamToken.getBytes(StandardCharsets.US_ASCII), token);
+	}
+
+	/**
+	 * 입력을 writer 스레드에 넘깁니다. 큐가 가득 차면 writer 가 쓸 때까지 기다립니다.
+	 * @throws IOException 세션이 닫혔거나 이전 입력을 쓰지 못했을 때
+	 */
+	public void write(byte[] bytes) throws IOException {
+		if (inputClosed) {
+			throw new IOException("PTY input is closed for session " + sessionId);
+		}
+		try {
+			pendingInput.put(bytes);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while queueing PTY input for session " + sessionId);
+		}
+	}
+
+	public synchronized void attach(DirectSink sink) {
+		this.directSink = sink;
+	}
+
+	public synchronized void detach(DirectSink sink) {
+		if (this.directSink == sink) {
+			this.directSink = null;
+		}
+	}
+
+	/**
+	 * direct stream 으로 출력을 보냅니다.
+	 * @return 전송했으면 true, 연결된 stream 이 없거나 전송에 실패했으면 false (호출 측이 RabbitMQ 로 보냅니다)
+	 */
+	public boolean publishDirect(LogMessage message) {
+		DirectSink sink = this.directSink;
+		if (sink == null) {
+			return false;
+		}
+		if (sink.send(sessionId, message)) {
+			return true;
+		}
+		detach(sink);
+		return false;
+	}
+
+	/**
+	 * 이미 받은 입력을 쓴 뒤 스트림을 닫습니다. 큐가 가득 차 있으면 남은 입력은 버리고 바로 닫습니다.
+	 */
+	public void close() {
+		inputClosed = true;
+		if (!pendingInput.offer(END_OF_INPUT)) {
+			inputWriter.interrupt();
+		}
+	}
+
+	private void writeInput() {
+		try {
+			byte[] bytes;
+			while ((bytes = pendingInput.take()) != END_OF_INPUT) {
+				input.write(bytes);
+				input.flush();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			// 다음 write 가 IOException 을 받아 레지스트리에서 세션을 정리합니다.
+			log.warn("Failed to write to PTY for session {}", sessionId, e);
+		} finally {
+			inputClosed = true;
+			try {
+				input.close();
+			} catch (IOException e) {
+				log.error("Error closing PTY input stream for session {}", sessionId, e);
+			}
+		}
+	}
+
+	private static String newStreamToken() {
+		byte[] bytes = new byte[TOKEN_BYTES];
+		TOKEN_RANDOM.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
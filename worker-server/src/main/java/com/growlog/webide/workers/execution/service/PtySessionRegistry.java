@@ -0,0 +1,50 @@
+package com.growlog.webide.workers.execution.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이 Worker 에서 실행 중인 PTY 세션 목록
+ * RabbitMQ 리스너와 direct stream 서버가 같은 세션에 입력을 쓸 수 있도록 한 곳에서 관리합니다.
+ */
+@Slf4j
+@Component
+public class PtySessionRegistry {
+
+	private final Map<String, PtySession> sessions = new ConcurrentHashMap<>();
+
+	public void register(PtySession session) {
+		sessions.put(session.getSessionId(), session);
+	}
+
+	public PtySession get(String sessionId) {
+		return sessions.get(sessionId);
+	}
+
+	public void write(String sessionId, byte[] input) {
+		PtySession session = sessions.get(sessionId);
+		if (session == null) {
+			log.warn("Received command for a non-existent or closed session: {}", sessionId);
+			return;
+		}
+		try {
+			session.write(input);
+		} catch (IOException e) {
+			// 쉘이 끝나 PipedInputStream 이 닫혔거나 이전 입력을 쓰지 못했으면 IOException 발생
+			log.warn("Failed to write to PTY for session {}. It might be closed. Removing session.", sessionId);
+			close(sessionId);
+		}
+	}
+
+	public void close(String sessionId) {
+		PtySession session = sessions.remove(sessionId);
+		if (session != null) {
+			session.close();
+		}
+	}
+}
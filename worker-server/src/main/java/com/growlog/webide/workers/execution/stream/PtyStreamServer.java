@@ -0,0 +1,279 @@
+package com.growlog.webide.workers.execution.stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.growlog.webide.workers.execution.dto.LogMessage;
+import com.growlog.webide.workers.execution.service.PtySession;
+import com.growlog.webide.workers.execution.service.PtySessionRegistry;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Main-Server 가 접속하는 PTY direct stream 서버 (선택 기능)
+ *
+ * 연결 하나에 여러 PTY 세션의 입력/출력을 다중화합니다.
+ * 세션 시작/종료, 컨테이너 생명주기 같은 제어 메시지는 계속 RabbitMQ 로 주고받고, 이 연결은 PTY 바이트만 나릅니다.
+ * 연결이 끊기면 붙어 있던 세션의 출력은 자동으로 RabbitMQ 로 돌아갑니다.
+ *
+ * [보안] 리스너는 내부망 인터페이스(pty-stream.bind-address)에만 바인드합니다.
+ * 연결은 첫 프레임(HELLO)으로 공유 비밀(pty-stream.secret)을 보내야 하고, 세션은 시작 응답으로 받은
+ * 세션별 토큰을 ATTACH 에 실어야 붙을 수 있습니다. INPUT 은 이 연결에 ATTACH 된 세션에만 받습니다.
+ */
+@Slf4j
+@Component
+public class PtyStreamServer {
+
+	private static final int BACKLOG = 50;
+
+	private final PtySessionRegistry ptySessionRegistry;
+	private final boolean enabled;
+	private final int configuredPort;
+	private final String advertisedHost;
+	private final String bindAddress;
+	private final byte[] secret;
+	private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+	private final ExecutorService executor =
+		Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pty-stream-", 0).factory());
+	private volatile ServerSocket serverSocket;
+
+	public PtyStreamServer(PtySessionRegistry ptySessionRegistry,
+		@Value("${pty-stream.enabled:false}") boolean enabled,
+		@Value("${pty-stream.port:9091}") int configuredPort,
+		@Value("${pty-stream.advertised-host:}") String advertisedHost,
+		@Value("${pty-stream.bind-address:127.0.0.1}") String bindAddress,
+		@Value("${pty-stream.secret:}") String secret) {
+		this.ptySessionRegistry = ptySessionRegistry;
+		this.enabled = enabled;
+		this.configuredPort = configuredPort;
+		this.advertisedHost = StringUtils.hasText(advertisedHost) ? advertisedHost : hostName();
+		this.bindAddress = bindAddress;
+		this.secret = secret.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void startOnReady() throws IOException {
+		if (enabled) {
+			start();
+		}
+	}
+
+	public synchronized void start() throws IOException {
+		if (serverSocket != null) {
+			return;
+		}
+		if (secret.length == 0) {
+			log.error("pty-stream.secret is not set. PTY direct stream server is not started.");
+			return;
+		}
+		serverSocket = new ServerSocket(configuredPort, BACKLOG, InetAddress.getByName(bindAddress));
+		executor.execute(this::acceptLoop);
+		log.info("PTY direct stream server listening on {}:{}", bindAddress, serverSocket.getLocalPort());
+	}
+
+	/**
+	 * PTY 세션 시작 응답에 실어 보낼 접속 정보. 서버가 떠 있지 않으면 비어 있습니다.
+	 */
+	public Optional<Map<String, String>> advertisedEndpoint() {
+		ServerSocket socket = this.serverSocket;
+		if (socket == null || socket.isClosed()) {
+			return Optional.empty();
+		}
+		return Optional.of(Map.of(
+			"streamHost", advertisedHost,
+			"streamPort", String.valueOf(socket.getLocalPort())));
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	private void acceptLoop() {
+		ServerSocket socket = this.serverSocket;
+		while (!socket.isClosed()) {
+			try {
+				Socket client = socket.accept();
+				client.setTcpNoDelay(true);
+				Connection connection = new Connection(client);
+				connections.add(connection);
+				executor.execute(connection::serve);
+			} catch (IOException e) {
+				if (!socket.isClosed()) {
+					log.warn("Failed to accept PTY stream connection", e);
+				}
+			}
+		}
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		if (serverSocket != null) {
+			try {
+				serverSocket.close();
+			} catch (IOException e) {
+				log.debug("Error closing PTY stream server socket", e);
+			}
+		}
+		connections.forEach(Connection::close);
+		executor.shutdownNow();
+	}
+
+	private static String hostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			return "localhost";
+		}
+	}
+
+	private final class Connection implements PtySession.DirectSink {
+		private final Socket socket;
+		private final Set<String> attachedSessions = ConcurrentHashMap.newKeySet();
+		private DataOutputStream out;
+		private boolean authenticated;
+
+		private Connection(Socket socket) {
+			this.socket = socket;
+		}
+
+		private void serve() {
+			log.info("PTY stream connection opened from {}", socket.getRemoteSocketAddress());
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+				synchronized (this) {
+					out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				}
+				while (!socket.isClosed()) {
+					handle(PtyStreamFrame.readFrom(in));
+				}
+			} catch (EOFException e) {
+				log.info("PTY stream connection closed by {}", socket.getRemoteSocketAddress());
+			} catch (IOException e) {
+				if (!socket.isClosed()) {
+					log.warn("PTY stream connection from {} failed", socket.getRemoteSocketAddress(), e);
+				}
+			} finally {
+				close();
+			}
+		}
+
+		private void handle(PtyStreamFrame frame) {
+			if (!authenticated) {
+				authenticate(frame);
+				return;
+			}
+			switch (frame.type()) {
+				case PtyStreamFrame.INPUT -> {
+					if (attachedSessions.contains(frame.sessionId())) {
+						ptySessionRegistry.write(frame.sessionId(), frame.payload());
+					} else {
+						log.warn("Rejecting PTY stream input for unattached session {} from {}", frame.sessionId(),
+							socket.getRemoteSocketAddress());
+						reply(PtyStreamFrame.control(PtyStreamFrame.DETACH, frame.sessionId()));
+					}
+				}
+				case PtyStreamFrame.ATTACH -> attach(frame);
+				case PtyStreamFrame.DETACH -> detach(frame.sessionId());
+				default -> log.warn("Ignoring unknown PTY stream frame type {}", frame.type());
+			}
+		}
+
+		/**
+		 * 첫 프레임은 공유 비밀을 담은 HELLO 여야 합니다. 아니면 연결을 끊습니다.
+		 */
+		private void authenticate(PtyStreamFrame frame) {
+			if (frame.type() != PtyStreamFrame.HELLO || !MessageDigest.isEqual(secret, frame.payload())) {
+				log.warn("Rejecting unauthenticated PTY stream connection from {}", socket.getRemoteSocketAddress());
+				closeSocket();
+				return;
+			}
+			authenticated = true;
+		}
+
+		private void attach(PtyStreamFrame frame) {
+			PtySession session = ptySessionRegistry.get(frame.sessionId());
+			if (session == null || !session.matchesStreamToken(frame.payload())) {
+				log.warn("Rejecting PTY stream attach for session {} from {} (unknown session or invalid token)",
+					frame.sessionId(), socket.getRemoteSocketAddress());
+				reply(PtyStreamFrame.control(PtyStreamFrame.DETACH, frame.sessionId()));
+				return;
+			}
+			session.attach(this);
+			attachedSessions.add(frame.sessionId());
+			reply(PtyStreamFrame.control(PtyStreamFrame.ATTACHED, frame.sessionId()));
+		}
+
+		private synchronized void reply(PtyStreamFrame frame) {
+			if (out == null || socket.isClosed()) {
+				return;
+			}
+			try {
+				frame.writeTo(out);
+				out.flush();
+			} catch (IOException e) {
+				log.warn("Failed to write PTY stream control frame for session {}", frame.sessionId(), e);
+				closeSocket();
+			}
+		}
+
+		@Override
+		public synchronized boolean send(String sessionId, LogMessage message) {
+			if (out == null || socket.isClosed()) {
+				return false;
+			}
+			try {
+				PtyStreamFrame.output(sessionId, message).writeTo(out);
+				out.flush();
+				return true;
+			} catch (IOException e) {
+				log.warn("Failed to write PTY output to stream for session {}", sessionId, e);
+				closeSocket();
+				return false;
+			}
+		}
+
+		private void detach(String sessionId) {
+			attachedSessions.remove(sessionId);
+			PtySession session = ptySessionRegistry.get(sessionId);
+			if (session != null) {
+				session.detach(this);
+			}
+		}
+
+		private void close() {
+			attachedSessions.forEach(this::detach);
+			closeSocket();
+			connections.remove(this);
+		}
+
+		private void closeSocket() {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				log.debug("Error closing PTY stream socket", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.growlog.webide.workers.project;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 삭제할 디렉터리(tombstone)를 프로세스 안에서 여러 스레드로 나눠 지웁니다.
+ *
+ * EFS(NFS)는 unlink 한 번의 왕복 지연이 길어서 rm -rf 처럼 한 스레드로 지우면 큰 프로젝트는 몇 분씩 걸립니다.
+ * 하위 폴더마다 작업을 fork 하고, 쉬는 스레드가 다른 스레드의 작업을 가져가도록(work-stealing) ForkJoinPool 을 사용합니다.
+ * 심볼릭 링크는 따라가지 않고 링크 자신만 지웁니다.
+ */
+@Slf4j
+@Component
+public class ProjectDirectoryDeleter {
+
+	private final ForkJoinPool pool;
+	private final long progressLogIntervalNanos;
+	private final MeterRegistry meterRegistry;
+	// 같은 tombstone 을 두 번 지우지 않도록 (삭제 요청 직후의 시작 시 정리 등)
+	private final Set<Path> inProgress = ConcurrentHashMap.newKeySet();
+
+	public ProjectDirectoryDeleter(@Value("${project-delete.parallelism:8}") int parallelism,
+		@Value("${project-delete.progress-log-interval-ms:5000}") long progressLogIntervalMillis,
+		MeterRegistry meterRegistry) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.progressLogIntervalNanos = TimeUnit.MILLISECONDS.toNanos(progressLogIntervalMillis);
+		this.meterRegistry = meterRegistry;
+		Gauge.builder("project.delete.in-progress", inProgress, Set::size)
+			.description("Project directories being deleted in the background")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 백그라운드에서 지우고 지운 항목 수를 반환합니다. 이미 지우고 있는 디렉터리면 바로 0 을 반환합니다.
+	 */
+	public CompletableFuture<Long> deleteAsync(Path directory) {
+		if (!inProgress.add(directory)) {
+			return CompletableFuture.completedFuture(0L);
+		}
+		return CompletableFuture.supplyAsync(() -> delete(directory), pool)
+			.whenComplete((deleted, e) -> inProgress.remove(directory));
+	}
+
+	private long delete(Path directory) {
+		Progress progress = new Progress(directory);
+		try {
+			new DeleteTask(directory, progress).invoke();
+		} catch (RuntimeException e) {
+			meterRegistry.counter("project.delete.failures").increment();
+			log.error("Failed to delete directory. Path: {}, deleted entries: {}", directory, progress.deleted.get(),
+				e);
+			throw e;
+		}
+		long elapsedNanos = System.nanoTime() - progress.startedAt;
+		meterRegistry.timer("project.delete.duration").record(elapsedNanos, TimeUnit.NANOSECONDS);
+		log.info("Deleted directory. Path: {}, entries: {}, elapsed: {}ms, {} entries/s", directory,
+			progress.deleted.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+			String.format("%.0f", progress.deleted.get() / Math.max(elapsedNanos / 1e9, 1e-3)));
+		return progress.deleted.get();
+	}
+
+	private void deleteEntry(Path entry, Progress progress) {
+		try {
+			if (Files.deleteIfExists(entry)) {
+				progress.record();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		// 지우다 만 tombstone 은 다음 시작 때 다시 지웁니다.
+		pool.shutdownNow();
+	}
+
+	/**
+	 * 디렉터리 하나: 파일은 바로 지우고, 하위 폴더는 fork 한 뒤 모두 끝나면 자신을 지웁니다.
+	 */
+	private final class DeleteTask extends RecursiveAction {
+
+		private final Path directory;
+		private final Progress progress;
+
+		private DeleteTask(Path directory, Progress progress) {
+			this.directory = directory;
+			this.progress = progress;
+		}
+
+		@Override
+		protected void compute() {
+			List<DeleteTask> subtasks = new ArrayList<>();
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+				for (Path entry : entries) {
+					if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+						DeleteTask subtask = new DeleteTask(entry, progress);
+						subtask.fork();
+						subtasks.add(subtask);
+					} else {
+						deleteEntry(entry, progress);
+					}
+				}
+			} catch (NoSuchFileException e) {
+				// 다른 워커가 먼저 지운 경우
+				return;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			for (DeleteTask subtask : subtasks) {
+				subtask.join();
+			}
+			deleteEntry(directory, progress);
+		}
+	}
+
+	/**
+	 * 지운 항목 수. progress-log-interval-ms 마다 한 번씩만 진행 상황을 로그로 남깁니다.
+	 */
+	private final class Progress {
+
+		private final Path directory;
+		private final long startedAt = System.nanoTime();
+		private final AtomicLong deleted = new AtomicLong();
+		private final AtomicLong nextLogAt = new AtomicLong(startedAt + progressLogIntervalNanos);
+
+		private Progress(Path directory) {
+			this.directory = directory;
+		}
+
+		private void record() {
+			long count = deleted.incrementAndGet();
+			meterRegistry.counter("project.delete.entries").increment();
+			long now = System.nanoTime();
+			long logAt = nextLogAt.get();
+			if (now >= logAt && nextLogAt.compareAndSet(logAt, now + progressLogIntervalNanos)) {
+				double seconds = (now - startedAt) / 1e9;
+				log.info("Deleting directory. Path: {}, deleted entries: {}, {} entries/s", directory, count,
+					String.format("%.0f", count / seconds));
+			}
+		}
+	}
+}
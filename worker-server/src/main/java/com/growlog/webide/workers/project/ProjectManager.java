@@ -1,8 +1,19 @@
 package com.growlog.webide.workers.project;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
@@ -11,46 +22,81 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class ProjectManager {
 
+	// [추가] 삭제할 디렉터리를 옮겨 두는 곳 ({workspace-base-path}/.deleted-projects/{projectId}-{uuid})
+	static final String TOMBSTONE_DIRECTORY = ".deleted-projects";
+	// Main-Server 가 삭제한 파일/폴더를 보관하는 휴지통 ({workspace-base-path}/.trash/{projectId})
+	private static final String TRASH_DIRECTORY = ".trash";
+
 	// TODO: application-prod.yml 파일?
 	private final String efsBasePath;
 	private final ProjectManagementProducer projectManagementProducer;
+	private final ProjectDirectoryDeleter projectDirectoryDeleter;
 
 	public ProjectManager(@Value("${docker.host.workspace-base-path}") String efsBasePath,
-		ProjectManagementProducer projectManagementProducer) {
+		ProjectManagementProducer projectManagementProducer,
+		ProjectDirectoryDeleter projectDirectoryDeleter) {
 		this.efsBasePath = efsBasePath;
 		this.projectManagementProducer = projectManagementProducer;
+		this.projectDirectoryDeleter = projectDirectoryDeleter;
 	}
 
+	/**
+	 * [개선] 프로젝트 디렉터리를 tombstone 으로 rename 한 뒤 바로 삭제 성공을 알리고, 실제 삭제는 백그라운드에서 합니다.
+	 * rm -rf 프로세스가 끝날 때까지 RabbitMQ listener 스레드를 붙잡지 않습니다.
+	 */
 	public void handleProjectDeleteRequest(Long projectId) {
 		if (projectId == null) {
 			log.error("project id is empty");
 			return;
 		}
 
-		String projectPath = efsBasePath + "/" + projectId;
-
-		ProcessBuilder processBuilder = new ProcessBuilder("rm", "-rf", projectPath);
-
+		List<Path> tombstones = new ArrayList<>();
 		try {
-			log.info("Running rm command: {}", processBuilder.command());
-			Process process = processBuilder.start();
+			moveToTombstone(Path.of(efsBasePath, String.valueOf(projectId)), projectId + "-")
+				.ifPresent(tombstones::add);
+			moveToTombstone(Path.of(efsBasePath, TRASH_DIRECTORY, String.valueOf(projectId)), projectId + "-trash-")
+				.ifPresent(tombstones::add);
+		} catch (IOException e) {
+			log.error("Failed to move EFS directory to tombstone for project ID: {}", projectId, e);
+			throw new RuntimeException("EFS deletion failed while moving the project directory.", e);
+		}
 
-			int exitCode = process.waitFor();
+		log.info("Moved EFS directory to tombstone for project ID: {}, tombstones: {}", projectId, tombstones);
+		projectManagementProducer.sendDeleteSuccess(projectId);
+		tombstones.forEach(projectDirectoryDeleter::deleteAsync);
+	}
 
-			if (exitCode == 0) {
-				log.info("Successfully deleted EFS directory for project ID: {}", projectId);
-				projectManagementProducer.sendDeleteSuccess(projectId);
+	/**
+	 * [추가] 워커가 뜨면 이전 프로세스가 지우다 만 tombstone 을 다시 지웁니다.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void purgeTombstones() {
+		Path tombstoneRoot = Path.of(efsBasePath, TOMBSTONE_DIRECTORY);
+		if (!Files.isDirectory(tombstoneRoot)) {
+			return;
+		}
+		try (DirectoryStream<Path> tombstones = Files.newDirectoryStream(tombstoneRoot)) {
+			for (Path tombstone : tombstones) {
+				log.info("Purging leftover tombstone: {}", tombstone);
+				projectDirectoryDeleter.deleteAsync(tombstone);
 			}
+		} catch (IOException e) {
+			log.warn("Failed to look up leftover tombstones. Path: {}", tombstoneRoot, e);
+		}
+	}
 
-			if (exitCode != 0) {
-				log.error("Failed to delete EFS directory for project ID: {}. Exit code: {}", projectId, exitCode);
-				throw new RuntimeException("EFS deletion failed with exit code: " + exitCode);
-			}
-		} catch (IOException | InterruptedException e) {
-			log.error("Failed to delete EFS directory for project ID: {}", projectId, e);
-			Thread.currentThread().interrupt();
-			throw new RuntimeException("EFS deletion process was interrupted or failed.", e);
+	/**
+	 * 같은 EFS 안의 rename 이므로 하위 항목 수와 관계없이 한 번에 끝납니다. 디렉터리가 없으면 비어 있는 Optional 을 반환합니다.
+	 */
+	private Optional<Path> moveToTombstone(Path directory, String prefix) throws IOException {
+		Path tombstone = Path.of(efsBasePath, TOMBSTONE_DIRECTORY, prefix + UUID.randomUUID());
+		Files.createDirectories(tombstone.getParent());
+		try {
+			Files.move(directory, tombstone, StandardCopyOption.ATOMIC_MOVE);
+		} catch (NoSuchFileException e) {
+			return Optional.empty();
 		}
+		return Optional.of(tombstone);
 	}
 
 }
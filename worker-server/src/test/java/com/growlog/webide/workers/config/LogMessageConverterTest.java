@@ -0,0 +1,47 @@
+package com.growlog.webide.workers.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.growlog.webide.workers.execution.dto.LogMessage;
+
+class LogMessageConverterTest {
+
+	private final LogMessageConverter converter = new LogMessageConverter();
+
+	@Test
+	@DisplayName("바이너리로 직렬화한 LogMessage 를 그대로 복원")
+	void roundTripKeepsAllFields() {
+		String content = "\u001B[31merror\u001B[0m: 한글 출력 😀\r\n";
+		LogMessage original = new LogMessage("container-1", 7L, "stderr", content);
+
+		Message message = converter.toMessage(original, new MessageProperties());
+		LogMessage decoded = (LogMessage)converter.fromMessage(message);
+
+		assertThat(message.getMessageProperties().getContentType()).isEqualTo(LogMessageConverter.CONTENT_TYPE);
+		assertThat(decoded.getTargetId()).isEqualTo("container-1");
+		assertThat(decoded.getUserId()).isEqualTo(7L);
+		assertThat(decoded.getStreamType()).isEqualTo("stderr");
+		assertThat(decoded.getContent()).isEqualTo(content);
+	}
+
+	@Test
+	@DisplayName("content 를 String.getBytes(UTF_8) 와 같은 바이트로 인코딩")
+	void encodesUtf8LikeStringGetBytes() {
+		String content = "aé€😀\ud800b"; // 1, 2, 3, 4바이트 문자와 짝이 없는 surrogate
+
+		Message message = converter.toMessage(new LogMessage("t", null, "stdout", content), new MessageProperties());
+		LogMessage decoded = (LogMessage)converter.fromMessage(message);
+
+		byte[] expected = content.getBytes(StandardCharsets.UTF_8);
+		assertThat(message.getBody()).hasSize(LogMessageConverter.utf8Length("t") + expected.length + 12);
+		assertThat(decoded.getContent()).isEqualTo(new String(expected, StandardCharsets.UTF_8));
+		assertThat(decoded.getUserId()).isNull();
+	}
+}
@@ -0,0 +1,136 @@
+package com.growlog.webide.workers.execution.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.CopyArchiveToContainerCmd;
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.command.RemoveContainerCmd;
+import com.github.dockerjava.api.command.StartContainerCmd;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.growlog.webide.workers.config.ExecutionPoolProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExecutionContainerPoolTest {
+
+	private static final String IMAGE = "openjdk:17-jdk-slim";
+
+	private final DockerClient dockerClient = mock(DockerClient.class);
+	private final CreateContainerCmd createCmd = mock(CreateContainerCmd.class, RETURNS_SELF);
+	private final CopyArchiveToContainerCmd copyCmd = mock(CopyArchiveToContainerCmd.class, RETURNS_SELF);
+	private final RemoveContainerCmd removeCmd = mock(RemoveContainerCmd.class, RETURNS_SELF);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger created = new AtomicInteger();
+	private ExecutionContainerPool pool;
+
+	@BeforeEach
+	void setup() {
+		given(dockerClient.createContainerCmd(anyString())).willReturn(createCmd);
+		given(createCmd.exec()).willAnswer(invocation -> response("pooled-" + created.incrementAndGet()));
+		given(dockerClient.startContainerCmd(anyString())).willReturn(mock(StartContainerCmd.class));
+		given(dockerClient.copyArchiveToContainerCmd(anyString())).willReturn(copyCmd);
+		given(dockerClient.removeContainerCmd(anyString())).willReturn(removeCmd);
+
+		ExecutionPoolProperties.Image image = new ExecutionPoolProperties.Image();
+		image.setName(IMAGE);
+		image.setMin(1);
+		image.setMax(2);
+		ExecutionPoolProperties properties = new ExecutionPoolProperties();
+		properties.setEnabled(true);
+		properties.setImages(List.of(image));
+		// 컨테이너 생성/삭제를 호출한 스레드에서 바로 실행합니다.
+		pool = new ExecutionContainerPool(dockerClient, properties, meterRegistry, "/efs/projects", "/app",
+			Runnable::run);
+	}
+
+	@Test
+	@DisplayName("대기 컨테이너를 임대하면 그 프로젝트 디렉터리만 작업 경로로 복사하고 풀을 다시 채운다")
+	void leasesPrewarmedContainerAndCopiesProjectOnly() {
+		pool.maintain();
+
+		Optional<ExecutionContainerPool.Lease> lease = pool.lease(IMAGE, 7L);
+
+		assertThat(lease).map(ExecutionContainerPool.Lease::containerId).contains("pooled-1");
+		then(dockerClient).should().copyArchiveToContainerCmd("pooled-1");
+		then(copyCmd).should().withHostResource("/efs/projects/7");
+		then(copyCmd).should().withDirChildrenOnly(true);
+		then(copyCmd).should().withRemotePath("/app");
+		// 풀 컨테이너에는 아무것도 마운트하지 않습니다.
+		then(createCmd).should(never()).withHostConfig(any());
+		assertThat(created).hasValue(2);
+		assertThat(meterRegistry.counter("execution.pool.lease", "image", IMAGE, "result", "hit").count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("사용한 컨테이너는 폐기하고 최소 개수만큼 다시 채운다")
+	void discardsReleasedContainerAndRefills() {
+		pool.maintain();
+		ExecutionContainerPool.Lease lease = pool.lease(IMAGE, 7L).orElseThrow();
+
+		pool.release(lease);
+
+		then(dockerClient).should().removeContainerCmd("pooled-1");
+		then(removeCmd).should().withForce(true);
+		assertThat(pool.lease(IMAGE, 8L)).map(ExecutionContainerPool.Lease::containerId).contains("pooled-2");
+	}
+
+	@Test
+	@DisplayName("프로젝트 복사에 실패하면 컨테이너를 폐기하고 빈 결과로 기존 방식 실행에 맡긴다")
+	void fallsBackWhenCopyFails() {
+		pool.maintain();
+		given(copyCmd.exec()).willThrow(new NotFoundException("no such project"));
+
+		Optional<ExecutionContainerPool.Lease> lease = pool.lease(IMAGE, 7L);
+
+		assertThat(lease).isEmpty();
+		then(dockerClient).should().removeContainerCmd("pooled-1");
+		assertThat(meterRegistry.counter("execution.pool.lease", "image", IMAGE, "result", "miss").count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("컨테이너를 만들지 못하면 빈 결과를 반환하고 다음 주기에 다시 시도한다")
+	void fallsBackWhenPrewarmFails() {
+		willThrow(new NotFoundException("no such image")).given(createCmd).exec();
+
+		pool.maintain();
+
+		assertThat(pool.lease(IMAGE, 7L)).isEmpty();
+		then(dockerClient).should(never()).copyArchiveToContainerCmd(anyString());
+
+		willAnswer(invocation -> response("pooled-" + created.incrementAndGet())).given(createCmd).exec();
+		pool.maintain();
+
+		assertThat(pool.lease(IMAGE, 7L)).isPresent();
+	}
+
+	@Test
+	@DisplayName("설정에 없는 이미지이면 임대하지 않는다")
+	void doesNotLeaseUnknownImage() {
+		pool.maintain();
+
+		assertThat(pool.lease("python:3.11", 7L)).isEmpty();
+		then(dockerClient).should(never()).copyArchiveToContainerCmd(anyString());
+	}
+
+	private CreateContainerResponse response(String containerId) {
+		return new CreateContainerResponse() {
+			@Override
+			public String getId() {
+				return containerId;
+			}
+		};
+	}
+}
@@ -0,0 +1,91 @@
+package com.growlog.webide.workers.execution.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.growlog.webide.workers.execution.dto.LogMessage;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutputAggregatorTest {
+
+	@Mock // flush window 타이머는 직접 flush()를 호출하는 것으로 대신합니다.
+	private TaskScheduler taskScheduler;
+
+	private final List<LogMessage> published = new ArrayList<>();
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	private OutputAggregator aggregator(int maxBatchBytes) {
+		OutputAggregator.Meters meters = new OutputAggregator.Meters(
+			DistributionSummary.builder("bytes").register(meterRegistry),
+			DistributionSummary.builder("frames").register(meterRegistry),
+			Timer.builder("latency").register(meterRegistry));
+		return new OutputAggregator("container-1", 7L, published::add, taskScheduler, Duration.ofMillis(8),
+			maxBatchBytes, meters);
+	}
+
+	@Test
+	@DisplayName("여러 프레임을 하나의 메시지로 묶어서 발행")
+	void coalescesFramesWithinWindow() {
+		OutputAggregator aggregator = aggregator(8192);
+
+		aggregator.append("stdout", "hello ".getBytes(StandardCharsets.UTF_8));
+		aggregator.append("stdout", "world".getBytes(StandardCharsets.UTF_8));
+		assertThat(published).isEmpty();
+
+		aggregator.flush();
+
+		assertThat(published).hasSize(1);
+		assertThat(published.get(0).getContent()).isEqualTo("hello world");
+		assertThat(meterRegistry.summary("frames").totalAmount()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("프레임 경계에서 잘린 멀티바이트 문자도 깨지지 않음")
+	void decodesSplitMultibyteCharacters() {
+		OutputAggregator aggregator = aggregator(8192);
+		byte[] bytes = "가나다".getBytes(StandardCharsets.UTF_8); // 글자당 3바이트
+
+		aggregator.append("stdout", Arrays.copyOfRange(bytes, 0, 4));
+		aggregator.flush();
+		aggregator.append("stdout", Arrays.copyOfRange(bytes, 4, 9));
+		aggregator.close();
+
+		assertThat(published).extracting(LogMessage::getContent).containsExactly("가", "나다");
+	}
+
+	@Test
+	@DisplayName("최대 배치 크기를 넘으면 즉시 발행하고, 스트림 종류가 바뀌면 순서대로 나눠서 발행")
+	void flushesOnSizeAndStreamChange() {
+		OutputAggregator aggregator = aggregator(4);
+
+		aggregator.append("stdout", "abcd".getBytes(StandardCharsets.UTF_8));
+		aggregator.append("stdout", "e".getBytes(StandardCharsets.UTF_8));
+		aggregator.append("stderr", "x".getBytes(StandardCharsets.UTF_8));
+		aggregator.close();
+
+		assertThat(published).extracting(LogMessage::getStreamType).containsExactly("stdout", "stdout", "stderr");
+		assertThat(published).extracting(LogMessage::getContent).containsExactly("abcd", "e", "x");
+	}
+}
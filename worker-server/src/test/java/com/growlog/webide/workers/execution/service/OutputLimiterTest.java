@@ -0,0 +1,56 @@
+package com.growlog.webide.workers.execution.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutputLimiterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final Counter suppressed = meterRegistry.counter("suppressed");
+	private final Timer pauses = meterRegistry.timer("pauses");
+
+	@Test
+	@DisplayName("총량을 넘은 출력은 버리고, 버린 바이트 수를 요약 표시로 한 번만 알림")
+	void dropsOutputBeyondBudgetAndReportsIt() throws InterruptedException {
+		OutputLimiter limiter = new OutputLimiter(new OutputLimits(0, 0, 100), System::nanoTime, suppressed, pauses);
+
+		assertThat(limiter.admit(60)).isEqualTo(60);
+		assertThat(limiter.admit(60)).isEqualTo(40);
+		assertThat(limiter.admit(30)).isZero();
+
+		assertThat(limiter.pollSuppressedMarker(true)).isEqualTo("\r\n[50 bytes suppressed]\r\n");
+		assertThat(limiter.pollSuppressedMarker(true)).isNull();
+		assertThat(suppressed.count()).isEqualTo(50);
+	}
+
+	@Test
+	@DisplayName("속도 제한을 넘으면 호출 스레드가 멈추고, close 하면 즉시 깨어남")
+	void pausesCallerUntilTokensRefillOrClosed() throws Exception {
+		OutputLimiter limiter = new OutputLimiter(new OutputLimits(1_000, 100, 0), System::nanoTime, suppressed,
+			pauses);
+
+		long started = System.nanoTime();
+		assertThat(limiter.admit(150)).isEqualTo(150); // 50바이트가 모자라므로 약 50ms 대기
+		assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(40));
+
+		CompletableFuture<Integer> blocked = CompletableFuture.supplyAsync(() -> {
+			try {
+				return limiter.admit(60_000); // 약 60초 대기
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(50);
+		limiter.close();
+		assertThat(blocked.get(1, TimeUnit.SECONDS)).isEqualTo(60_000);
+	}
+}
@@ -0,0 +1,73 @@
+package com.growlog.webide.workers.execution.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PtySessionTest {
+
+	@Test
+	@DisplayName("입력을 쓴 스레드가 끝나도 PTY stdin 이 끊기지 않고 다음 입력을 읽는다")
+	void keepsStdinReadableAfterWriterThreadEnds() throws Exception {
+		PipedInputStream stdin = new PipedInputStream();
+		PtySession session = new PtySession("session-1", new PipedOutputStream(stdin));
+
+		// direct stream 연결 스레드처럼 입력을 쓰고 끝나는 스레드
+		writeFromShortLivedThread(session, "a");
+		assertThat(stdin.read()).isEqualTo('a');
+
+		// PipedInputStream 은 빈 버퍼를 읽는 동안 1초마다 마지막 writer 가 살아 있는지 보고, 두 번 넘게 죽어 있으면 실패합니다.
+		CompletableFuture<Integer> next = CompletableFuture.supplyAsync(() -> {
+			try {
+				return stdin.read();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(2_500);
+		writeFromShortLivedThread(session, "b");
+
+		assertThat(next.get(5, TimeUnit.SECONDS)).isEqualTo((int)'b');
+		session.close();
+	}
+
+	@Test
+	@DisplayName("close 는 이미 받은 입력을 쓴 뒤 스트림을 닫고, 그 뒤의 입력은 IOException 으로 거절한다")
+	void writesQueuedInputBeforeClosing() throws Exception {
+		ByteArrayOutputStream ptyInput = new ByteArrayOutputStream();
+		PipedInputStream stdin = new PipedInputStream();
+		PtySession session = new PtySession("session-1", new PipedOutputStream(stdin));
+
+		session.write("ls\r".getBytes(StandardCharsets.UTF_8));
+		session.close();
+
+		int b;
+		while ((b = stdin.read()) != -1) {
+			ptyInput.write(b);
+		}
+		assertThat(ptyInput.toString(StandardCharsets.UTF_8)).isEqualTo("ls\r");
+		assertThatThrownBy(() -> session.write("x".getBytes(StandardCharsets.UTF_8)))
+			.isInstanceOf(IOException.class);
+	}
+
+	private static void writeFromShortLivedThread(PtySession session, String input) throws InterruptedException {
+		Thread writer = Thread.ofPlatform().start(() -> {
+			try {
+				session.write(input.getBytes(StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		writer.join(5_000);
+		assertThat(writer.isAlive()).isFalse();
+	}
+}
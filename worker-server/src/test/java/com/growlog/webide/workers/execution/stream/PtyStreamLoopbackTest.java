@@ -0,0 +1,146 @@
+package com.growlog.webide.workers.execution.stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.growlog.webide.domain.terminal.service.LogBrokerService;
+import com.growlog.webide.domain.terminal.stream.PtyStreamClient;
+import com.growlog.webide.workers.execution.dto.LogMessage;
+import com.growlog.webide.workers.execution.service.PtySession;
+import com.growlog.webide.workers.execution.service.PtySessionRegistry;
+
+/**
+ * 같은 JVM 안에서 Worker 의 stream 서버에 Main-Server 의 실제 PtyStreamClient 로 접속해
+ * PTY 입출력이 오가는지, 인증되지 않은 연결/ATTACH 가 거절되는지 확인합니다.
+ */
+class PtyStreamLoopbackTest {
+
+	private static final String SESSION_ID = "ws-session-1";
+	private static final String SECRET = "test-secret";
+
+	private final ByteArrayOutputStream ptyInput = new ByteArrayOutputStream();
+	private final LogBrokerService logBrokerService = mock(LogBrokerService.class);
+	private PtySession session;
+	private PtyStreamServer server;
+	private PtyStreamClient client;
+
+	@BeforeEach
+	void setup() throws Exception {
+		PtySessionRegistry registry = new PtySessionRegistry();
+		session = new PtySession(SESSION_ID, ptyInput);
+		registry.register(session);
+
+		server = new PtyStreamServer(registry, true, 0, "localhost", "127.0.0.1", SECRET);
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (client != null) {
+			client.shutdown();
+		}
+		server.stop();
+	}
+
+	@Test
+	@DisplayName("direct stream 으로 입력이 PTY 에 쓰이고, 출력이 Main-Server 로 돌아옴")
+	void roundTripsInputAndOutput() throws Exception {
+		client = new PtyStreamClient(logBrokerService, true, 2000, SECRET);
+
+		// when: 세션 시작 응답의 토큰으로 붙이고 입력을 보냄
+		client.attach(SESSION_ID, startReply(session.getStreamToken()));
+		assertThat(client.sendInput(SESSION_ID, "ls -al\r".getBytes(StandardCharsets.UTF_8))).isTrue();
+
+		// then: 입력이 PTY 에 그대로 쓰임
+		awaitTrue(() -> ptyInput.size() == 7);
+		assertThat(ptyInput.toString(StandardCharsets.UTF_8)).isEqualTo("ls -al\r");
+
+		// and: PTY 출력이 RabbitMQ 대신 연결로 전달됨
+		assertThat(session.publishDirect(new LogMessage("container-1", 7L, "stdout", "합계 0\r\n"))).isTrue();
+		verify(logBrokerService, timeout(5_000)).forwardLogToUser(argThat(message ->
+			"container-1".equals(message.getTargetId())
+				&& message.getUserId() == 7L
+				&& "stdout".equals(message.getStreamType())
+				&& "합계 0\r\n".equals(message.getContent())));
+
+		// 연결이 끊기면 세션 출력은 다시 RabbitMQ 경로로 돌아감
+		client.shutdown();
+		LogMessage afterClose = new LogMessage("container-1", 7L, "stdout", "x");
+		awaitTrue(() -> !session.publishDirect(afterClose));
+	}
+
+	@Test
+	@DisplayName("공유 비밀이 다르면 연결이 거절되고 ATTACH 되지 않음")
+	void rejectsConnectionWithWrongSecret() throws Exception {
+		client = new PtyStreamClient(logBrokerService, true, 2000, "wrong-secret");
+
+		client.attach(SESSION_ID, startReply(session.getStreamToken()));
+
+		assertThat(client.sendInput(SESSION_ID, "rm -rf /\r".getBytes(StandardCharsets.UTF_8))).isFalse();
+		assertThat(session.publishDirect(new LogMessage("container-1", 7L, "stdout", "x"))).isFalse();
+		assertThat(ptyInput.size()).isZero();
+	}
+
+	@Test
+	@DisplayName("세션 토큰이 다르면 ATTACH 가 거절되고 입력은 RabbitMQ 경로로 돌아감")
+	void rejectsAttachWithWrongToken() throws Exception {
+		client = new PtyStreamClient(logBrokerService, true, 2000, SECRET);
+
+		client.attach(SESSION_ID, startReply("not-the-token"));
+
+		assertThat(client.sendInput(SESSION_ID, "whoami\r".getBytes(StandardCharsets.UTF_8))).isFalse();
+		assertThat(session.publishDirect(new LogMessage("container-1", 7L, "stdout", "x"))).isFalse();
+		assertThat(ptyInput.size()).isZero();
+	}
+
+	@Test
+	@DisplayName("HELLO 없이 보낸 ATTACH/INPUT 은 처리되지 않고 연결이 끊김")
+	void closesConnectionWithoutHello() throws Exception {
+		try (Socket raw = new Socket("127.0.0.1", server.getPort())) {
+			DataOutputStream out = new DataOutputStream(raw.getOutputStream());
+			DataInputStream in = new DataInputStream(raw.getInputStream());
+
+			new PtyStreamFrame(PtyStreamFrame.ATTACH, SESSION_ID,
+				session.getStreamToken().getBytes(StandardCharsets.US_ASCII)).writeTo(out);
+			new PtyStreamFrame(PtyStreamFrame.INPUT, SESSION_ID, "id\r".getBytes(StandardCharsets.UTF_8))
+				.writeTo(out);
+			out.flush();
+
+			assertThatThrownBy(() -> PtyStreamFrame.readFrom(in)).isInstanceOf(IOException.class);
+		}
+		assertThat(ptyInput.size()).isZero();
+		assertThat(session.publishDirect(new LogMessage("container-1", 7L, "stdout", "x"))).isFalse();
+	}
+
+	private Map<String, String> startReply(String streamToken) {
+		return Map.of(
+			"streamHost", "127.0.0.1",
+			"streamPort", String.valueOf(server.getPort()),
+			"streamToken", streamToken);
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Condition was not met within 5 seconds");
+			}
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.growlog.webide.workers.project;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProjectManagerTest {
+
+	@TempDir
+	Path base;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ProjectDirectoryDeleter deleter = new ProjectDirectoryDeleter(4, 5000, meterRegistry);
+	private final ProjectManagementProducer producer = mock(ProjectManagementProducer.class);
+
+	@AfterEach
+	void tearDown() {
+		deleter.shutdown();
+	}
+
+	@Test
+	@DisplayName("프로젝트 디렉터리를 tombstone 으로 옮기자마자 삭제 성공을 알리고, 백그라운드에서 하위 항목까지 지운다")
+	void movesToTombstoneThenDeletesInBackground() throws Exception {
+		Path project = Files.createDirectories(base.resolve("1"));
+		for (int i = 0; i < 20; i++) {
+			Files.writeString(Files.createDirectories(project.resolve("node_modules/pkg" + i + "/lib"))
+				.resolve("index.js"), "module.exports = " + i);
+		}
+		Files.createDirectories(base.resolve(".trash/1/old"));
+		ProjectManager projectManager = new ProjectManager(base.toString(), producer, deleter);
+
+		projectManager.handleProjectDeleteRequest(1L);
+
+		assertThat(project).doesNotExist();
+		assertThat(base.resolve(".trash/1")).doesNotExist();
+		verify(producer).sendDeleteSuccess(1L);
+
+		// 프로젝트: 파일 20 + 폴더 (pkg, lib) 40 + node_modules + 루트, 휴지통: old + 루트
+		awaitDeletedEntries(64);
+		try (Stream<Path> tombstones = Files.list(base.resolve(ProjectManager.TOMBSTONE_DIRECTORY))) {
+			assertThat(tombstones).isEmpty();
+		}
+	}
+
+	@Test
+	@DisplayName("이미 없는 프로젝트도 삭제 성공으로 알리고, 심볼릭 링크가 가리키는 바깥 파일은 지우지 않는다")
+	void toleratesMissingProjectAndDoesNotFollowSymlinks() throws Exception {
+		ProjectManager projectManager = new ProjectManager(base.toString(), producer, deleter);
+		projectManager.handleProjectDeleteRequest(2L);
+		verify(producer).sendDeleteSuccess(2L);
+
+		Path outside = Files.writeString(Files.createDirectories(base.resolve("outside")).resolve("keep.txt"), "keep");
+		Path tombstone = Files.createDirectories(base.resolve(ProjectManager.TOMBSTONE_DIRECTORY + "/3-leftover"));
+		Files.createSymbolicLink(tombstone.resolve("link"), outside.getParent());
+
+		projectManager.purgeTombstones();
+
+		// 링크 + 루트
+		awaitDeletedEntries(2);
+		assertThat(tombstone).doesNotExist();
+		assertThat(outside).hasContent("keep");
+	}
+
+	private void awaitDeletedEntries(long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (meterRegistry.counter("project.delete.entries").count() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(meterRegistry.counter("project.delete.entries").count()).isEqualTo(expected);
+	}
+}